@@ -0,0 +1,67 @@
+package com.semchishin.api.configuration;
+
+import com.semchishin.api.util.Headers;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import semchishin.core.model.Transaction;
+
+import java.security.Principal;
+
+/**
+ * Decides whether a caller may work on the account named by the
+ * {@link Headers#ACCOUNT_ID} header.
+ * <p>
+ * The service does not authenticate callers, and the header is chosen by the
+ * client, so it cannot tell accounts apart on its own. The default account is
+ * open to every caller. Any other account is only served to a principal
+ * authenticated in front of the controllers, by the servlet container or a
+ * security filter, whose name is the account ID. A deployment behind a gateway
+ * that authenticates callers and sets the header itself can trust the header
+ * instead.
+ * </p>
+ *
+ * <p>Configuration properties:</p>
+ * <ul>
+ *     <li>{@code fintrack.accounts.trusted-header} - accept the header of any caller, only behind
+ *     such a gateway</li>
+ * </ul>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+@Component
+public class AccountAccess {
+
+    private final boolean trustedHeader;
+
+    public AccountAccess(@Value("${fintrack.accounts.trusted-header:false}") boolean trustedHeader) {
+        this.trustedHeader = trustedHeader;
+    }
+
+    /**
+     * Parses the account header.
+     *
+     * @param header the header value, may be {@code null}
+     * @return the account, the default one without a header, {@code null} if the header is malformed
+     */
+    public static Long parse(String header) {
+        try {
+            return header == null ? Transaction.DEFAULT_ACCOUNT_ID : Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns whether the caller may work on the account.
+     *
+     * @param accountId the account of the request
+     * @param principal the authenticated caller, {@code null} if not authenticated
+     * @return {@code true} if the request may be served
+     */
+    public boolean permits(long accountId, Principal principal) {
+        return trustedHeader
+                || accountId == Transaction.DEFAULT_ACCOUNT_ID
+                || principal != null && principal.getName().equals(Long.toString(accountId));
+    }
+}
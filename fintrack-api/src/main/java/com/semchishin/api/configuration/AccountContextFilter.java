@@ -0,0 +1,52 @@
+package com.semchishin.api.configuration;
+
+import com.semchishin.api.util.Headers;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import semchishin.core.configuration.Profiles;
+import semchishin.core.datasource.AccountContext;
+
+import java.io.IOException;
+
+/**
+ * Binds the account of the {@link Headers#ACCOUNT_ID} header to the request
+ * thread, so its connections are taken from the database of the account.
+ * Controllers read the same header to scope their queries. A malformed header
+ * is left to the controllers, which reject it with 400 Bad Request; an account
+ * the caller may not work on, see {@link AccountAccess}, is rejected with
+ * 403 Forbidden.
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+@Component
+@Profile("!" + Profiles.REACTIVE)
+@RequiredArgsConstructor
+public class AccountContextFilter extends OncePerRequestFilter {
+
+    private final AccountAccess accountAccess;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Long accountId = AccountAccess.parse(request.getHeader(Headers.ACCOUNT_ID));
+        if (accountId == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!accountAccess.permits(accountId, request.getUserPrincipal())) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN,
+                    String.format("Account %d is not accessible to the caller", accountId));
+            return;
+        }
+        try (AccountContext.Binding ignored = AccountContext.bind(accountId)) {
+            chain.doFilter(request, response);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.semchishin.api.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.semchishin.api.mapper.TransactionDtoMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import semchishin.core.metrics.OperationMetricsInterceptor;
+import semchishin.core.metrics.OperationMetricsPostProcessor;
+
+import java.time.Duration;
+
+/**
+ * Instruments the API layer on top of the repository and service meters of the core.
+ * Controllers are measured by the {@code http.server.requests} timer of Spring Boot.
+ */
+@Configuration
+public class ApiMetricsConfig {
+
+    /**
+     * Times every call of the MapStruct mappers between models and DTOs.
+     */
+    @Bean
+    public static OperationMetricsPostProcessor mapperMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        String mapperPackage = TransactionDtoMapper.class.getPackageName();
+        return new OperationMetricsPostProcessor(type -> type.getPackageName().equals(mapperPackage),
+                new OperationMetricsInterceptor(meterRegistry, "mapper", Duration.ZERO));
+    }
+
+    /**
+     * Replaces the JSON converter of Spring MVC with one that times serialization.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                                   MeterRegistry meterRegistry) {
+        return new MeteredJacksonHttpMessageConverter(objectMapper, meterRegistry);
+    }
+}
@@ -0,0 +1,44 @@
+package com.semchishin.api.configuration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import semchishin.core.datasource.AccountRouter;
+import semchishin.core.datasource.AccountRoutingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Migrates the database of every account route at startup.
+ * Spring Boot runs Flyway against the {@link DataSource} bean, which reaches only the shared database
+ * when accounts are routed, so the dedicated databases are migrated here with the same configuration.
+ * A failed migration of any route stops the startup.
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+@Slf4j
+@Configuration
+public class FlywayConfig {
+
+    @Bean
+    public FlywayMigrationStrategy routedMigrationStrategy(DataSource dataSource) {
+        return flyway -> {
+            flyway.migrate();
+            if (dataSource instanceof AccountRoutingDataSource routing) {
+                routing.targets().forEach((route, target) -> {
+                    if (!AccountRouter.DEFAULT_ROUTE.equals(route)) {
+                        log.info("Migrating the database of route {}", route);
+                        Flyway.configure()
+                                .configuration(flyway.getConfiguration())
+                                .dataSource(target)
+                                .load()
+                                .migrate();
+                    }
+                });
+            }
+        };
+    }
+}
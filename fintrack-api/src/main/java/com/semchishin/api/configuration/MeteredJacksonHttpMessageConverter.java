@@ -0,0 +1,60 @@
+package com.semchishin.api.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JSON message converter that times the serialization of response bodies.
+ * <p>
+ * Records a {@value #TIMER_NAME} timer per declared body type. The time
+ * includes writing to the response buffer, which blocks only once the
+ * buffer is full and the client reads slowly.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+public class MeteredJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    /**
+     * Name of the serialization timer.
+     */
+    public static final String TIMER_NAME = "fintrack.serialization";
+
+    private final MeterRegistry registry;
+
+    private final Map<Type, Timer> timers = new ConcurrentHashMap<>();
+
+    public MeteredJacksonHttpMessageConverter(ObjectMapper objectMapper, MeterRegistry registry) {
+        super(objectMapper);
+        this.registry = registry;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            sample.stop(timerOf(type != null ? type : object.getClass()));
+        }
+    }
+
+    private Timer timerOf(Type type) {
+        return timers.computeIfAbsent(type, t -> Timer.builder(TIMER_NAME)
+                .description("Time to serialize a response body to JSON")
+                .tag("type", t.getTypeName().replaceAll("[\\w$]+\\.", ""))
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+}
@@ -0,0 +1,45 @@
+package com.semchishin.api.configuration;
+
+import com.semchishin.api.util.Headers;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import semchishin.core.configuration.Profiles;
+
+/**
+ * Reactive counterpart of {@link AccountContextFilter}: rejects a request for
+ * an account the caller may not work on, see {@link AccountAccess}, with
+ * 403 Forbidden. The account is bound to the database by the repository,
+ * a malformed header is left to the controllers.
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+@Component
+@Profile(Profiles.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveAccountFilter implements WebFilter {
+
+    private final AccountAccess accountAccess;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        Long accountId = AccountAccess.parse(exchange.getRequest().getHeaders().getFirst(Headers.ACCOUNT_ID));
+        if (accountId == null || accountAccess.permits(accountId, null)) {
+            return chain.filter(exchange);
+        }
+        return exchange.getPrincipal()
+                .map(principal -> accountAccess.permits(accountId, principal))
+                .defaultIfEmpty(false)
+                .flatMap(permitted -> permitted
+                        ? chain.filter(exchange)
+                        : Mono.error(new ResponseStatusException(HttpStatus.FORBIDDEN,
+                        String.format("Account %d is not accessible to the caller", accountId))));
+    }
+}
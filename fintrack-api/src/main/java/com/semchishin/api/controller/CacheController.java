@@ -0,0 +1,29 @@
+package com.semchishin.api.controller;
+
+import com.semchishin.api.dto.CacheStatisticsDto;
+import com.semchishin.api.mapper.CacheStatisticsDtoMapper;
+import com.semchishin.api.util.Path;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import semchishin.core.configuration.Profiles;
+import semchishin.core.service.transaction.impl.CachingTransactionService;
+
+@RestController
+@Profile("!" + Profiles.REACTIVE)
+@RequiredArgsConstructor
+@RequestMapping(Path.API + Path.CACHE)
+public class CacheController {
+
+    private final CachingTransactionService cachingTransactionService;
+
+    private final CacheStatisticsDtoMapper cacheStatisticsDtoMapper;
+
+    @GetMapping(Path.TRANSACTION)
+    public CacheStatisticsDto getTransactionCacheStatistics() {
+        return cacheStatisticsDtoMapper.toDto(cachingTransactionService.getCacheStatistics());
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.semchishin.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.semchishin.api.dto.ChangeBatchDto;
+import com.semchishin.api.dto.ChangeFeedStatisticsDto;
+import com.semchishin.api.mapper.ChangeFeedDtoMapper;
+import com.semchishin.api.util.Path;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import semchishin.core.configuration.Profiles;
+import semchishin.core.datasource.AccountRouter;
+import semchishin.core.model.ChangeBatch;
+import semchishin.core.service.change.ChangeFeedService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+@RestController
+@Profile("!" + Profiles.REACTIVE)
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:3000")
+@RequestMapping(Path.API + Path.CHANGES)
+public class ChangeController {
+
+    /**
+     * Longest wait a long-poll request may ask for.
+     */
+    private static final int MAX_WAIT_SECONDS = 30;
+
+    /**
+     * Idle time after which the event stream sends a comment line, which keeps
+     * proxies from closing the connection and detects departed clients.
+     */
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(15);
+
+    private static final byte[] HEARTBEAT = ":\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final ChangeFeedService changeFeedService;
+
+    private final ChangeFeedDtoMapper changeFeedDtoMapper;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Reads the feed of one database, the shared one unless a route of a
+     * dedicated database is given; positions of different routes are unrelated.
+     */
+    @GetMapping
+    public ChangeBatchDto getChanges(
+            @RequestParam(defaultValue = AccountRouter.DEFAULT_ROUTE) String route,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "500") int limit,
+            @RequestParam(defaultValue = "0") int waitSeconds
+    ) {
+        requireRoute(route);
+        Duration wait = Duration.ofSeconds(Math.clamp(waitSeconds, 0, MAX_WAIT_SECONDS));
+        try {
+            return changeFeedDtoMapper.toDto(changeFeedService.poll(route, after, limit, wait));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for changes", e);
+        }
+    }
+
+    /**
+     * Streams the feed of a route as server-sent events, one {@code changes} event per
+     * batch with the last sequence number as event ID, so a reconnecting
+     * client resumes through the {@code Last-Event-ID} header.
+     */
+    @GetMapping(Path.STREAM)
+    public ResponseEntity<StreamingResponseBody> streamChanges(
+            @RequestParam(defaultValue = AccountRouter.DEFAULT_ROUTE) String route,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "500") int limit,
+            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId
+    ) {
+        requireRoute(route);
+        long start = lastEventId != null ? lastEventId : after;
+        StreamingResponseBody body = out -> writeEvents(out, route, start, limit);
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(body);
+    }
+
+    @GetMapping(Path.STATISTICS)
+    public ChangeFeedStatisticsDto getChangeFeedStatistics() {
+        return changeFeedDtoMapper.toDto(changeFeedService.getStatistics());
+    }
+
+    /**
+     * Writes batches until the client goes away or the async request times out.
+     */
+    private void writeEvents(OutputStream out, String route, long after, int limit) throws IOException {
+        long cursor = after;
+        try {
+            while (true) {
+                ChangeBatch batch = changeFeedService.poll(route, cursor, limit, HEARTBEAT_INTERVAL);
+                if (batch.getChanges().isEmpty()) {
+                    out.write(HEARTBEAT);
+                } else {
+                    cursor = batch.getLastSequenceNumber();
+                    out.write(("id: " + cursor + "\nevent: changes\ndata: ").getBytes(StandardCharsets.UTF_8));
+                    out.write(objectMapper.writeValueAsBytes(changeFeedDtoMapper.toDto(batch)));
+                    out.write('\n');
+                    out.write('\n');
+                }
+                out.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void requireRoute(String route) {
+        if (!changeFeedService.getRoutes().contains(route)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, String.format("Unknown route %s", route));
+        }
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.semchishin.api.controller;
+
+import com.semchishin.api.dto.FxRateDto;
+import com.semchishin.api.mapper.FxRateDtoMapper;
+import com.semchishin.api.util.Path;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import semchishin.core.configuration.Profiles;
+import semchishin.core.service.fx.FxRateService;
+
+import java.util.List;
+
+@RestController
+@Profile("!" + Profiles.REACTIVE)
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:3000")
+@RequestMapping(Path.API + Path.FX_RATES)
+public class FxRateController {
+
+    private final FxRateService fxRateService;
+
+    private final FxRateDtoMapper fxRateDtoMapper;
+
+    @GetMapping
+    public List<FxRateDto> getRates() {
+        return fxRateDtoMapper.toDtoList(fxRateService.getRates().toList());
+    }
+
+    @PutMapping
+    public List<FxRateDto> saveRates(@RequestBody List<FxRateDto> fxRateDtos) {
+        try {
+            fxRateService.saveRates(fxRateDtoMapper.toEntityList(fxRateDtos));
+        } catch (IllegalArgumentException | ArithmeticException | NullPointerException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        return getRates();
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.semchishin.api.controller;
+
+import com.semchishin.api.dto.TransactionDto;
+import com.semchishin.api.exception.TransactionNotFoundException;
+import com.semchishin.api.mapper.TransactionDtoMapper;
+import com.semchishin.api.util.Headers;
+import com.semchishin.api.util.Path;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import semchishin.core.configuration.Profiles;
+import semchishin.core.model.Transaction;
+import semchishin.core.service.transaction.ReactiveTransactionService;
+
+/**
+ * WebFlux counterpart of {@link TransactionController}, serving the same
+ * transaction routes on the event loop when the {@link Profiles#REACTIVE}
+ * profile is active.
+ * <p>
+ * The listing is streamed as a JSON array, or as newline-delimited JSON when
+ * requested with {@code Accept: application/x-ndjson}; rows are read from the
+ * database only as fast as the client consumes them.
+ * </p>
+ *
+ * <p>
+ * Requests are scoped to the account of the {@link Headers#ACCOUNT_ID} header
+ * like those of {@link TransactionController}, but every account is served
+ * from the shared database.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+@RestController
+@Profile(Profiles.REACTIVE)
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:3000")
+@RequestMapping(Path.API + Path.TRANSACTION)
+public class ReactiveTransactionController {
+
+    private final ReactiveTransactionService transactionService;
+
+    private final TransactionDtoMapper transactionDtoMapper;
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<TransactionDto> getAllTransactions(
+            @RequestHeader(value = Headers.ACCOUNT_ID, defaultValue = Headers.DEFAULT_ACCOUNT_ID) long accountId
+    ) {
+        return transactionService.findAllTransactions(accountId).map(transactionDtoMapper::toDto);
+    }
+
+    @GetMapping(Path.ID)
+    public Mono<TransactionDto> getTransactionById(
+            @PathVariable Long id,
+            @RequestHeader(value = Headers.ACCOUNT_ID, defaultValue = Headers.DEFAULT_ACCOUNT_ID) long accountId
+    ) {
+        return transactionService.findTransactionById(accountId, id)
+                .map(transactionDtoMapper::toDto)
+                .switchIfEmpty(Mono.error(() -> new TransactionNotFoundException(
+                        String.format("Transaction with id = %d not found", id)
+                )));
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<TransactionDto>> createTransaction(
+            @RequestBody TransactionDto transactionDto,
+            @RequestHeader(value = Headers.ACCOUNT_ID, defaultValue = Headers.DEFAULT_ACCOUNT_ID) long accountId
+    ) {
+        Transaction transaction = transactionDtoMapper.toEntity(transactionDto);
+        transaction.setAccountId(accountId);
+        return transactionService.addTransaction(transaction)
+                .map(saved -> ResponseEntity.status(HttpStatus.CREATED)
+                        .body(transactionDtoMapper.toDto(saved)));
+    }
+
+    @PutMapping(Path.ID)
+    public Mono<ResponseEntity<Void>> updateTransaction(
+            @RequestBody TransactionDto transactionDto,
+            @PathVariable Long id,
+            @RequestHeader(value = Headers.ACCOUNT_ID, defaultValue = Headers.DEFAULT_ACCOUNT_ID) long accountId
+    ) {
+        Transaction transaction = transactionDtoMapper.toEntity(transactionDto);
+        transaction.setTransactionId(id);
+        transaction.setAccountId(accountId);
+        return transactionService.updateTransaction(transaction)
+                .then(Mono.just(ResponseEntity.status(HttpStatus.OK).build()));
+    }
+
+    @DeleteMapping(Path.ID)
+    public Mono<ResponseEntity<Void>> deleteTransaction(
+            @PathVariable Long id,
+            @RequestHeader(value = Headers.ACCOUNT_ID, defaultValue = Headers.DEFAULT_ACCOUNT_ID) long accountId
+    ) {
+        return transactionService.deleteTransaction(accountId, id)
+                .then(Mono.just(ResponseEntity.status(HttpStatus.NO_CONTENT).build()));
+    }
+}
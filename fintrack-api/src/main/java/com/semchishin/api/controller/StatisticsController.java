@@ -0,0 +1,84 @@
+package com.semchishin.api.controller;
+
+import com.semchishin.api.dto.CategoryStatisticsDto;
+import com.semchishin.api.dto.TimeSeriesPointDto;
+import com.semchishin.api.dto.TransactionFilterDto;
+import com.semchishin.api.dto.TransactionSummaryDto;
+import com.semchishin.api.mapper.StatisticsDtoMapper;
+import com.semchishin.api.mapper.TransactionFilterDtoMapper;
+import com.semchishin.api.util.Headers;
+import com.semchishin.api.util.Path;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import semchishin.core.configuration.Profiles;
+import semchishin.core.exception.FxRateNotFoundException;
+import semchishin.core.model.TimeBucket;
+import semchishin.core.service.statistics.StatisticsService;
+
+import java.util.List;
+
+@RestController
+@Profile("!" + Profiles.REACTIVE)
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:3000")
+@RequestMapping(Path.API + Path.STATISTICS)
+public class StatisticsController {
+
+    private final StatisticsService statisticsService;
+
+    private final StatisticsDtoMapper statisticsDtoMapper;
+
+    private final TransactionFilterDtoMapper transactionFilterDtoMapper;
+
+    @GetMapping(Path.SUMMARY)
+    public TransactionSummaryDto getSummary(
+            TransactionFilterDto filterDto,
+            @RequestHeader(value = Headers.ACCOUNT_ID, defaultValue = Headers.DEFAULT_ACCOUNT_ID) long accountId
+    ) {
+        try {
+            return statisticsDtoMapper.toDto(
+                    statisticsService.getSummary(accountId, transactionFilterDtoMapper.toFilter(filterDto))
+            );
+        } catch (FxRateNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+        }
+    }
+
+    @GetMapping(Path.CATEGORIES)
+    public List<CategoryStatisticsDto> getCategoryStatistics(
+            TransactionFilterDto filterDto,
+            @RequestHeader(value = Headers.ACCOUNT_ID, defaultValue = Headers.DEFAULT_ACCOUNT_ID) long accountId
+    ) {
+        try {
+            return statisticsDtoMapper.toCategoryDtoList(
+                    statisticsService.getCategoryStatistics(accountId, transactionFilterDtoMapper.toFilter(filterDto))
+            );
+        } catch (FxRateNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+        }
+    }
+
+    @GetMapping(Path.SERIES)
+    public List<TimeSeriesPointDto> getTimeSeries(
+            TransactionFilterDto filterDto,
+            @RequestParam(defaultValue = "MONTH") TimeBucket bucket,
+            @RequestHeader(value = Headers.ACCOUNT_ID, defaultValue = Headers.DEFAULT_ACCOUNT_ID) long accountId
+    ) {
+        try {
+            return statisticsDtoMapper.toSeriesDtoList(
+                    statisticsService.getTimeSeries(accountId, transactionFilterDtoMapper.toFilter(filterDto), bucket)
+            );
+        } catch (FxRateNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+        }
+    }
+
+}
@@ -1,44 +1,203 @@
 package com.semchishin.api.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.semchishin.api.dto.ImportFailureDto;
 import com.semchishin.api.dto.TransactionDto;
+import com.semchishin.api.dto.TransactionFilterDto;
+import com.semchishin.api.dto.TransactionPageDto;
+import com.semchishin.api.dto.TransactionPatchDto;
+import com.semchishin.api.exception.InvalidCurrencyException;
 import com.semchishin.api.exception.TransactionNotFoundException;
+import com.semchishin.api.mapper.ImportChunkDtoMapper;
 import com.semchishin.api.mapper.TransactionDtoMapper;
+import com.semchishin.api.mapper.TransactionFilterDtoMapper;
+import com.semchishin.api.util.CursorCodec;
+import com.semchishin.api.util.Headers;
+import com.semchishin.api.util.JsonArrayIterator;
 import com.semchishin.api.util.Path;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import semchishin.core.configuration.Profiles;
+import semchishin.core.datasource.AccountContext;
+import semchishin.core.exception.ImportFailedException;
+import semchishin.core.model.BulkWriteMode;
+import semchishin.core.model.ImportChunkResult;
+import semchishin.core.model.KeysetPage;
 import semchishin.core.model.Transaction;
+import semchishin.core.model.TransactionFilter;
+import semchishin.core.service.search.TransactionSearchService;
+import semchishin.core.service.transaction.TransactionImportService;
 import semchishin.core.service.transaction.TransactionService;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
+@Slf4j
 @RestController
+@Profile("!" + Profiles.REACTIVE)
 @RequiredArgsConstructor
 @CrossOrigin(origins = "http://localhost:3000")
 @RequestMapping(Path.API + Path.TRANSACTION)
 public class TransactionController {
 
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final String NDJSON = "ndjson";
+
+    private static final String JSON = "json";
+
+    /**
+     * Number of exported rows after which the output is flushed to the client.
+     */
+    private static final int EXPORT_FLUSH_INTERVAL = 1000;
+
     private final TransactionService transactionService;
 
+    private final TransactionImportService transactionImportService;
+
+    private final TransactionSearchService transactionSearchService;
+
     private final TransactionDtoMapper transactionDtoMapper;
 
+    private final TransactionFilterDtoMapper transactionFilterDtoMapper;
+
+    private final ImportChunkDtoMapper importChunkDtoMapper;
+
+    private final ObjectMapper objectMapper;
+
     @GetMapping
-    public List<TransactionDto> getAllTransactions() {
-        return transactionDtoMapper.toDtoList(transactionService.findAllTransactions());
+    public List<TransactionDto> getAllTransactions(
+            @RequestHeader(value = Headers.ACCOUNT_ID, defaultValue = Headers.DEFAULT_ACCOUNT_ID) long accountId,
+            WebRequest request
+    ) {
+        if (request.checkNotModified(currentETag(accountId))) {
+            return null;
+        }
+        return transactionDtoMapper.toDtoList(transactionService.findAllTransactions(accountId));
+    }
+
+    @GetMapping(Path.PAGE)
+    public TransactionPageDto getTransactionPage(
+            TransactionFilterDto filterDto,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestHeader(value = Headers.ACCOUNT_ID, defaultValue = Headers.DEFAULT_ACCOUNT_ID) long accountId,
+            WebRequest request
+    ) {
+        if (request.checkNotModified(currentETag(accountId))) {
+            return null;
+        }
+        TransactionFilter filter = transactionFilterDtoMapper.toFilter(filterDto);
+        KeysetPage<Transaction> page = transactionService.findTransactions(
+                accountId, filter, CursorCodec.decode(cursor), limit);
+        return new TransactionPageDto(
+                transactionDtoMapper.toDtoList(page.getItems()),
+                CursorCodec.encode(page.getNextCursor())
+        );
+    }
+
+    /**
+     * Searches the category and note of the transactions for the query, ignoring
+     * case. Exact category matches come first, then categories and notes starting
+     * with the query, then the ones merely containing it, newest first within
+     * each rank. The cursor of a search page continues only a search.
+     */
+    @GetMapping(Path.SEARCH)
+    public TransactionPageDto searchTransactions(
+            @RequestParam String q,
+            TransactionFilterDto filterDto,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestHeader(value = Headers.ACCOUNT_ID, defaultValue = Headers.DEFAULT_ACCOUNT_ID) long accountId
+    ) {
+        TransactionFilter filter = transactionFilterDtoMapper.toFilter(filterDto);
+        KeysetPage<Transaction> page;
+        try {
+            page = transactionSearchService.searchTransactions(
+                    accountId, q, filter, CursorCodec.decode(cursor), limit);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        return new TransactionPageDto(
+                transactionDtoMapper.toDtoList(page.getItems()),
+                CursorCodec.encode(page.getNextCursor())
+        );
+    }
+
+    /**
+     * Suggests names of the categories the account uses for autocompletion
+     * from an in-memory index, the names starting with the typed text first.
+     */
+    @GetMapping(Path.SEARCH + Path.CATEGORIES)
+    public List<String> suggestCategories(
+            @RequestHeader(value = Headers.ACCOUNT_ID, defaultValue = Headers.DEFAULT_ACCOUNT_ID) long accountId,
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return transactionSearchService.suggestCategories(accountId, q, limit);
+    }
+
+    @GetMapping(Path.EXPORT)
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            TransactionFilterDto filterDto,
+            @RequestParam(defaultValue = NDJSON) String format,
+            @RequestHeader(value = Headers.ACCOUNT_ID, defaultValue = Headers.DEFAULT_ACCOUNT_ID) long accountId
+    ) {
+        boolean ndjson = NDJSON.equalsIgnoreCase(format);
+        if (!ndjson && !JSON.equalsIgnoreCase(format)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    String.format("Unsupported export format: %s", format));
+        }
+        TransactionFilter filter = transactionFilterDtoMapper.toFilter(filterDto);
+        StreamingResponseBody body = out -> {
+            // Written on an async thread, which needs the account bound again
+            try (AccountContext.Binding ignored = AccountContext.bind(accountId)) {
+                writeExport(out, accountId, filter, ndjson);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(ndjson ? APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
     }
 
     @GetMapping(Path.ID)
-    public TransactionDto getTransactionById(@PathVariable Long id) {
-        return transactionDtoMapper.toDto(transactionService.findTransactionById(id)
+    public TransactionDto getTransactionById(
+            @PathVariable Long id,
+            @RequestHeader(value = Headers.ACCOUNT_ID, defaultValue = Headers.DEFAULT_ACCOUNT_ID) long accountId,
+            WebRequest request
+    ) {
+        if (request.checkNotModified(currentETag(accountId))) {
+            return null;
+        }
+        return transactionDtoMapper.toDto(transactionService.findTransactionById(accountId, id)
                 .orElseThrow(
                         () -> new TransactionNotFoundException(
                                 String.format("Transaction with id = %d not found", id)
@@ -48,27 +207,165 @@ public class TransactionController {
     }
 
     @PostMapping
-    public ResponseEntity<TransactionDto> createTransaction(@RequestBody TransactionDto transactionDto) {
-        Transaction transaction = transactionService.addTransaction(transactionDtoMapper.toEntity(transactionDto));
+    public ResponseEntity<TransactionDto> createTransaction(
+            @RequestBody TransactionDto transactionDto,
+            @RequestHeader(value = Headers.ACCOUNT_ID, defaultValue = Headers.DEFAULT_ACCOUNT_ID) long accountId
+    ) {
+        Transaction transaction = transactionDtoMapper.toEntity(transactionDto);
+        transaction.setAccountId(accountId);
+        try {
+            transaction = transactionService.addTransaction(transaction);
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e);
+        }
         return ResponseEntity.status(HttpStatus.CREATED).body(transactionDtoMapper.toDto(transaction));
     }
 
+    /**
+     * Imports a JSON array of transactions chunk by chunk and answers 201 Created
+     * with one entry per written chunk. If a chunk cannot be read or written, the
+     * chunks before it stay committed: the answer is then 400 Bad Request for
+     * invalid input, 500 otherwise, with an {@link ImportFailureDto} listing them.
+     */
+    @PostMapping(value = Path.BULK, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> importTransactions(
+            InputStream body,
+            @RequestParam(defaultValue = "AUTO") BulkWriteMode mode,
+            @RequestHeader(value = Headers.ACCOUNT_ID, defaultValue = Headers.DEFAULT_ACCOUNT_ID) long accountId
+    ) {
+        List<ImportChunkResult> results;
+        try {
+            Iterator<Transaction> source = JsonArrayIterator.of(
+                    objectMapper, body, TransactionDto.class, transactionDtoMapper::toEntity);
+            results = transactionImportService.importTransactions(accountId, source, mode);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed transaction array", e);
+        } catch (ImportFailedException e) {
+            return importFailure(e);
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(importChunkDtoMapper.toDtoList(results));
+    }
+
     @PutMapping((Path.ID))
     public ResponseEntity<Void> updateTransaction(
             @RequestBody TransactionDto transactionDto,
-            @PathVariable Long id
+            @PathVariable Long id,
+            @RequestHeader(value = Headers.ACCOUNT_ID, defaultValue = Headers.DEFAULT_ACCOUNT_ID) long accountId
     ) {
         Transaction transaction = transactionDtoMapper.toEntity(transactionDto);
         transaction.setTransactionId(id);
-        transactionService.updateTransaction(transaction);
+        transaction.setAccountId(accountId);
+        try {
+            transactionService.updateTransaction(transaction);
+        } catch (OptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+        }
         return ResponseEntity.status(HttpStatus.OK).build();
     }
 
+    /**
+     * Writes only the fields present in the body. With a version the patch is
+     * applied only if the transaction still has it, otherwise 409 Conflict is
+     * returned and the client retries after reading the transaction again.
+     * The response carries the new version for the next patch.
+     */
+    @PatchMapping(Path.ID)
+    public TransactionDto patchTransaction(
+            @RequestBody TransactionPatchDto transactionPatchDto,
+            @PathVariable Long id,
+            @RequestHeader(value = Headers.ACCOUNT_ID, defaultValue = Headers.DEFAULT_ACCOUNT_ID) long accountId
+    ) {
+        try {
+            return transactionDtoMapper.toDto(transactionService
+                    .patchTransaction(accountId, id, transactionDtoMapper.toPatch(transactionPatchDto))
+                    .orElseThrow(
+                            () -> new TransactionNotFoundException(
+                                    String.format("Transaction with id = %d not found", id)
+                            )
+                    )
+            );
+        } catch (OptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+        }
+    }
+
     @DeleteMapping(Path.ID)
-    public ResponseEntity<Void> deleteTransaction(@PathVariable Long id) {
-        transactionService.deleteTransaction(id);
+    public ResponseEntity<Void> deleteTransaction(
+            @PathVariable Long id,
+            @RequestHeader(value = Headers.ACCOUNT_ID, defaultValue = Headers.DEFAULT_ACCOUNT_ID) long accountId
+    ) {
+        transactionService.deleteTransaction(accountId, id);
         return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
     }
 
-}
+    private ResponseEntity<ImportFailureDto> importFailure(ImportFailedException e) {
+        HttpStatus status;
+        String error;
+        if (e.getCause() instanceof UncheckedIOException) {
+            status = HttpStatus.BAD_REQUEST;
+            error = "Malformed transaction array";
+        } else if (e.getCause() instanceof InvalidCurrencyException) {
+            status = HttpStatus.BAD_REQUEST;
+            error = e.getCause().getMessage();
+        } else {
+            log.error(e.getMessage(), e);
+            status = HttpStatus.INTERNAL_SERVER_ERROR;
+            error = "Writing the chunk failed";
+        }
+        return ResponseEntity.status(status).body(new ImportFailureDto(
+                error, e.getFailedChunk(), importChunkDtoMapper.toDtoList(e.getCommittedChunks())));
+    }
 
+    /**
+     * Returns a strong ETag derived from the version of the stored transactions,
+     * which every write changes. It is read before the rows it validates, so a
+     * write in between can only make the next request miss, never keep a stale
+     * representation alive. Answering a matching {@code If-None-Match} costs
+     * this single version query. The account is part of the tag, so the
+     * representation of one account never validates that of another.
+     */
+    private String currentETag(long accountId) {
+        return "\"" + accountId + "-" + transactionService.getTransactionsVersion() + "\"";
+    }
+
+    /**
+     * Writes the export either as newline-delimited JSON or as a single JSON array,
+     * one row at a time, flushing periodically so the client receives data while
+     * the database cursor is still being read.
+     */
+    private void writeExport(OutputStream out, long accountId, TransactionFilter filter, boolean ndjson)
+            throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(TransactionDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            if (ndjson) {
+                generator.setRootValueSeparator(null);
+            } else {
+                generator.writeStartArray();
+            }
+            generator.flush();
+            int[] written = {0};
+            try {
+                transactionService.exportTransactions(accountId, filter, transaction -> {
+                    try {
+                        writer.writeValue(generator, transactionDtoMapper.toDto(transaction));
+                        if (ndjson) {
+                            generator.writeRaw('\n');
+                        }
+                        if (++written[0] % EXPORT_FLUSH_INTERVAL == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (!ndjson) {
+                generator.writeEndArray();
+            }
+        }
+    }
+
+}
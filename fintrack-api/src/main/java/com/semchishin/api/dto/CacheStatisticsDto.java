@@ -0,0 +1,53 @@
+package com.semchishin.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import semchishin.core.model.CacheStatistics;
+
+/**
+ * Data Transfer Object (DTO) representing the counters of an in-memory cache.
+ * <p>
+ * References the domain model: {@link CacheStatistics}.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @see CacheStatistics
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class CacheStatisticsDto {
+
+    /**
+     * Approximate number of cached entries.
+     */
+    private long size;
+
+    /**
+     * Number of lookups answered from the cache.
+     */
+    private long hitCount;
+
+    /**
+     * Number of lookups that had to load from the database.
+     */
+    private long missCount;
+
+    /**
+     * Number of entries evicted because of size or expiration.
+     */
+    private long evictionCount;
+
+    /**
+     * Ratio of hits to all lookups.
+     */
+    private double hitRate;
+
+}
@@ -0,0 +1,45 @@
+package com.semchishin.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import semchishin.core.model.CategoryStatistics;
+
+import java.math.BigDecimal;
+
+/**
+ * Data Transfer Object (DTO) representing the number and sum of transactions of one category.
+ * <p>
+ * References the domain model: {@link CategoryStatistics}.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @see CategoryStatistics
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class CategoryStatisticsDto {
+
+    /**
+     * Category name, null for uncategorized transactions.
+     */
+    private String category;
+
+    /**
+     * Number of transactions in the category.
+     */
+    private long count;
+
+    /**
+     * Sum of the amounts in the category.
+     */
+    private BigDecimal total;
+
+}
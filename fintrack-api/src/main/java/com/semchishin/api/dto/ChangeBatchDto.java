@@ -0,0 +1,40 @@
+package com.semchishin.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import semchishin.core.model.ChangeBatch;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) representing consecutive changes of the transaction change feed.
+ * <p>
+ * References the domain model: {@link ChangeBatch}.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @see ChangeBatch
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class ChangeBatchDto {
+
+    /**
+     * Changes in feed order, empty if nothing new arrived.
+     */
+    private List<TransactionChangeDto> changes;
+
+    /**
+     * Value to pass as {@code after} to read the next batch.
+     */
+    private long lastSequenceNumber;
+
+}
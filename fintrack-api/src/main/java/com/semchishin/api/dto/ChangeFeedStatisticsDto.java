@@ -0,0 +1,55 @@
+package com.semchishin.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import semchishin.core.model.ChangeFeedStatistics;
+
+import java.util.Map;
+
+/**
+ * Data Transfer Object (DTO) representing the counters of the transaction change feed.
+ * <p>
+ * References the domain model: {@link ChangeFeedStatistics}.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @see ChangeFeedStatistics
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class ChangeFeedStatisticsDto {
+
+    /**
+     * Sequence number of the last published change of the shared database, -1 before the first publication.
+     */
+    private long headSequenceNumber;
+
+    /**
+     * Sequence number of the last published change of every route, by route.
+     */
+    private Map<String, Long> headSequenceNumbers;
+
+    /**
+     * Number of changes published since startup.
+     */
+    private long publishedChanges;
+
+    /**
+     * Time between writing and publishing the most recently published change, in milliseconds.
+     */
+    private long lastLagMillis;
+
+    /**
+     * Largest such time since startup, in milliseconds.
+     */
+    private long maxLagMillis;
+
+}
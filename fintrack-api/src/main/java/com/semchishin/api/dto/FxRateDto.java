@@ -0,0 +1,46 @@
+package com.semchishin.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import semchishin.core.model.FxRate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Data Transfer Object (DTO) representing the exchange rate of a currency on a day.
+ * <p>
+ * References the domain model: {@link FxRate}.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @see FxRate
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class FxRateDto {
+
+    /**
+     * ISO 4217 code of the currency.
+     */
+    private String currency;
+
+    /**
+     * First day the rate is valid on, it stays valid until the next rate of the currency.
+     */
+    private LocalDate date;
+
+    /**
+     * Price of one unit of the currency in the base currency, at most 8 fraction digits.
+     */
+    private BigDecimal rate;
+
+}
@@ -0,0 +1,56 @@
+package com.semchishin.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import semchishin.core.model.BulkWriteMode;
+import semchishin.core.model.ImportChunkResult;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) reporting one written chunk of a bulk import.
+ * <p>
+ * References the domain result: {@link ImportChunkResult}.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @see ImportChunkResult
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class ImportChunkDto {
+
+    /**
+     * Zero-based position of the chunk within the import.
+     */
+    private int chunk;
+
+    /**
+     * Number of rows written.
+     */
+    private long rows;
+
+    /**
+     * Write path used for the chunk.
+     */
+    private BulkWriteMode mode;
+
+    /**
+     * Time spent writing the chunk, in milliseconds.
+     */
+    private long elapsedMillis;
+
+    /**
+     * IDs generated for the written rows, in input order. Empty for COPY chunks.
+     */
+    private List<Long> transactionIds;
+
+}
@@ -0,0 +1,46 @@
+package com.semchishin.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import semchishin.core.exception.ImportFailedException;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) reporting a bulk import that stopped at a failed chunk.
+ * <p>
+ * The chunks before the failed one are committed and listed as in a successful
+ * import. References the domain exception: {@link ImportFailedException}.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @see ImportFailedException
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class ImportFailureDto {
+
+    /**
+     * Why the chunk failed.
+     */
+    private String error;
+
+    /**
+     * Zero-based position of the chunk that failed, none of its rows are written.
+     */
+    private int failedChunk;
+
+    /**
+     * The chunks committed before the failure, in import order.
+     */
+    private List<ImportChunkDto> committedChunks;
+
+}
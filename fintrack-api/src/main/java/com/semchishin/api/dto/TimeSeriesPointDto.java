@@ -0,0 +1,51 @@
+package com.semchishin.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import semchishin.core.model.TimeSeriesPoint;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object (DTO) representing the totals of one time bucket.
+ * <p>
+ * References the domain model: {@link TimeSeriesPoint}.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @see TimeSeriesPoint
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class TimeSeriesPointDto {
+
+    /**
+     * Start of the bucket.
+     */
+    private LocalDateTime bucketStart;
+
+    /**
+     * Number of transactions in the bucket.
+     */
+    private long count;
+
+    /**
+     * Sum of the positive amounts in the bucket.
+     */
+    private BigDecimal income;
+
+    /**
+     * Sum of the negative amounts in the bucket.
+     */
+    private BigDecimal expense;
+
+}
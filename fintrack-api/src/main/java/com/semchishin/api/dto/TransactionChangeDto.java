@@ -0,0 +1,83 @@
+package com.semchishin.api.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.semchishin.api.util.MoneyJson;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import semchishin.core.model.ChangeOperation;
+import semchishin.core.model.Money;
+import semchishin.core.model.TransactionChange;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object (DTO) representing one entry of the transaction change feed.
+ * <p>
+ * References the domain model: {@link TransactionChange}.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @see TransactionChange
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class TransactionChangeDto {
+
+    /**
+     * Position of the change in the feed.
+     */
+    private long sequenceNumber;
+
+    /**
+     * Kind of mutation.
+     */
+    private ChangeOperation operation;
+
+    /**
+     * ID of the changed transaction.
+     */
+    private long transactionId;
+
+    /**
+     * Account of the changed transaction.
+     */
+    private long accountId;
+
+    /**
+     * Amount of the transaction after the change, before it for a delete.
+     */
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private Money amount;
+
+    /**
+     * ISO 4217 code of the currency of the amount.
+     */
+    private String currency;
+
+    /**
+     * Category of the transaction after the change, before it for a delete.
+     */
+    private String category;
+
+    /**
+     * Date and time of the transaction.
+     */
+    private LocalDateTime dateTime;
+
+    /**
+     * Moment the change was written to the database.
+     */
+    private Instant recordedAt;
+
+}
@@ -1,5 +1,8 @@
 package com.semchishin.api.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.semchishin.api.util.MoneyJson;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -7,9 +10,9 @@ import lombok.NoArgsConstructor;
 import lombok.NonNull;
 import lombok.Setter;
 import lombok.ToString;
+import semchishin.core.model.Money;
 import semchishin.core.model.Transaction;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 /**
@@ -30,11 +33,24 @@ import java.time.LocalDateTime;
 @EqualsAndHashCode
 public class TransactionDto {
 
+    /**
+     * The ID assigned by the database. Null until the transaction is saved.
+     */
+    private Long transactionId;
+
     /**
      * The amount of the transaction. Cannot be null.
      */
     @NonNull
-    private BigDecimal amount;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private Money amount;
+
+    /**
+     * ISO 4217 code of the currency of the amount.
+     * If null, the amount is in the base currency.
+     */
+    private String currency;
 
     /**
      * The category of the transaction. Cannot be null.
@@ -48,6 +64,17 @@ public class TransactionDto {
      */
     private LocalDateTime dateTime;
 
+    /**
+     * Version of the stored transaction. Sent back with an update, the update
+     * is rejected with 409 Conflict if the transaction has changed since.
+     */
+    private Integer version;
+
+    /**
+     * Free-text note of the transaction, may be null.
+     */
+    private String note;
+
     /**
      * Gets the transaction date and time.
      * If the dateTime is null, returns current date and time.
@@ -0,0 +1,60 @@
+package com.semchishin.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.format.annotation.DateTimeFormat;
+import semchishin.core.model.TransactionFilter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object (DTO) binding the optional filter query parameters
+ * shared by the listing, export and statistics endpoints.
+ * <p>
+ * References the domain filter: {@link TransactionFilter}.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @see TransactionFilter
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class TransactionFilterDto {
+
+    /**
+     * Exact category to match.
+     */
+    private String category;
+
+    /**
+     * Lower bound of the amount, inclusive.
+     */
+    private BigDecimal minAmount;
+
+    /**
+     * Upper bound of the amount, inclusive.
+     */
+    private BigDecimal maxAmount;
+
+    /**
+     * Lower bound of the creation date, inclusive, ISO-8601.
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    /**
+     * Upper bound of the creation date, exclusive, ISO-8601.
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+
+}
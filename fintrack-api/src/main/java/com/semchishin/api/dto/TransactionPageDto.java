@@ -0,0 +1,40 @@
+package com.semchishin.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import semchishin.core.model.KeysetPage;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) representing one page of transactions.
+ * <p>
+ * References the domain page: {@link KeysetPage}.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @see KeysetPage
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class TransactionPageDto {
+
+    /**
+     * Transactions of the page, newest first.
+     */
+    private List<TransactionDto> items;
+
+    /**
+     * Opaque cursor to pass back for the next page, {@code null} on the last page.
+     */
+    private String nextCursor;
+
+}
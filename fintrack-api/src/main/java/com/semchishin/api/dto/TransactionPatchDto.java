@@ -0,0 +1,60 @@
+package com.semchishin.api.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.semchishin.api.util.MoneyJson;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import semchishin.core.model.Money;
+import semchishin.core.model.TransactionPatch;
+
+/**
+ * Data Transfer Object (DTO) of a partial transaction update.
+ * <p>
+ * Omitted fields keep their stored value. References the domain patch:
+ * {@link TransactionPatch}.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @see TransactionPatch
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class TransactionPatchDto {
+
+    /**
+     * New amount, omitted to keep the stored one.
+     */
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private Money amount;
+
+    /**
+     * ISO 4217 code of the currency of the new amount, omitted for the base currency.
+     */
+    private String currency;
+
+    /**
+     * New category, omitted to keep the stored one.
+     */
+    private String category;
+
+    /**
+     * Version the transaction was read with, omitted to patch unconditionally.
+     */
+    private Integer version;
+
+    /**
+     * New note, omitted to keep the stored one.
+     */
+    private String note;
+
+}
@@ -0,0 +1,61 @@
+package com.semchishin.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import semchishin.core.model.TransactionSummary;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object (DTO) representing aggregated totals over transactions.
+ * <p>
+ * References the domain model: {@link TransactionSummary}.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @see TransactionSummary
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class TransactionSummaryDto {
+
+    /**
+     * Number of transactions.
+     */
+    private long count;
+
+    /**
+     * Sum of all positive amounts.
+     */
+    private BigDecimal income;
+
+    /**
+     * Sum of all negative amounts.
+     */
+    private BigDecimal expense;
+
+    /**
+     * Sum of all amounts.
+     */
+    private BigDecimal balance;
+
+    /**
+     * Average amount, null if there are no transactions.
+     */
+    private BigDecimal average;
+
+    /**
+     * Creation date of the most recent transaction, null if there are no transactions.
+     */
+    private LocalDateTime lastCreatedAt;
+
+}
@@ -0,0 +1,17 @@
+package com.semchishin.api.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception for a currency code that is not a known ISO 4217 currency, or an
+ * amount with more fraction digits than its currency has.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCurrencyException extends RuntimeException {
+
+    public InvalidCurrencyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
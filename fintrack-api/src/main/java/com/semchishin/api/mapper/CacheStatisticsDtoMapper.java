@@ -0,0 +1,12 @@
+package com.semchishin.api.mapper;
+
+import com.semchishin.api.dto.CacheStatisticsDto;
+import org.mapstruct.Mapper;
+import semchishin.core.model.CacheStatistics;
+
+@Mapper(componentModel = "spring")
+public interface CacheStatisticsDtoMapper {
+
+    CacheStatisticsDto toDto(CacheStatistics cacheStatistics);
+
+}
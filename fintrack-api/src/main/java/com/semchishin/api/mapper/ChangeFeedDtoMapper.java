@@ -0,0 +1,22 @@
+package com.semchishin.api.mapper;
+
+import com.semchishin.api.dto.ChangeBatchDto;
+import com.semchishin.api.dto.ChangeFeedStatisticsDto;
+import com.semchishin.api.dto.TransactionChangeDto;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import semchishin.core.model.ChangeBatch;
+import semchishin.core.model.ChangeFeedStatistics;
+import semchishin.core.model.TransactionChange;
+
+@Mapper(componentModel = "spring")
+public interface ChangeFeedDtoMapper {
+
+    ChangeBatchDto toDto(ChangeBatch changeBatch);
+
+    @Mapping(target = "currency", source = "amount.currency")
+    TransactionChangeDto toDto(TransactionChange transactionChange);
+
+    ChangeFeedStatisticsDto toDto(ChangeFeedStatistics changeFeedStatistics);
+
+}
@@ -0,0 +1,16 @@
+package com.semchishin.api.mapper;
+
+import com.semchishin.api.dto.FxRateDto;
+import org.mapstruct.Mapper;
+import semchishin.core.model.FxRate;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface FxRateDtoMapper {
+
+    List<FxRateDto> toDtoList(List<FxRate> fxRates);
+
+    List<FxRate> toEntityList(List<FxRateDto> fxRateDtos);
+
+}
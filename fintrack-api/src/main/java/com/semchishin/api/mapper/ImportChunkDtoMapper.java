@@ -0,0 +1,14 @@
+package com.semchishin.api.mapper;
+
+import com.semchishin.api.dto.ImportChunkDto;
+import org.mapstruct.Mapper;
+import semchishin.core.model.ImportChunkResult;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface ImportChunkDtoMapper {
+
+    List<ImportChunkDto> toDtoList(List<ImportChunkResult> results);
+
+}
@@ -0,0 +1,22 @@
+package com.semchishin.api.mapper;
+
+import com.semchishin.api.dto.CategoryStatisticsDto;
+import com.semchishin.api.dto.TimeSeriesPointDto;
+import com.semchishin.api.dto.TransactionSummaryDto;
+import org.mapstruct.Mapper;
+import semchishin.core.model.CategoryStatistics;
+import semchishin.core.model.TimeSeriesPoint;
+import semchishin.core.model.TransactionSummary;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface StatisticsDtoMapper {
+
+    TransactionSummaryDto toDto(TransactionSummary summary);
+
+    List<CategoryStatisticsDto> toCategoryDtoList(List<CategoryStatistics> statistics);
+
+    List<TimeSeriesPointDto> toSeriesDtoList(List<TimeSeriesPoint> points);
+
+}
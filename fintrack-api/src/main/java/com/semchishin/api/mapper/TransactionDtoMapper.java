@@ -1,18 +1,61 @@
 package com.semchishin.api.mapper;
 
 import com.semchishin.api.dto.TransactionDto;
+import com.semchishin.api.dto.TransactionPatchDto;
+import com.semchishin.api.exception.InvalidCurrencyException;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import semchishin.core.model.Money;
 import semchishin.core.model.Transaction;
+import semchishin.core.model.TransactionPatch;
 
+import java.util.Currency;
 import java.util.List;
 
 @Mapper(componentModel = "spring")
 public interface TransactionDtoMapper {
 
+    @Mapping(target = "currency", source = "amount.currency")
     TransactionDto toDto(Transaction transaction);
 
+    @Mapping(target = "amount", expression = "java(toMoney(transactionDto.getAmount(), transactionDto.getCurrency()))")
+    @Mapping(target = "accountId", ignore = true)
     Transaction toEntity(TransactionDto transactionDto);
 
+    @Mapping(target = "amount",
+            expression = "java(toMoney(transactionPatchDto.getAmount(), transactionPatchDto.getCurrency()))")
+    TransactionPatch toPatch(TransactionPatchDto transactionPatchDto);
+
     List<TransactionDto> toDtoList(List<Transaction> transactions);
 
+    /**
+     * JSON amounts are read without a currency, see {@link Money#NO_CURRENCY};
+     * the currency field of the DTO is applied here.
+     *
+     * @param amount       the amount read from JSON, may be null
+     * @param currencyCode ISO 4217 code, null for the base currency
+     * @return the amount in that currency
+     * @throws InvalidCurrencyException if the code is not a known currency or the
+     *                                  amount has more fraction digits than the currency
+     */
+    default Money toMoney(Money amount, String currencyCode) {
+        if (amount == null) {
+            return null;
+        }
+        Currency currency = Money.DEFAULT_CURRENCY;
+        if (currencyCode != null) {
+            try {
+                currency = Currency.getInstance(currencyCode);
+            } catch (IllegalArgumentException e) {
+                throw new InvalidCurrencyException(String.format("Unknown currency code %s", currencyCode), e);
+            }
+        }
+        try {
+            return amount.rescaledTo(currency);
+        } catch (ArithmeticException e) {
+            throw new InvalidCurrencyException(String.format("Amount %s has more fraction digits than %s allows",
+                    amount.toBigDecimal().stripTrailingZeros().toPlainString(), currency.getCurrencyCode()), e);
+        }
+    }
+
 }
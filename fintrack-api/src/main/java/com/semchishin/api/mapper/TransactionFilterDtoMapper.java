@@ -0,0 +1,12 @@
+package com.semchishin.api.mapper;
+
+import com.semchishin.api.dto.TransactionFilterDto;
+import org.mapstruct.Mapper;
+import semchishin.core.model.TransactionFilter;
+
+@Mapper(componentModel = "spring")
+public interface TransactionFilterDtoMapper {
+
+    TransactionFilter toFilter(TransactionFilterDto transactionFilterDto);
+
+}
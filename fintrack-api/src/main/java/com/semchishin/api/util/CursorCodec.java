@@ -0,0 +1,53 @@
+package com.semchishin.api.util;
+
+import com.semchishin.api.exception.InvalidCursorException;
+import semchishin.core.model.PageCursor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.regex.Pattern;
+
+/**
+ * Converts {@link PageCursor} to and from the opaque string handed to clients.
+ * The rank of a search cursor is appended as a third part.
+ */
+public final class CursorCodec {
+
+    private static final String SEPARATOR = "|";
+
+    private CursorCodec() {
+    }
+
+    public static String encode(PageCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        String raw = cursor.getCreatedAt() + SEPARATOR + cursor.getTransactionId();
+        if (cursor.getRank() != null) {
+            raw += SEPARATOR + cursor.getRank();
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(Pattern.quote(SEPARATOR), -1);
+            if (parts.length != 2 && parts.length != 3) {
+                throw new IllegalArgumentException("Unexpected number of cursor parts");
+            }
+            return new PageCursor(
+                    LocalDateTime.parse(parts[0]),
+                    Long.parseLong(parts[1]),
+                    parts.length == 3 ? Integer.valueOf(parts[2]) : null
+            );
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException(String.format("Invalid page cursor: %s", cursor), e);
+        }
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.semchishin.api.util;
+
+import semchishin.core.model.Transaction;
+
+public class Headers {
+
+    /**
+     * Account a request works on, requests without it work on the default account.
+     */
+    public static final String ACCOUNT_ID = "X-Account-Id";
+
+    public static final String DEFAULT_ACCOUNT_ID = "" + Transaction.DEFAULT_ACCOUNT_ID;
+}
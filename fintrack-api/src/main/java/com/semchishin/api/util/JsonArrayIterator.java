@@ -0,0 +1,88 @@
+package com.semchishin.api.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Lazily reads the elements of a top-level JSON array one at a time,
+ * so arbitrarily large request bodies can be processed with constant memory.
+ * <p>
+ * Parsing failures are rethrown as {@link UncheckedIOException}.
+ * </p>
+ *
+ * @param <T> type of the parsed elements
+ * @param <R> type of the elements returned by the iterator
+ */
+public final class JsonArrayIterator<T, R> implements Iterator<R> {
+
+    private final ObjectMapper objectMapper;
+
+    private final JsonParser parser;
+
+    private final Class<T> type;
+
+    private final Function<T, R> mapper;
+
+    private JsonToken next;
+
+    private JsonArrayIterator(ObjectMapper objectMapper, JsonParser parser, Class<T> type, Function<T, R> mapper) {
+        this.objectMapper = objectMapper;
+        this.parser = parser;
+        this.type = type;
+        this.mapper = mapper;
+    }
+
+    public static <T, R> JsonArrayIterator<T, R> of(
+            ObjectMapper objectMapper,
+            InputStream in,
+            Class<T> type,
+            Function<T, R> mapper
+    ) throws IOException {
+        JsonParser parser = objectMapper.getFactory().createParser(in);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new IOException("Expected a JSON array");
+        }
+        JsonArrayIterator<T, R> iterator = new JsonArrayIterator<>(objectMapper, parser, type, mapper);
+        iterator.advance();
+        return iterator;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != JsonToken.END_ARRAY;
+    }
+
+    @Override
+    public R next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            T value = objectMapper.readValue(parser, type);
+            advance();
+            return mapper.apply(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void advance() {
+        try {
+            next = parser.nextToken();
+            if (next == null) {
+                throw new IOException("Unexpected end of JSON array");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
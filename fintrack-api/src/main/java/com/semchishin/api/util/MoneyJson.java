@@ -0,0 +1,75 @@
+package com.semchishin.api.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+import semchishin.core.model.Money;
+
+import java.io.IOException;
+
+/**
+ * Jackson conversion of {@link Money} amounts as plain JSON decimal numbers
+ * with the fraction digits of their currency, e.g. {@code -12.50} for roubles
+ * and {@code 1500} for yen.
+ * <p>
+ * Numbers are converted from and to their text directly, without a
+ * {@link java.math.BigDecimal} or a {@code double} in between. The currency
+ * of an amount is a separate field, so amounts are read in
+ * {@link Money#NO_CURRENCY} and given their currency by the mapper, which
+ * rejects more fraction digits than the currency has rather than rounding.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+public final class MoneyJson {
+
+    private MoneyJson() {
+    }
+
+    /**
+     * Writes an amount as a JSON number.
+     */
+    public static final class Serializer extends StdScalarSerializer<Money> {
+
+        public Serializer() {
+            super(Money.class);
+        }
+
+        @Override
+        public void serialize(Money value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeNumber(value.toPlainString());
+        }
+    }
+
+    /**
+     * Reads an amount from a JSON number or a string holding one.
+     */
+    public static final class Deserializer extends StdScalarDeserializer<Money> {
+
+        public Deserializer() {
+            super(Money.class);
+        }
+
+        @Override
+        public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT
+                    && token != JsonToken.VALUE_STRING) {
+                return (Money) ctxt.handleUnexpectedToken(Money.class, p);
+            }
+            String text = p.getText().trim();
+            try {
+                return Money.parse(text, Money.NO_CURRENCY);
+            } catch (NumberFormatException | ArithmeticException e) {
+                throw InvalidFormatException.from(p, "Not an amount with at most " + Money.MAX_SCALE
+                        + " fraction digits: " + text, text, Money.class);
+            }
+        }
+    }
+}
@@ -6,5 +6,29 @@ public class Path {
 
     public static final String ID = "/{id}";
 
+    public static final String PAGE = "/page";
+
+    public static final String EXPORT = "/export";
+
+    public static final String BULK = "/bulk";
+
+    public static final String SEARCH = "/search";
+
     public static final String TRANSACTION = "/transaction";
+
+    public static final String STATISTICS = "/statistics";
+
+    public static final String CACHE = "/cache";
+
+    public static final String CHANGES = "/changes";
+
+    public static final String FX_RATES = "/fx-rates";
+
+    public static final String STREAM = "/stream";
+
+    public static final String SUMMARY = "/summary";
+
+    public static final String CATEGORIES = "/categories";
+
+    public static final String SERIES = "/series";
 }
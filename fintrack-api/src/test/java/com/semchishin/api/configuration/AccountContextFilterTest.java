@@ -0,0 +1,79 @@
+package com.semchishin.api.configuration;
+
+import com.semchishin.api.util.Headers;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import semchishin.core.datasource.AccountContext;
+import semchishin.core.model.Transaction;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+class AccountContextFilterTest {
+
+    private static final long OTHER_ACCOUNT_ID = 2L;
+
+    @Test
+    void shouldBindDefaultAccountOfAnyCaller() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+
+        assertThat(filter(false, request, new MockHttpServletResponse())).isEqualTo(Transaction.DEFAULT_ACCOUNT_ID);
+    }
+
+    @Test
+    void shouldRejectAccountOfAnotherCaller() throws ServletException, IOException {
+        MockHttpServletRequest anonymous = new MockHttpServletRequest();
+        anonymous.addHeader(Headers.ACCOUNT_ID, OTHER_ACCOUNT_ID);
+        MockHttpServletRequest stranger = new MockHttpServletRequest();
+        stranger.addHeader(Headers.ACCOUNT_ID, OTHER_ACCOUNT_ID);
+        stranger.setUserPrincipal(() -> "3");
+        MockHttpServletResponse anonymousResponse = new MockHttpServletResponse();
+        MockHttpServletResponse strangerResponse = new MockHttpServletResponse();
+
+        assertThat(filter(false, anonymous, anonymousResponse)).isNull();
+        assertThat(filter(false, stranger, strangerResponse)).isNull();
+        assertThat(anonymousResponse.getStatus()).isEqualTo(403);
+        assertThat(strangerResponse.getStatus()).isEqualTo(403);
+    }
+
+    @Test
+    void shouldBindAccountOfAuthenticatedOwnerOrTrustedHeader() throws ServletException, IOException {
+        MockHttpServletRequest owner = new MockHttpServletRequest();
+        owner.addHeader(Headers.ACCOUNT_ID, OTHER_ACCOUNT_ID);
+        owner.setUserPrincipal(() -> Long.toString(OTHER_ACCOUNT_ID));
+        MockHttpServletRequest gateway = new MockHttpServletRequest();
+        gateway.addHeader(Headers.ACCOUNT_ID, OTHER_ACCOUNT_ID);
+
+        assertThat(filter(false, owner, new MockHttpServletResponse())).isEqualTo(OTHER_ACCOUNT_ID);
+        assertThat(filter(true, gateway, new MockHttpServletResponse())).isEqualTo(OTHER_ACCOUNT_ID);
+    }
+
+    @Test
+    void shouldLeaveMalformedHeaderToControllers() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(Headers.ACCOUNT_ID, "x");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(filter(false, request, response)).isNull();
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    /**
+     * Runs the filter and returns the account bound while the chain ran, {@code null} if unbound or not run.
+     */
+    private static Long filter(boolean trustedHeader, MockHttpServletRequest request, MockHttpServletResponse response)
+            throws ServletException, IOException {
+        AtomicReference<Long> bound = new AtomicReference<>();
+        FilterChain chain = (req, res) -> bound.set(AccountContext.current());
+        new AccountContextFilter(new AccountAccess(trustedHeader)).doFilter(request, response, chain);
+        return bound.get();
+    }
+}
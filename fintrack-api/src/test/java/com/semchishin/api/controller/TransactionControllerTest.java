@@ -0,0 +1,185 @@
+package com.semchishin.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.semchishin.api.exception.InvalidCurrencyException;
+import com.semchishin.api.mapper.ImportChunkDtoMapper;
+import com.semchishin.api.mapper.TransactionDtoMapper;
+import com.semchishin.api.mapper.TransactionFilterDtoMapper;
+import com.semchishin.api.util.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import semchishin.core.exception.ImportFailedException;
+import semchishin.core.model.BulkWriteMode;
+import semchishin.core.model.ImportChunkResult;
+import semchishin.core.service.search.TransactionSearchService;
+import semchishin.core.service.transaction.TransactionImportService;
+import semchishin.core.service.transaction.TransactionService;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+class TransactionControllerTest {
+
+    private static final String TRANSACTIONS = Path.API + Path.TRANSACTION;
+
+    private static final ImportChunkResult COMMITTED_CHUNK =
+            new ImportChunkResult(0, 2, BulkWriteMode.BATCH, 5, List.of(1L, 2L));
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private TransactionImportService transactionImportService;
+
+    @Mock
+    private TransactionSearchService transactionSearchService;
+
+    @Mock
+    private TransactionFilterDtoMapper transactionFilterDtoMapper;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new TransactionController(
+                transactionService,
+                transactionImportService,
+                transactionSearchService,
+                Mappers.getMapper(TransactionDtoMapper.class),
+                transactionFilterDtoMapper,
+                Mappers.getMapper(ImportChunkDtoMapper.class),
+                new ObjectMapper()
+        )).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        verifyNoMoreInteractions(transactionService, transactionImportService, transactionSearchService,
+                transactionFilterDtoMapper);
+    }
+
+    @Test
+    void shouldCreateTransactionInGivenCurrency() throws Exception {
+        when(transactionService.addTransaction(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        mockMvc.perform(post(TRANSACTIONS)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("USD")))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.currency").value("USD"));
+
+        verify(transactionService).addTransaction(any());
+    }
+
+    @Test
+    void shouldReadAmountInFractionDigitsOfCurrency() throws Exception {
+        when(transactionService.addTransaction(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        mockMvc.perform(post(TRANSACTIONS)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("1.005", "BHD")))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.amount").value(1.005));
+        mockMvc.perform(post(TRANSACTIONS)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("1500", "JPY")))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.amount").value(1500));
+
+        verify(transactionService, times(2)).addTransaction(any());
+    }
+
+    @Test
+    void shouldRejectMoreFractionDigitsThanCurrencyHas() throws Exception {
+        mockMvc.perform(post(TRANSACTIONS)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("1.5", "JPY")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post(TRANSACTIONS)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("1.001", "RUB")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldRejectCreationWithUnknownCurrency() throws Exception {
+        mockMvc.perform(post(TRANSACTIONS)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("XXZ")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldRejectUpdateWithUnknownCurrency() throws Exception {
+        mockMvc.perform(put(TRANSACTIONS + "/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("usd")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldReportCommittedChunksWhenImportFails() throws Exception {
+        when(transactionImportService.importTransactions(anyLong(), any(), eq(BulkWriteMode.BATCH)))
+                .thenThrow(new ImportFailedException(List.of(COMMITTED_CHUNK),
+                        new DataIntegrityViolationException("duplicate key")));
+
+        mockMvc.perform(post(TRANSACTIONS + Path.BULK)
+                        .param("mode", "BATCH")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + body("USD") + "]"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.failedChunk").value(1))
+                .andExpect(jsonPath("$.committedChunks[0].rows").value(2))
+                .andExpect(jsonPath("$.committedChunks[0].transactionIds[1]").value(2));
+
+        verify(transactionImportService).importTransactions(anyLong(), any(), eq(BulkWriteMode.BATCH));
+    }
+
+    @Test
+    void shouldRejectImportWithUnknownCurrencyAfterCommittedChunks() throws Exception {
+        when(transactionImportService.importTransactions(anyLong(), any(), eq(BulkWriteMode.AUTO)))
+                .thenThrow(new ImportFailedException(List.of(COMMITTED_CHUNK),
+                        new InvalidCurrencyException("Unknown currency code XXZ", null)));
+
+        mockMvc.perform(post(TRANSACTIONS + Path.BULK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + body("XXZ") + "]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Unknown currency code XXZ"))
+                .andExpect(jsonPath("$.committedChunks[0].chunk").value(0));
+
+        verify(transactionImportService).importTransactions(anyLong(), any(), eq(BulkWriteMode.AUTO));
+    }
+
+    private static String body(String currency) {
+        return body("100.00", currency);
+    }
+
+    private static String body(String amount, String currency) {
+        return """
+                {"amount": %s, "currency": "%s", "category": "Food", "dateTime": "2024-01-15T10:00:00"}
+                """.formatted(amount, currency);
+    }
+
+}
@@ -0,0 +1,79 @@
+package semchishin.bench;
+
+import semchishin.core.model.FxRate;
+import semchishin.core.model.FxRates;
+import semchishin.core.model.Money;
+import semchishin.core.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic transaction data shared by the benchmarks, so runs of
+ * different releases measure the same input.
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+public final class BenchmarkData {
+
+    public static final String[] CATEGORIES = {"Food", "Rent", "Salary", "Transport", "Health", "Leisure"};
+
+    /**
+     * The base currency first, then currencies with a rate on every day of the data.
+     */
+    public static final String[] CURRENCIES = {"RUB", "USD", "EUR"};
+
+    private static final long SEED = 42L;
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Generates {@code count} transactions without ids, spread over one year.
+     */
+    public static List<Transaction> transactions(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            transactions.add(new Transaction(
+                    null,
+                    Money.ofMinor(random.nextLong(-500_00, 5_000_00)),
+                    CATEGORIES[random.nextInt(CATEGORIES.length)],
+                    START.plusSeconds(random.nextLong(365L * 24 * 60 * 60))
+            ));
+        }
+        return transactions;
+    }
+
+    /**
+     * Generates a rate of every currency but the base one on each day of the data.
+     */
+    public static FxRates fxRates() {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<FxRate> rates = new ArrayList<>();
+        for (int day = 0; day <= 365; day++) {
+            for (int i = 1; i < CURRENCIES.length; i++) {
+                rates.add(new FxRate(CURRENCIES[i], START.toLocalDate().plusDays(day),
+                        BigDecimal.valueOf(random.nextLong(80_000_000, 110_000_000) * i, FxRates.RATE_SCALE)));
+            }
+        }
+        return FxRates.of(Money.DEFAULT_CURRENCY, rates);
+    }
+
+    /**
+     * Generates {@code count} transactions with sequential ids starting at 1.
+     */
+    public static List<Transaction> storedTransactions(int count) {
+        List<Transaction> transactions = transactions(count);
+        for (int i = 0; i < count; i++) {
+            transactions.get(i).setTransactionId(i + 1L);
+        }
+        return transactions;
+    }
+}
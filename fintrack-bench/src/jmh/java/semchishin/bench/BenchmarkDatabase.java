@@ -0,0 +1,95 @@
+package semchishin.bench;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import semchishin.core.repository.impl.CategoryDictionary;
+import semchishin.core.repository.impl.DefaultTransactionRepository;
+
+/**
+ * PostgreSQL started with Testcontainers, migrated with the project's Flyway
+ * scripts and seeded with {@link BenchmarkData}.
+ * <p>
+ * The pool is configured with the same pgjdbc statement cache settings as
+ * {@code DbConfig}, so the numbers include server-side prepared statements.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+public final class BenchmarkDatabase implements AutoCloseable {
+
+    private final PostgreSQLContainer<?> postgres;
+
+    private final HikariDataSource dataSource;
+
+    private final long minId;
+
+    private final long maxId;
+
+    /**
+     * Starts the database and seeds it with {@code rows} transactions.
+     */
+    @SuppressWarnings("resource")
+    public BenchmarkDatabase(int rows) {
+        postgres = new PostgreSQLContainer<>("postgres:14")
+                .withDatabaseName("fintrackdb")
+                .withUsername("fintrack")
+                .withPassword("fintrack");
+        postgres.start();
+
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .locations("filesystem:" + System.getProperty("fintrack.migrations"))
+                .schemas("fintrack")
+                .defaultSchema("fintrack")
+                .load()
+                .migrate();
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(postgres.getJdbcUrl());
+        config.setUsername(postgres.getUsername());
+        config.setPassword(postgres.getPassword());
+        config.addDataSourceProperty("prepareThreshold", 1);
+        config.addDataSourceProperty("preparedStatementCacheQueries", 256);
+        dataSource = new HikariDataSource(config);
+
+        JdbcTemplate jdbcTemplate = jdbcTemplate();
+        new DefaultTransactionRepository(jdbcTemplate, new CategoryDictionary(jdbcTemplate)).copyAll(BenchmarkData.transactions(rows));
+        jdbcTemplate.execute("ANALYZE transaction");
+        minId = jdbcTemplate.queryForObject("SELECT MIN(transaction_id) FROM transaction", Long.class);
+        maxId = jdbcTemplate.queryForObject("SELECT MAX(transaction_id) FROM transaction", Long.class);
+    }
+
+    public JdbcTemplate jdbcTemplate() {
+        return new JdbcTemplate(dataSource);
+    }
+
+    public String jdbcUrl() {
+        return postgres.getJdbcUrl();
+    }
+
+    public String username() {
+        return postgres.getUsername();
+    }
+
+    public String password() {
+        return postgres.getPassword();
+    }
+
+    public long minId() {
+        return minId;
+    }
+
+    public long maxId() {
+        return maxId;
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+        postgres.stop();
+    }
+}
@@ -0,0 +1,60 @@
+package semchishin.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import semchishin.core.model.CategorySuggestions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures category autocompletion from the in-memory index, which has to stay
+ * well below a millisecond per keystroke. A prefix is answered by binary
+ * search, a text in the middle of the names needs the scan of all of them.
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CategorySuggestionsBenchmark {
+
+    private static final int LIMIT = 10;
+
+    @Param({"100", "10000"})
+    private int categories;
+
+    private CategorySuggestions suggestions;
+
+    @Setup
+    public void setup() {
+        List<String> names = new ArrayList<>(categories);
+        for (int i = 0; i < categories; i++) {
+            names.add(BenchmarkData.CATEGORIES[i % BenchmarkData.CATEGORIES.length] + " " + i);
+        }
+        suggestions = CategorySuggestions.of(names);
+    }
+
+    @Benchmark
+    public List<String> suggestPrefix() {
+        return suggestions.suggest("tra", LIMIT);
+    }
+
+    @Benchmark
+    public List<String> suggestSubstring() {
+        return suggestions.suggest("ort 9", LIMIT);
+    }
+
+    @Benchmark
+    public List<String> suggestNoMatch() {
+        return suggestions.suggest("xyz", LIMIT);
+    }
+}
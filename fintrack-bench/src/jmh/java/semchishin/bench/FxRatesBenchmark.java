@@ -0,0 +1,73 @@
+package semchishin.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import semchishin.core.model.FxRates;
+import semchishin.core.model.Money;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Currency;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares converting amounts of a year of daily rates in minor units, as the
+ * ledger snapshot does per row, with converting them as decimals.
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FxRatesBenchmark {
+
+    private static final int SIZE = 10_000;
+
+    private static final long START_DAY = LocalDate.of(2025, 1, 1).toEpochDay();
+
+    private static final int USD_SCALE = Money.scaleOf(Currency.getInstance("USD"));
+
+    private FxRates rates;
+
+    private long[] minorUnits;
+
+    private long[] epochDays;
+
+    @Setup
+    public void setup() {
+        rates = BenchmarkData.fxRates();
+        SplittableRandom random = new SplittableRandom(42L);
+        minorUnits = new long[SIZE];
+        epochDays = new long[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            minorUnits[i] = random.nextLong(-500_00, 5_000_00);
+            epochDays[i] = START_DAY + random.nextInt(365);
+        }
+    }
+
+    @Benchmark
+    public long convertMinorUnits() {
+        long total = 0;
+        for (int i = 0; i < SIZE; i++) {
+            total += rates.toBaseMinor(minorUnits[i], "USD", epochDays[i]);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal convertBigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < SIZE; i++) {
+            total = total.add(rates.toBase(BigDecimal.valueOf(minorUnits[i], USD_SCALE), "USD",
+                    LocalDate.ofEpochDay(epochDays[i])));
+        }
+        return total;
+    }
+}
@@ -0,0 +1,90 @@
+package semchishin.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import semchishin.core.model.CategoryStatistics;
+import semchishin.core.model.TimeBucket;
+import semchishin.core.model.TimeSeriesPoint;
+import semchishin.core.model.Transaction;
+import semchishin.core.model.TransactionFilter;
+import semchishin.core.model.TransactionSummary;
+import semchishin.core.service.statistics.impl.LedgerSnapshot;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures aggregate queries over the in-memory {@link LedgerSnapshot},
+ * scanned by one thread and split over the fork-join pool, with every row in
+ * the base currency and with rows spread over several currencies.
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LedgerSnapshotBenchmark {
+
+    private static final long START_MICROS = LocalDateTime.of(2025, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC) * 1_000_000;
+
+    private static final long YEAR_MICROS = 365L * 24 * 60 * 60 * 1_000_000;
+
+    @Param({"1000000", "10000000"})
+    private int rows;
+
+    @Param({"2147483647", "250000"})
+    private int parallelThreshold;
+
+    @Param({"1", "3"})
+    private int currencies;
+
+    private final TransactionFilter filter = TransactionFilter.builder()
+            .category(BenchmarkData.CATEGORIES[0])
+            .from(LocalDateTime.of(2025, 3, 1, 12, 0))
+            .build();
+
+    private LedgerSnapshot snapshot;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42L);
+        LedgerSnapshot.Builder builder = new LedgerSnapshot.Builder(parallelThreshold, BenchmarkData.fxRates());
+        for (int i = 1; i <= rows; i++) {
+            builder.append(i, Transaction.DEFAULT_ACCOUNT_ID, random.nextLong(-500_00, 5_000_00),
+                    BenchmarkData.CURRENCIES[random.nextInt(currencies)],
+                    BenchmarkData.CATEGORIES[random.nextInt(BenchmarkData.CATEGORIES.length)],
+                    START_MICROS + random.nextLong(YEAR_MICROS));
+        }
+        snapshot = builder.build();
+    }
+
+    @Benchmark
+    public TransactionSummary summarize() {
+        return snapshot.summarize(Transaction.DEFAULT_ACCOUNT_ID, null);
+    }
+
+    @Benchmark
+    public TransactionSummary summarizeFiltered() {
+        return snapshot.summarize(Transaction.DEFAULT_ACCOUNT_ID, filter);
+    }
+
+    @Benchmark
+    public List<CategoryStatistics> summarizeByCategory() {
+        return snapshot.summarizeByCategory(Transaction.DEFAULT_ACCOUNT_ID, null);
+    }
+
+    @Benchmark
+    public List<TimeSeriesPoint> summarizeByDay() {
+        return snapshot.summarizeByTime(Transaction.DEFAULT_ACCOUNT_ID, null, TimeBucket.DAY);
+    }
+}
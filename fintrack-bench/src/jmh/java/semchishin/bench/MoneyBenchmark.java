@@ -0,0 +1,101 @@
+package semchishin.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import semchishin.core.model.Money;
+import semchishin.core.model.Transaction;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link Money} with the {@link BigDecimal} amounts it replaced on
+ * the per-row work of list and sum paths: building the amount of a row read
+ * in minor units, summing a page of amounts and rendering them as JSON text.
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MoneyBenchmark {
+
+    private static final int SCALE = Money.scaleOf(Money.DEFAULT_CURRENCY);
+
+    @Param({"50", "10000"})
+    private int size;
+
+    private long[] minorUnits;
+
+    private Money[] amounts;
+
+    private BigDecimal[] decimals;
+
+    @Setup
+    public void setup() {
+        List<Transaction> transactions = BenchmarkData.transactions(size);
+        minorUnits = new long[size];
+        amounts = new Money[size];
+        decimals = new BigDecimal[size];
+        for (int i = 0; i < size; i++) {
+            amounts[i] = transactions.get(i).getAmount();
+            minorUnits[i] = amounts[i].getMinorUnits();
+            decimals[i] = amounts[i].toBigDecimal();
+        }
+    }
+
+    @Benchmark
+    public void mapMoney(Blackhole blackhole) {
+        for (long units : minorUnits) {
+            blackhole.consume(Money.ofMinor(units));
+        }
+    }
+
+    @Benchmark
+    public void mapBigDecimal(Blackhole blackhole) {
+        for (long units : minorUnits) {
+            blackhole.consume(BigDecimal.valueOf(units, SCALE));
+        }
+    }
+
+    @Benchmark
+    public Money sumMoney() {
+        Money total = Money.ZERO;
+        for (Money amount : amounts) {
+            total = total.plus(amount);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal sumBigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal amount : decimals) {
+            total = total.add(amount);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public void formatMoney(Blackhole blackhole) {
+        for (Money amount : amounts) {
+            blackhole.consume(amount.toPlainString());
+        }
+    }
+
+    @Benchmark
+    public void formatBigDecimal(Blackhole blackhole) {
+        for (BigDecimal amount : decimals) {
+            blackhole.consume(amount.toPlainString());
+        }
+    }
+}
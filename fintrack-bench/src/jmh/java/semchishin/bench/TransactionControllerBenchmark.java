@@ -0,0 +1,188 @@
+package semchishin.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.semchishin.api.controller.TransactionController;
+import com.semchishin.api.mapper.ImportChunkDtoMapperImpl;
+import com.semchishin.api.mapper.TransactionDtoMapperImpl;
+import com.semchishin.api.mapper.TransactionFilterDtoMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import semchishin.core.model.CategorySuggestions;
+import semchishin.core.model.KeysetPage;
+import semchishin.core.model.PageCursor;
+import semchishin.core.model.Transaction;
+import semchishin.core.model.TransactionFilter;
+import semchishin.core.model.TransactionPatch;
+import semchishin.core.service.search.TransactionSearchService;
+import semchishin.core.service.transaction.TransactionService;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Measures the {@link TransactionController} path through MockMvc: request
+ * binding, mapping and JSON conversion, with the service answering from
+ * memory so the database does not dominate the numbers. A conditional
+ * request with the current ETag measures the cost of a {@code 304} answer.
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionControllerBenchmark {
+
+    private static final int STORED_ROWS = 1000;
+
+    private static final String NEW_TRANSACTION =
+            "{\"amount\":125.50,\"category\":\"Food\",\"dateTime\":\"2025-03-01T12:00:00\"}";
+
+    private static final String CURRENT_ETAG = "\"1-1\"";
+
+    private MockMvc mockMvc;
+
+    @Setup
+    public void setup() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        TransactionController controller = new TransactionController(
+                new InMemoryTransactionService(BenchmarkData.storedTransactions(STORED_ROWS)),
+                (accountId, source, mode) -> List.of(),
+                new InMemoryTransactionSearchService(
+                        CategorySuggestions.of(List.of(BenchmarkData.CATEGORIES))),
+                new TransactionDtoMapperImpl(),
+                new TransactionFilterDtoMapperImpl(),
+                new ImportChunkDtoMapperImpl(),
+                objectMapper
+        );
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+    }
+
+    @Benchmark
+    public MvcResult getById() throws Exception {
+        return mockMvc.perform(get("/api/transaction/{id}", 1L)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getPage() throws Exception {
+        return mockMvc.perform(get("/api/transaction/page").param("category", "Food")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getAll() throws Exception {
+        return mockMvc.perform(get("/api/transaction")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getAllNotModified() throws Exception {
+        return mockMvc.perform(get("/api/transaction").header(HttpHeaders.IF_NONE_MATCH, CURRENT_ETAG)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult suggestCategories() throws Exception {
+        return mockMvc.perform(get("/api/transaction/search/categories").param("q", "fo")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult create() throws Exception {
+        return mockMvc.perform(post("/api/transaction")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(NEW_TRANSACTION)).andReturn();
+    }
+
+    /**
+     * Serves a fixed list of transactions and discards writes.
+     */
+    private record InMemoryTransactionService(List<Transaction> transactions) implements TransactionService {
+
+        @Override
+        public Transaction addTransaction(Transaction transaction) {
+            return transaction;
+        }
+
+        @Override
+        public void deleteTransaction(long accountId, long transactionId) {
+        }
+
+        @Override
+        public Optional<Transaction> findTransactionById(long accountId, long transactionId) {
+            return Optional.of(transactions.get((int) (transactionId - 1)));
+        }
+
+        @Override
+        public List<Transaction> findAllTransactions(long accountId) {
+            return transactions;
+        }
+
+        @Override
+        public KeysetPage<Transaction> findTransactions(long accountId, TransactionFilter filter, PageCursor cursor,
+                                                        int pageSize) {
+            List<Transaction> items = transactions.subList(0, pageSize);
+            return new KeysetPage<>(items, PageCursor.after(items.getLast()));
+        }
+
+        @Override
+        public void exportTransactions(long accountId, TransactionFilter filter, Consumer<Transaction> action) {
+            transactions.forEach(action);
+        }
+
+        @Override
+        public void updateTransaction(Transaction transaction) {
+        }
+
+        @Override
+        public Optional<Transaction> patchTransaction(long accountId, long transactionId, TransactionPatch patch) {
+            return Optional.empty();
+        }
+
+        @Override
+        public long getTransactionsVersion() {
+            return 1;
+        }
+    }
+
+    /**
+     * Suggests categories from a fixed index and finds no transactions.
+     */
+    private record InMemoryTransactionSearchService(CategorySuggestions suggestions)
+            implements TransactionSearchService {
+
+        @Override
+        public KeysetPage<Transaction> searchTransactions(long accountId, String query, TransactionFilter filter,
+                                                          PageCursor cursor, int pageSize) {
+            return new KeysetPage<>(List.of(), null);
+        }
+
+        @Override
+        public List<String> suggestCategories(long accountId, String text, int limit) {
+            return suggestions.suggest(text, limit);
+        }
+
+        @Override
+        public CategorySuggestions refreshSuggestions(long accountId) {
+            return suggestions;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package semchishin.bench;
+
+import com.semchishin.api.dto.TransactionDto;
+import com.semchishin.api.mapper.TransactionDtoMapper;
+import com.semchishin.api.mapper.TransactionDtoMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import semchishin.core.model.Transaction;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link TransactionDtoMapper#toDtoList} on list sizes from a single
+ * page up to a full export.
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionDtoMapperBenchmark {
+
+    @Param({"50", "10000", "100000"})
+    private int size;
+
+    private final TransactionDtoMapper mapper = new TransactionDtoMapperImpl();
+
+    private List<Transaction> transactions;
+
+    @Setup
+    public void setup() {
+        transactions = BenchmarkData.storedTransactions(size);
+    }
+
+    @Benchmark
+    public List<TransactionDto> toDtoList() {
+        return mapper.toDtoList(transactions);
+    }
+}
@@ -0,0 +1,66 @@
+package semchishin.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.semchishin.api.dto.TransactionDto;
+import com.semchishin.api.mapper.TransactionDtoMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Jackson serialization of {@link TransactionDto} with an
+ * {@link ObjectMapper} configured like the one Spring Boot gives the API.
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionJsonBenchmark {
+
+    @Param({"1", "50", "10000"})
+    private int size;
+
+    private ObjectWriter listWriter;
+
+    private ObjectMapper objectMapper;
+
+    private List<TransactionDto> dtos;
+
+    private byte[] json;
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, TransactionDto.class));
+        dtos = new TransactionDtoMapperImpl().toDtoList(BenchmarkData.storedTransactions(size));
+        json = listWriter.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public TransactionDto[] deserialize() throws IOException {
+        return objectMapper.readValue(json, TransactionDto[].class);
+    }
+}
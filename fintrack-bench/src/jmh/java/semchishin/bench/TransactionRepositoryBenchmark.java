@@ -0,0 +1,94 @@
+package semchishin.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.core.JdbcTemplate;
+import semchishin.core.model.Transaction;
+import semchishin.core.model.TransactionFilter;
+import semchishin.core.repository.impl.CategoryDictionary;
+import semchishin.core.repository.impl.DefaultTransactionRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link DefaultTransactionRepository} against a {@link BenchmarkDatabase}.
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionRepositoryBenchmark {
+
+    private static final int SEED_ROWS = 100_000;
+
+    private static final int PAGE_SIZE = 50;
+
+    private static final int BATCH_SIZE = 500;
+
+    private BenchmarkDatabase database;
+
+    private DefaultTransactionRepository repository;
+
+    private TransactionFilter categoryFilter;
+
+    private List<Transaction> batch;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        database = new BenchmarkDatabase(SEED_ROWS);
+        JdbcTemplate jdbcTemplate = database.jdbcTemplate();
+        repository = new DefaultTransactionRepository(jdbcTemplate, new CategoryDictionary(jdbcTemplate));
+        categoryFilter = TransactionFilter.builder().category(BenchmarkData.CATEGORIES[0]).build();
+        batch = BenchmarkData.transactions(BATCH_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public Optional<Transaction> findById() {
+        return repository.findById(Transaction.DEFAULT_ACCOUNT_ID,
+                ThreadLocalRandom.current().nextLong(database.minId(), database.maxId() + 1));
+    }
+
+    @Benchmark
+    public List<Transaction> findFirstPage() {
+        return repository.findPage(Transaction.DEFAULT_ACCOUNT_ID, null, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Transaction> findCategoryPage() {
+        return repository.findPage(Transaction.DEFAULT_ACCOUNT_ID, categoryFilter, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Transaction save() {
+        return repository.save(batch.getFirst());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Transaction> saveAllBatched() {
+        return repository.saveAll(batch, BATCH_SIZE);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long copyAll() {
+        return repository.copyAll(batch);
+    }
+}
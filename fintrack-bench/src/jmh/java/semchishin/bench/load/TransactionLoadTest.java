@@ -0,0 +1,196 @@
+package semchishin.bench.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.semchishin.api.FinTrackApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import semchishin.bench.BenchmarkDatabase;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop load test of the transaction API with platform-thread request
+ * handling and with virtual threads behind the connection bulkhead.
+ * <p>
+ * Every client repeatedly fetches a random transaction by id or the first page,
+ * waiting for each response before sending the next request. Throughput and
+ * latency percentiles of both modes are printed and written as JSON to the
+ * file given as the first argument.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+public final class TransactionLoadTest {
+
+    private static final int SEED_ROWS = 100_000;
+
+    private static final int POOL_SIZE = 20;
+
+    private static final Duration WARMUP = Duration.ofSeconds(10);
+
+    private final BenchmarkDatabase database;
+
+    private final int clients;
+
+    private final Duration duration;
+
+    private TransactionLoadTest(BenchmarkDatabase database, int clients, Duration duration) {
+        this.database = database;
+        this.clients = clients;
+        this.duration = duration;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = Integer.getInteger("fintrack.load.clients", 1000);
+        Duration duration = Duration.ofSeconds(Long.getLong("fintrack.load.duration-seconds", 30));
+        List<LoadResult> results = new ArrayList<>();
+        try (BenchmarkDatabase database = new BenchmarkDatabase(SEED_ROWS)) {
+            TransactionLoadTest test = new TransactionLoadTest(database, clients, duration);
+            results.add(test.run("platform", false));
+            results.add(test.run("virtual", true));
+        }
+        System.out.printf("%-10s %8s %10s %8s %12s %9s %9s %9s %9s%n",
+                "mode", "clients", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (LoadResult result : results) {
+            System.out.printf("%-10s %8d %10d %8d %12.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    result.mode(), result.clients(), result.requests(), result.errors(), result.throughput(),
+                    result.p50Millis(), result.p99Millis(), result.p999Millis(), result.maxMillis());
+        }
+        if (args.length > 0) {
+            Path output = Path.of(args[0]);
+            Files.createDirectories(output.getParent());
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(output.toFile(), results);
+        }
+    }
+
+    /**
+     * Starts the application in the given mode, warms it up and measures it.
+     * The platform mode runs without the bulkhead, as the application did
+     * before virtual threads were enabled.
+     */
+    private LoadResult run(String mode, boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(FinTrackApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + database.jdbcUrl(),
+                        "spring.datasource.username=" + database.username(),
+                        "spring.datasource.password=" + database.password(),
+                        "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "spring.datasource.hikari.minimum-idle=" + POOL_SIZE,
+                        "spring.flyway.enabled=false",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "fintrack.datasource.bulkhead.max-concurrent=" + (virtualThreads ? POOL_SIZE : 0),
+                        "logging.level.root=WARN")
+                .run()) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            measure(mode, baseUrl, WARMUP);
+            return measure(mode, baseUrl, duration);
+        }
+    }
+
+    private LoadResult measure(String mode, String baseUrl, Duration length) throws Exception {
+        long deadline = System.nanoTime() + length.toNanos();
+        List<Future<ClientStats>> futures = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder().executor(executor).build()) {
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> runClient(http, baseUrl, deadline)));
+            }
+            ClientStats total = new ClientStats();
+            for (Future<ClientStats> future : futures) {
+                total.merge(future.get());
+            }
+            return total.toResult(mode, clients, length);
+        }
+    }
+
+    private ClientStats runClient(HttpClient http, String baseUrl, long deadline) {
+        ClientStats stats = new ClientStats();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            String path = random.nextBoolean()
+                    ? "/api/transaction/" + random.nextLong(database.minId(), database.maxId() + 1)
+                    : "/api/transaction/page?limit=50";
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                stats.record(System.nanoTime() - start, response.statusCode() >= 500);
+            } catch (IOException e) {
+                stats.record(System.nanoTime() - start, true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Latencies and errors observed by one client, merged into a total at the end.
+     */
+    private static final class ClientStats {
+
+        private long[] latencies = new long[1024];
+
+        private int count;
+
+        private long errors;
+
+        void record(long nanos, boolean error) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (error) {
+                errors++;
+            }
+        }
+
+        void merge(ClientStats other) {
+            for (int i = 0; i < other.count; i++) {
+                record(other.latencies[i], false);
+            }
+            errors += other.errors;
+        }
+
+        LoadResult toResult(String mode, int clients, Duration length) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return new LoadResult(mode, clients, count, errors,
+                    count / (length.toMillis() / 1000.0),
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                    count == 0 ? 0 : sorted[count - 1] / 1_000_000.0);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+
+    /**
+     * Outcome of one measured run.
+     */
+    public record LoadResult(String mode, int clients, long requests, long errors, double throughput,
+                             double p50Millis, double p99Millis, double p999Millis, double maxMillis) {
+    }
+}
@@ -1,10 +1,29 @@
 package semchishin.core.configuration;
 
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.jdbc.core.JdbcTemplate;
+import semchishin.core.datasource.AccountRouter;
+import semchishin.core.datasource.AccountRoutingDataSource;
+import semchishin.core.datasource.BulkheadDataSource;
+import semchishin.core.datasource.ReadYourWrites;
+import semchishin.core.datasource.ReplicaRoutingDataSource;
+import semchishin.core.datasource.StaticAccountRouter;
 
 import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Configuration
 public class DbConfig {
@@ -13,4 +32,200 @@ public class DbConfig {
     public JdbcTemplate jdbcTemplate(DataSource dataSource) {
         return new JdbcTemplate(dataSource);
     }
+
+    /**
+     * Passes the pgjdbc statement cache settings to the Hikari pool before it
+     * opens its first connection.
+     * <p>
+     * {@code prepareThreshold} is the number of executions after which the
+     * driver switches a statement to a named server-side prepared statement;
+     * the cache keeps those per connection, keyed by the SQL string.
+     * </p>
+     */
+    @Bean
+    public static BeanPostProcessor preparedStatementCacheConfigurer(
+            @Value("${fintrack.datasource.prepare-threshold:1}") int prepareThreshold,
+            @Value("${fintrack.datasource.prepared-statement-cache-queries:256}") int cacheQueries,
+            @Value("${fintrack.datasource.prepared-statement-cache-size-mib:5}") int cacheSizeMiB) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    configureStatementCache(hikari, prepareThreshold, cacheQueries, cacheSizeMiB);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Puts a {@link BulkheadDataSource} in front of the connection pool, so
+     * virtual threads queue on a semaphore instead of all contending for the
+     * pool at once. A non-positive limit leaves the data source unwrapped.
+     */
+    @Bean
+    public static BeanPostProcessor connectionBulkheadConfigurer(
+            @Value("${fintrack.datasource.bulkhead.max-concurrent:0}") int maxConcurrent,
+            @Value("${fintrack.datasource.bulkhead.acquire-timeout-millis:5000}") long acquireTimeoutMillis) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (maxConcurrent > 0 && bean instanceof DataSource dataSource
+                        && !(bean instanceof BulkheadDataSource) && !(bean instanceof AccountRoutingDataSource)
+                        && !(bean instanceof ReplicaRoutingDataSource)) {
+                    return new BulkheadDataSource(dataSource, maxConcurrent, acquireTimeoutMillis);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Routes accounts listed in {@code fintrack.accounts.routes} to their own
+     * database, every other account stays in the shared one.
+     */
+    @Bean
+    public AccountRouter accountRouter(@Value("${fintrack.accounts.routes:}") String routes) {
+        return StaticAccountRouter.parse(routes);
+    }
+
+    /**
+     * Accounts whose reads stay on the primary database for
+     * {@code fintrack.replicas.read-your-writes-millis} after they wrote.
+     */
+    @Bean
+    public ReadYourWrites readYourWrites(@Value("${fintrack.replicas.read-your-writes-millis:5000}") long windowMillis) {
+        return new ReadYourWrites(Duration.ofMillis(windowMillis));
+    }
+
+    /**
+     * Replaces the data source by the routing ones it is configured for.
+     * <p>
+     * With read replicas listed in {@code fintrack.replicas.names}, the shared
+     * data source becomes a {@link ReplicaRoutingDataSource} serving read-only
+     * transactions from the replicas that lag by at most
+     * {@code fintrack.replicas.max-lag-millis}. Each replica gets its own
+     * read-only Hikari pool, configured by {@code fintrack.replicas.datasources.<name>.*}.
+     * </p>
+     * <p>
+     * Once accounts are routed to dedicated databases, it is then wrapped by an
+     * {@link AccountRoutingDataSource}. Each dedicated database gets its own
+     * Hikari pool, configured by {@code fintrack.accounts.datasources.<route>.*},
+     * and has no replicas. The routes are {@code fintrack.accounts.datasource-names},
+     * or those of the {@link StaticAccountRouter} if not set; a custom router must
+     * name its routes there.
+     * </p>
+     * <p>
+     * Every pool gets the statement cache and bulkhead settings of the shared
+     * pool, and reports its wait and usage to the {@link MeterRegistry}, if there
+     * is one, under its pool name {@code fintrack-<name>}. Without replicas and
+     * dedicated databases the data source is left as it is.
+     * </p>
+     */
+    @Bean
+    public static BeanPostProcessor dataSourceRoutingConfigurer(Environment environment,
+                                                                ObjectProvider<AccountRouter> accountRouter,
+                                                                ObjectProvider<ReadYourWrites> readYourWrites,
+                                                                ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof AccountRoutingDataSource
+                        || bean instanceof ReplicaRoutingDataSource) {
+                    return bean;
+                }
+                AccountRouter router = accountRouter.getObject();
+                Set<String> routes = dedicatedRoutes(environment, router);
+                Set<String> replicas = names(environment.getProperty("fintrack.replicas.names", ""));
+                if (routes.isEmpty() && replicas.isEmpty()) {
+                    return bean;
+                }
+                MeterRegistry registry = meterRegistry.getIfAvailable();
+                int maxConcurrent = environment.getProperty(
+                        "fintrack.datasource.bulkhead.max-concurrent", Integer.class, 0);
+                long acquireTimeoutMillis = environment.getProperty(
+                        "fintrack.datasource.bulkhead.acquire-timeout-millis", Long.class, 5000L);
+                if (maxConcurrent > 0 && !(dataSource instanceof BulkheadDataSource)) {
+                    dataSource = new BulkheadDataSource(dataSource, maxConcurrent, acquireTimeoutMillis);
+                }
+                if (!replicas.isEmpty()) {
+                    Map<String, DataSource> replicaPools = new LinkedHashMap<>();
+                    for (String replica : replicas) {
+                        HikariDataSource pool = pool(environment, "fintrack.replicas.datasources.", replica, registry);
+                        pool.setReadOnly(true);
+                        replicaPools.put(replica, bulkhead(pool, maxConcurrent, acquireTimeoutMillis));
+                    }
+                    long maxLagMillis = environment.getProperty(
+                            "fintrack.replicas.max-lag-millis", Long.class, 5000L);
+                    dataSource = new ReplicaRoutingDataSource(dataSource, replicaPools, readYourWrites.getObject(),
+                            Duration.ofMillis(maxLagMillis), Clock.systemUTC());
+                }
+                if (routes.isEmpty()) {
+                    return dataSource;
+                }
+                Map<String, DataSource> dedicated = new LinkedHashMap<>();
+                for (String route : routes) {
+                    HikariDataSource pool = pool(environment, "fintrack.accounts.datasources.", route, registry);
+                    dedicated.put(route, bulkhead(pool, maxConcurrent, acquireTimeoutMillis));
+                }
+                return new AccountRoutingDataSource(router, dataSource, dedicated);
+            }
+        };
+    }
+
+    /**
+     * Returns the routes of the dedicated databases, see {@link #dataSourceRoutingConfigurer}.
+     */
+    static Set<String> dedicatedRoutes(Environment environment, AccountRouter router) {
+        String names = environment.getProperty("fintrack.accounts.datasource-names", "");
+        if (names.isBlank() && router instanceof StaticAccountRouter staticRouter) {
+            return staticRouter.dedicatedRoutes();
+        }
+        Set<String> routes = names(names);
+        routes.remove(AccountRouter.DEFAULT_ROUTE);
+        return routes;
+    }
+
+    private static Set<String> names(String commaSeparated) {
+        Set<String> names = new TreeSet<>();
+        for (String name : commaSeparated.split(",")) {
+            if (!name.isBlank()) {
+                names.add(name.trim());
+            }
+        }
+        return names;
+    }
+
+    private static DataSource bulkhead(HikariDataSource pool, int maxConcurrent, long acquireTimeoutMillis) {
+        return maxConcurrent > 0
+                ? new BulkheadDataSource(pool, pool.getMaximumPoolSize(), acquireTimeoutMillis)
+                : pool;
+    }
+
+    private static HikariDataSource pool(Environment environment, String prefixOfNames, String name,
+                                         MeterRegistry registry) {
+        String prefix = prefixOfNames + name + ".";
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName("fintrack-" + name);
+        if (registry != null) {
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        }
+        pool.setJdbcUrl(environment.getRequiredProperty(prefix + "url"));
+        pool.setUsername(environment.getProperty(prefix + "username"));
+        pool.setPassword(environment.getProperty(prefix + "password"));
+        pool.setMaximumPoolSize(environment.getProperty(prefix + "maximum-pool-size", Integer.class, 10));
+        pool.setMinimumIdle(environment.getProperty(prefix + "minimum-idle", Integer.class, 1));
+        configureStatementCache(pool,
+                environment.getProperty("fintrack.datasource.prepare-threshold", Integer.class, 1),
+                environment.getProperty("fintrack.datasource.prepared-statement-cache-queries", Integer.class, 256),
+                environment.getProperty("fintrack.datasource.prepared-statement-cache-size-mib", Integer.class, 5));
+        return pool;
+    }
+
+    private static void configureStatementCache(HikariDataSource hikari, int prepareThreshold, int cacheQueries,
+                                                int cacheSizeMiB) {
+        hikari.addDataSourceProperty("prepareThreshold", prepareThreshold);
+        hikari.addDataSourceProperty("preparedStatementCacheQueries", cacheQueries);
+        hikari.addDataSourceProperty("preparedStatementCacheSizeMiB", cacheSizeMiB);
+    }
 }
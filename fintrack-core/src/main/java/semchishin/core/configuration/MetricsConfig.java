@@ -0,0 +1,78 @@
+package semchishin.core.configuration;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.support.annotation.AnnotationClassFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.stereotype.Repository;
+import org.springframework.stereotype.Service;
+import semchishin.core.datasource.AccountRouter;
+import semchishin.core.datasource.AccountRoutingDataSource;
+import semchishin.core.datasource.BulkheadDataSource;
+import semchishin.core.metrics.OperationMetricsInterceptor;
+import semchishin.core.metrics.OperationMetricsPostProcessor;
+import semchishin.core.repository.impl.CategoryDictionary;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Times every repository call and logs the ones slower than
+     * {@code fintrack.metrics.slow-query-threshold-millis}. The category
+     * dictionary is left out, it is called once per mapped row and answers
+     * from memory.
+     */
+    @Bean
+    public static OperationMetricsPostProcessor repositoryMetricsPostProcessor(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${fintrack.metrics.slow-query-threshold-millis:500}") long slowQueryThresholdMillis) {
+        ClassFilter repositories = new AnnotationClassFilter(Repository.class);
+        return new OperationMetricsPostProcessor(
+                type -> repositories.matches(type) && !CategoryDictionary.class.isAssignableFrom(type),
+                new OperationMetricsInterceptor(meterRegistry, "repository", Duration.ofMillis(slowQueryThresholdMillis)));
+    }
+
+    /**
+     * Times every service call.
+     */
+    @Bean
+    public static OperationMetricsPostProcessor serviceMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new OperationMetricsPostProcessor(new AnnotationClassFilter(Service.class),
+                new OperationMetricsInterceptor(meterRegistry, "service", Duration.ZERO));
+    }
+
+    /**
+     * Publishes the free permits and the waiting callers of the connection
+     * bulkhead of each routed database; the pools behind them are measured by
+     * the {@code hikaricp} meters.
+     */
+    @Bean
+    public MeterBinder connectionBulkheadMetrics(DataSource dataSource) {
+        return registry -> {
+            Map<String, DataSource> targets = dataSource instanceof AccountRoutingDataSource routing
+                    ? routing.targets()
+                    : Map.of(AccountRouter.DEFAULT_ROUTE, dataSource);
+            targets.forEach((route, target) -> {
+                if (target instanceof BulkheadDataSource bulkhead) {
+                    Gauge.builder("fintrack.datasource.bulkhead.available", bulkhead, BulkheadDataSource::availablePermits)
+                            .description("Connections that can be checked out without waiting")
+                            .tag("route", route)
+                            .register(registry);
+                    Gauge.builder("fintrack.datasource.bulkhead.waiting", bulkhead, BulkheadDataSource::waitingCallers)
+                            .description("Callers waiting for a connection")
+                            .tag("route", route)
+                            .register(registry);
+                }
+            });
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package semchishin.core.configuration;
+
+/**
+ * Names of the Spring profiles that switch application variants.
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+public final class Profiles {
+
+    /**
+     * Serves transactions through WebFlux and R2DBC instead of MVC and JDBC.
+     */
+    public static final String REACTIVE = "reactive";
+
+    private Profiles() {
+    }
+}
@@ -0,0 +1,80 @@
+package semchishin.core.configuration;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.r2dbc.core.DatabaseClient;
+import semchishin.core.datasource.AccountRouter;
+import semchishin.core.datasource.AccountRoutingConnectionFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * R2DBC connection setup of the {@link Profiles#REACTIVE} variant.
+ * <p>
+ * The connection factory is built here rather than by Spring Boot, so that
+ * no reactive transaction manager is registered next to the JDBC one used by
+ * the blocking services and jobs.
+ * </p>
+ *
+ * <p>
+ * Accounts routed to dedicated databases, see {@link DbConfig#dataSourceRoutingConfigurer},
+ * are served from those databases here too: each route needs
+ * {@code fintrack.accounts.r2dbc.<route>.url}, {@code username} and {@code password},
+ * and the connection factory becomes an {@link AccountRoutingConnectionFactory}.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+@Configuration
+@Profile(Profiles.REACTIVE)
+public class R2dbcConfig {
+
+    /**
+     * Creates the connection factory from an R2DBC URL; an {@code r2dbc:pool:}
+     * URL yields a pooled factory configured through its query parameters.
+     * With dedicated databases it routes each account to the factory of its route.
+     */
+    @Bean
+    public ConnectionFactory connectionFactory(
+            Environment environment,
+            AccountRouter accountRouter,
+            @Value("${fintrack.r2dbc.url}") String url,
+            @Value("${fintrack.r2dbc.username}") String username,
+            @Value("${fintrack.r2dbc.password}") String password) {
+        ConnectionFactory shared = connectionFactory(url, username, password);
+        Set<String> routes = DbConfig.dedicatedRoutes(environment, accountRouter);
+        if (routes.isEmpty()) {
+            return shared;
+        }
+        Map<String, ConnectionFactory> dedicated = new LinkedHashMap<>();
+        for (String route : routes) {
+            String prefix = "fintrack.accounts.r2dbc." + route + ".";
+            dedicated.put(route, connectionFactory(
+                    environment.getRequiredProperty(prefix + "url"),
+                    environment.getRequiredProperty(prefix + "username"),
+                    environment.getRequiredProperty(prefix + "password")));
+        }
+        return new AccountRoutingConnectionFactory(accountRouter, shared, dedicated);
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    private static ConnectionFactory connectionFactory(String url, String username, String password) {
+        return ConnectionFactories.get(ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build());
+    }
+}
@@ -0,0 +1,89 @@
+package semchishin.core.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Account the current thread works for.
+ * <p>
+ * The account only selects the database a connection is taken from, see
+ * {@link AccountRoutingDataSource}; queries are scoped by the account ID
+ * passed to the repositories. A thread without a bound account uses the
+ * default database. Work handed to another thread must bind the account
+ * there again.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+public final class AccountContext {
+
+    private static final ThreadLocal<Long> CURRENT = new ThreadLocal<>();
+
+    private AccountContext() {
+    }
+
+    /**
+     * @return the account bound to the current thread, {@code null} if none
+     */
+    public static Long current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Binds the account to the current thread until the returned binding is closed,
+     * which restores the previous one.
+     *
+     * @param accountId the account
+     * @return the binding, to be closed by the same thread
+     */
+    public static Binding bind(long accountId) {
+        Long previous = CURRENT.get();
+        CURRENT.set(accountId);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Runs an action with the account bound to the current thread.
+     *
+     * @param accountId the account
+     * @param action    the action
+     */
+    public static void run(long accountId, Runnable action) {
+        try (Binding ignored = bind(accountId)) {
+            action.run();
+        }
+    }
+
+    /**
+     * Calls a function with the account bound to the current thread.
+     *
+     * @param accountId the account
+     * @param action    the function
+     * @param <T>       type of the result
+     * @return the result of the function
+     */
+    public static <T> T call(long accountId, Supplier<T> action) {
+        try (Binding ignored = bind(accountId)) {
+            return action.get();
+        }
+    }
+
+    /**
+     * An account bound to a thread.
+     */
+    @FunctionalInterface
+    public interface Binding extends AutoCloseable {
+
+        /**
+         * Restores the account bound before.
+         */
+        @Override
+        void close();
+    }
+}
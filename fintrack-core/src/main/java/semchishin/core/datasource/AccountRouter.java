@@ -0,0 +1,37 @@
+package semchishin.core.datasource;
+
+/**
+ * Decides which database holds the transactions of an account.
+ * <p>
+ * The default implementation is {@link StaticAccountRouter}; a bean of another
+ * implementation marked {@code @Primary} replaces it, e.g. one that looks the
+ * route up in a directory service.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+public interface AccountRouter {
+
+    /**
+     * Route of the database configured by {@code spring.datasource}.
+     */
+    String DEFAULT_ROUTE = "default";
+
+    /**
+     * Returns the route of an account. Must be cheap, it is asked for every
+     * connection taken for the account.
+     *
+     * @param accountId the account
+     * @return name of the data source holding the account, {@link #DEFAULT_ROUTE} for the shared one
+     */
+    String route(long accountId);
+
+    /**
+     * @param accountId the account
+     * @return {@code true} if the account is kept in the shared database
+     */
+    default boolean isDefault(long accountId) {
+        return DEFAULT_ROUTE.equals(route(accountId));
+    }
+}
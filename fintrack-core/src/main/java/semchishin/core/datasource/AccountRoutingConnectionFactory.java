@@ -0,0 +1,98 @@
+package semchishin.core.datasource;
+
+import io.r2dbc.spi.Closeable;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.r2dbc.connection.lookup.AbstractRoutingConnectionFactory;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * {@link ConnectionFactory} that takes each connection from the database of the
+ * account bound to the Reactor context, the reactive counterpart of
+ * {@link AccountRoutingDataSource}.
+ * <p>
+ * A reactive pipeline hops between threads, so the account cannot be bound by
+ * {@link AccountContext}; it is written into the subscriber context with
+ * {@link #bind(long)} instead. Pipelines without a bound account use the default
+ * connection factory. A route without a connection factory fails instead of
+ * silently writing an account into the shared database.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+public class AccountRoutingConnectionFactory extends AbstractRoutingConnectionFactory implements AutoCloseable {
+
+    /**
+     * Key of the bound account in the Reactor context.
+     */
+    private static final String ACCOUNT_ID_KEY = AccountRoutingConnectionFactory.class.getName() + ".accountId";
+
+    private final AccountRouter router;
+
+    private final ConnectionFactory defaultConnectionFactory;
+
+    private final Map<String, ConnectionFactory> dedicated;
+
+    /**
+     * @param router                   the router choosing the connection factory of an account
+     * @param defaultConnectionFactory the shared connection factory
+     * @param dedicated                connection factories of accounts moved out of the shared database, by route
+     */
+    public AccountRoutingConnectionFactory(AccountRouter router, ConnectionFactory defaultConnectionFactory,
+                                           Map<String, ConnectionFactory> dedicated) {
+        this.router = router;
+        this.defaultConnectionFactory = defaultConnectionFactory;
+        this.dedicated = Map.copyOf(dedicated);
+        Map<Object, Object> targets = new HashMap<>(dedicated);
+        targets.put(AccountRouter.DEFAULT_ROUTE, defaultConnectionFactory);
+        setTargetConnectionFactories(targets);
+        setDefaultTargetConnectionFactory(defaultConnectionFactory);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Returns a context writer binding an account, for {@code contextWrite} of a pipeline.
+     *
+     * @param accountId the account whose database the pipeline's connections are taken from
+     * @return the context writer
+     */
+    public static Function<Context, Context> bind(long accountId) {
+        return context -> context.put(ACCOUNT_ID_KEY, accountId);
+    }
+
+    /**
+     * @return every connection factory by route, the shared one first
+     */
+    public Map<String, ConnectionFactory> targets() {
+        Map<String, ConnectionFactory> result = new LinkedHashMap<>();
+        result.put(AccountRouter.DEFAULT_ROUTE, defaultConnectionFactory);
+        result.putAll(dedicated);
+        return result;
+    }
+
+    @Override
+    protected Mono<Object> determineCurrentLookupKey() {
+        return Mono.deferContextual(context -> Mono.justOrEmpty(context.<Long>getOrEmpty(ACCOUNT_ID_KEY))
+                .<Object>map(router::route));
+    }
+
+    /**
+     * Closes the dedicated connection factories and the shared one, which this
+     * connection factory replaces as a bean.
+     */
+    @Override
+    public void close() {
+        for (ConnectionFactory connectionFactory : targets().values()) {
+            if (connectionFactory instanceof Closeable closeable) {
+                Mono.from(closeable.close()).block();
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package semchishin.core.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link DataSource} that takes each connection from the database of the
+ * account bound by {@link AccountContext}.
+ * <p>
+ * The route is asked from the {@link AccountRouter} when a connection is taken,
+ * so a transaction stays on the database it started on. Threads without a bound
+ * account use the default data source. A route without a data source fails
+ * instead of silently writing an account into the shared database.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+public class AccountRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final AccountRouter router;
+
+    private final DataSource defaultDataSource;
+
+    private final Map<String, DataSource> dedicated;
+
+    /**
+     * @param router            the router choosing the data source of an account
+     * @param defaultDataSource the shared data source
+     * @param dedicated         data sources of accounts moved out of the shared one, by route
+     */
+    public AccountRoutingDataSource(AccountRouter router, DataSource defaultDataSource,
+                                    Map<String, DataSource> dedicated) {
+        this.router = router;
+        this.defaultDataSource = defaultDataSource;
+        this.dedicated = Map.copyOf(dedicated);
+        Map<Object, Object> targets = new HashMap<>(dedicated);
+        targets.put(AccountRouter.DEFAULT_ROUTE, defaultDataSource);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(defaultDataSource);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    /**
+     * @return every data source by route, the shared one first
+     */
+    public Map<String, DataSource> targets() {
+        Map<String, DataSource> result = new LinkedHashMap<>();
+        result.put(AccountRouter.DEFAULT_ROUTE, defaultDataSource);
+        result.putAll(dedicated);
+        return result;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long accountId = AccountContext.current();
+        return accountId == null ? null : router.route(accountId);
+    }
+
+    /**
+     * Closes the dedicated data sources and the shared one, which this data source
+     * replaces as a bean, unwrapping delegating ones.
+     */
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : targets().values()) {
+            while (dataSource instanceof DelegatingDataSource delegating) {
+                dataSource = delegating.getTargetDataSource();
+            }
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package semchishin.core.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+
+/**
+ * Accounts that wrote recently and therefore read from the primary database.
+ * <p>
+ * A replica may not have applied a write yet when the next request of the same
+ * account reads, so {@link ReplicaRoutingDataSource} sends the reads of an
+ * account to the primary for a short window after each of its writes. Writes
+ * are recorded by the services, reads are matched by the account bound to
+ * {@link AccountContext}. The window is kept in memory, so it covers the reads
+ * served by the instance that took the write.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+public class ReadYourWrites {
+
+    /**
+     * Instance that never pins an account.
+     */
+    public static final ReadYourWrites DISABLED = new ReadYourWrites(Duration.ZERO);
+
+    /**
+     * Accounts by the end of their window, {@code null} if disabled.
+     */
+    private final Cache<Long, Boolean> pinned;
+
+    /**
+     * @param window how long the reads of an account stay on the primary after it wrote, zero to disable
+     */
+    public ReadYourWrites(Duration window) {
+        this(window, Ticker.systemTicker());
+    }
+
+    /**
+     * @param window how long the reads of an account stay on the primary after it wrote, zero to disable
+     * @param ticker the time source of the window
+     */
+    public ReadYourWrites(Duration window, Ticker ticker) {
+        this.pinned = window.isZero() || window.isNegative() ? null : Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Pins the reads of the account to the primary for the window, starting now.
+     *
+     * @param accountId the account that wrote
+     */
+    public void recordWrite(long accountId) {
+        if (pinned != null) {
+            pinned.put(accountId, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * @param accountId the account, {@code null} if none is bound
+     * @return {@code true} if the account wrote within the window
+     */
+    public boolean isPinned(Long accountId) {
+        return pinned != null && accountId != null && pinned.getIfPresent(accountId) != null;
+    }
+}
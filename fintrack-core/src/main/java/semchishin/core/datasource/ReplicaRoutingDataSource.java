@@ -0,0 +1,213 @@
+package semchishin.core.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import semchishin.core.repository.SqlQueries;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link DataSource} that serves read-only transactions from read replicas of
+ * the primary database.
+ * <p>
+ * Connections are obtained lazily, when the first statement runs, so a
+ * transaction marked {@code @Transactional(readOnly = true)} is known to be
+ * read-only by then and gets a connection of a replica; everything else,
+ * including statements outside a transaction, uses the primary. Replicas
+ * lagging behind the primary by more than the threshold are skipped, and so
+ * are all of them for an account that wrote recently, see {@link ReadYourWrites}.
+ * Without a usable replica the primary serves the read.
+ * </p>
+ * <p>
+ * The account bound to {@link AccountContext} picks its replica by ID, so the
+ * reads of one account do not go back in time while its replica stays within
+ * the threshold: a change counter read for an ETag is not ahead of the rows
+ * read after it. Threads without an account take the replicas in turn.
+ * </p>
+ * <p>
+ * The lag is measured by {@link #checkReplicas()}: it reads the heartbeat each
+ * replica has replicated, then writes a new one to the primary. The age of the
+ * replicated heartbeat includes up to one check interval, so the threshold must
+ * be well above the interval. A replica is skipped until its first check and
+ * whenever it cannot be reached.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    private static final String HEARTBEAT_TABLE_NAME = "replica_heartbeat";
+
+    private static final String SELECT_HEARTBEAT_SQL = String.format(SqlQueries.SELECT_HEARTBEAT,
+            HEARTBEAT_TABLE_NAME);
+
+    private static final String UPDATE_HEARTBEAT_SQL = String.format(SqlQueries.UPDATE_HEARTBEAT,
+            HEARTBEAT_TABLE_NAME);
+
+    private final DataSource primary;
+
+    private final List<Replica> replicas;
+
+    private final ReadYourWrites readYourWrites;
+
+    private final long maxLagMillis;
+
+    private final Clock clock;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * @param primary        the primary database, serving writes
+     * @param replicas       the read replicas of the primary, by name
+     * @param readYourWrites the accounts whose reads stay on the primary
+     * @param maxLag         the lag beyond which a replica is skipped
+     * @param clock          the clock heartbeats are written and aged with
+     */
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                    ReadYourWrites readYourWrites, Duration maxLag, Clock clock) {
+        super(primary);
+        this.primary = primary;
+        this.replicas = replicas.entrySet().stream()
+                .map(entry -> new Replica(entry.getKey(), entry.getValue()))
+                .toList();
+        this.readYourWrites = readYourWrites;
+        this.maxLagMillis = maxLag.toMillis();
+        this.clock = clock;
+        setReadOnlyDataSource(new ReadOnlyDataSource());
+    }
+
+    /**
+     * Measures the lag of every replica, then writes a new heartbeat to the primary.
+     */
+    public void checkReplicas() {
+        OffsetDateTime now = OffsetDateTime.now(clock);
+        for (Replica replica : replicas) {
+            replica.lagMillis = lagMillis(replica, now);
+        }
+        try (Connection connection = primary.getConnection();
+             PreparedStatement ps = connection.prepareStatement(UPDATE_HEARTBEAT_SQL)) {
+            ps.setObject(1, now);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            log.warn("Failed to write the replica heartbeat", e);
+        }
+    }
+
+    /**
+     * @return the last measured lag of every replica by name, {@code null} if unknown
+     */
+    public Map<String, Duration> replicaLags() {
+        Map<String, Duration> lags = new LinkedHashMap<>();
+        for (Replica replica : replicas) {
+            long lag = replica.lagMillis;
+            lags.put(replica.name, lag == Long.MAX_VALUE ? null : Duration.ofMillis(lag));
+        }
+        return lags;
+    }
+
+    /**
+     * Closes the replicas and the primary, unwrapping delegating data sources.
+     */
+    @Override
+    public void close() throws Exception {
+        List<DataSource> all = new ArrayList<>();
+        all.add(primary);
+        replicas.forEach(replica -> all.add(replica.dataSource));
+        for (DataSource dataSource : all) {
+            while (dataSource instanceof DelegatingDataSource delegating) {
+                dataSource = delegating.getTargetDataSource();
+            }
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    /**
+     * Chooses the data source of a read-only transaction: the replica of the
+     * account or the next one within the lag threshold, or the primary.
+     */
+    private DataSource readOnlyTarget() {
+        Long accountId = AccountContext.current();
+        int size = replicas.size();
+        if (size == 0 || readYourWrites.isPinned(accountId)) {
+            return primary;
+        }
+        int start = Math.floorMod(accountId == null ? next.getAndIncrement() : Long.hashCode(accountId), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.lagMillis <= maxLagMillis) {
+                return replica.dataSource;
+            }
+        }
+        return primary;
+    }
+
+    private long lagMillis(Replica replica, OffsetDateTime now) {
+        try (Connection connection = replica.dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(SELECT_HEARTBEAT_SQL);
+             ResultSet rs = ps.executeQuery()) {
+            if (!rs.next()) {
+                return Long.MAX_VALUE;
+            }
+            OffsetDateTime beatAt = rs.getObject(1, OffsetDateTime.class);
+            long lag = Math.max(0, Duration.between(beatAt, now).toMillis());
+            if (lag > maxLagMillis) {
+                log.debug("Replica {} lags by {} ms, reads go to other databases", replica.name, lag);
+            }
+            return lag;
+        } catch (SQLException | ArithmeticException e) {
+            log.warn("Failed to read the heartbeat of replica {}, reads go to other databases", replica.name, e);
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * A replica with its last measured lag.
+     */
+    private static final class Replica {
+
+        private final String name;
+
+        private final DataSource dataSource;
+
+        private volatile long lagMillis = Long.MAX_VALUE;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    /**
+     * Target of the connections of read-only transactions.
+     */
+    private final class ReadOnlyDataSource extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return readOnlyTarget().getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return readOnlyTarget().getConnection(username, password);
+        }
+    }
+}
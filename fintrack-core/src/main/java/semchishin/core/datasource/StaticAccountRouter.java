@@ -0,0 +1,71 @@
+package semchishin.core.datasource;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * {@link AccountRouter} backed by a fixed table of accounts that have their own
+ * database; every other account stays in the shared one.
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+public class StaticAccountRouter implements AccountRouter {
+
+    private final Map<Long, String> routes;
+
+    /**
+     * @param routes names of the data sources by account
+     */
+    public StaticAccountRouter(Map<Long, String> routes) {
+        this.routes = Map.copyOf(routes);
+    }
+
+    /**
+     * Parses a comma-separated list of {@code account=route} pairs,
+     * e.g. {@code 42=large,77=large}.
+     *
+     * @param routes the list, may be blank
+     * @return the router
+     * @throws IllegalArgumentException if a pair is malformed or an account is listed twice
+     */
+    public static StaticAccountRouter parse(String routes) {
+        Map<Long, String> parsed = new HashMap<>();
+        for (String pair : routes.split(",")) {
+            if (pair.isBlank()) {
+                continue;
+            }
+            int separator = pair.indexOf('=');
+            String route = separator < 0 ? "" : pair.substring(separator + 1).trim();
+            if (route.isEmpty()) {
+                throw new IllegalArgumentException("Account route must be account=route: " + pair.trim());
+            }
+            long accountId;
+            try {
+                accountId = Long.parseLong(pair.substring(0, separator).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Account route must be account=route: " + pair.trim(), e);
+            }
+            if (parsed.put(accountId, route) != null) {
+                throw new IllegalArgumentException("Account " + accountId + " is routed twice");
+            }
+        }
+        return new StaticAccountRouter(parsed);
+    }
+
+    @Override
+    public String route(long accountId) {
+        return routes.getOrDefault(accountId, DEFAULT_ROUTE);
+    }
+
+    /**
+     * @return names of the data sources accounts are routed to, besides the default one
+     */
+    public Set<String> dedicatedRoutes() {
+        Set<String> result = new TreeSet<>(routes.values());
+        result.remove(DEFAULT_ROUTE);
+        return result;
+    }
+}
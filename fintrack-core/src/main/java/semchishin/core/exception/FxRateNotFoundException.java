@@ -0,0 +1,34 @@
+package semchishin.core.exception;
+
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * Thrown when an amount has to be converted to the base currency but no
+ * exchange rate of its currency is known on or before its day.
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@Getter
+public class FxRateNotFoundException extends RuntimeException {
+
+    /**
+     * ISO 4217 code of the currency without a rate.
+     */
+    private final String currency;
+
+    /**
+     * Day a rate was needed for.
+     */
+    private final LocalDate date;
+
+    public FxRateNotFoundException(String currency, LocalDate date) {
+        super("No exchange rate of " + currency + " on or before " + date);
+        this.currency = currency;
+        this.date = date;
+    }
+
+}
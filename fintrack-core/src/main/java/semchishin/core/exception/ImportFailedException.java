@@ -0,0 +1,37 @@
+package semchishin.core.exception;
+
+import lombok.Getter;
+import semchishin.core.model.ImportChunkResult;
+
+import java.util.List;
+
+/**
+ * Thrown when a bulk import stops at a chunk that could not be read or
+ * written. The chunks before it are committed and reported with the failure;
+ * the cause is the error of the failed chunk.
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@Getter
+public class ImportFailedException extends RuntimeException {
+
+    /**
+     * Zero-based position of the chunk that failed.
+     */
+    private final int failedChunk;
+
+    /**
+     * Results of the chunks committed before the failure, in import order.
+     */
+    private final List<ImportChunkResult> committedChunks;
+
+    public ImportFailedException(List<ImportChunkResult> committedChunks, Throwable cause) {
+        super("Chunk " + committedChunks.size() + " of the import failed, "
+                + committedChunks.size() + " chunks before it are committed", cause);
+        this.failedChunk = committedChunks.size();
+        this.committedChunks = List.copyOf(committedChunks);
+    }
+
+}
@@ -0,0 +1,161 @@
+package semchishin.core.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Records latency and result size of every call to a bean of one application layer.
+ * <p>
+ * Each method gets a {@value #TIMER_NAME} timer tagged with the layer, class,
+ * method and outcome, published as a percentile histogram so quantiles can be
+ * aggregated across instances. Methods returning a collection also get a
+ * {@value #ROWS_NAME} distribution of the collection size. The meters of a
+ * method are created on its first call and looked up by {@link Method}
+ * afterwards, so a call costs two clock reads and a map lookup.
+ * </p>
+ *
+ * <p>
+ * Calls slower than the threshold are logged with the layer and the operation
+ * name. For repositories the operation name identifies the SQL template, every
+ * repository method runs its own {@code SqlQueries} statement.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@Slf4j
+public class OperationMetricsInterceptor implements MethodInterceptor {
+
+    /**
+     * Name of the latency timer.
+     */
+    public static final String TIMER_NAME = "fintrack.operation";
+
+    /**
+     * Name of the distribution of returned collection sizes.
+     */
+    public static final String ROWS_NAME = "fintrack.operation.rows";
+
+    /**
+     * Upper bound of the latency histogram buckets.
+     */
+    private static final Duration MAX_EXPECTED_DURATION = Duration.ofSeconds(30);
+
+    /**
+     * Upper bound of the result size histogram buckets.
+     */
+    private static final double MAX_EXPECTED_ROWS = 100_000;
+
+    private final Supplier<MeterRegistry> registry;
+
+    private final String layer;
+
+    private final long slowThresholdNanos;
+
+    private final Map<Method, OperationMeters> meters = new ConcurrentHashMap<>();
+
+    /**
+     * @param registry      registry to record into, the global registry is used if there is none
+     * @param layer         value of the {@code layer} tag
+     * @param slowThreshold calls taking at least this long are logged, zero disables the log
+     */
+    public OperationMetricsInterceptor(ObjectProvider<MeterRegistry> registry, String layer, Duration slowThreshold) {
+        this.registry = SingletonSupplier.of(() -> registry.getIfAvailable(() -> Metrics.globalRegistry));
+        this.layer = layer;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            OperationMeters operation = metersOf(invocation);
+            record(operation, operation.failed, start);
+            throw e;
+        }
+        OperationMeters operation = metersOf(invocation);
+        record(operation, operation.succeeded, start);
+        if (operation.rows != null && result instanceof Collection<?> rows) {
+            operation.rows.record(rows.size());
+        }
+        return result;
+    }
+
+    private void record(OperationMeters operation, Timer timer, long start) {
+        long elapsed = System.nanoTime() - start;
+        timer.record(elapsed, TimeUnit.NANOSECONDS);
+        if (slowThresholdNanos > 0 && elapsed >= slowThresholdNanos) {
+            log.warn("Slow {} operation {} took {} ms", layer, operation.name,
+                    TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+    }
+
+    private OperationMeters metersOf(MethodInvocation invocation) {
+        return meters.computeIfAbsent(invocation.getMethod(), method -> {
+            Object target = invocation.getThis();
+            String type = (target != null ? target.getClass() : method.getDeclaringClass()).getSimpleName();
+            return new OperationMeters(registry.get(), layer, type, method);
+        });
+    }
+
+    /**
+     * Meters of one method, registered once.
+     */
+    private static final class OperationMeters {
+
+        private final String name;
+
+        private final Timer succeeded;
+
+        private final Timer failed;
+
+        private final DistributionSummary rows;
+
+        private OperationMeters(MeterRegistry registry, String layer, String type, Method method) {
+            this.name = type + "." + method.getName();
+            this.succeeded = timer(registry, layer, type, method, "success");
+            this.failed = timer(registry, layer, type, method, "error");
+            this.rows = Collection.class.isAssignableFrom(method.getReturnType())
+                    ? rows(registry, layer, type, method)
+                    : null;
+        }
+
+        private static DistributionSummary rows(MeterRegistry registry, String layer, String type, Method method) {
+            return DistributionSummary.builder(ROWS_NAME)
+                    .description("Number of rows returned by an operation")
+                    .baseUnit("rows")
+                    .tags("layer", layer, "class", type, "method", method.getName())
+                    .publishPercentileHistogram()
+                    .maximumExpectedValue(MAX_EXPECTED_ROWS)
+                    .register(registry);
+        }
+
+        private static Timer timer(MeterRegistry registry, String layer, String type, Method method, String outcome) {
+            return Timer.builder(TIMER_NAME)
+                    .description("Latency of repository, service and mapper operations")
+                    .tags("layer", layer, "class", type, "method", method.getName(), "outcome", outcome)
+                    .publishPercentileHistogram()
+                    .maximumExpectedValue(MAX_EXPECTED_DURATION)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package semchishin.core.metrics;
+
+import org.reactivestreams.Publisher;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.framework.AbstractAdvisingBeanPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Proxies the beans matching a class filter with an {@link OperationMetricsInterceptor}.
+ * <p>
+ * Only public methods are measured. Methods returning a reactive
+ * {@link Publisher} are left out, their call returns before any work is done.
+ * Proxies are class based, so beans injected by their implementation class
+ * keep working.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+public class OperationMetricsPostProcessor extends AbstractAdvisingBeanPostProcessor {
+
+    /**
+     * @param classFilter selects the beans to measure
+     * @param interceptor interceptor recording the calls
+     */
+    public OperationMetricsPostProcessor(ClassFilter classFilter, OperationMetricsInterceptor interceptor) {
+        StaticMethodMatcherPointcut pointcut = new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return Modifier.isPublic(method.getModifiers())
+                        && method.getDeclaringClass() != Object.class
+                        && !Publisher.class.isAssignableFrom(method.getReturnType());
+            }
+        };
+        pointcut.setClassFilter(classFilter);
+        this.advisor = new DefaultPointcutAdvisor(pointcut, interceptor);
+        setBeforeExistingAdvisors(true);
+        setProxyTargetClass(true);
+    }
+}
@@ -0,0 +1,26 @@
+package semchishin.core.model;
+
+/**
+ * Write path used to persist a chunk of transactions during a bulk import.
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+public enum BulkWriteMode {
+
+    /**
+     * JDBC batched {@code INSERT} statements.
+     */
+    BATCH,
+
+    /**
+     * PostgreSQL {@code COPY FROM STDIN}.
+     */
+    COPY,
+
+    /**
+     * {@link #COPY} for chunks above the configured threshold, {@link #BATCH} otherwise.
+     */
+    AUTO
+
+}
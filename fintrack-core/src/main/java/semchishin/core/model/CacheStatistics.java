@@ -0,0 +1,44 @@
+package semchishin.core.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Snapshot of the counters of an in-memory cache, used to size it.
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class CacheStatistics {
+
+    /**
+     * Approximate number of cached entries.
+     */
+    private long size;
+
+    /**
+     * Number of lookups answered from the cache.
+     */
+    private long hitCount;
+
+    /**
+     * Number of lookups that had to load from the database.
+     */
+    private long missCount;
+
+    /**
+     * Number of entries evicted because of size or expiration.
+     */
+    private long evictionCount;
+
+    /**
+     * Ratio of hits to all lookups, {@code 1.0} if there were no lookups.
+     */
+    private double hitRate;
+
+}
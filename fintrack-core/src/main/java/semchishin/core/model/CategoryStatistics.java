@@ -0,0 +1,36 @@
+package semchishin.core.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Number and sum of transactions of a single category.
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class CategoryStatistics {
+
+    /**
+     * Category name, {@code null} for uncategorized transactions.
+     */
+    private String category;
+
+    /**
+     * Number of transactions in the category.
+     */
+    private long count;
+
+    /**
+     * Sum of the amounts in the category.
+     */
+    private BigDecimal total;
+
+}
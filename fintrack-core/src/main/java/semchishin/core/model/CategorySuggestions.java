@@ -0,0 +1,102 @@
+package semchishin.core.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Immutable in-memory index of category names for autocompletion.
+ * <p>
+ * Names are kept sorted by their lower-case form, so the names starting with
+ * the typed text are a contiguous range found by binary search. Names that
+ * only contain the text follow, found by a scan of the lower-case forms.
+ * Neither step touches the database or allocates per name, so a suggestion
+ * is answered in microseconds even for thousands of categories.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+public final class CategorySuggestions {
+
+    /**
+     * Index without names.
+     */
+    public static final CategorySuggestions EMPTY = new CategorySuggestions(new String[0], new String[0]);
+
+    /**
+     * Names in the order of {@link #keys}.
+     */
+    private final String[] names;
+
+    /**
+     * Lower-case forms of the names, sorted.
+     */
+    private final String[] keys;
+
+    private CategorySuggestions(String[] names, String[] keys) {
+        this.names = names;
+        this.keys = keys;
+    }
+
+    /**
+     * Builds the index of the given names.
+     *
+     * @param names the category names
+     * @return the index
+     */
+    public static CategorySuggestions of(Collection<String> names) {
+        String[] sorted = names.toArray(String[]::new);
+        Arrays.sort(sorted, Comparator.comparing(CategorySuggestions::fold).thenComparing(Comparator.naturalOrder()));
+        String[] keys = new String[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            keys[i] = fold(sorted[i]);
+        }
+        return new CategorySuggestions(sorted, keys);
+    }
+
+    /**
+     * Returns the names containing the text, ignoring case: the names starting
+     * with it first, then the others, each in alphabetical order.
+     *
+     * @param text  the typed text, blank for the first names
+     * @param limit maximum number of names to return
+     * @return the matching names, at most {@code limit}
+     */
+    public List<String> suggest(String text, int limit) {
+        String key = fold(text.strip());
+        List<String> result = new ArrayList<>(Math.min(limit, names.length));
+        int from = Arrays.binarySearch(keys, key);
+        if (from < 0) {
+            from = -from - 1;
+        } else {
+            while (from > 0 && keys[from - 1].equals(key)) {
+                from--;
+            }
+        }
+        int to = from;
+        while (to < keys.length && result.size() < limit && keys[to].startsWith(key)) {
+            result.add(names[to++]);
+        }
+        for (int i = 0; i < keys.length && result.size() < limit; i++) {
+            if ((i < from || i >= to) && keys[i].contains(key)) {
+                result.add(names[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return number of names in the index
+     */
+    public int size() {
+        return names.length;
+    }
+
+    private static String fold(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
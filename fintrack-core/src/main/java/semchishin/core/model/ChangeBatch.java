@@ -0,0 +1,32 @@
+package semchishin.core.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Consecutive changes read from the transaction change feed.
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ChangeBatch {
+
+    /**
+     * Changes in feed order, empty if nothing new arrived.
+     */
+    private List<TransactionChange> changes;
+
+    /**
+     * Position to resume after: the sequence number of the last change, or the
+     * requested position if the batch is empty.
+     */
+    private long lastSequenceNumber;
+
+}
@@ -0,0 +1,47 @@
+package semchishin.core.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Counters of the transaction change feed publisher.
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ChangeFeedStatistics {
+
+    /**
+     * Sequence number of the last published change of the shared database,
+     * {@code -1} before the first publication.
+     */
+    private long headSequenceNumber;
+
+    /**
+     * Sequence number of the last published change of every route, by route.
+     */
+    private Map<String, Long> headSequenceNumbers;
+
+    /**
+     * Number of changes published since startup.
+     */
+    private long publishedChanges;
+
+    /**
+     * Time between writing and publishing the most recently published change, in milliseconds.
+     */
+    private long lastLagMillis;
+
+    /**
+     * Largest such time since startup, in milliseconds.
+     */
+    private long maxLagMillis;
+
+}
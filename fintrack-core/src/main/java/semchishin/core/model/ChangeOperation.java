@@ -0,0 +1,26 @@
+package semchishin.core.model;
+
+/**
+ * Kind of mutation recorded in the transaction change feed.
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+public enum ChangeOperation {
+
+    /**
+     * A transaction was created, the change carries its values.
+     */
+    INSERT,
+
+    /**
+     * A transaction was modified, the change carries its new values.
+     */
+    UPDATE,
+
+    /**
+     * A transaction was removed, the change carries its last values.
+     */
+    DELETE
+
+}
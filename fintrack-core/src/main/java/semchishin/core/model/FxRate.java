@@ -0,0 +1,38 @@
+package semchishin.core.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Exchange rate of a currency into the base currency, valid from its date
+ * until the next rate of the same currency.
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class FxRate {
+
+    /**
+     * ISO 4217 code of the currency, e.g. {@code USD}.
+     */
+    private String currency;
+
+    /**
+     * First day the rate applies to.
+     */
+    private LocalDate date;
+
+    /**
+     * Amount of the base currency one unit of the currency is worth, at most 8 fraction digits.
+     */
+    private BigDecimal rate;
+
+}
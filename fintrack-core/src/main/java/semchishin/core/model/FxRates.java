@@ -0,0 +1,287 @@
+package semchishin.core.model;
+
+import semchishin.core.exception.FxRateNotFoundException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Immutable table of daily exchange rates into one base currency.
+ * <p>
+ * The rates of each currency are kept in parallel arrays sorted by day: the
+ * epoch days, the rates as whole multiples of 10<sup>-8</sup> for converting
+ * single amounts and the same rates as decimals for converting sums. The rate
+ * of a day is the latest one on or before it, found by binary search, so a
+ * lookup costs a hash probe and about log<sub>2</sub>(days) comparisons and
+ * allocates nothing. Amounts of the base currency are never looked up.
+ * </p>
+ *
+ * <p>Rules:</p>
+ * <ul>
+ *     <li>Converted amounts are rounded to the fraction digits of the base currency, {@link Money#scaleOf},
+ *     with {@link #ROUNDING}</li>
+ *     <li>An amount of a currency without a rate on or before its day throws {@link FxRateNotFoundException}</li>
+ *     <li>Rates given for the base currency itself are ignored, its rate is always one</li>
+ * </ul>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+public final class FxRates {
+
+    /**
+     * Fraction digits of a rate.
+     */
+    public static final int RATE_SCALE = 8;
+
+    /**
+     * Rounding of converted amounts.
+     */
+    public static final RoundingMode ROUNDING = RoundingMode.HALF_EVEN;
+
+    /**
+     * A rate of one as a whole multiple of 10<sup>-{@link #RATE_SCALE}</sup>.
+     */
+    private static final long RATE_UNIT = 100_000_000L;
+
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000};
+
+    private final Currency baseCurrency;
+
+    private final String baseCode;
+
+    private final int baseScale;
+
+    /**
+     * Rates by ISO 4217 code of the currency.
+     */
+    private final Map<String, Series> series;
+
+    private final int size;
+
+    private FxRates(Currency baseCurrency, Map<String, Series> series, int size) {
+        this.baseCurrency = Objects.requireNonNull(baseCurrency, "baseCurrency");
+        this.baseCode = baseCurrency.getCurrencyCode();
+        this.baseScale = Money.scaleOf(baseCurrency);
+        this.series = series;
+        this.size = size;
+    }
+
+    /**
+     * @param baseCurrency the base currency
+     * @return a table without rates, converting only amounts of the base currency
+     */
+    public static FxRates empty(Currency baseCurrency) {
+        return new FxRates(baseCurrency, Map.of(), 0);
+    }
+
+    /**
+     * Builds the table from rates in any order. Of several rates of a
+     * currency on the same day the last one wins.
+     *
+     * @param baseCurrency the base currency
+     * @param rates        the rates
+     * @return the table
+     * @throws IllegalArgumentException if a rate is not positive or its currency is not an ISO 4217 currency
+     * @throws ArithmeticException      if a rate has more than {@link #RATE_SCALE} fraction digits
+     */
+    public static FxRates of(Currency baseCurrency, Collection<FxRate> rates) {
+        Map<String, TreeMap<LocalDate, BigDecimal>> byCurrency = new HashMap<>();
+        for (FxRate rate : rates) {
+            if (rate.getRate().signum() <= 0) {
+                throw new IllegalArgumentException("Exchange rate must be positive: " + rate);
+            }
+            if (!baseCurrency.getCurrencyCode().equals(rate.getCurrency())) {
+                byCurrency.computeIfAbsent(rate.getCurrency(), currency -> new TreeMap<>())
+                        .put(rate.getDate(), rate.getRate());
+            }
+        }
+        Map<String, Series> series = new HashMap<>(byCurrency.size() * 2);
+        int size = 0;
+        for (Map.Entry<String, TreeMap<LocalDate, BigDecimal>> entry : byCurrency.entrySet()) {
+            TreeMap<LocalDate, BigDecimal> days = entry.getValue();
+            int[] epochDays = new int[days.size()];
+            long[] scaledRates = new long[days.size()];
+            BigDecimal[] decimalRates = new BigDecimal[days.size()];
+            int i = 0;
+            for (Map.Entry<LocalDate, BigDecimal> day : days.entrySet()) {
+                epochDays[i] = Math.toIntExact(day.getKey().toEpochDay());
+                decimalRates[i] = day.getValue().setScale(RATE_SCALE, RoundingMode.UNNECESSARY);
+                scaledRates[i] = decimalRates[i].unscaledValue().longValueExact();
+                i++;
+            }
+            int scale = Money.scaleOf(Currency.getInstance(entry.getKey()));
+            series.put(entry.getKey(), new Series(epochDays, scaledRates, decimalRates,
+                    scale, Money.scaleOf(baseCurrency) - scale));
+            size += days.size();
+        }
+        return new FxRates(baseCurrency, series, size);
+    }
+
+    /**
+     * @return the currency amounts are converted to
+     */
+    public Currency getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    /**
+     * @return number of rates in the table
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param currencyCode ISO 4217 code of a currency
+     * @return {@code true} if it is the base currency, amounts of which are taken as they are
+     */
+    public boolean isBase(String currencyCode) {
+        return baseCode.equals(currencyCode);
+    }
+
+    /**
+     * @param currencyCode ISO 4217 code of the currency
+     * @param day          the day
+     * @return the rate valid on the day, one for the base currency
+     * @throws FxRateNotFoundException if the currency has no rate on or before the day
+     */
+    public BigDecimal rateOn(String currencyCode, LocalDate day) {
+        if (isBase(currencyCode)) {
+            return BigDecimal.ONE;
+        }
+        Series rates = series(currencyCode, day.toEpochDay());
+        return rates.decimalRates[rates.indexOn(day.toEpochDay(), currencyCode)];
+    }
+
+    /**
+     * Converts an amount, or a sum of amounts, of one currency and day.
+     *
+     * @param amount       the amount
+     * @param currencyCode ISO 4217 code of its currency
+     * @param day          the day of the rate, may be {@code null} for amounts of the base currency
+     * @return the amount in the base currency, with the fraction digits of the base currency
+     * @throws FxRateNotFoundException if the currency has no rate on or before the day
+     */
+    public BigDecimal toBase(BigDecimal amount, String currencyCode, LocalDate day) {
+        if (isBase(currencyCode)) {
+            return amount.setScale(baseScale, ROUNDING);
+        }
+        return amount.multiply(rateOn(currencyCode, day)).setScale(baseScale, ROUNDING);
+    }
+
+    /**
+     * Converts an amount to the base currency.
+     *
+     * @param amount the amount
+     * @param day    the day of the rate
+     * @return the amount in the base currency
+     * @throws FxRateNotFoundException if the currency has no rate on or before the day
+     */
+    public Money toBase(Money amount, LocalDate day) {
+        if (amount.getCurrency().equals(baseCurrency)) {
+            return amount;
+        }
+        long minorUnits = toBaseMinor(amount.getMinorUnits(), amount.getCurrency().getCurrencyCode(), day.toEpochDay());
+        return Money.ofMinor(minorUnits, baseCurrency);
+    }
+
+    /**
+     * Converts an amount in minor units without allocating, for loops over many rows.
+     * The result equals that of {@link #toBase(BigDecimal, String, LocalDate)}.
+     *
+     * @param minorUnits   the amount in minor units of its currency
+     * @param currencyCode ISO 4217 code of its currency
+     * @param epochDay     the day of the rate, as {@link LocalDate#toEpochDay()}
+     * @return the amount in minor units of the base currency
+     * @throws FxRateNotFoundException if the currency has no rate on or before the day
+     * @throws ArithmeticException     if the converted amount does not fit a {@code long}
+     */
+    public long toBaseMinor(long minorUnits, String currencyCode, long epochDay) {
+        if (isBase(currencyCode)) {
+            return minorUnits;
+        }
+        Series rates = series(currencyCode, epochDay);
+        long rate = rates.scaledRates[rates.indexOn(epochDay, currencyCode)];
+        long product = minorUnits * rate;
+        boolean overflow = Math.multiplyHigh(minorUnits, rate) != (product >> 63);
+        long divisor = RATE_UNIT;
+        if (rates.scaleShift > 0 && !overflow) {
+            // The base currency has more fraction digits, e.g. JPY into RUB
+            long factor = POWERS_OF_TEN[rates.scaleShift];
+            long shifted = product * factor;
+            overflow = Math.multiplyHigh(product, factor) != (shifted >> 63);
+            product = shifted;
+        } else if (rates.scaleShift < 0) {
+            divisor *= POWERS_OF_TEN[-rates.scaleShift];
+        }
+        if (overflow) {
+            return BigDecimal.valueOf(minorUnits, rates.scale).multiply(BigDecimal.valueOf(rate, RATE_SCALE))
+                    .setScale(baseScale, ROUNDING).unscaledValue().longValueExact();
+        }
+        long quotient = product / divisor;
+        long twiceRemainder = Math.abs(product % divisor) * 2;
+        if (twiceRemainder > divisor || twiceRemainder == divisor && (quotient & 1) != 0) {
+            quotient += Long.signum(product);
+        }
+        return quotient;
+    }
+
+    /**
+     * @return every rate of the table, ordered by currency and day
+     */
+    public List<FxRate> toList() {
+        List<FxRate> result = new ArrayList<>(size);
+        series.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    Series rates = entry.getValue();
+                    for (int i = 0; i < rates.epochDays.length; i++) {
+                        result.add(new FxRate(entry.getKey(), LocalDate.ofEpochDay(rates.epochDays[i]),
+                                rates.decimalRates[i]));
+                    }
+                });
+        return result;
+    }
+
+    private Series series(String currencyCode, long epochDay) {
+        Series rates = series.get(currencyCode);
+        if (rates == null) {
+            throw new FxRateNotFoundException(currencyCode, LocalDate.ofEpochDay(epochDay));
+        }
+        return rates;
+    }
+
+    /**
+     * Rates of one currency, sorted by day, with the fraction digits of the
+     * currency and the number by which the base currency has more of them.
+     */
+    private record Series(int[] epochDays, long[] scaledRates, BigDecimal[] decimalRates, int scale, int scaleShift) {
+
+        /**
+         * @return index of the latest rate on or before the day
+         */
+        int indexOn(long epochDay, String currencyCode) {
+            int day = (int) Math.clamp(epochDay, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            int index = Arrays.binarySearch(epochDays, day);
+            if (index < 0) {
+                index = -index - 2;
+                if (index < 0) {
+                    throw new FxRateNotFoundException(currencyCode, LocalDate.ofEpochDay(epochDay));
+                }
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package semchishin.core.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of writing one chunk of a bulk import.
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ImportChunkResult {
+
+    /**
+     * Zero-based position of the chunk within the import.
+     */
+    private int chunk;
+
+    /**
+     * Number of rows written.
+     */
+    private long rows;
+
+    /**
+     * Write path actually used for the chunk, never {@link BulkWriteMode#AUTO}.
+     */
+    private BulkWriteMode mode;
+
+    /**
+     * Time spent writing the chunk, in milliseconds.
+     */
+    private long elapsedMillis;
+
+    /**
+     * Generated IDs of the written rows, in input order; empty for {@link BulkWriteMode#COPY},
+     * which cannot return keys.
+     */
+    private List<Long> transactionIds;
+
+}
@@ -0,0 +1,32 @@
+package semchishin.core.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ *
+ * @param <T> type of the page items
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class KeysetPage<T> {
+
+    /**
+     * Items of the page, at most the requested page size.
+     */
+    private List<T> items;
+
+    /**
+     * Cursor of the next page, or {@code null} if this page is the last one.
+     */
+    private PageCursor nextCursor;
+
+}
@@ -0,0 +1,327 @@
+package semchishin.core.model;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * Amount of money as a whole number of minor units (kopecks, cents) of a currency.
+ * <p>
+ * The number of minor units in a unit is that of the currency, see
+ * {@link #scaleOf(Currency)}: none for JPY, a hundred for RUB, a thousand for
+ * BHD. Amounts are stored as {@code NUMERIC(17,4)}, so every stored amount
+ * fits a {@code long} of minor units. Reading, adding and comparing such
+ * amounts needs no {@link BigDecimal} and allocates one small object at most.
+ * </p>
+ *
+ * <p>Rules:</p>
+ * <ul>
+ *     <li>Arithmetic is exact; a result outside the {@code long} range throws {@link ArithmeticException}</li>
+ *     <li>Amounts of different currencies are never combined, doing so throws {@link IllegalArgumentException}</li>
+ *     <li>Conversion from a decimal with more fraction digits than the currency has throws
+ *     {@link ArithmeticException} unless a {@link RoundingMode} is given</li>
+ * </ul>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@Getter
+@EqualsAndHashCode
+public final class Money implements Comparable<Money> {
+
+    /**
+     * Most fraction digits of an amount, those of CLF and UYW, and the scale of the amount column.
+     */
+    public static final int MAX_SCALE = 4;
+
+    /**
+     * Currency of amounts that do not name one.
+     */
+    public static final Currency DEFAULT_CURRENCY = Currency.getInstance("RUB");
+
+    /**
+     * Zero of the default currency.
+     */
+    public static final Money ZERO = new Money(0, DEFAULT_CURRENCY);
+
+    /**
+     * ISO 4217 code for no currency, holding amounts with {@link #MAX_SCALE}
+     * fraction digits until their currency is known, see {@link #rescaledTo(Currency)}.
+     */
+    public static final Currency NO_CURRENCY = Currency.getInstance("XXX");
+
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000};
+
+    /**
+     * The amount in minor units, negative for expenses.
+     */
+    private final long minorUnits;
+
+    /**
+     * Currency of the amount.
+     */
+    private final Currency currency;
+
+    private Money(long minorUnits, Currency currency) {
+        this.minorUnits = minorUnits;
+        this.currency = Objects.requireNonNull(currency, "currency");
+    }
+
+    /**
+     * Returns the number of fraction digits of amounts of a currency, its
+     * ISO 4217 minor unit. Currencies without one, such as gold or
+     * {@link #NO_CURRENCY}, get {@link #MAX_SCALE}.
+     *
+     * @param currency the currency
+     * @return the number of fraction digits, from 0 to {@link #MAX_SCALE}
+     */
+    public static int scaleOf(Currency currency) {
+        int digits = currency.getDefaultFractionDigits();
+        return digits < 0 ? MAX_SCALE : Math.min(digits, MAX_SCALE);
+    }
+
+    /**
+     * @param currency the currency
+     * @return minor units in one unit of the currency, ten to the power of {@link #scaleOf(Currency)}
+     */
+    public static long minorUnitsPerUnit(Currency currency) {
+        return POWERS_OF_TEN[scaleOf(currency)];
+    }
+
+    /**
+     * @param minorUnits the amount in minor units
+     * @return the amount in the default currency
+     */
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits, DEFAULT_CURRENCY);
+    }
+
+    /**
+     * @param minorUnits the amount in minor units
+     * @param currency   the currency
+     * @return the amount
+     */
+    public static Money ofMinor(long minorUnits, Currency currency) {
+        return new Money(minorUnits, currency);
+    }
+
+    /**
+     * Converts a decimal amount of the default currency without rounding.
+     *
+     * @param amount the amount, at most as many fraction digits as the default currency has
+     * @return the amount
+     * @throws ArithmeticException if the amount has more fraction digits or does not fit
+     */
+    public static Money of(BigDecimal amount) {
+        return of(amount, DEFAULT_CURRENCY, RoundingMode.UNNECESSARY);
+    }
+
+    /**
+     * Converts a decimal amount of the default currency, rounding to its fraction digits.
+     *
+     * @param amount   the amount
+     * @param rounding how to round extra fraction digits
+     * @return the amount
+     * @throws ArithmeticException if rounding is needed and {@code rounding} is
+     *                             {@link RoundingMode#UNNECESSARY}, or the amount does not fit
+     */
+    public static Money of(BigDecimal amount, RoundingMode rounding) {
+        return of(amount, DEFAULT_CURRENCY, rounding);
+    }
+
+    /**
+     * Converts a decimal amount, rounding to the fraction digits of the currency.
+     *
+     * @param amount   the amount
+     * @param currency the currency
+     * @param rounding how to round extra fraction digits
+     * @return the amount
+     * @throws ArithmeticException if rounding is needed and {@code rounding} is
+     *                             {@link RoundingMode#UNNECESSARY}, or the amount does not fit
+     */
+    public static Money of(BigDecimal amount, Currency currency, RoundingMode rounding) {
+        return new Money(amount.setScale(scaleOf(currency), rounding).unscaledValue().longValueExact(), currency);
+    }
+
+    /**
+     * Parses a plain decimal in the default currency, see {@link #parse(CharSequence, Currency)}.
+     *
+     * @param text the amount
+     * @return the amount
+     * @throws NumberFormatException if the text is not a number
+     * @throws ArithmeticException   if the amount has more fraction digits than the currency or does not fit
+     */
+    public static Money parse(CharSequence text) {
+        return parse(text, DEFAULT_CURRENCY);
+    }
+
+    /**
+     * Parses a plain decimal such as {@code -12.5} or {@code 100.00} without
+     * going through {@link BigDecimal}. Other notations, like exponents, fall
+     * back to {@link #of(BigDecimal, Currency, RoundingMode)}.
+     *
+     * @param text     the amount
+     * @param currency the currency
+     * @return the amount
+     * @throws NumberFormatException if the text is not a number
+     * @throws ArithmeticException   if the amount has more fraction digits than the currency or does not fit
+     */
+    public static Money parse(CharSequence text, Currency currency) {
+        int scale = scaleOf(currency);
+        int length = text.length();
+        int i = length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+') ? 1 : 0;
+        boolean negative = i == 1 && text.charAt(0) == '-';
+        long units = 0;
+        int digits = 0;
+        int fraction = -1;
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '.' && fraction < 0) {
+                fraction = 0;
+            } else if (c >= '0' && c <= '9' && fraction < scale && digits < 17) {
+                // Accumulated negative, so Long.MIN_VALUE minor units stay representable
+                units = units * 10 - (c - '0');
+                digits++;
+                if (fraction >= 0) {
+                    fraction++;
+                }
+            } else {
+                return of(new BigDecimal(text.toString()), currency, RoundingMode.UNNECESSARY);
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Not an amount: \"" + text + "\"");
+        }
+        for (int digit = Math.max(fraction, 0); digit < scale; digit++) {
+            units = Math.multiplyExact(units, 10);
+        }
+        return ofMinor(negative ? units : Math.negateExact(units), currency);
+    }
+
+    /**
+     * @param other amount of the same currency
+     * @return the sum
+     */
+    public Money plus(Money other) {
+        checkCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    /**
+     * @param other amount of the same currency
+     * @return the difference
+     */
+    public Money minus(Money other) {
+        checkCurrency(other);
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    /**
+     * @param factor the multiplier
+     * @return the amount multiplied by the factor
+     */
+    public Money times(long factor) {
+        return new Money(Math.multiplyExact(minorUnits, factor), currency);
+    }
+
+    /**
+     * @return the amount with the opposite sign
+     */
+    public Money negate() {
+        return new Money(Math.negateExact(minorUnits), currency);
+    }
+
+    /**
+     * Returns the same amount in another currency, in its minor units. This
+     * is not a conversion by an exchange rate: it gives a currency to an
+     * amount read in {@link #NO_CURRENCY}.
+     *
+     * @param target the currency
+     * @return the amount in the currency
+     * @throws ArithmeticException if the amount has more fraction digits than the currency or does not fit
+     */
+    public Money rescaledTo(Currency target) {
+        int from = scaleOf(currency);
+        int to = scaleOf(target);
+        if (from <= to) {
+            return new Money(Math.multiplyExact(minorUnits, POWERS_OF_TEN[to - from]), target);
+        }
+        long divisor = POWERS_OF_TEN[from - to];
+        if (minorUnits % divisor != 0) {
+            throw new ArithmeticException("Amount " + toPlainString() + " has more than " + to
+                    + " fraction digits of " + target);
+        }
+        return new Money(minorUnits / divisor, target);
+    }
+
+    /**
+     * @return {@code -1}, {@code 0} or {@code 1} as the amount is negative, zero or positive
+     */
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    /**
+     * @return the amount as a decimal with the fraction digits of the currency
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, scaleOf(currency));
+    }
+
+    /**
+     * @return the amount with the fraction digits of the currency and no currency, like {@code -12.50}
+     */
+    public String toPlainString() {
+        return appendTo(new StringBuilder(24)).toString();
+    }
+
+    /**
+     * Appends the amount like {@link #toPlainString()} without an intermediate string.
+     *
+     * @param target the builder to append to
+     * @return the builder
+     */
+    public StringBuilder appendTo(StringBuilder target) {
+        long unit = POWERS_OF_TEN[scaleOf(currency)];
+        if (unit == 1) {
+            return target.append(minorUnits);
+        }
+        long units = minorUnits / unit;
+        long fraction = Math.abs(minorUnits % unit);
+        if (minorUnits < 0) {
+            target.append('-');
+        }
+        target.append(Math.abs(units)).append('.');
+        for (long digit = unit / 10; digit > 1 && fraction < digit; digit /= 10) {
+            target.append('0');
+        }
+        return target.append(fraction);
+    }
+
+    /**
+     * Orders amounts of the same currency by value.
+     *
+     * @throws IllegalArgumentException if the currencies differ
+     */
+    @Override
+    public int compareTo(Money other) {
+        checkCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return appendTo(new StringBuilder(28)).append(' ').append(currency.getCurrencyCode()).toString();
+    }
+
+    private void checkCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " and " + other.currency);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package semchishin.core.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Keyset position inside an ordered transaction listing.
+ * <p>
+ * Transactions are listed by {@code (created_at, transaction_id)} in descending
+ * order, so the cursor holds the sort key of the last row already returned.
+ * The next page starts strictly after this position. Search results are
+ * listed by their rank first, their cursor holds the rank as well.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class PageCursor {
+
+    /**
+     * Creation date of the last returned transaction.
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * Identifier of the last returned transaction, breaks ties on equal dates.
+     */
+    private Long transactionId;
+
+    /**
+     * Search rank of the last returned transaction, {@code null} for listings not ordered by rank.
+     */
+    private Integer rank;
+
+    public PageCursor(LocalDateTime createdAt, Long transactionId) {
+        this(createdAt, transactionId, null);
+    }
+
+    /**
+     * Builds a cursor pointing right after the given transaction.
+     *
+     * @param transaction the last transaction of a page
+     * @return the cursor for the following page
+     */
+    public static PageCursor after(Transaction transaction) {
+        return new PageCursor(transaction.getDateTime(), transaction.getTransactionId());
+    }
+
+    /**
+     * Builds a cursor pointing right after the given search hit.
+     *
+     * @param hit the last hit of a page of search results
+     * @return the cursor for the following page
+     */
+    public static PageCursor after(TransactionSearchHit hit) {
+        Transaction transaction = hit.getTransaction();
+        return new PageCursor(transaction.getDateTime(), transaction.getTransactionId(), hit.getRank());
+    }
+
+}
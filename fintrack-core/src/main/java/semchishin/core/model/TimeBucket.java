@@ -0,0 +1,31 @@
+package semchishin.core.model;
+
+/**
+ * Width of a bucket in a time series, named after the PostgreSQL
+ * {@code date_trunc} field it is computed with.
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+public enum TimeBucket {
+
+    DAY("day"),
+
+    WEEK("week"),
+
+    MONTH("month");
+
+    private final String field;
+
+    TimeBucket(String field) {
+        this.field = field;
+    }
+
+    /**
+     * @return the {@code date_trunc} field name
+     */
+    public String field() {
+        return field;
+    }
+
+}
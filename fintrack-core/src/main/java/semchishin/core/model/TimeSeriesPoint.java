@@ -0,0 +1,42 @@
+package semchishin.core.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Aggregated totals of the transactions within one time bucket.
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class TimeSeriesPoint {
+
+    /**
+     * Start of the bucket.
+     */
+    private LocalDateTime bucketStart;
+
+    /**
+     * Number of transactions in the bucket.
+     */
+    private long count;
+
+    /**
+     * Sum of the positive amounts in the bucket.
+     */
+    private BigDecimal income;
+
+    /**
+     * Sum of the negative amounts in the bucket.
+     */
+    private BigDecimal expense;
+
+}
@@ -2,9 +2,9 @@ package semchishin.core.model;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 /**
@@ -30,6 +30,12 @@ import java.time.LocalDateTime;
 @Data
 public class Transaction {
 
+    /**
+     * Account of transactions created without one, and of every transaction
+     * stored before accounts were introduced.
+     */
+    public static final long DEFAULT_ACCOUNT_ID = 1L;
+
     /**
      * Unique identifier of the transaction.
      */
@@ -40,7 +46,7 @@ public class Transaction {
      * Positive values typically represent income,
      * while negative values represent expenses.
      */
-    private BigDecimal amount;
+    private Money amount;
 
     /**
      * Category to which this transaction belongs (e.g., "Food", "Transport").
@@ -52,4 +58,38 @@ public class Transaction {
      */
     private LocalDateTime dateTime;
 
+    /**
+     * Version of the stored row, incremented by every update.
+     * Null for transactions not read from the database; an update carrying a
+     * version is only applied if the stored row still has it. Not part of
+     * equality, so rows with the same content compare equal.
+     */
+    @EqualsAndHashCode.Exclude
+    private Integer version;
+
+    /**
+     * Account the transaction belongs to. Every read and write is scoped to
+     * one account, a transaction is never visible from another.
+     */
+    private long accountId = DEFAULT_ACCOUNT_ID;
+
+    /**
+     * Free-text note of the transaction, may be null. Searched together with
+     * the category by case-insensitive substring.
+     */
+    private String note;
+
+    public Transaction(Long transactionId, Money amount, String category, LocalDateTime dateTime) {
+        this(transactionId, amount, category, dateTime, null);
+    }
+
+    public Transaction(Long transactionId, Money amount, String category, LocalDateTime dateTime, Integer version) {
+        this(transactionId, amount, category, dateTime, version, DEFAULT_ACCOUNT_ID);
+    }
+
+    public Transaction(Long transactionId, Money amount, String category, LocalDateTime dateTime, Integer version,
+                       long accountId) {
+        this(transactionId, amount, category, dateTime, version, accountId, null);
+    }
+
 }
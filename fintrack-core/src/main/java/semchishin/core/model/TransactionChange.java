@@ -0,0 +1,63 @@
+package semchishin.core.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the transaction change feed.
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class TransactionChange {
+
+    /**
+     * Position of the change in the feed. Positions ascend without gaps in the
+     * order changes become readable, consumers resume after the last one seen.
+     */
+    private long sequenceNumber;
+
+    /**
+     * Kind of mutation.
+     */
+    private ChangeOperation operation;
+
+    /**
+     * ID of the changed transaction.
+     */
+    private long transactionId;
+
+    /**
+     * Account of the changed transaction.
+     */
+    private long accountId;
+
+    /**
+     * Amount of the transaction after the change, before it for a delete.
+     */
+    private Money amount;
+
+    /**
+     * Category of the transaction after the change, before it for a delete.
+     */
+    private String category;
+
+    /**
+     * Date and time of the transaction.
+     */
+    private LocalDateTime dateTime;
+
+    /**
+     * Moment the change was written to the database.
+     */
+    private Instant recordedAt;
+
+}
@@ -0,0 +1,53 @@
+package semchishin.core.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Optional search criteria applied to a transaction listing.
+ * <p>
+ * Every criterion is pushed down into the SQL {@code WHERE} clause,
+ * a {@code null} value means "no restriction".
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class TransactionFilter {
+
+    /**
+     * Exact category to match.
+     */
+    private String category;
+
+    /**
+     * Lower bound of the amount, inclusive.
+     */
+    private BigDecimal minAmount;
+
+    /**
+     * Upper bound of the amount, inclusive.
+     */
+    private BigDecimal maxAmount;
+
+    /**
+     * Lower bound of the creation date, inclusive.
+     */
+    private LocalDateTime from;
+
+    /**
+     * Upper bound of the creation date, exclusive.
+     */
+    private LocalDateTime to;
+
+}
@@ -0,0 +1,49 @@
+package semchishin.core.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Partial update of a transaction.
+ * <p>
+ * Only the non-null fields are written, the others keep their stored value.
+ * With a version the patch is applied only if the stored row still has that
+ * version, which detects concurrent edits without locking the row between
+ * reading and writing it.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class TransactionPatch {
+
+    /**
+     * New amount, or null to keep the stored one.
+     */
+    private Money amount;
+
+    /**
+     * New category, or null to keep the stored one.
+     */
+    private String category;
+
+    /**
+     * Version the stored row is expected to have, or null to apply the patch unconditionally.
+     */
+    private Integer version;
+
+    /**
+     * New note, or null to keep the stored one.
+     */
+    private String note;
+
+    public TransactionPatch(Money amount, String category, Integer version) {
+        this(amount, category, version, null);
+    }
+
+}
@@ -0,0 +1,44 @@
+package semchishin.core.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A transaction found by a search, with the rank it is ordered by.
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class TransactionSearchHit {
+
+    /**
+     * The category equals the query, ignoring case.
+     */
+    public static final int RANK_EXACT = 3;
+
+    /**
+     * The category or the note starts with the query, ignoring case.
+     */
+    public static final int RANK_PREFIX = 2;
+
+    /**
+     * The category or the note contains the query, ignoring case.
+     */
+    public static final int RANK_SUBSTRING = 1;
+
+    /**
+     * The transaction found.
+     */
+    private Transaction transaction;
+
+    /**
+     * How well the transaction matches, higher ranks are listed first.
+     */
+    private int rank;
+
+}
@@ -0,0 +1,52 @@
+package semchishin.core.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Aggregated totals over a set of transactions.
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class TransactionSummary {
+
+    /**
+     * Number of transactions.
+     */
+    private long count;
+
+    /**
+     * Sum of all positive amounts.
+     */
+    private BigDecimal income;
+
+    /**
+     * Sum of all negative amounts.
+     */
+    private BigDecimal expense;
+
+    /**
+     * Sum of all amounts.
+     */
+    private BigDecimal balance;
+
+    /**
+     * Average amount, {@code null} if there are no transactions.
+     */
+    private BigDecimal average;
+
+    /**
+     * Creation date of the most recent transaction, {@code null} if there are no transactions.
+     */
+    private LocalDateTime lastCreatedAt;
+
+}
@@ -7,11 +7,11 @@ public interface CrudRepository <T, N>{
 
     T save(T entity);
 
-    Optional<T> findById(N id);
+    Optional<T> findById(long accountId, N id);
 
-    List<T> findAll();
+    List<T> findAll(long accountId);
 
     void update(T entity);
 
-    void deleteById(N id);
+    void deleteById(long accountId, N id);
 }
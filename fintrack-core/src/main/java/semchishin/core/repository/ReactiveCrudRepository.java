@@ -0,0 +1,17 @@
+package semchishin.core.repository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCrudRepository<T, N> {
+
+    Mono<T> save(T entity);
+
+    Mono<T> findById(long accountId, N id);
+
+    Flux<T> findAll(long accountId);
+
+    Mono<Void> update(T entity);
+
+    Mono<Void> deleteById(long accountId, N id);
+}
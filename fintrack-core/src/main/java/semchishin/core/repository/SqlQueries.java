@@ -1,16 +1,220 @@
 package semchishin.core.repository;
 
+import semchishin.core.model.Money;
+import semchishin.core.model.TransactionSearchHit;
+
+import java.util.Currency;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
 public final class SqlQueries {
 
-    public static final String SELECT_BY_ID = "SELECT * FROM %s WHERE transaction_id = ?";
+    /**
+     * Minor units per unit of most currencies, left to the {@code ELSE} branch
+     * of {@link #minorUnitsOf(String, String)}.
+     */
+    private static final long COMMON_MINOR_UNITS_PER_UNIT = 100;
+
+    public static final String AMOUNT_MINOR_UNITS = minorUnitsOf("amount", "currency");
+
+    public static final String TRANSACTION_COLUMNS =
+            "transaction_id, " + AMOUNT_MINOR_UNITS + " AS amount_minor, category_id, created_at, version, currency, account_id, "
+            + "note";
+
+    public static final String SELECT_BY_ID = "SELECT " + TRANSACTION_COLUMNS + " FROM %s WHERE account_id = ? AND transaction_id = ?";
+
+    public static final String SELECT_ALL = "SELECT " + TRANSACTION_COLUMNS + " FROM %s WHERE account_id = ?";
+
+    public static final String SELECT_NAMED = "SELECT t.transaction_id, " + minorUnitsOf("t.amount", "t.currency")
+            + " AS amount_minor, c.name, t.created_at, t.version, t.currency, t.account_id, t.note "
+            + "FROM %s t LEFT JOIN %s c ON c.category_id = t.category_id";
+
+    public static final String SELECT_NAMED_BY_ID = SELECT_NAMED + " WHERE t.account_id = ? AND t.transaction_id = ?";
 
-    public static final String SELECT_ALL = "SELECT * FROM %s";
+    public static final String SELECT_NAMED_BY_ACCOUNT = SELECT_NAMED + " WHERE t.account_id = ?";
 
     public static final String INSERT = "INSERT INTO %s (%s) VALUES (%s)";
 
-    public static final String UPDATE_BY_ID = "UPDATE %s SET %s WHERE transaction_id = ?";
+    public static final String UPDATE_BY_ID = "UPDATE %s SET %s WHERE account_id = ? AND transaction_id = ?";
+
+    public static final String UPDATE_BY_ID_AND_VERSION = UPDATE_BY_ID + " AND version = ?";
+
+    public static final String UPDATE_BY_ID_RETURNING = UPDATE_BY_ID + " RETURNING %s";
+
+    public static final String UPDATE_BY_ID_AND_VERSION_RETURNING = UPDATE_BY_ID_AND_VERSION + " RETURNING %s";
+
+    public static final String SELECT_VERSION_BY_ID = "SELECT version FROM %s WHERE account_id = ? AND transaction_id = ?";
+
+    public static final String DELETE_BY_ID = "DELETE FROM %s WHERE account_id = ? AND transaction_id = ?";
+
+    public static final String SELECT_PAGE =
+            "SELECT " + TRANSACTION_COLUMNS + " FROM %s%s ORDER BY created_at DESC, transaction_id DESC LIMIT ?";
+
+    public static final String SELECT_ORDERED =
+            "SELECT " + TRANSACTION_COLUMNS + " FROM %s%s ORDER BY created_at, transaction_id";
+
+    public static final String SELECT_MINOR_UNITS_AFTER = "SELECT transaction_id, "
+            + AMOUNT_MINOR_UNITS + ", category_id, (extract(epoch FROM created_at) * 1000000)::bigint, currency, account_id "
+            + "FROM %s WHERE transaction_id > ? ORDER BY transaction_id";
+
+    public static final String SELECT_SEARCH = "SELECT * FROM (SELECT " + TRANSACTION_COLUMNS + ", CASE "
+            + "WHEN category_id = ANY(?) THEN " + TransactionSearchHit.RANK_EXACT + " "
+            + "WHEN category_id = ANY(?) OR note ILIKE ? THEN " + TransactionSearchHit.RANK_PREFIX + " "
+            + "ELSE " + TransactionSearchHit.RANK_SUBSTRING + " END AS search_rank FROM %s%s) hits%s "
+            + "ORDER BY search_rank DESC, created_at DESC, transaction_id DESC LIMIT ?";
+
+    public static final String SELECT_CATEGORY_MATCHES = "SELECT category_id, CASE "
+            + "WHEN lower(name) = lower(?) THEN " + TransactionSearchHit.RANK_EXACT + " "
+            + "WHEN name ILIKE ? THEN " + TransactionSearchHit.RANK_PREFIX + " "
+            + "ELSE " + TransactionSearchHit.RANK_SUBSTRING + " END FROM %s WHERE name ILIKE ?";
+
+    public static final String SELECT_CATEGORY_NAMES_OF_ACCOUNT = "SELECT name FROM %s c WHERE EXISTS "
+            + "(SELECT 1 FROM %s t WHERE t.account_id = ? AND t.category_id = c.category_id) ORDER BY name";
+
+    public static final String INSERT_RETURNING = "INSERT INTO %s (%s) VALUES (%s) RETURNING %s";
+
+    /**
+     * Inserts rows bound as arrays and returns the generated columns with the
+     * 1-based position of each row in the arrays, as {@code RETURNING} alone
+     * does not keep the input order. Parameters: table, key column, inserted
+     * columns, arrays, generated columns including the key.
+     */
+    public static final String INSERT_UNNEST_RETURNING = "WITH input AS ("
+            + "SELECT nextval(pg_get_serial_sequence('%1$s', '%2$s')) AS %2$s, * "
+            + "FROM unnest(%4$s) WITH ORDINALITY AS batch(%3$s, ordinal)), "
+            + "inserted AS (INSERT INTO %1$s (%2$s, %3$s) SELECT %2$s, %3$s FROM input RETURNING %5$s) "
+            + "SELECT inserted.*, input.ordinal FROM inserted JOIN input USING (%2$s)";
+
+    public static final String COPY_FROM_STDIN = "COPY %s (%s) FROM STDIN WITH (FORMAT csv)";
+
+    public static final String RATE_DAY = "CASE WHEN currency = ? THEN NULL ELSE created_at::date END AS rate_day";
+
+    public static final String ROLLUP_RATE_DAY = "CASE WHEN currency = ? THEN NULL ELSE day END AS rate_day";
+
+    public static final String SELECT_SUMMARY = "SELECT currency, " + RATE_DAY + ", COUNT(*) AS total_count, "
+            + "COALESCE(SUM(amount) FILTER (WHERE amount > 0), 0) AS income, "
+            + "COALESCE(SUM(amount) FILTER (WHERE amount < 0), 0) AS expense, "
+            + "MAX(created_at) AS last_created_at "
+            + "FROM %s%s GROUP BY currency, rate_day";
+
+    public static final String SELECT_BY_CATEGORY = "SELECT category_id, currency, " + RATE_DAY + ", "
+            + "COUNT(*) AS total_count, "
+            + "COALESCE(SUM(amount) FILTER (WHERE amount > 0), 0) AS income, "
+            + "COALESCE(SUM(amount) FILTER (WHERE amount < 0), 0) AS expense "
+            + "FROM %s%s GROUP BY category_id, currency, rate_day";
+
+    public static final String SELECT_TIME_SERIES = "SELECT date_trunc('%s', created_at) AS bucket, currency, "
+            + RATE_DAY + ", COUNT(*) AS total_count, "
+            + "COALESCE(SUM(amount) FILTER (WHERE amount > 0), 0) AS income, "
+            + "COALESCE(SUM(amount) FILTER (WHERE amount < 0), 0) AS expense "
+            + "FROM %s%s GROUP BY bucket, currency, rate_day ORDER BY bucket";
+
+    public static final String SELECT_ROLLUP_SUMMARY = "SELECT currency, " + ROLLUP_RATE_DAY + ", "
+            + "SUM(transaction_count) AS total_count, SUM(income) AS income, SUM(expense) AS expense, "
+            + "(SELECT MAX(created_at) FROM %s%s) AS last_created_at "
+            + "FROM %s%s GROUP BY currency, rate_day HAVING SUM(transaction_count) > 0";
+
+    public static final String SELECT_ROLLUP_BY_CATEGORY = "SELECT NULLIF(category, '') AS category, currency, "
+            + ROLLUP_RATE_DAY + ", SUM(transaction_count) AS total_count, SUM(income) AS income, SUM(expense) AS expense "
+            + "FROM %s%s GROUP BY category, currency, rate_day HAVING SUM(transaction_count) > 0";
+
+    public static final String SELECT_ROLLUP_TIME_SERIES = "SELECT date_trunc('%s', day::timestamp) AS bucket, currency, "
+            + ROLLUP_RATE_DAY + ", SUM(transaction_count) AS total_count, SUM(income) AS income, SUM(expense) AS expense "
+            + "FROM %s%s GROUP BY bucket, currency, rate_day HAVING SUM(transaction_count) > 0 ORDER BY bucket";
+
+    public static final String CATEGORY_ID_OF = "SELECT category_id_of(?)";
+
+    public static final String SELECT_CATEGORY_ID = "SELECT category_id FROM %s WHERE name = ?";
+
+    public static final String SELECT_CATEGORY_NAME = "SELECT name FROM %s WHERE category_id = ?";
+
+    public static final String SELECT_TABLE_VERSION = "SELECT COALESCE(SUM(version), 0) FROM %s WHERE table_name = ?";
+
+    public static final String SEQUENCE_CHANGES = "SELECT sequence_transaction_changes()";
+
+    public static final String SELECT_CHANGES_AFTER = "SELECT sequence_number, operation, transaction_id, "
+            + AMOUNT_MINOR_UNITS + " AS amount_minor, "
+            + "category_id, created_at, recorded_at, currency, account_id "
+            + "FROM %s WHERE sequence_number > ? ORDER BY sequence_number LIMIT ?";
+
+    public static final String SELECT_CHANGE_HEAD = "SELECT head FROM %s";
+
+    public static final String DELETE_CHANGES_OLDER_THAN = "DELETE FROM %s "
+            + "WHERE sequence_number IS NOT NULL AND recorded_at < now() - make_interval(hours => ?)";
+
+    public static final String SELECT_HEARTBEAT = "SELECT beat_at FROM %s WHERE id = 1";
+
+    public static final String UPDATE_HEARTBEAT = "UPDATE %s SET beat_at = ? WHERE id = 1";
+
+    public static final String SELECT_FX_RATES = "SELECT currency, rate_date, rate FROM %s ORDER BY currency, rate_date";
+
+    public static final String UPSERT_FX_RATES = "INSERT INTO %s (currency, rate_date, rate) "
+            + "SELECT * FROM unnest(?::char(3)[], ?::date[], ?::numeric[]) "
+            + "ON CONFLICT (currency, rate_date) DO UPDATE SET rate = EXCLUDED.rate";
+
+    public static final String REBUILD_ROLLUP = "SELECT rebuild_transaction_rollup()";
+
+    public static final String CREATE_PARTITION = "SELECT create_transaction_partition(?)";
+
+    public static final String ARCHIVE_PARTITION = "SELECT archive_transaction_partition(?)";
+
+    public static final String SELECT_PARTITIONS = "SELECT c.relname FROM pg_inherits i "
+            + "JOIN pg_class c ON c.oid = i.inhrelid "
+            + "WHERE i.inhparent = '%s'::regclass AND c.relname ~ '^%s_y[0-9]{4}m[0-9]{2}$' "
+            + "ORDER BY c.relname";
+
+    public static final String WHERE = " WHERE ";
+
+    public static final String AND = " AND ";
+
+    public static final String ACCOUNT_EQUALS = "account_id = ?";
+
+    public static final String CATEGORY_EQUALS = "category_id = ?";
+
+    public static final String ROLLUP_CATEGORY_EQUALS = "category = ?";
+
+    public static final String NO_MATCH = "FALSE";
+
+    public static final String AMOUNT_FROM = "amount >= ?";
+
+    public static final String AMOUNT_TO = "amount <= ?";
+
+    public static final String CREATED_FROM = "created_at >= ?";
+
+    public static final String CREATED_TO = "created_at < ?";
+
+    public static final String DAY_FROM = "day >= ?";
+
+    public static final String DAY_TO = "day < ?";
+
+    public static final String SEARCH_MATCHES = "(category_id = ANY(?) OR note ILIKE ?)";
+
+    public static final String SEARCH_SEEK_AFTER = "(search_rank, created_at, transaction_id) < (?, ?, ?)";
 
-    public static final String DELETE_BY_ID = "DELETE FROM %s WHERE transaction_id = ?";
+    public static final String SEEK_AFTER = "created_at <= ? AND (created_at, transaction_id) < (?, ?)";
 
+    /**
+     * Builds the expression of an amount column in minor units of the currency
+     * of its row. The fraction digits of every currency known to the JDK are
+     * taken from {@link Money#scaleOf(Currency)}, so the database reads amounts
+     * exactly like {@link Money#toBigDecimal()} writes them.
+     *
+     * @param amount   the amount column
+     * @param currency the currency column
+     * @return the {@code bigint} expression
+     */
+    private static String minorUnitsOf(String amount, String currency) {
+        Map<Long, String> codesByUnit = Currency.getAvailableCurrencies().stream()
+                .filter(c -> Money.minorUnitsPerUnit(c) != COMMON_MINOR_UNITS_PER_UNIT)
+                .collect(Collectors.groupingBy(Money::minorUnitsPerUnit, TreeMap::new, Collectors.mapping(
+                        c -> "'" + c.getCurrencyCode() + "'", Collectors.collectingAndThen(
+                                Collectors.toCollection(TreeSet::new), codes -> String.join(", ", codes)))));
+        StringBuilder sql = new StringBuilder("(").append(amount).append(" * CASE");
+        codesByUnit.forEach((unit, codes) -> sql.append(" WHEN ").append(currency).append(" IN (").append(codes)
+                .append(") THEN ").append(unit));
+        return sql.append(" ELSE ").append(COMMON_MINOR_UNITS_PER_UNIT).append(" END)::bigint").toString();
+    }
 }
 
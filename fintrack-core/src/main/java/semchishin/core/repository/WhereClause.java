@@ -0,0 +1,161 @@
+package semchishin.core.repository;
+
+import semchishin.core.model.TransactionFilter;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.function.Function;
+
+/**
+ * Accumulates SQL conditions together with their bind arguments.
+ * <p>
+ * Conditions are taken from {@link SqlQueries} and joined with {@code AND},
+ * an empty clause renders as an empty string so it can be appended to any
+ * {@code SELECT} unconditionally.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+public final class WhereClause {
+
+    private final StringJoiner conditions = new StringJoiner(SqlQueries.AND, SqlQueries.WHERE, "")
+            .setEmptyValue("");
+
+    private final List<Object> args = new ArrayList<>();
+
+    /**
+     * Creates a clause with the conditions of the given filter within one account.
+     * <p>
+     * The account comes first, it leads every index of the table. Transactions
+     * reference their category by ID, the category name of the filter is
+     * translated with {@code categoryIds}. A name without an ID matches no rows.
+     * </p>
+     *
+     * @param accountId   the account
+     * @param filter      the filter, may be {@code null}
+     * @param categoryIds returns the ID of a category name, or {@code null} if there is no such category
+     * @return a new clause
+     */
+    public static WhereClause of(long accountId, TransactionFilter filter, Function<String, Integer> categoryIds) {
+        WhereClause clause = new WhereClause().and(SqlQueries.ACCOUNT_EQUALS, accountId);
+        if (filter != null) {
+            if (filter.getCategory() != null) {
+                Integer categoryId = categoryIds.apply(filter.getCategory());
+                if (categoryId == null) {
+                    clause.and(SqlQueries.NO_MATCH);
+                } else {
+                    clause.and(SqlQueries.CATEGORY_EQUALS, categoryId);
+                }
+            }
+            clause.andIfPresent(SqlQueries.AMOUNT_FROM, filter.getMinAmount())
+                    .andIfPresent(SqlQueries.AMOUNT_TO, filter.getMaxAmount())
+                    .andIfPresent(SqlQueries.CREATED_FROM, filter.getFrom())
+                    .andIfPresent(SqlQueries.CREATED_TO, filter.getTo());
+        }
+        return clause;
+    }
+
+    /**
+     * Creates a clause with the conditions of the given filter within one
+     * account, expressed on the columns of the daily rollup table.
+     * <p>
+     * Only category and whole-day date bounds can be expressed, callers must
+     * check {@link #isRollupCompatible(TransactionFilter)} first.
+     * </p>
+     *
+     * @param accountId the account
+     * @param filter    the filter, may be {@code null}
+     * @return a new clause
+     */
+    public static WhereClause ofRollup(long accountId, TransactionFilter filter) {
+        WhereClause clause = new WhereClause().and(SqlQueries.ACCOUNT_EQUALS, accountId);
+        if (filter != null) {
+            clause.andIfPresent(SqlQueries.ROLLUP_CATEGORY_EQUALS, filter.getCategory())
+                    .andIfPresent(SqlQueries.DAY_FROM, filter.getFrom() == null ? null : filter.getFrom().toLocalDate())
+                    .andIfPresent(SqlQueries.DAY_TO, filter.getTo() == null ? null : filter.getTo().toLocalDate());
+        }
+        return clause;
+    }
+
+    /**
+     * Tells whether the filter can be answered from the daily rollup table,
+     * that is it has no amount bounds and its date bounds fall on midnight.
+     *
+     * @param filter the filter, may be {@code null}
+     * @return {@code true} if {@link #ofRollup(long, TransactionFilter)} is exact for the filter
+     */
+    public static boolean isRollupCompatible(TransactionFilter filter) {
+        return filter == null
+                || filter.getMinAmount() == null
+                && filter.getMaxAmount() == null
+                && isMidnight(filter.getFrom())
+                && isMidnight(filter.getTo());
+    }
+
+    /**
+     * Escapes the wildcards of a literal value, so it can be embedded in a
+     * {@code LIKE} pattern using the default backslash escape character.
+     *
+     * @param value the literal value
+     * @return the value with backslash, {@code %} and {@code _} escaped
+     */
+    public static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '%' || c == '_') {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * Adds a condition with its bind arguments.
+     *
+     * @param condition SQL condition with {@code ?} placeholders
+     * @param values    bind arguments in placeholder order
+     * @return this clause
+     */
+    public WhereClause and(String condition, Object... values) {
+        conditions.add(condition);
+        Collections.addAll(args, values);
+        return this;
+    }
+
+    /**
+     * Adds a single-argument condition only if the value is not {@code null}.
+     *
+     * @param condition SQL condition with one {@code ?} placeholder
+     * @param value     bind argument
+     * @return this clause
+     */
+    public WhereClause andIfPresent(String condition, Object value) {
+        return value == null ? this : and(condition, value);
+    }
+
+    /**
+     * @return the rendered {@code WHERE ...} fragment, or an empty string
+     */
+    public String sql() {
+        return conditions.toString();
+    }
+
+    /**
+     * @return a mutable copy of the bind arguments in placeholder order
+     */
+    public List<Object> args() {
+        return new ArrayList<>(args);
+    }
+
+    private static boolean isMidnight(LocalDateTime dateTime) {
+        return dateTime == null || dateTime.toLocalTime().equals(LocalTime.MIDNIGHT);
+    }
+
+}
@@ -0,0 +1,314 @@
+package semchishin.core.repository.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import semchishin.core.datasource.AccountContext;
+import semchishin.core.datasource.AccountRouter;
+import semchishin.core.datasource.AccountRoutingDataSource;
+import semchishin.core.model.TransactionSearchHit;
+import semchishin.core.repository.SqlQueries;
+import semchishin.core.repository.WhereClause;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interning cache of the {@code category} dictionary table.
+ * <p>
+ * Transactions reference their category by a small integer ID. Writers resolve
+ * a name to its ID with {@link #idOf(String)}, creating the category on first
+ * use; readers turn an ID back into a name with {@link #nameOf(Integer)}, which
+ * always returns the same {@link String} instance for the same category, so a
+ * million loaded transactions share a handful of strings.
+ * </p>
+ *
+ * <p>
+ * Categories are never renamed or deleted, so cached entries cannot go stale.
+ * Entries missing from the cache, for example categories created by another
+ * instance, are loaded on first access; unknown names are not cached.
+ * </p>
+ *
+ * <p>
+ * Every database an account can be routed to has its own {@code category}
+ * table and ID sequence, so the cache is kept per route of the account bound
+ * to {@link AccountContext}, the same one {@link semchishin.core.datasource.AccountRoutingDataSource}
+ * takes the connection from.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@Repository
+public class CategoryDictionary {
+
+    /**
+     * JdbcTemplate for executing SQL queries.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Name of the database table.
+     */
+    private static final String TABLE_NAME = "category";
+
+    private static final String SELECT_ID_SQL = String.format(SqlQueries.SELECT_CATEGORY_ID, TABLE_NAME);
+
+    private static final String SELECT_NAME_SQL = String.format(SqlQueries.SELECT_CATEGORY_NAME, TABLE_NAME);
+
+    private static final String SELECT_MATCHES_SQL = String.format(SqlQueries.SELECT_CATEGORY_MATCHES, TABLE_NAME);
+
+    private static final String SELECT_NAMES_OF_ACCOUNT_SQL =
+            String.format(SqlQueries.SELECT_CATEGORY_NAMES_OF_ACCOUNT, TABLE_NAME, "transaction");
+
+    /**
+     * JdbcTemplates of every database by route, for readers working on one database regardless of the bound account.
+     */
+    private final Map<String, JdbcTemplate> jdbcTemplates;
+
+    /**
+     * Router choosing the database, and so the cache, of the bound account.
+     */
+    private final AccountRouter accountRouter;
+
+    /**
+     * Cached categories by route.
+     */
+    private final Map<String, Entries> entriesByRoute = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a dictionary of a single database.
+     */
+    public CategoryDictionary(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, accountId -> AccountRouter.DEFAULT_ROUTE);
+    }
+
+    @Autowired
+    public CategoryDictionary(JdbcTemplate jdbcTemplate, AccountRouter accountRouter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.accountRouter = accountRouter;
+        Map<String, JdbcTemplate> templates = new LinkedHashMap<>();
+        if (jdbcTemplate.getDataSource() instanceof AccountRoutingDataSource routing) {
+            routing.targets().forEach((route, dataSource) -> templates.put(route, new JdbcTemplate(dataSource)));
+        } else {
+            templates.put(AccountRouter.DEFAULT_ROUTE, jdbcTemplate);
+        }
+        this.jdbcTemplates = templates;
+    }
+
+    /**
+     * Returns the ID of the named category, creating the category if it does not exist yet.
+     *
+     * @param name the category name, may be {@code null}
+     * @return the category ID, {@code null} for a {@code null} name
+     */
+    public Integer idOf(String name) {
+        if (name == null) {
+            return null;
+        }
+        Entries entries = entries();
+        Integer id = entries.ids.get(name);
+        if (id == null) {
+            id = jdbcTemplate.queryForObject(SqlQueries.CATEGORY_ID_OF, Integer.class, name);
+            entries.register(id, name);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the ID of the named category without creating it.
+     *
+     * @param name the category name, may be {@code null}
+     * @return the category ID, or {@code null} if there is no such category
+     */
+    public Integer findId(String name) {
+        if (name == null) {
+            return null;
+        }
+        Entries entries = entries();
+        Integer id = entries.ids.get(name);
+        if (id == null) {
+            List<Integer> found = jdbcTemplate.queryForList(SELECT_ID_SQL, Integer.class, name);
+            if (found.isEmpty()) {
+                return null;
+            }
+            id = found.getFirst();
+            entries.register(id, name);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the canonical name of a category.
+     *
+     * @param id the category ID, may be {@code null}
+     * @return the shared name instance, {@code null} for a {@code null} ID
+     */
+    public String nameOf(Integer id) {
+        if (id == null) {
+            return null;
+        }
+        Entries entries = entries();
+        String name = entries.cachedName(id);
+        return name != null
+                ? name
+                : entries.register(id, jdbcTemplate.queryForObject(SELECT_NAME_SQL, String.class, id));
+    }
+
+    /**
+     * Returns the canonical name of a category, loading a missing entry over the
+     * given connection. Meant for row mappers, which already hold a connection
+     * and must not wait for a second one from the pool.
+     *
+     * @param id         the category ID
+     * @param connection the connection to load a missing entry with
+     * @return the shared name instance
+     * @throws SQLException if the lookup fails or the category does not exist
+     */
+    public String nameOf(int id, Connection connection) throws SQLException {
+        return nameOf(currentRoute(), id, connection);
+    }
+
+    /**
+     * Returns the canonical name of a category of the database with the given
+     * route, loading a missing entry over the given connection to that database.
+     * Meant for readers working on one database regardless of the bound account.
+     *
+     * @param route      the route of the database the connection belongs to
+     * @param id         the category ID
+     * @param connection the connection to load a missing entry with
+     * @return the shared name instance
+     * @throws SQLException if the lookup fails or the category does not exist
+     */
+    public String nameOf(String route, int id, Connection connection) throws SQLException {
+        Entries entries = entries(route);
+        String name = entries.cachedName(id);
+        if (name != null) {
+            return name;
+        }
+        try (PreparedStatement ps = connection.prepareStatement(SELECT_NAME_SQL)) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Category with id = " + id + " not found");
+                }
+                return entries.register(id, rs.getString(1));
+            }
+        }
+    }
+
+    /**
+     * Ranks the categories whose name contains the query, ignoring case. The
+     * lookup is answered by the trigram index of the names.
+     *
+     * @param query the text to search for
+     * @return the rank of every matching category by ID, see {@link TransactionSearchHit}
+     */
+    public Map<Integer, Integer> rankMatches(String query) {
+        String escaped = WhereClause.escapeLike(query);
+        Map<Integer, Integer> ranks = new HashMap<>();
+        jdbcTemplate.query(SELECT_MATCHES_SQL, (RowCallbackHandler) rs -> ranks.put(rs.getInt(1), rs.getInt(2)),
+                query, escaped + "%", "%" + escaped + "%");
+        return ranks;
+    }
+
+    /**
+     * Reads the names of the categories used by the transactions of an account,
+     * bypassing the cache. The database is the one of the given route, whatever
+     * account the calling thread is bound to.
+     *
+     * @param route     the route of the database of the account
+     * @param accountId the account
+     * @return the names in name order
+     * @throws IllegalArgumentException if the route is unknown
+     */
+    public List<String> findNamesUsedBy(String route, long accountId) {
+        JdbcTemplate routeTemplate = jdbcTemplates.get(route);
+        if (routeTemplate == null) {
+            throw new IllegalArgumentException(String.format("Unknown route %s", route));
+        }
+        return routeTemplate.queryForList(SELECT_NAMES_OF_ACCOUNT_SQL, String.class, accountId);
+    }
+
+    /**
+     * Returns the cache of the database the bound account is routed to.
+     */
+    private Entries entries() {
+        return entries(currentRoute());
+    }
+
+    private Entries entries(String route) {
+        return entriesByRoute.computeIfAbsent(route, ignored -> new Entries());
+    }
+
+    private String currentRoute() {
+        Long accountId = AccountContext.current();
+        return accountId == null ? AccountRouter.DEFAULT_ROUTE : accountRouter.route(accountId);
+    }
+
+    /**
+     * Cached categories of one database.
+     */
+    private static final class Entries {
+
+        /**
+         * IDs from this one on are kept in {@link #sparseNames}, so a stray large ID does not allocate a huge array.
+         */
+        private static final int DENSE_LIMIT = 1 << 20;
+
+        private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+        /**
+         * Canonical names indexed by category ID below {@link #DENSE_LIMIT}. Written under the lock of
+         * {@code this} and republished through the volatile field after every write; replaced by a larger
+         * copy only when an ID does not fit.
+         */
+        private volatile String[] names = new String[64];
+
+        /**
+         * Canonical names of IDs from {@link #DENSE_LIMIT} on.
+         */
+        private final Map<Integer, String> sparseNames = new ConcurrentHashMap<>();
+
+        private String cachedName(int id) {
+            if (id < 0 || id >= DENSE_LIMIT) {
+                return sparseNames.get(id);
+            }
+            String[] current = names;
+            return id < current.length ? current[id] : null;
+        }
+
+        /**
+         * Caches the mapping and returns the canonical instance of the name,
+         * which is the one registered first.
+         */
+        private synchronized String register(int id, String name) {
+            String cached = cachedName(id);
+            if (cached != null) {
+                return cached;
+            }
+            if (id < 0 || id >= DENSE_LIMIT) {
+                sparseNames.put(id, name);
+            } else {
+                String[] current = names;
+                if (id >= current.length) {
+                    current = Arrays.copyOf(current, Math.min(Math.max(id + 1, current.length * 2), DENSE_LIMIT));
+                }
+                current[id] = name;
+                names = current;
+            }
+            ids.put(name, id);
+            return name;
+        }
+    }
+}
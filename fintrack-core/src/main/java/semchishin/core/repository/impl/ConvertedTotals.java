@@ -0,0 +1,96 @@
+package semchishin.core.repository.impl;
+
+import semchishin.core.model.CategoryStatistics;
+import semchishin.core.model.FxRates;
+import semchishin.core.model.TimeSeriesPoint;
+import semchishin.core.model.TransactionSummary;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Running totals in the base currency over aggregated statistic rows.
+ * <p>
+ * Each row holds the count, income and expense of one currency; rows of other
+ * currencies than the base one are additionally split by day and converted
+ * with the rate of that day. A query therefore converts one sum per currency
+ * and day instead of every transaction, and rows of the base currency are
+ * added as they are.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+final class ConvertedTotals {
+
+    /**
+     * Scale of averages, the one PostgreSQL uses for {@code AVG} over the amount column.
+     */
+    static final int AVERAGE_SCALE = 16;
+
+    private final FxRates rates;
+
+    private long count;
+
+    private BigDecimal income = BigDecimal.ZERO;
+
+    private BigDecimal expense = BigDecimal.ZERO;
+
+    private LocalDateTime lastCreatedAt;
+
+    ConvertedTotals(FxRates rates) {
+        this.rates = rates;
+    }
+
+    /**
+     * Adds the row the result set is positioned on, read by the column names
+     * {@code currency}, {@code rate_day}, {@code total_count}, {@code income} and {@code expense}.
+     *
+     * @throws semchishin.core.exception.FxRateNotFoundException if the row's currency has no rate on its day
+     */
+    void add(ResultSet rs) throws SQLException {
+        String currency = rs.getString("currency");
+        Date rateDay = rs.getDate("rate_day");
+        count += rs.getLong("total_count");
+        income = income.add(rates.toBase(rs.getBigDecimal("income"), currency,
+                rateDay == null ? null : rateDay.toLocalDate()));
+        expense = expense.add(rates.toBase(rs.getBigDecimal("expense"), currency,
+                rateDay == null ? null : rateDay.toLocalDate()));
+    }
+
+    /**
+     * Adds the row like {@link #add(ResultSet)} and keeps the latest {@code last_created_at}.
+     */
+    void addWithLastCreatedAt(ResultSet rs) throws SQLException {
+        add(rs);
+        Timestamp createdAt = rs.getTimestamp("last_created_at");
+        if (createdAt != null && (lastCreatedAt == null || createdAt.toLocalDateTime().isAfter(lastCreatedAt))) {
+            lastCreatedAt = createdAt.toLocalDateTime();
+        }
+    }
+
+    long count() {
+        return count;
+    }
+
+    TransactionSummary toSummary() {
+        BigDecimal balance = income.add(expense);
+        BigDecimal average = count == 0 ? null
+                : balance.divide(BigDecimal.valueOf(count), AVERAGE_SCALE, RoundingMode.HALF_UP);
+        return new TransactionSummary(count, income, expense, balance, average, lastCreatedAt);
+    }
+
+    CategoryStatistics toCategory(String category) {
+        return new CategoryStatistics(category, count, income.add(expense));
+    }
+
+    TimeSeriesPoint toPoint(LocalDateTime bucketStart) {
+        return new TimeSeriesPoint(bucketStart, count, income, expense);
+    }
+}
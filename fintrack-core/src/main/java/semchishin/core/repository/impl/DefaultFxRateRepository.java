@@ -0,0 +1,92 @@
+package semchishin.core.repository.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import semchishin.core.model.FxRate;
+import semchishin.core.repository.SqlQueries;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository of daily exchange rates into the base currency.
+ * <p>
+ * The rates are small and read as a whole into {@link semchishin.core.model.FxRates},
+ * so there are no lookups by key. All SQL queries are defined in {@link SqlQueries}.
+ * </p>
+ *
+ * <p>Supported operations:</p>
+ * <ul>
+ *     <li>Read every rate (findAll)</li>
+ *     <li>Insert or replace rates in one statement (saveAll)</li>
+ * </ul>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@Repository
+@RequiredArgsConstructor
+public class DefaultFxRateRepository {
+
+    /**
+     * JdbcTemplate for executing SQL queries.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Name of the rates table.
+     */
+    private static final String TABLE_NAME = "fx_rate";
+
+    private static final String SELECT_ALL_SQL = String.format(SqlQueries.SELECT_FX_RATES, TABLE_NAME);
+
+    private static final String UPSERT_SQL = String.format(SqlQueries.UPSERT_FX_RATES, TABLE_NAME);
+
+    /**
+     * Reads every rate.
+     *
+     * @return the rates, ordered by currency and date
+     */
+    public List<FxRate> findAll() {
+        return jdbcTemplate.query(SELECT_ALL_SQL, (rs, rowNum) -> new FxRate(
+                rs.getString(1),
+                rs.getDate(2).toLocalDate(),
+                rs.getBigDecimal(3)
+        ));
+    }
+
+    /**
+     * Inserts the rates with a single {@code INSERT ... SELECT FROM unnest(...)},
+     * replacing stored rates of the same currency and date.
+     *
+     * @param rates the rates, at most one per currency and date
+     * @return number of rates written
+     */
+    public int saveAll(Collection<FxRate> rates) {
+        if (rates.isEmpty()) {
+            return 0;
+        }
+        String[] currencies = new String[rates.size()];
+        Date[] dates = new Date[rates.size()];
+        BigDecimal[] values = new BigDecimal[rates.size()];
+        int i = 0;
+        for (FxRate rate : rates) {
+            currencies[i] = rate.getCurrency();
+            dates[i] = Date.valueOf(rate.getDate());
+            values[i] = rate.getRate();
+            i++;
+        }
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(UPSERT_SQL);
+            ps.setArray(1, con.createArrayOf("bpchar", currencies));
+            ps.setArray(2, con.createArrayOf("date", dates));
+            ps.setArray(3, con.createArrayOf("numeric", values));
+            return ps;
+        });
+    }
+}
@@ -0,0 +1,207 @@
+package semchishin.core.repository.impl;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import semchishin.core.datasource.AccountRouter;
+import semchishin.core.datasource.AccountRoutingDataSource;
+import semchishin.core.model.ChangeOperation;
+import semchishin.core.model.Money;
+import semchishin.core.model.TransactionChange;
+import semchishin.core.repository.SqlQueries;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.Currency;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Repository reading the outbox of transaction mutations.
+ * <p>
+ * Database triggers append a row to the outbox for every inserted, updated
+ * or deleted transaction, in the same database transaction as the change.
+ * Rows receive their position in the feed from
+ * {@code sequence_transaction_changes()} once every writer that could still
+ * commit an older row has finished, so reading after a position never skips
+ * a change that commits late. All SQL queries are defined in {@link SqlQueries}.
+ * </p>
+ *
+ * <p>
+ * Every database accounts are routed to by {@link AccountRoutingDataSource}
+ * has its own outbox and numbering, so each route is a feed of its own. The
+ * methods without a route work on the shared database.
+ * </p>
+ *
+ * <p>Supported operations:</p>
+ * <ul>
+ *     <li>Number the changes that have become final (sequencePending)</li>
+ *     <li>Read the changes after a position (findAfter)</li>
+ *     <li>Read the highest position handed out (findHeadSequenceNumber)</li>
+ *     <li>Remove old numbered changes (deleteOlderThan)</li>
+ *     <li>List the routes with a feed (routes)</li>
+ * </ul>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@Repository
+public class DefaultTransactionChangeRepository {
+
+    /**
+     * JdbcTemplates for executing SQL queries, by route, the shared database first.
+     */
+    private final Map<String, JdbcTemplate> jdbcTemplates;
+
+    /**
+     * Cache translating category IDs to names.
+     */
+    private final CategoryDictionary categoryDictionary;
+
+    /**
+     * Name of the outbox table.
+     */
+    private static final String TABLE_NAME = "transaction_change";
+
+    /**
+     * Name of the table holding the highest position handed out.
+     */
+    private static final String HEAD_TABLE_NAME = "transaction_change_head";
+
+    private static final String SELECT_AFTER_SQL = String.format(SqlQueries.SELECT_CHANGES_AFTER, TABLE_NAME);
+
+    private static final String SELECT_HEAD_SQL = String.format(SqlQueries.SELECT_CHANGE_HEAD, HEAD_TABLE_NAME);
+
+    private static final String DELETE_OLDER_THAN_SQL = String.format(SqlQueries.DELETE_CHANGES_OLDER_THAN, TABLE_NAME);
+
+    public DefaultTransactionChangeRepository(JdbcTemplate jdbcTemplate, CategoryDictionary categoryDictionary) {
+        this.categoryDictionary = categoryDictionary;
+        Map<String, JdbcTemplate> templates = new LinkedHashMap<>();
+        if (jdbcTemplate.getDataSource() instanceof AccountRoutingDataSource routing) {
+            routing.targets().forEach((route, dataSource) -> templates.put(route, new JdbcTemplate(dataSource)));
+        } else {
+            templates.put(AccountRouter.DEFAULT_ROUTE, jdbcTemplate);
+        }
+        this.jdbcTemplates = templates;
+    }
+
+    /**
+     * @return the routes of every database with a feed, the shared one first
+     */
+    public Set<String> routes() {
+        return jdbcTemplates.keySet();
+    }
+
+    /**
+     * Numbers the pending changes of the shared database whose writers have all finished.
+     *
+     * @return number of changes numbered, {@code 0} if none or if another caller is numbering
+     */
+    public long sequencePending() {
+        return sequencePending(AccountRouter.DEFAULT_ROUTE);
+    }
+
+    /**
+     * Numbers the pending changes whose writers have all finished.
+     *
+     * @param route the route of the database
+     * @return number of changes numbered, {@code 0} if none or if another caller is numbering
+     */
+    public long sequencePending(String route) {
+        return jdbcTemplate(route).queryForObject(SqlQueries.SEQUENCE_CHANGES, Long.class);
+    }
+
+    /**
+     * Reads numbered changes of the shared database after the given position.
+     *
+     * @param sequenceNumber position to read after
+     * @param limit          maximum number of changes
+     * @return changes in feed order
+     */
+    public List<TransactionChange> findAfter(long sequenceNumber, int limit) {
+        return findAfter(AccountRouter.DEFAULT_ROUTE, sequenceNumber, limit);
+    }
+
+    /**
+     * Reads numbered changes after the given position.
+     *
+     * @param route          the route of the database
+     * @param sequenceNumber position to read after
+     * @param limit          maximum number of changes
+     * @return changes in feed order
+     */
+    public List<TransactionChange> findAfter(String route, long sequenceNumber, int limit) {
+        return jdbcTemplate(route).query(SELECT_AFTER_SQL,
+                (rs, rowNum) -> mapChange(route, rs), sequenceNumber, limit);
+    }
+
+    /**
+     * Returns the highest position of the shared database handed out so far.
+     *
+     * @return the sequence number, {@code 0} if no change was numbered yet
+     */
+    public long findHeadSequenceNumber() {
+        return findHeadSequenceNumber(AccountRouter.DEFAULT_ROUTE);
+    }
+
+    /**
+     * Returns the highest position handed out so far.
+     *
+     * @param route the route of the database
+     * @return the sequence number, {@code 0} if no change was numbered yet
+     */
+    public long findHeadSequenceNumber(String route) {
+        return jdbcTemplate(route).queryForObject(SELECT_HEAD_SQL, Long.class);
+    }
+
+    /**
+     * Deletes numbered changes of the shared database recorded more than the
+     * given number of hours ago. Changes not numbered yet are kept regardless of age.
+     *
+     * @param hours retention in hours
+     * @return number of deleted changes
+     */
+    public int deleteOlderThan(int hours) {
+        return deleteOlderThan(AccountRouter.DEFAULT_ROUTE, hours);
+    }
+
+    /**
+     * Deletes numbered changes recorded more than the given number of hours ago.
+     * Changes not numbered yet are kept regardless of age.
+     *
+     * @param route the route of the database
+     * @param hours retention in hours
+     * @return number of deleted changes
+     */
+    public int deleteOlderThan(String route, int hours) {
+        return jdbcTemplate(route).update(DELETE_OLDER_THAN_SQL, hours);
+    }
+
+    private JdbcTemplate jdbcTemplate(String route) {
+        JdbcTemplate jdbcTemplate = jdbcTemplates.get(route);
+        if (jdbcTemplate == null) {
+            throw new IllegalArgumentException(String.format("Unknown route %s", route));
+        }
+        return jdbcTemplate;
+    }
+
+    private TransactionChange mapChange(String route, ResultSet rs) throws SQLException {
+        int categoryId = rs.getInt(5);
+        String category = rs.wasNull()
+                ? null
+                : categoryDictionary.nameOf(route, categoryId, rs.getStatement().getConnection());
+        return new TransactionChange(
+                rs.getLong(1),
+                ChangeOperation.valueOf(rs.getString(2)),
+                rs.getLong(3),
+                rs.getLong(9),
+                Money.ofMinor(rs.getLong(4), Currency.getInstance(rs.getString(8))),
+                category,
+                rs.getTimestamp(6).toLocalDateTime(),
+                rs.getObject(7, OffsetDateTime.class).toInstant()
+        );
+    }
+}
@@ -0,0 +1,82 @@
+package semchishin.core.repository.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import semchishin.core.repository.SqlQueries;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Repository managing the monthly range partitions of the transactions table.
+ * <p>
+ * Partitions are named {@code transaction_yYYYYmMM} and are created and
+ * archived by database functions, see {@link SqlQueries}.
+ * </p>
+ *
+ * <p>Supported operations:</p>
+ * <ul>
+ *     <li>List the months having a partition (findPartitionMonths)</li>
+ *     <li>Create the partition of a month (createPartition)</li>
+ *     <li>Detach a partition into the archive schema (archivePartition)</li>
+ * </ul>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@Repository
+@RequiredArgsConstructor
+public class DefaultTransactionPartitionRepository {
+
+    /**
+     * JdbcTemplate for executing SQL queries.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Name of the partitioned table.
+     */
+    private static final String TABLE_NAME = "transaction";
+
+    /**
+     * Length of the {@code transaction_y} prefix of a partition name.
+     */
+    private static final int YEAR_OFFSET = TABLE_NAME.length() + 2;
+
+    /**
+     * Returns the months that currently have an attached partition.
+     *
+     * @return months in ascending order
+     */
+    public List<YearMonth> findPartitionMonths() {
+        String sql = String.format(SqlQueries.SELECT_PARTITIONS, TABLE_NAME, TABLE_NAME);
+        return jdbcTemplate.queryForList(sql, String.class).stream()
+                .map(name -> YearMonth.of(
+                        Integer.parseInt(name.substring(YEAR_OFFSET, YEAR_OFFSET + 4)),
+                        Integer.parseInt(name.substring(YEAR_OFFSET + 5))
+                ))
+                .toList();
+    }
+
+    /**
+     * Creates the partition of the given month, moving its rows out of the default partition.
+     *
+     * @param month the month
+     * @return {@code true} if the partition was created, {@code false} if it already existed
+     */
+    public boolean createPartition(YearMonth month) {
+        return jdbcTemplate.queryForObject(SqlQueries.CREATE_PARTITION, String.class, month.atDay(1)) != null;
+    }
+
+    /**
+     * Detaches the partition of the given month and moves it to the archive schema.
+     *
+     * @param month the month
+     * @return {@code true} if a partition was archived
+     */
+    public boolean archivePartition(YearMonth month) {
+        return jdbcTemplate.queryForObject(SqlQueries.ARCHIVE_PARTITION, String.class, month.atDay(1)) != null;
+    }
+}
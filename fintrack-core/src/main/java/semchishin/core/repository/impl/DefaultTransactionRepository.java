@@ -1,15 +1,48 @@
 package semchishin.core.repository.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SingleColumnRowMapper;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import semchishin.core.model.Money;
+import semchishin.core.model.PageCursor;
 import semchishin.core.model.Transaction;
+import semchishin.core.model.TransactionFilter;
+import semchishin.core.model.TransactionPatch;
+import semchishin.core.model.TransactionSearchHit;
 import semchishin.core.repository.CrudRepository;
 import semchishin.core.repository.SqlQueries;
+import semchishin.core.repository.WhereClause;
 
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Currency;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Implementation of {@link CrudRepository} for handling {@link Transaction} entities.
@@ -18,13 +51,39 @@ import java.util.Optional;
  * All SQL queries are defined in {@link SqlQueries}.
  * </p>
  *
+ * <p>
+ * Rows store a category ID; names are translated on the way in and out by the
+ * {@link CategoryDictionary}, so callers keep working with names.
+ * </p>
+ *
+ * <p>
+ * Every row belongs to an account. Reads, updates and deletes take the
+ * account and match it first, so they only touch that account's range of the
+ * account-leading indexes and never see another account's rows.
+ * </p>
+ *
+ * <p>
+ * Lookups, listings, searches and the change counter run in read-only
+ * transactions, which a {@link semchishin.core.datasource.ReplicaRoutingDataSource}
+ * serves from a read replica.
+ * </p>
+ *
  * <p>Supported operations:</p>
  * <ul>
- *     <li>Create a transaction (save)</li>
- *     <li>Find a transaction by ID (findById)</li>
- *     <li>Retrieve all transactions (findAll)</li>
- *     <li>Update a transaction (update)</li>
+ *     <li>Create a transaction, returning its generated ID (save)</li>
+ *     <li>Create many transactions with JDBC batching, returning their IDs (saveAll)</li>
+ *     <li>Create many transactions in one statement (saveAllReturning)</li>
+ *     <li>Create many transactions with PostgreSQL COPY (copyAll)</li>
+ *     <li>Find a transaction of an account by ID (findById)</li>
+ *     <li>Retrieve all transactions of an account (findAll)</li>
+ *     <li>Retrieve a filtered keyset page of transactions (findPage)</li>
+ *     <li>Stream filtered transactions through a cursor (forEach)</li>
+ *     <li>Stream new transactions as primitive columns (forEachColumnar)</li>
+ *     <li>Search transactions by category and note, best matches first (search)</li>
+ *     <li>Update a transaction, optionally only if its version matches (update)</li>
+ *     <li>Update some fields of a transaction, optionally only if its version matches (patch)</li>
  *     <li>Delete a transaction by ID (deleteById)</li>
+ *     <li>Read the change counter of the table (findVersion)</li>
  * </ul>
  *
  * @author Sergey Semchishin
@@ -35,19 +94,42 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class DefaultTransactionRepository implements CrudRepository<Transaction, Long> {
 
+    /**
+     * Scale of the {@code NUMERIC(17,4)} amount column. Amounts are read in
+     * minor units of the currency of their row, see {@link Money#scaleOf}.
+     */
+    public static final int AMOUNT_SCALE = Money.MAX_SCALE;
+
+    /**
+     * Version of a freshly inserted row.
+     */
+    public static final int INITIAL_VERSION = 0;
+
     /**
      * JdbcTemplate for executing SQL queries.
      */
     private final JdbcTemplate jdbcTemplate;
 
+    /**
+     * Cache translating between category names and IDs.
+     */
+    private final CategoryDictionary categoryDictionary;
+
     /**
      * RowMapper to map each row of the ResultSet to a {@link Transaction} object.
+     * Reads columns by position, which relies on every query selecting
+     * {@link SqlQueries#TRANSACTION_COLUMNS} in that order. The amount arrives
+     * as a {@code bigint} of minor units, so no {@link BigDecimal} is built per
+     * row. The category name is the shared instance of the {@link CategoryDictionary}.
      */
-    private static final RowMapper<Transaction> ROW_MAPPER = (rs, rowNum) -> new Transaction(
-            rs.getLong("transaction_id"),
-            rs.getBigDecimal("amount"),
-            rs.getString("category"),
-            rs.getTimestamp("created_at").toLocalDateTime()
+    private final RowMapper<Transaction> rowMapper = (rs, rowNum) -> new Transaction(
+            rs.getLong(1),
+            Money.ofMinor(rs.getLong(2), Currency.getInstance(rs.getString(6))),
+            categoryName(rs, 3),
+            rs.getTimestamp(4).toLocalDateTime(),
+            rs.getInt(5),
+            rs.getLong(7),
+            rs.getString(8)
     );
 
     /**
@@ -55,62 +137,579 @@ public class DefaultTransactionRepository implements CrudRepository<Transaction,
      */
     private static final String TABLE_NAME = "transaction";
 
+    /**
+     * Columns written by inserts, in bind order.
+     */
+    private static final String INSERT_COLUMNS = "account_id, amount, currency, category_id, created_at, note";
+
+    /**
+     * Columns assigned or normalized by the database, returned by inserts.
+     */
+    private static final String[] GENERATED_COLUMNS = {"transaction_id", "created_at"};
+
+    /*
+     * Statements without a filter are rendered once, so every call hands the
+     * driver the identical string and hits its prepared statement cache.
+     */
+
+    private static final String INSERT_SQL = String.format(SqlQueries.INSERT, TABLE_NAME, INSERT_COLUMNS, "?, ?, ?, ?, ?, ?");
+
+    private static final String INSERT_RETURNING_SQL = String.format(SqlQueries.INSERT_RETURNING,
+            TABLE_NAME, INSERT_COLUMNS, "?, ?, ?, ?, ?, ?", String.join(", ", GENERATED_COLUMNS));
+
+    private static final String INSERT_UNNEST_SQL = String.format(SqlQueries.INSERT_UNNEST_RETURNING,
+            TABLE_NAME, GENERATED_COLUMNS[0], INSERT_COLUMNS,
+            "?::bigint[], ?::numeric[], ?::char(3)[], ?::int[], ?::timestamp[], ?::text[]",
+            String.join(", ", GENERATED_COLUMNS));
+
+    private static final String COPY_SQL = String.format(SqlQueries.COPY_FROM_STDIN, TABLE_NAME, INSERT_COLUMNS);
+
+    private static final String SELECT_BY_ID_SQL = String.format(SqlQueries.SELECT_BY_ID, TABLE_NAME);
+
+    private static final String SELECT_ALL_SQL = String.format(SqlQueries.SELECT_ALL, TABLE_NAME);
+
+    private static final String SELECT_COLUMNAR_SQL = String.format(SqlQueries.SELECT_MINOR_UNITS_AFTER, TABLE_NAME);
+
+    /**
+     * Assignments of a full update, every update increments the version.
+     */
+    private static final String UPDATE_COLUMNS = "amount = ?, currency = ?, category_id = ?, note = ?, "
+            + "version = version + 1";
+
+    /**
+     * Assignments of a partial update, a null parameter keeps the stored value.
+     * The currency is written together with the amount it belongs to.
+     */
+    private static final String PATCH_COLUMNS = "amount = COALESCE(?, amount), currency = COALESCE(?, currency), "
+            + "category_id = COALESCE(?, category_id), note = COALESCE(?, note), version = version + 1";
+
+    private static final String UPDATE_SQL = String.format(SqlQueries.UPDATE_BY_ID, TABLE_NAME, UPDATE_COLUMNS);
+
+    private static final String UPDATE_VERSIONED_SQL = String.format(SqlQueries.UPDATE_BY_ID_AND_VERSION,
+            TABLE_NAME, UPDATE_COLUMNS);
+
+    private static final String PATCH_SQL = String.format(SqlQueries.UPDATE_BY_ID_RETURNING,
+            TABLE_NAME, PATCH_COLUMNS, SqlQueries.TRANSACTION_COLUMNS);
+
+    private static final String PATCH_VERSIONED_SQL = String.format(SqlQueries.UPDATE_BY_ID_AND_VERSION_RETURNING,
+            TABLE_NAME, PATCH_COLUMNS, SqlQueries.TRANSACTION_COLUMNS);
+
+    private static final String SELECT_ROW_VERSION_SQL = String.format(SqlQueries.SELECT_VERSION_BY_ID, TABLE_NAME);
+
+    private static final String DELETE_SQL = String.format(SqlQueries.DELETE_BY_ID, TABLE_NAME);
+
+    private static final String SELECT_VERSION_SQL = String.format(SqlQueries.SELECT_TABLE_VERSION, "table_version");
+
+    /**
+     * Size of the buffer in front of the COPY stream.
+     */
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Position of the rank in a row of {@link SqlQueries#SELECT_SEARCH}, after the transaction columns.
+     */
+    private static final int SEARCH_RANK_COLUMN = 9;
+
+    /**
+     * Number of rows fetched per round trip when streaming through a cursor.
+     */
+    private static final int STREAM_FETCH_SIZE = 1000;
+
     /**
      * Saves a new transaction into the database.
+     * <p>
+     * The generated ID and the stored creation time come back with
+     * {@code RETURNING} in the same round trip as the insert.
+     * </p>
      *
      * @param entity the {@link Transaction} object to save
-     * @return the saved {@link Transaction} object
+     * @return the saved {@link Transaction} with its generated ID
      */
     @Override
     public Transaction save(Transaction entity) {
-        String sql = String.format(SqlQueries.INSERT, TABLE_NAME, "amount, category, created_at", "?, ?, ?");
-        jdbcTemplate.update(sql, entity.getAmount(), entity.getCategory(), entity.getDateTime());
-        return entity;
+        return jdbcTemplate.queryForObject(INSERT_RETURNING_SQL, (rs, rowNum) -> saved(entity, rs),
+                entity.getAccountId(), entity.getAmount().toBigDecimal(), currencyCode(entity),
+                categoryDictionary.idOf(entity.getCategory()), entity.getDateTime(), entity.getNote());
+    }
+
+    /**
+     * Saves transactions with batched {@code INSERT} statements, sending
+     * {@code batchSize} rows per round trip.
+     * <p>
+     * The generated keys of every batch are read back through a {@link KeyHolder},
+     * so no follow-up query is needed to learn the new IDs.
+     * </p>
+     *
+     * @param entities  the {@link Transaction} objects to save
+     * @param batchSize number of rows per JDBC batch
+     * @return the saved {@link Transaction} objects with their generated IDs, in the order of {@code entities}
+     */
+    public List<Transaction> saveAll(List<Transaction> entities, int batchSize) {
+        List<Transaction> saved = new ArrayList<>(entities.size());
+        for (int from = 0; from < entities.size(); from += batchSize) {
+            List<Transaction> batch = entities.subList(from, Math.min(from + batchSize, entities.size()));
+            Integer[] categoryIds = categoryIds(batch);
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, GENERATED_COLUMNS),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            Transaction entity = batch.get(i);
+                            ps.setLong(1, entity.getAccountId());
+                            ps.setBigDecimal(2, entity.getAmount().toBigDecimal());
+                            ps.setString(3, currencyCode(entity));
+                            ps.setObject(4, categoryIds[i], Types.INTEGER);
+                            ps.setTimestamp(5, Timestamp.valueOf(entity.getDateTime()));
+                            ps.setString(6, entity.getNote());
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return batch.size();
+                        }
+                    }, keyHolder);
+            List<Map<String, Object>> keys = keyHolder.getKeyList();
+            for (int i = 0; i < batch.size(); i++) {
+                Transaction entity = batch.get(i);
+                Map<String, Object> key = keys.get(i);
+                saved.add(new Transaction(
+                        ((Number) key.get(GENERATED_COLUMNS[0])).longValue(),
+                        entity.getAmount(),
+                        entity.getCategory(),
+                        ((Timestamp) key.get(GENERATED_COLUMNS[1])).toLocalDateTime(),
+                        INITIAL_VERSION,
+                        entity.getAccountId(),
+                        entity.getNote()
+                ));
+            }
+        }
+        return saved;
+    }
+
+    /**
+     * Saves transactions with a single {@code INSERT ... SELECT FROM unnest(...)}
+     * statement and returns them with their generated IDs.
+     * <p>
+     * The rows are bound as six arrays, so the statement text is the same for
+     * any number of rows and stays in the prepared statement cache. Being one
+     * statement, the rows are committed together with a single commit.
+     * </p>
+     * <p>
+     * The rows come back in no particular order, so each carries its position
+     * in {@code entities} and is matched to its entity by it.
+     * </p>
+     *
+     * @param entities the {@link Transaction} objects to save
+     * @return the saved {@link Transaction} objects with their generated IDs, in the order of {@code entities}
+     */
+    public List<Transaction> saveAllReturning(List<Transaction> entities) {
+        int size = entities.size();
+        Long[] accountIds = new Long[size];
+        BigDecimal[] amounts = new BigDecimal[size];
+        String[] currencies = new String[size];
+        Integer[] categories = categoryIds(entities);
+        Timestamp[] createdAt = new Timestamp[size];
+        String[] notes = new String[size];
+        for (int i = 0; i < size; i++) {
+            Transaction entity = entities.get(i);
+            accountIds[i] = entity.getAccountId();
+            amounts[i] = entity.getAmount().toBigDecimal();
+            currencies[i] = currencyCode(entity);
+            createdAt[i] = Timestamp.valueOf(entity.getDateTime());
+            notes[i] = entity.getNote();
+        }
+        Transaction[] saved = new Transaction[size];
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_UNNEST_SQL);
+            ps.setArray(1, con.createArrayOf("int8", accountIds));
+            ps.setArray(2, con.createArrayOf("numeric", amounts));
+            ps.setArray(3, con.createArrayOf("bpchar", currencies));
+            ps.setArray(4, con.createArrayOf("int4", categories));
+            ps.setArray(5, con.createArrayOf("timestamp", createdAt));
+            ps.setArray(6, con.createArrayOf("text", notes));
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            int index = rs.getInt(3) - 1;
+            saved[index] = saved(entities.get(index), rs);
+        });
+        return Arrays.asList(saved);
+    }
+
+    /**
+     * Saves transactions through PostgreSQL {@code COPY FROM STDIN} in CSV format.
+     * <p>
+     * Rows are encoded straight into the buffered copy stream, which avoids
+     * per-statement parsing and planning and is the fastest path for large payloads.
+     * </p>
+     *
+     * @param entities the {@link Transaction} objects to save
+     * @return number of rows written, as reported by the server
+     */
+    public long copyAll(List<Transaction> entities) {
+        Integer[] categoryIds = categoryIds(entities);
+        Long rows = jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            PGCopyOutputStream copy = new PGCopyOutputStream(con.unwrap(PGConnection.class), COPY_SQL, COPY_BUFFER_SIZE);
+            try {
+                Writer writer = new OutputStreamWriter(copy, StandardCharsets.UTF_8);
+                StringBuilder line = new StringBuilder(64);
+                for (int i = 0; i < entities.size(); i++) {
+                    line.setLength(0);
+                    appendCsv(line, entities.get(i), categoryIds[i]);
+                    writer.append(line);
+                }
+                writer.flush();
+                return copy.endCopy();
+            } catch (IOException e) {
+                copy.cancelCopy();
+                throw new SQLException("COPY into " + TABLE_NAME + " failed", e);
+            }
+        });
+        return rows == null ? 0 : rows;
     }
 
     /**
-     * Finds a transaction by its ID.
+     * Finds a transaction of an account by its ID.
      *
-     * @param id the transaction ID
-     * @return an Optional containing the transaction if found, or empty if not found
+     * @param accountId the account
+     * @param id        the transaction ID
+     * @return an Optional containing the transaction if found, or empty if not found or of another account
      */
     @Override
-    public Optional<Transaction> findById(Long id) {
-        String sql = String.format(SqlQueries.SELECT_BY_ID, TABLE_NAME);
-        List<Transaction> list = jdbcTemplate.query(sql, ROW_MAPPER, id);
+    @Transactional(readOnly = true)
+    public Optional<Transaction> findById(long accountId, Long id) {
+        List<Transaction> list = jdbcTemplate.query(SELECT_BY_ID_SQL, rowMapper, accountId, id);
         return list.isEmpty() ? Optional.empty() : Optional.of(list.getFirst());
     }
 
     /**
-     * Returns a list of all transactions from the database.
+     * Returns a list of all transactions of an account.
      *
+     * @param accountId the account
      * @return list of {@link Transaction} objects
      */
     @Override
-    public List<Transaction> findAll() {
-        String sql = String.format(SqlQueries.SELECT_ALL, TABLE_NAME);
-        return jdbcTemplate.query(sql, ROW_MAPPER);
+    @Transactional(readOnly = true)
+    public List<Transaction> findAll(long accountId) {
+        return jdbcTemplate.query(SELECT_ALL_SQL, rowMapper, accountId);
+    }
+
+    /**
+     * Returns transactions of an account matching the filter, newest first,
+     * starting strictly after the given cursor.
+     * <p>
+     * Uses a keyset seek on {@code (created_at, transaction_id)} instead of
+     * {@code OFFSET}, so the cost of a page does not depend on its position.
+     * The seek carries a plain {@code created_at} bound as well, which lets
+     * the planner prune monthly partitions newer than the cursor.
+     * </p>
+     *
+     * @param accountId the account
+     * @param filter    the filter criteria, may be {@code null}
+     * @param after     the cursor to continue from, or {@code null} for the first page
+     * @param limit     maximum number of rows to return
+     * @return list of {@link Transaction} objects, at most {@code limit} long
+     */
+    @Transactional(readOnly = true)
+    public List<Transaction> findPage(long accountId, TransactionFilter filter, PageCursor after, int limit) {
+        WhereClause where = WhereClause.of(accountId, filter, categoryDictionary::findId);
+        if (after != null) {
+            where.and(SqlQueries.SEEK_AFTER, after.getCreatedAt(), after.getCreatedAt(), after.getTransactionId());
+        }
+        String sql = String.format(SqlQueries.SELECT_PAGE, TABLE_NAME, where.sql());
+        List<Object> args = where.args();
+        args.add(limit);
+        return jdbcTemplate.query(sql, rowMapper, args.toArray());
+    }
+
+    /**
+     * Passes every transaction of an account matching the filter to the
+     * action, oldest first, without materializing the result.
+     * <p>
+     * The statement is forward-only with a fetch size, so the driver keeps
+     * at most {@link #STREAM_FETCH_SIZE} rows in memory. PostgreSQL only uses
+     * a server-side cursor when autocommit is off, therefore the call must run
+     * inside a transaction.
+     * </p>
+     *
+     * @param accountId the account
+     * @param filter    the filter criteria, may be {@code null}
+     * @param action    the action invoked for each {@link Transaction}
+     */
+    public void forEach(long accountId, TransactionFilter filter, Consumer<Transaction> action) {
+        WhereClause where = WhereClause.of(accountId, filter, categoryDictionary::findId);
+        String sql = String.format(SqlQueries.SELECT_ORDERED, TABLE_NAME, where.sql());
+        RowCallbackHandler handler = rs -> action.accept(rowMapper.mapRow(rs, rs.getRow()));
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            new ArgumentPreparedStatementSetter(where.args().toArray()).setValues(ps);
+            return ps;
+        }, handler);
+    }
+
+    /**
+     * Returns transactions of an account matching the filter whose category or
+     * note contains the query, ignoring case. The best matches come first,
+     * see {@link TransactionSearchHit}, newest first within a rank, starting
+     * strictly after the given cursor.
+     * <p>
+     * Matching categories are looked up first, so the transactions are found
+     * through two indexes leading with the account: the category index for
+     * the matching category IDs and the trigram index of the notes. Ranks are
+     * small integers, so pages are seeked on {@code (rank, created_at, transaction_id)}
+     * like plain listings instead of using {@code OFFSET}.
+     * </p>
+     *
+     * @param accountId the account
+     * @param query     the text to search for, taken literally
+     * @param filter    the filter criteria, may be {@code null}
+     * @param after     the cursor of a search page to continue from, or {@code null} for the first page
+     * @param limit     maximum number of rows to return
+     * @return list of {@link TransactionSearchHit} objects, at most {@code limit} long
+     */
+    @Transactional(readOnly = true)
+    public List<TransactionSearchHit> search(long accountId, String query, TransactionFilter filter, PageCursor after,
+                                             int limit) {
+        Map<Integer, Integer> categoryRanks = categoryDictionary.rankMatches(query);
+        String escaped = WhereClause.escapeLike(query);
+        WhereClause where = WhereClause.of(accountId, filter, categoryDictionary::findId)
+                .and(SqlQueries.SEARCH_MATCHES, rankedIds(categoryRanks, TransactionSearchHit.RANK_SUBSTRING),
+                        "%" + escaped + "%");
+        WhereClause seek = new WhereClause();
+        if (after != null) {
+            seek.and(SqlQueries.SEARCH_SEEK_AFTER, after.getRank(), after.getCreatedAt(), after.getTransactionId());
+        }
+        String sql = String.format(SqlQueries.SELECT_SEARCH, TABLE_NAME, where.sql(), seek.sql());
+        List<Object> args = new ArrayList<>();
+        args.add(rankedIds(categoryRanks, TransactionSearchHit.RANK_EXACT));
+        args.add(rankedIds(categoryRanks, TransactionSearchHit.RANK_PREFIX));
+        args.add(escaped + "%");
+        args.addAll(where.args());
+        args.addAll(seek.args());
+        args.add(limit);
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            Object[] values = args.toArray();
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] instanceof Integer[] ids) {
+                    values[i] = con.createArrayOf("int4", ids);
+                }
+            }
+            new ArgumentPreparedStatementSetter(values).setValues(ps);
+            return ps;
+        }, (rs, rowNum) -> new TransactionSearchHit(rowMapper.mapRow(rs, rowNum), rs.getInt(SEARCH_RANK_COLUMN)));
     }
 
     /**
-     * Updates an existing transaction in the database.
+     * Passes every transaction with an ID greater than {@code afterId} to the
+     * consumer in ID order, with its account, the amount in minor units of its
+     * currency and the creation time in epoch microseconds. Rows of all
+     * accounts are streamed, for in-memory copies of the whole table.
+     * <p>
+     * The conversion happens in the query, so no {@link BigDecimal} or
+     * {@link Timestamp} is created per row. Rows are fetched through a cursor
+     * of {@link #STREAM_FETCH_SIZE} rows; if the connection is in autocommit
+     * mode, autocommit is switched off for the duration of the call.
+     * </p>
+     *
+     * @param afterId  the highest ID already seen, {@code 0} to stream the whole table
+     * @param consumer the consumer invoked for each row
+     */
+    public void forEachColumnar(long afterId, ColumnarRowConsumer consumer) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            boolean autoCommit = con.getAutoCommit();
+            if (autoCommit) {
+                con.setAutoCommit(false);
+            }
+            try (PreparedStatement ps = con.prepareStatement(SELECT_COLUMNAR_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                ps.setFetchSize(STREAM_FETCH_SIZE);
+                ps.setLong(1, afterId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        consumer.accept(rs.getLong(1), rs.getLong(6), rs.getLong(2), rs.getString(5),
+                                categoryName(rs, 3), rs.getLong(4));
+                    }
+                }
+            } finally {
+                if (autoCommit) {
+                    con.rollback();
+                    con.setAutoCommit(true);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Updates an existing transaction of the entity's account.
+     * <p>
+     * If the entity carries a version, the row is only written while it still
+     * has that version. The check and the write are a single statement, so no
+     * lock is held between reading the row and updating it.
+     * </p>
      *
      * @param entity the {@link Transaction} object with updated values
+     * @throws OptimisticLockingFailureException if the stored row has a different version
      */
     @Override
     public void update(Transaction entity) {
-        String sql = String.format(SqlQueries.UPDATE_BY_ID, TABLE_NAME,"amount = ?, category = ?");
-        jdbcTemplate.update(sql, entity.getAmount(), entity.getCategory(), entity.getTransactionId());
+        Integer categoryId = categoryDictionary.idOf(entity.getCategory());
+        if (entity.getVersion() == null) {
+            jdbcTemplate.update(UPDATE_SQL, entity.getAmount().toBigDecimal(), currencyCode(entity), categoryId,
+                    entity.getNote(), entity.getAccountId(), entity.getTransactionId());
+            return;
+        }
+        int updated = jdbcTemplate.update(UPDATE_VERSIONED_SQL, entity.getAmount().toBigDecimal(), currencyCode(entity),
+                categoryId, entity.getNote(), entity.getAccountId(), entity.getTransactionId(), entity.getVersion());
+        if (updated == 0) {
+            checkVersion(entity.getAccountId(), entity.getTransactionId(), entity.getVersion());
+        }
     }
 
     /**
-     * Deletes a transaction from the database by its ID.
+     * Writes the non-null fields of the patch and returns the updated transaction.
+     * <p>
+     * With a version in the patch the row is only written while it still has
+     * that version. The new version is returned with the row, so a caller can
+     * chain further patches without reading the row again.
+     * </p>
      *
-     * @param id the transaction ID
+     * @param accountId the account
+     * @param id        the transaction ID
+     * @param patch     the fields to change
+     * @return the updated transaction, or empty if the account has none with the ID
+     * @throws OptimisticLockingFailureException if the stored row has a different version
+     */
+    public Optional<Transaction> patch(long accountId, Long id, TransactionPatch patch) {
+        Money patchAmount = patch.getAmount();
+        SqlParameterValue amount = new SqlParameterValue(Types.NUMERIC,
+                patchAmount == null ? null : patchAmount.toBigDecimal());
+        SqlParameterValue currency = new SqlParameterValue(Types.CHAR,
+                patchAmount == null ? null : patchAmount.getCurrency().getCurrencyCode());
+        SqlParameterValue categoryId = new SqlParameterValue(Types.INTEGER, categoryDictionary.idOf(patch.getCategory()));
+        SqlParameterValue note = new SqlParameterValue(Types.VARCHAR, patch.getNote());
+        List<Transaction> updated = patch.getVersion() == null
+                ? jdbcTemplate.query(PATCH_SQL, rowMapper, amount, currency, categoryId, note, accountId, id)
+                : jdbcTemplate.query(PATCH_VERSIONED_SQL, rowMapper, amount, currency, categoryId, note, accountId, id,
+                        patch.getVersion());
+        if (updated.isEmpty() && patch.getVersion() != null) {
+            checkVersion(accountId, id, patch.getVersion());
+        }
+        return updated.stream().findFirst();
+    }
+
+    /**
+     * Deletes a transaction of an account by its ID.
+     *
+     * @param accountId the account
+     * @param id        the transaction ID
      */
     @Override
-    public void deleteById(Long id) {
-        String sql = String.format(SqlQueries.DELETE_BY_ID, TABLE_NAME);
-        jdbcTemplate.update(sql, id);
+    public void deleteById(long accountId, Long id) {
+        jdbcTemplate.update(DELETE_SQL, accountId, id);
+    }
+
+    /**
+     * Returns the change counter of the transactions table.
+     * <p>
+     * Every write statement increments the counter in its own database
+     * transaction, so the value grows whenever committed rows change and a
+     * reader never sees a version newer than the rows visible to it. Read it
+     * before the rows it describes; both are read from the same replica of
+     * the account, which only moves forward.
+     * </p>
+     *
+     * @return the current version
+     */
+    @Transactional(readOnly = true)
+    public long findVersion() {
+        return jdbcTemplate.queryForObject(SELECT_VERSION_SQL, Long.class, TABLE_NAME);
+    }
+
+    /**
+     * Tells a missing row from a version conflict after a conditional update
+     * matched nothing. A missing row is not an error, like for unconditional updates.
+     */
+    private void checkVersion(long accountId, Long id, int expectedVersion) {
+        List<Integer> versions = jdbcTemplate.query(SELECT_ROW_VERSION_SQL,
+                SingleColumnRowMapper.newInstance(Integer.class), accountId, id);
+        if (!versions.isEmpty()) {
+            throw new OptimisticLockingFailureException(String.format(
+                    "Transaction with id = %d has version %d, expected %d", id, versions.getFirst(), expectedVersion));
+        }
+    }
+
+    /**
+     * Copies the entity with the ID and creation time returned by an insert.
+     */
+    private static Transaction saved(Transaction entity, ResultSet rs) throws SQLException {
+        return new Transaction(rs.getLong(1), entity.getAmount(), entity.getCategory(),
+                rs.getTimestamp(2).toLocalDateTime(), INITIAL_VERSION, entity.getAccountId(), entity.getNote());
+    }
+
+    /**
+     * @return ISO 4217 code of the currency of the entity's amount
+     */
+    private static String currencyCode(Transaction entity) {
+        return entity.getAmount().getCurrency().getCurrencyCode();
+    }
+
+    /**
+     * Resolves the category IDs of the entities up front, so that categories
+     * created on the way are not looked up while a connection is held for the write.
+     */
+    private Integer[] categoryIds(List<Transaction> entities) {
+        Integer[] categoryIds = new Integer[entities.size()];
+        for (int i = 0; i < categoryIds.length; i++) {
+            categoryIds[i] = categoryDictionary.idOf(entities.get(i).getCategory());
+        }
+        return categoryIds;
+    }
+
+    /**
+     * @return IDs of the categories ranked at least {@code minRank}
+     */
+    private static Integer[] rankedIds(Map<Integer, Integer> categoryRanks, int minRank) {
+        return categoryRanks.entrySet().stream()
+                .filter(entry -> entry.getValue() >= minRank)
+                .map(Map.Entry::getKey)
+                .toArray(Integer[]::new);
+    }
+
+    /**
+     * Reads a category ID column and returns the canonical name of the category.
+     */
+    private String categoryName(ResultSet rs, int column) throws SQLException {
+        int categoryId = rs.getInt(column);
+        return rs.wasNull() ? null : categoryDictionary.nameOf(categoryId, rs.getStatement().getConnection());
+    }
+
+    /**
+     * Appends one transaction as a CSV line matching {@link #INSERT_COLUMNS}.
+     * A missing category or note is written as an empty field, which COPY reads
+     * as {@code NULL}; a note is always quoted, so an empty note stays empty.
+     */
+    private static void appendCsv(StringBuilder line, Transaction entity, Integer categoryId) {
+        line.append(entity.getAccountId()).append(',');
+        entity.getAmount().appendTo(line).append(',').append(currencyCode(entity)).append(',');
+        if (categoryId != null) {
+            line.append(categoryId);
+        }
+        line.append(',').append(entity.getDateTime()).append(',');
+        if (entity.getNote() != null) {
+            line.append('"').append(entity.getNote().replace("\"", "\"\"")).append('"');
+        }
+        line.append('\n');
+    }
+
+    /**
+     * Receives one row streamed by {@link #forEachColumnar}.
+     */
+    @FunctionalInterface
+    public interface ColumnarRowConsumer {
+
+        void accept(long transactionId, long accountId, long amountMinor, String currency, String category,
+                    long createdAtMicros);
     }
 }
@@ -0,0 +1,145 @@
+package semchishin.core.repository.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import semchishin.core.exception.FxRateNotFoundException;
+import semchishin.core.model.CategoryStatistics;
+import semchishin.core.model.FxRates;
+import semchishin.core.model.TimeBucket;
+import semchishin.core.model.TimeSeriesPoint;
+import semchishin.core.model.TransactionFilter;
+import semchishin.core.model.TransactionSummary;
+import semchishin.core.repository.SqlQueries;
+import semchishin.core.repository.WhereClause;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Read-only repository computing aggregates from the daily rollup table.
+ * <p>
+ * The rollup holds one row per {@code (category, day, currency)} and is maintained by
+ * statement-level triggers on the transactions table, in the same database
+ * transaction as every insert, update and delete. Reads therefore cost
+ * O(days &times; categories) instead of O(rows). Only filters accepted by
+ * {@link WhereClause#isRollupCompatible(TransactionFilter)} can be answered.
+ * All SQL queries are defined in {@link SqlQueries}.
+ * </p>
+ *
+ * <p>Supported operations:</p>
+ * <ul>
+ *     <li>Totals, balance and average (summarize)</li>
+ *     <li>Count and sum per category (summarizeByCategory)</li>
+ *     <li>Time-bucketed totals (summarizeByTime)</li>
+ *     <li>Recompute the rollup from the transactions table (rebuild)</li>
+ * </ul>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@Repository
+@RequiredArgsConstructor
+public class DefaultTransactionRollupRepository {
+
+    /**
+     * JdbcTemplate for executing SQL queries.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Cache of the category dictionary, resolves filter names for the transactions table.
+     */
+    private final CategoryDictionary categoryDictionary;
+
+    /**
+     * Name of the rollup table.
+     */
+    private static final String TABLE_NAME = "transaction_daily_rollup";
+
+    /**
+     * Name of the transactions table, used for figures the rollup does not keep.
+     */
+    private static final String TRANSACTION_TABLE_NAME = "transaction";
+
+    /**
+     * Computes totals of an account from the rollup, in the base currency. The most recent
+     * creation date is read from the transactions table, which is a single index lookup.
+     *
+     * @param accountId the account
+     * @param filter    a rollup-compatible filter, may be {@code null}
+     * @param rates     the exchange rates converting other currencies
+     * @return the summary, with zero totals if nothing matches
+     * @throws FxRateNotFoundException if a matching amount has no exchange rate
+     */
+    @Transactional(readOnly = true)
+    public TransactionSummary summarize(long accountId, TransactionFilter filter, FxRates rates) {
+        WhereClause transactionWhere = WhereClause.of(accountId, filter, categoryDictionary::findId);
+        WhereClause rollupWhere = WhereClause.ofRollup(accountId, filter);
+        String sql = String.format(SqlQueries.SELECT_ROLLUP_SUMMARY,
+                TRANSACTION_TABLE_NAME, transactionWhere.sql(), TABLE_NAME, rollupWhere.sql());
+        List<Object> args = transactionWhere.args();
+        args.addAll(rollupWhere.args());
+        ConvertedTotals totals = new ConvertedTotals(rates);
+        jdbcTemplate.query(sql, totals::addWithLastCreatedAt, DefaultTransactionStatisticsRepository.args(rates, args));
+        return totals.toSummary();
+    }
+
+    /**
+     * Computes count and sum per category of an account from the rollup, in the base currency.
+     *
+     * @param accountId the account
+     * @param filter    a rollup-compatible filter, may be {@code null}
+     * @param rates     the exchange rates converting other currencies
+     * @return one entry per category, ordered by name
+     * @throws FxRateNotFoundException if a matching amount has no exchange rate
+     */
+    @Transactional(readOnly = true)
+    public List<CategoryStatistics> summarizeByCategory(long accountId, TransactionFilter filter, FxRates rates) {
+        WhereClause where = WhereClause.ofRollup(accountId, filter);
+        String sql = String.format(SqlQueries.SELECT_ROLLUP_BY_CATEGORY, TABLE_NAME, where.sql());
+        Map<String, ConvertedTotals> byCategory = new TreeMap<>(Comparator.nullsLast(Comparator.naturalOrder()));
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> byCategory
+                .computeIfAbsent(rs.getString("category"), category -> new ConvertedTotals(rates))
+                .add(rs), DefaultTransactionStatisticsRepository.args(rates, where.args()));
+        List<CategoryStatistics> result = new ArrayList<>(byCategory.size());
+        byCategory.forEach((category, totals) -> result.add(totals.toCategory(category)));
+        return result;
+    }
+
+    /**
+     * Computes totals per time bucket of an account from the rollup, in the base currency.
+     *
+     * @param accountId the account
+     * @param filter    a rollup-compatible filter, may be {@code null}
+     * @param bucket    the bucket width
+     * @param rates     the exchange rates converting other currencies
+     * @return one point per non-empty bucket, in chronological order
+     * @throws FxRateNotFoundException if a matching amount has no exchange rate
+     */
+    @Transactional(readOnly = true)
+    public List<TimeSeriesPoint> summarizeByTime(long accountId, TransactionFilter filter, TimeBucket bucket,
+                                                 FxRates rates) {
+        WhereClause where = WhereClause.ofRollup(accountId, filter);
+        String sql = String.format(SqlQueries.SELECT_ROLLUP_TIME_SERIES, bucket.field(), TABLE_NAME, where.sql());
+        return DefaultTransactionStatisticsRepository.timeSeries(jdbcTemplate, sql, rates,
+                DefaultTransactionStatisticsRepository.args(rates, where.args()));
+    }
+
+    /**
+     * Recomputes the rollup from the transactions table in a single statement.
+     * Concurrent writers wait until the rebuild commits.
+     *
+     * @return number of rollup rows written
+     */
+    public long rebuild() {
+        Long rows = jdbcTemplate.queryForObject(SqlQueries.REBUILD_ROLLUP, Long.class);
+        return rows == null ? 0 : rows;
+    }
+}
@@ -0,0 +1,153 @@
+package semchishin.core.repository.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import semchishin.core.exception.FxRateNotFoundException;
+import semchishin.core.model.CategoryStatistics;
+import semchishin.core.model.FxRates;
+import semchishin.core.model.TimeBucket;
+import semchishin.core.model.TimeSeriesPoint;
+import semchishin.core.model.TransactionFilter;
+import semchishin.core.model.TransactionSummary;
+import semchishin.core.repository.SqlQueries;
+import semchishin.core.repository.WhereClause;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only repository computing aggregates over the transactions table.
+ * <p>
+ * All aggregation happens in PostgreSQL with {@code GROUP BY} and
+ * {@code date_trunc}, only the aggregated rows are transferred. Amounts of
+ * the base currency form one group; other currencies are grouped per day and
+ * converted with {@link FxRates} by {@link ConvertedTotals}. Every
+ * aggregate covers a single account and runs in a read-only transaction,
+ * so it can be served by a read replica.
+ * All SQL queries are defined in {@link SqlQueries}.
+ * </p>
+ *
+ * <p>Supported operations:</p>
+ * <ul>
+ *     <li>Totals, balance and average (summarize)</li>
+ *     <li>Count and sum per category (summarizeByCategory)</li>
+ *     <li>Time-bucketed totals (summarizeByTime)</li>
+ * </ul>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@Repository
+@RequiredArgsConstructor
+public class DefaultTransactionStatisticsRepository {
+
+    /**
+     * JdbcTemplate for executing SQL queries.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Cache of the category dictionary, resolves filter names and grouped IDs.
+     */
+    private final CategoryDictionary categoryDictionary;
+
+    /**
+     * Name of the database table.
+     */
+    private static final String TABLE_NAME = "transaction";
+
+    /**
+     * Computes totals over the transactions of an account matching the filter, in the base currency.
+     *
+     * @param accountId the account
+     * @param filter    the filter criteria, may be {@code null}
+     * @param rates     the exchange rates converting other currencies
+     * @return the summary, with zero totals if nothing matches
+     * @throws FxRateNotFoundException if a matching amount has no exchange rate
+     */
+    @Transactional(readOnly = true)
+    public TransactionSummary summarize(long accountId, TransactionFilter filter, FxRates rates) {
+        WhereClause where = WhereClause.of(accountId, filter, categoryDictionary::findId);
+        String sql = String.format(SqlQueries.SELECT_SUMMARY, TABLE_NAME, where.sql());
+        ConvertedTotals totals = new ConvertedTotals(rates);
+        jdbcTemplate.query(sql, totals::addWithLastCreatedAt, args(rates, where.args()));
+        return totals.toSummary();
+    }
+
+    /**
+     * Computes count and sum per category over the transactions of an account matching the filter,
+     * in the base currency. Rows are grouped by category ID, the names are taken
+     * from the {@link CategoryDictionary} and sorted afterwards.
+     *
+     * @param accountId the account
+     * @param filter    the filter criteria, may be {@code null}
+     * @param rates     the exchange rates converting other currencies
+     * @return one entry per category, ordered by name
+     * @throws FxRateNotFoundException if a matching amount has no exchange rate
+     */
+    @Transactional(readOnly = true)
+    public List<CategoryStatistics> summarizeByCategory(long accountId, TransactionFilter filter, FxRates rates) {
+        WhereClause where = WhereClause.of(accountId, filter, categoryDictionary::findId);
+        String sql = String.format(SqlQueries.SELECT_BY_CATEGORY, TABLE_NAME, where.sql());
+        Map<String, ConvertedTotals> byCategory = new HashMap<>();
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+            int categoryId = rs.getInt("category_id");
+            String category = rs.wasNull() ? null : categoryDictionary.nameOf(categoryId, rs.getStatement().getConnection());
+            byCategory.computeIfAbsent(category, name -> new ConvertedTotals(rates)).add(rs);
+        }, args(rates, where.args()));
+        List<CategoryStatistics> result = new ArrayList<>(byCategory.size());
+        byCategory.forEach((category, totals) -> result.add(totals.toCategory(category)));
+        result.sort(Comparator.comparing(CategoryStatistics::getCategory,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+        return result;
+    }
+
+    /**
+     * Computes totals per time bucket over the transactions of an account matching the filter,
+     * in the base currency. Buckets without transactions are omitted.
+     *
+     * @param accountId the account
+     * @param filter    the filter criteria, may be {@code null}
+     * @param bucket    the bucket width
+     * @param rates     the exchange rates converting other currencies
+     * @return one point per non-empty bucket, in chronological order
+     * @throws FxRateNotFoundException if a matching amount has no exchange rate
+     */
+    @Transactional(readOnly = true)
+    public List<TimeSeriesPoint> summarizeByTime(long accountId, TransactionFilter filter, TimeBucket bucket,
+                                                 FxRates rates) {
+        WhereClause where = WhereClause.of(accountId, filter, categoryDictionary::findId);
+        String sql = String.format(SqlQueries.SELECT_TIME_SERIES, bucket.field(), TABLE_NAME, where.sql());
+        return timeSeries(jdbcTemplate, sql, rates, args(rates, where.args()));
+    }
+
+    /**
+     * Folds rows ordered by {@code bucket} into one point per bucket.
+     */
+    static List<TimeSeriesPoint> timeSeries(JdbcTemplate jdbcTemplate, String sql, FxRates rates, Object[] args) {
+        Map<LocalDateTime, ConvertedTotals> byBucket = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> byBucket
+                .computeIfAbsent(rs.getTimestamp("bucket").toLocalDateTime(), bucket -> new ConvertedTotals(rates))
+                .add(rs), args);
+        List<TimeSeriesPoint> result = new ArrayList<>(byBucket.size());
+        byBucket.forEach((bucket, totals) -> result.add(totals.toPoint(bucket)));
+        return result;
+    }
+
+    /**
+     * Prepends the base currency, the first parameter of every aggregate query, to the filter arguments.
+     */
+    static Object[] args(FxRates rates, List<Object> filterArgs) {
+        filterArgs.addFirst(rates.getBaseCurrency().getCurrencyCode());
+        return filterArgs.toArray();
+    }
+}
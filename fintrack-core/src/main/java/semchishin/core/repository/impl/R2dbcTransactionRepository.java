@@ -0,0 +1,214 @@
+package semchishin.core.repository.impl;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import semchishin.core.configuration.Profiles;
+import semchishin.core.datasource.AccountRoutingConnectionFactory;
+import semchishin.core.model.Money;
+import semchishin.core.model.Transaction;
+import semchishin.core.repository.ReactiveCrudRepository;
+import semchishin.core.repository.SqlQueries;
+
+import java.time.LocalDateTime;
+import java.util.Currency;
+
+/**
+ * Implementation of {@link ReactiveCrudRepository} for handling {@link Transaction} entities
+ * over R2DBC, mirroring {@link DefaultTransactionRepository}.
+ * <p>
+ * Uses {@link DatabaseClient} with the statements defined in {@link SqlQueries};
+ * their JDBC {@code ?} placeholders are rewritten once into the PostgreSQL
+ * {@code $n} bind markers the R2DBC driver expects. Every statement binds its
+ * account to the subscriber context, so an {@link AccountRoutingConnectionFactory}
+ * runs it on the database of the account.
+ * </p>
+ *
+ * <p>Supported operations:</p>
+ * <ul>
+ *     <li>Create a transaction, returning it with its generated ID (save)</li>
+ *     <li>Find a transaction of an account by ID (findById)</li>
+ *     <li>Stream all transactions of an account with backpressure (findAll)</li>
+ *     <li>Update a transaction of the entity's account (update)</li>
+ *     <li>Delete a transaction of an account by ID (deleteById)</li>
+ * </ul>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@Repository
+@Profile(Profiles.REACTIVE)
+@RequiredArgsConstructor
+public class R2dbcTransactionRepository implements ReactiveCrudRepository<Transaction, Long> {
+
+    /**
+     * DatabaseClient for executing SQL statements.
+     */
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Name of the database table.
+     */
+    private static final String TABLE_NAME = "transaction";
+
+    /**
+     * Columns written by inserts, in bind order.
+     */
+    private static final String INSERT_COLUMNS = "account_id, amount, currency, category_id, created_at, note";
+
+    /**
+     * Name of the category dictionary table. Categories are resolved in SQL on
+     * this path, a lookup through the blocking {@link CategoryDictionary} would
+     * stall the event loop.
+     */
+    private static final String CATEGORY_TABLE_NAME = "category";
+
+    /**
+     * Number of rows the driver requests from the server at a time while
+     * streaming, so a slow subscriber holds back the query instead of buffering.
+     */
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private static final String INSERT_SQL =
+            nativeMarkers(String.format(SqlQueries.INSERT, TABLE_NAME, INSERT_COLUMNS, "?, ?, ?, category_id_of(?), ?, ?"));
+
+    private static final String SELECT_BY_ID_SQL = nativeMarkers(String.format(SqlQueries.SELECT_NAMED_BY_ID, TABLE_NAME, CATEGORY_TABLE_NAME));
+
+    private static final String SELECT_ALL_SQL = nativeMarkers(String.format(SqlQueries.SELECT_NAMED_BY_ACCOUNT, TABLE_NAME,
+            CATEGORY_TABLE_NAME));
+
+    private static final String UPDATE_SQL = nativeMarkers(String.format(SqlQueries.UPDATE_BY_ID, TABLE_NAME,
+            "amount = ?, currency = ?, category_id = category_id_of(?), note = ?, version = version + 1"));
+
+    private static final String DELETE_SQL = nativeMarkers(String.format(SqlQueries.DELETE_BY_ID, TABLE_NAME));
+
+    /**
+     * Saves a new transaction into the database.
+     *
+     * @param entity the {@link Transaction} object to save
+     * @return the saved {@link Transaction} with its generated ID
+     */
+    @Override
+    public Mono<Transaction> save(Transaction entity) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(INSERT_SQL)
+                .bind(0, entity.getAccountId())
+                .bind(1, entity.getAmount().toBigDecimal())
+                .bind(2, entity.getAmount().getCurrency().getCurrencyCode());
+        spec = entity.getCategory() == null ? spec.bindNull(3, String.class) : spec.bind(3, entity.getCategory());
+        spec = spec.bind(4, entity.getDateTime());
+        spec = entity.getNote() == null ? spec.bindNull(5, String.class) : spec.bind(5, entity.getNote());
+        return spec.filter(statement -> statement.returnGeneratedValues("transaction_id", "created_at"))
+                .map(row -> new Transaction(row.get(0, Long.class), entity.getAmount(), entity.getCategory(),
+                        row.get(1, LocalDateTime.class), DefaultTransactionRepository.INITIAL_VERSION,
+                        entity.getAccountId(), entity.getNote()))
+                .one()
+                .contextWrite(AccountRoutingConnectionFactory.bind(entity.getAccountId()));
+    }
+
+    /**
+     * Finds a transaction of an account by its ID.
+     *
+     * @param accountId the account
+     * @param id        the transaction ID
+     * @return a Mono emitting the transaction, or completing empty if not found
+     */
+    @Override
+    public Mono<Transaction> findById(long accountId, Long id) {
+        return databaseClient.sql(SELECT_BY_ID_SQL)
+                .bind(0, accountId)
+                .bind(1, id)
+                .map(R2dbcTransactionRepository::toTransaction)
+                .one()
+                .contextWrite(AccountRoutingConnectionFactory.bind(accountId));
+    }
+
+    /**
+     * Streams all transactions of an account. Rows are fetched in chunks of
+     * {@link #STREAM_FETCH_SIZE} as the subscriber requests them.
+     *
+     * @param accountId the account
+     * @return Flux of {@link Transaction} objects
+     */
+    @Override
+    public Flux<Transaction> findAll(long accountId) {
+        return databaseClient.sql(SELECT_ALL_SQL)
+                .bind(0, accountId)
+                .filter(statement -> statement.fetchSize(STREAM_FETCH_SIZE))
+                .map(R2dbcTransactionRepository::toTransaction)
+                .all()
+                .contextWrite(AccountRoutingConnectionFactory.bind(accountId));
+    }
+
+    /**
+     * Updates an existing transaction of the entity's account.
+     *
+     * @param entity the {@link Transaction} object with updated values
+     * @return a Mono completing when the update has been executed
+     */
+    @Override
+    public Mono<Void> update(Transaction entity) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(UPDATE_SQL)
+                .bind(0, entity.getAmount().toBigDecimal())
+                .bind(1, entity.getAmount().getCurrency().getCurrencyCode());
+        spec = entity.getCategory() == null ? spec.bindNull(2, String.class) : spec.bind(2, entity.getCategory());
+        spec = entity.getNote() == null ? spec.bindNull(3, String.class) : spec.bind(3, entity.getNote());
+        return spec.bind(4, entity.getAccountId())
+                .bind(5, entity.getTransactionId())
+                .then()
+                .contextWrite(AccountRoutingConnectionFactory.bind(entity.getAccountId()));
+    }
+
+    /**
+     * Deletes a transaction of an account by its ID.
+     *
+     * @param accountId the account
+     * @param id        the transaction ID
+     * @return a Mono completing when the delete has been executed
+     */
+    @Override
+    public Mono<Void> deleteById(long accountId, Long id) {
+        return databaseClient.sql(DELETE_SQL)
+                .bind(0, accountId)
+                .bind(1, id)
+                .then()
+                .contextWrite(AccountRoutingConnectionFactory.bind(accountId));
+    }
+
+    /**
+     * Maps a row selected with {@link SqlQueries#SELECT_NAMED} by position,
+     * the amount arrives in minor units of the currency in the sixth column.
+     */
+    private static Transaction toTransaction(Readable row) {
+        return new Transaction(
+                row.get(0, Long.class),
+                Money.ofMinor(row.get(1, Long.class), Currency.getInstance(row.get(5, String.class))),
+                row.get(2, String.class),
+                row.get(3, LocalDateTime.class),
+                row.get(4, Integer.class),
+                row.get(6, Long.class),
+                row.get(7, String.class)
+        );
+    }
+
+    /**
+     * Replaces each JDBC {@code ?} placeholder with the positional {@code $n} marker.
+     */
+    static String nativeMarkers(String sql) {
+        StringBuilder result = new StringBuilder(sql.length() + 8);
+        int index = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '?') {
+                result.append('$').append(++index);
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,24 @@
+package semchishin.core.service.change;
+
+import semchishin.core.datasource.AccountRouter;
+import semchishin.core.model.ChangeBatch;
+import semchishin.core.model.ChangeFeedStatistics;
+
+import java.time.Duration;
+import java.util.Set;
+
+public interface ChangeFeedService {
+
+    ChangeBatch poll(String route, long afterSequenceNumber, int limit, Duration wait) throws InterruptedException;
+
+    default ChangeBatch poll(long afterSequenceNumber, int limit, Duration wait) throws InterruptedException {
+        return poll(AccountRouter.DEFAULT_ROUTE, afterSequenceNumber, limit, wait);
+    }
+
+    void addListener(TransactionChangeListener listener);
+
+    ChangeFeedStatistics getStatistics();
+
+    Set<String> getRoutes();
+
+}
@@ -0,0 +1,36 @@
+package semchishin.core.service.change;
+
+import semchishin.core.model.TransactionChange;
+
+import java.util.List;
+
+/**
+ * In-process consumer of the transaction change feed.
+ * <p>
+ * Spring beans implementing this interface are registered automatically,
+ * others through {@link ChangeFeedService#addListener}. Listeners receive
+ * every change published after their registration, in feed order and in
+ * batches, on the publisher thread; delivery is not persisted, consumers
+ * that must not lose changes read the feed by position instead.
+ * </p>
+ *
+ * <p>
+ * Every database accounts are routed to has a feed of its own, with its own
+ * positions; each batch comes from the feed of a single route.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+@FunctionalInterface
+public interface TransactionChangeListener {
+
+    /**
+     * Handles a batch of published changes.
+     *
+     * @param route   the route of the database the changes were made in
+     * @param changes consecutive changes in feed order, never empty
+     */
+    void onChanges(String route, List<TransactionChange> changes);
+
+}
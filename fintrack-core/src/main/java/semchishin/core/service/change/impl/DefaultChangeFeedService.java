@@ -0,0 +1,262 @@
+package semchishin.core.service.change.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import semchishin.core.datasource.AccountRouter;
+import semchishin.core.model.ChangeBatch;
+import semchishin.core.model.ChangeFeedStatistics;
+import semchishin.core.model.TransactionChange;
+import semchishin.core.repository.impl.DefaultTransactionChangeRepository;
+import semchishin.core.service.change.ChangeFeedService;
+import semchishin.core.service.change.TransactionChangeListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Implementation of {@link ChangeFeedService} on top of the transaction outbox.
+ * <p>
+ * The publish job numbers the changes that have become final, hands new
+ * changes to the in-process listeners in batches and wakes up consumers
+ * waiting in {@link #poll}. Consumers read the feed from the database by
+ * position, so they can resume after a restart of either side and any
+ * number of them costs one indexed range query per batch.
+ * </p>
+ *
+ * <p>
+ * Every database accounts are routed to has its own outbox and numbering, so
+ * the job publishes the feed of each route separately and consumers read the
+ * feed of a route by its own positions. A route whose database fails does not
+ * hold up the others.
+ * </p>
+ *
+ * <p>
+ * Delivery lag is the time between writing a change and publishing it. It
+ * includes the time the writing transaction stayed open after the change
+ * and the time any older transaction kept the change from being numbered.
+ * </p>
+ *
+ * <p>Configuration properties:</p>
+ * <ul>
+ *     <li>{@code fintrack.change-feed.publish-interval-millis} - delay between two publish runs</li>
+ *     <li>{@code fintrack.change-feed.batch-size} - maximum number of changes per listener batch</li>
+ *     <li>{@code fintrack.change-feed.retention-hours} - age after which published changes are pruned</li>
+ *     <li>{@code fintrack.change-feed.prune-cron} - schedule of the pruning, {@code -} disables it</li>
+ * </ul>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@Slf4j
+@Service
+public class DefaultChangeFeedService implements ChangeFeedService {
+
+    /**
+     * Upper bound of a single poll, protects the heap from oversized requests.
+     */
+    public static final int MAX_BATCH_SIZE = 5000;
+
+    /**
+     * Repository reading the outbox.
+     */
+    private final DefaultTransactionChangeRepository changeRepository;
+
+    private final List<TransactionChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    private final int batchSize;
+
+    private final int retentionHours;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Signalled whenever a head advances.
+     */
+    private final Condition published = lock.newCondition();
+
+    /**
+     * Sequence number of the last published change by route, missing before the first run.
+     */
+    private final Map<String, Long> heads = new ConcurrentHashMap<>();
+
+    private volatile long publishedChanges;
+
+    private volatile long lastLagMillis;
+
+    private volatile long maxLagMillis;
+
+    public DefaultChangeFeedService(
+            DefaultTransactionChangeRepository changeRepository,
+            ObjectProvider<TransactionChangeListener> listeners,
+            @Value("${fintrack.change-feed.batch-size:500}") int batchSize,
+            @Value("${fintrack.change-feed.retention-hours:168}") int retentionHours
+    ) {
+        this.changeRepository = changeRepository;
+        this.batchSize = batchSize;
+        this.retentionHours = retentionHours;
+        listeners.orderedStream().forEach(this.listeners::add);
+    }
+
+    /**
+     * Reads the changes of a route after the given position, waiting up to
+     * {@code wait} for new ones if there are none yet.
+     *
+     * @param route               the route of the database, {@link AccountRouter#DEFAULT_ROUTE} for the shared one
+     * @param afterSequenceNumber position to read after, {@code 0} for the start of the retained feed
+     * @param limit               maximum number of changes, capped at {@link #MAX_BATCH_SIZE}
+     * @param wait                maximum time to wait for a change, zero to return at once
+     * @return the changes, empty if none arrived in time
+     * @throws InterruptedException   if interrupted while waiting
+     * @throws IllegalArgumentException if there is no database with that route
+     */
+    @Override
+    public ChangeBatch poll(String route, long afterSequenceNumber, int limit, Duration wait)
+            throws InterruptedException {
+        int size = Math.clamp(limit, 1, MAX_BATCH_SIZE);
+        List<TransactionChange> changes = changeRepository.findAfter(route, afterSequenceNumber, size);
+        if (changes.isEmpty() && !wait.isZero() && awaitHeadAfter(route, afterSequenceNumber, wait)) {
+            changes = changeRepository.findAfter(route, afterSequenceNumber, size);
+        }
+        return new ChangeBatch(changes, changes.isEmpty() ? afterSequenceNumber : changes.getLast().getSequenceNumber());
+    }
+
+    /**
+     * Registers a listener for the changes published from now on.
+     *
+     * @param listener the listener
+     */
+    @Override
+    public void addListener(TransactionChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @return current counters of the publisher
+     */
+    @Override
+    public ChangeFeedStatistics getStatistics() {
+        Map<String, Long> routeHeads = new LinkedHashMap<>();
+        for (String route : changeRepository.routes()) {
+            routeHeads.put(route, head(route));
+        }
+        return new ChangeFeedStatistics(head(AccountRouter.DEFAULT_ROUTE), routeHeads,
+                publishedChanges, lastLagMillis, maxLagMillis);
+    }
+
+    /**
+     * @return the routes of every database with a feed, the shared one first
+     */
+    @Override
+    public Set<String> getRoutes() {
+        return changeRepository.routes();
+    }
+
+    /**
+     * Numbers the final changes of every route and publishes the new ones.
+     * The first run of a route starts at its current head, earlier changes
+     * are not replayed to listeners.
+     */
+    @Scheduled(fixedDelayString = "${fintrack.change-feed.publish-interval-millis:200}")
+    public synchronized void publish() {
+        for (String route : changeRepository.routes()) {
+            try {
+                publish(route);
+            } catch (RuntimeException e) {
+                log.warn("Publishing the changes of route {} failed", route, e);
+            }
+        }
+    }
+
+    /**
+     * Deletes published changes of every route older than the retention.
+     */
+    @Scheduled(cron = "${fintrack.change-feed.prune-cron:-}")
+    public void prune() {
+        for (String route : changeRepository.routes()) {
+            int deleted = changeRepository.deleteOlderThan(route, retentionHours);
+            log.info("Pruned {} transaction changes of route {} older than {} hours", deleted, route, retentionHours);
+        }
+    }
+
+    private void publish(String route) {
+        if (head(route) < 0) {
+            advance(route, changeRepository.findHeadSequenceNumber(route));
+        }
+        changeRepository.sequencePending(route);
+        List<TransactionChange> batch;
+        do {
+            batch = changeRepository.findAfter(route, head(route), batchSize);
+            if (batch.isEmpty()) {
+                return;
+            }
+            record(batch);
+            for (TransactionChangeListener listener : listeners) {
+                try {
+                    listener.onChanges(route, batch);
+                } catch (RuntimeException e) {
+                    log.warn("Change listener {} failed on changes {}..{} of route {}", listener,
+                            batch.getFirst().getSequenceNumber(), batch.getLast().getSequenceNumber(), route, e);
+                }
+            }
+            advance(route, batch.getLast().getSequenceNumber());
+        } while (batch.size() == batchSize);
+    }
+
+    private long head(String route) {
+        return heads.getOrDefault(route, -1L);
+    }
+
+    private void record(List<TransactionChange> batch) {
+        Instant now = Instant.now();
+        long lag = 0;
+        for (TransactionChange change : batch) {
+            lag = Math.max(lag, Duration.between(change.getRecordedAt(), now).toMillis());
+        }
+        publishedChanges += batch.size();
+        lastLagMillis = Duration.between(batch.getLast().getRecordedAt(), now).toMillis();
+        maxLagMillis = Math.max(maxLagMillis, lag);
+    }
+
+    private void advance(String route, long sequenceNumber) {
+        lock.lock();
+        try {
+            heads.put(route, sequenceNumber);
+            published.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until a change of the route after the given position has been published.
+     *
+     * @return {@code true} if one was published before the wait ran out
+     */
+    private boolean awaitHeadAfter(String route, long sequenceNumber, Duration wait) throws InterruptedException {
+        long remaining = wait.toNanos();
+        lock.lock();
+        try {
+            while (head(route) <= sequenceNumber) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = published.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
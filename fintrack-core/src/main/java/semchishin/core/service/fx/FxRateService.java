@@ -0,0 +1,16 @@
+package semchishin.core.service.fx;
+
+import semchishin.core.model.FxRate;
+import semchishin.core.model.FxRates;
+
+import java.util.Collection;
+
+public interface FxRateService {
+
+    FxRates getRates();
+
+    int saveRates(Collection<FxRate> rates);
+
+    FxRates refresh();
+
+}
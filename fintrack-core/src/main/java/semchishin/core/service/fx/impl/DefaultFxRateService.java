@@ -0,0 +1,111 @@
+package semchishin.core.service.fx.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import semchishin.core.model.FxRate;
+import semchishin.core.model.FxRates;
+import semchishin.core.repository.impl.DefaultFxRateRepository;
+import semchishin.core.service.fx.FxRateService;
+
+import java.util.Collection;
+import java.util.Currency;
+import java.util.List;
+
+/**
+ * Implementation of {@link FxRateService} keeping every exchange rate in memory.
+ * <p>
+ * The whole rate table is read once, on first use, into an immutable
+ * {@link FxRates} and shared by all callers, so converting amounts never
+ * queries the database. The table is reread after rates are saved and
+ * periodically, to pick up rates written by other instances; a reread that
+ * finds the same rates keeps the current table, so callers can tell a change
+ * by identity.
+ * </p>
+ *
+ * <p>Configuration properties:</p>
+ * <ul>
+ *     <li>{@code fintrack.fx.base-currency} - ISO 4217 code of the currency statistics are reported in</li>
+ *     <li>{@code fintrack.fx.refresh-interval-millis} - delay between two rereads of the rate table</li>
+ * </ul>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@Slf4j
+@Service
+public class DefaultFxRateService implements FxRateService {
+
+    /**
+     * Repository of the rates.
+     */
+    private final DefaultFxRateRepository fxRateRepository;
+
+    private final Currency baseCurrency;
+
+    /**
+     * The current table, {@code null} until first used.
+     */
+    private volatile FxRates rates;
+
+    public DefaultFxRateService(
+            DefaultFxRateRepository fxRateRepository,
+            @Value("${fintrack.fx.base-currency:RUB}") String baseCurrency
+    ) {
+        this.fxRateRepository = fxRateRepository;
+        this.baseCurrency = Currency.getInstance(baseCurrency);
+    }
+
+    /**
+     * Returns the current rate table, reading it on the first call.
+     *
+     * @return the rates
+     */
+    @Override
+    public FxRates getRates() {
+        FxRates current = rates;
+        return current != null ? current : refresh();
+    }
+
+    /**
+     * Inserts or replaces rates in one statement and rereads the table.
+     *
+     * @param rates the rates, at most one per currency and date
+     * @return number of rates written
+     * @throws IllegalArgumentException if a currency code is unknown or a rate is not positive
+     * @throws ArithmeticException      if a rate has more than {@link FxRates#RATE_SCALE} fraction digits
+     */
+    @Override
+    public int saveRates(Collection<FxRate> rates) {
+        for (FxRate rate : rates) {
+            Currency.getInstance(rate.getCurrency());
+        }
+        FxRates.of(baseCurrency, rates);
+        int saved = fxRateRepository.saveAll(rates);
+        refresh();
+        return saved;
+    }
+
+    /**
+     * Rereads the rate table.
+     *
+     * @return the current rates, the previous instance if nothing changed
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${fintrack.fx.refresh-interval-millis:60000}",
+            initialDelayString = "${fintrack.fx.refresh-interval-millis:60000}")
+    public synchronized FxRates refresh() {
+        List<FxRate> loaded = fxRateRepository.findAll();
+        loaded.removeIf(rate -> baseCurrency.getCurrencyCode().equals(rate.getCurrency()));
+        FxRates current = rates;
+        if (current == null || !current.toList().equals(loaded)) {
+            current = FxRates.of(baseCurrency, loaded);
+            rates = current;
+            log.debug("Loaded {} exchange rates into {}", current.size(), baseCurrency);
+        }
+        return current;
+    }
+
+}
@@ -0,0 +1,101 @@
+package semchishin.core.service.partition;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import semchishin.core.repository.impl.DefaultTransactionPartitionRepository;
+
+import java.time.Clock;
+import java.time.YearMonth;
+
+/**
+ * Background job maintaining the monthly partitions of the transactions table.
+ * <p>
+ * On startup and on the configured schedule it creates the partitions of the
+ * current and the next months, so inserts never land in the default partition.
+ * If a retention is configured, partitions older than it are detached and moved
+ * to the {@code fintrack_archive} schema, where they can be dumped or dropped.
+ * Archived rows stay in the daily rollup until it is rebuilt.
+ * </p>
+ *
+ * <p>Configuration properties:</p>
+ * <ul>
+ *     <li>{@code fintrack.partition.months-ahead} - number of future months to keep ready</li>
+ *     <li>{@code fintrack.partition.retention-months} - months to keep attached, {@code 0} keeps all</li>
+ *     <li>{@code fintrack.partition.maintenance-cron} - schedule of the job</li>
+ * </ul>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@Slf4j
+@Component
+public class TransactionPartitionJob {
+
+    /**
+     * Repository managing the partitions.
+     */
+    private final DefaultTransactionPartitionRepository partitionRepository;
+
+    private final Clock clock;
+
+    private final int monthsAhead;
+
+    private final int retentionMonths;
+
+    public TransactionPartitionJob(
+            DefaultTransactionPartitionRepository partitionRepository,
+            @Value("${fintrack.partition.months-ahead:3}") int monthsAhead,
+            @Value("${fintrack.partition.retention-months:0}") int retentionMonths
+    ) {
+        this(partitionRepository, Clock.systemDefaultZone(), monthsAhead, retentionMonths);
+    }
+
+    TransactionPartitionJob(
+            DefaultTransactionPartitionRepository partitionRepository,
+            Clock clock,
+            int monthsAhead,
+            int retentionMonths
+    ) {
+        this.partitionRepository = partitionRepository;
+        this.clock = clock;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    /**
+     * Makes sure partitions are ready as soon as the application has started.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    /**
+     * Creates missing future partitions and archives expired ones.
+     */
+    @Scheduled(cron = "${fintrack.partition.maintenance-cron:0 0 3 * * *}")
+    public void maintain() {
+        YearMonth current = YearMonth.now(clock);
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            if (partitionRepository.createPartition(month)) {
+                log.info("Created transaction partition for {}", month);
+            }
+        }
+        if (retentionMonths <= 0) {
+            return;
+        }
+        YearMonth oldestKept = current.minusMonths(retentionMonths);
+        for (YearMonth month : partitionRepository.findPartitionMonths()) {
+            if (month.isBefore(oldestKept) && partitionRepository.archivePartition(month)) {
+                log.info("Archived transaction partition for {}", month);
+            }
+        }
+    }
+
+}
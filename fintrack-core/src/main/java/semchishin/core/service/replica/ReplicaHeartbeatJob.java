@@ -0,0 +1,78 @@
+package semchishin.core.service.replica;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import semchishin.core.datasource.ReplicaRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Background job measuring the replication lag of the read replicas.
+ * <p>
+ * On startup and then periodically it lets the {@link ReplicaRoutingDataSource}
+ * read the heartbeat of every replica and write the next one to the primary,
+ * so replicas become usable right after start and lagging ones are skipped
+ * within one interval. Without configured replicas the job does nothing.
+ * </p>
+ *
+ * <p>Configuration properties:</p>
+ * <ul>
+ *     <li>{@code fintrack.replicas.heartbeat-interval-millis} - delay between two checks</li>
+ * </ul>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@Slf4j
+@Component
+public class ReplicaHeartbeatJob {
+
+    /**
+     * The data source routing reads to the replicas, {@code null} without replicas.
+     */
+    private final ReplicaRoutingDataSource replicaRouting;
+
+    public ReplicaHeartbeatJob(DataSource dataSource) {
+        this.replicaRouting = replicaRouting(dataSource);
+    }
+
+    /**
+     * Measures the replicas as soon as the application has started.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void onStartup() {
+        checkReplicas();
+    }
+
+    /**
+     * Measures the lag of every replica and writes the next heartbeat.
+     */
+    @Scheduled(fixedDelayString = "${fintrack.replicas.heartbeat-interval-millis:1000}",
+            initialDelayString = "${fintrack.replicas.heartbeat-interval-millis:1000}")
+    public void checkReplicas() {
+        if (replicaRouting != null) {
+            replicaRouting.checkReplicas();
+        }
+    }
+
+    /**
+     * Finds the replica routing behind the data source bean, which may be
+     * wrapped by the account routing; the shared database is the one used
+     * without a bound account.
+     */
+    private static ReplicaRoutingDataSource replicaRouting(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(ReplicaRoutingDataSource.class)
+                    ? dataSource.unwrap(ReplicaRoutingDataSource.class)
+                    : null;
+        } catch (SQLException e) {
+            log.warn("Failed to look up the replica routing, replica lag is not measured", e);
+            return null;
+        }
+    }
+}
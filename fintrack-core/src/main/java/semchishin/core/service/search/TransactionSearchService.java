@@ -0,0 +1,20 @@
+package semchishin.core.service.search;
+
+import semchishin.core.model.CategorySuggestions;
+import semchishin.core.model.KeysetPage;
+import semchishin.core.model.PageCursor;
+import semchishin.core.model.Transaction;
+import semchishin.core.model.TransactionFilter;
+
+import java.util.List;
+
+public interface TransactionSearchService {
+
+    KeysetPage<Transaction> searchTransactions(long accountId, String query, TransactionFilter filter,
+                                               PageCursor cursor, int pageSize);
+
+    List<String> suggestCategories(long accountId, String text, int limit);
+
+    CategorySuggestions refreshSuggestions(long accountId);
+
+}
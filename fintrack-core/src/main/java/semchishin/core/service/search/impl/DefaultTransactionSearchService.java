@@ -0,0 +1,181 @@
+package semchishin.core.service.search.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import semchishin.core.datasource.AccountRouter;
+import semchishin.core.model.CategorySuggestions;
+import semchishin.core.model.KeysetPage;
+import semchishin.core.model.PageCursor;
+import semchishin.core.model.Transaction;
+import semchishin.core.model.TransactionFilter;
+import semchishin.core.model.TransactionSearchHit;
+import semchishin.core.repository.impl.CategoryDictionary;
+import semchishin.core.repository.impl.DefaultTransactionRepository;
+import semchishin.core.service.search.TransactionSearchService;
+import semchishin.core.service.transaction.impl.DefaultTransactionService;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementation of {@link TransactionSearchService} searching transactions by
+ * category and note in the database and suggesting categories from memory.
+ * <p>
+ * Searches are answered by the trigram indexes of the notes and category
+ * names, ranked by {@link TransactionSearchHit} and paged with a keyset
+ * cursor like plain listings. Category suggestions are served from an
+ * immutable {@link CategorySuggestions} index of the categories an account's
+ * transactions use, read on first use and reread once it is older than the
+ * refresh interval, so typing into a category field rarely queries the database;
+ * a category used since the last reread is suggested after the next one.
+ * </p>
+ *
+ * <p>
+ * Every database an account can be routed to has its own category dictionary,
+ * so the indexes are kept per route and read from the database of that route,
+ * whatever account the calling thread is bound to. An account is never
+ * suggested a category only other accounts use.
+ * </p>
+ *
+ * <p>Configuration properties:</p>
+ * <ul>
+ *     <li>{@code fintrack.search.suggestions.refresh-interval-millis} - age at which the index of an account is reread</li>
+ *     <li>{@code fintrack.search.suggestions.maximum-accounts} - number of accounts per route whose index is kept</li>
+ * </ul>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@Slf4j
+@Service
+public class DefaultTransactionSearchService implements TransactionSearchService {
+
+    /**
+     * Longest query accepted, longer text is not typed into a search field.
+     */
+    public static final int MAX_QUERY_LENGTH = 100;
+
+    /**
+     * Upper bound of the number of category suggestions.
+     */
+    public static final int MAX_SUGGESTIONS = 50;
+
+    /**
+     * Repository searching the transactions.
+     */
+    private final DefaultTransactionRepository transactionRepository;
+
+    /**
+     * Dictionary the suggested categories are read from.
+     */
+    private final CategoryDictionary categoryDictionary;
+
+    /**
+     * Router choosing the database the categories of an account are read from.
+     */
+    private final AccountRouter accountRouter;
+
+    /**
+     * Suggestion indexes by account, by route.
+     */
+    private final Map<String, Cache<Long, CategorySuggestions>> suggestionsByRoute = new ConcurrentHashMap<>();
+
+    private final long maximumAccounts;
+
+    private final Duration refreshInterval;
+
+    public DefaultTransactionSearchService(
+            DefaultTransactionRepository transactionRepository,
+            CategoryDictionary categoryDictionary,
+            AccountRouter accountRouter,
+            @Value("${fintrack.search.suggestions.maximum-accounts:10000}") long maximumAccounts,
+            @Value("${fintrack.search.suggestions.refresh-interval-millis:60000}") long refreshIntervalMillis
+    ) {
+        this.transactionRepository = transactionRepository;
+        this.categoryDictionary = categoryDictionary;
+        this.accountRouter = accountRouter;
+        this.maximumAccounts = maximumAccounts;
+        this.refreshInterval = Duration.ofMillis(refreshIntervalMillis);
+    }
+
+    /**
+     * Returns a page of transactions of an account whose category or note
+     * contains the query, ignoring case, best matches first.
+     *
+     * @param accountId the account
+     * @param query     the text to search for, surrounding whitespace is ignored
+     * @param filter    the filter criteria, may be {@code null}
+     * @param cursor    the cursor of a previous search page, or {@code null} for the first page
+     * @param pageSize  requested number of items, clamped to {@link DefaultTransactionService#MAX_PAGE_SIZE}
+     * @return the page with a cursor for the next one, if any
+     * @throws IllegalArgumentException if the query is blank or too long, or the cursor is not of a search
+     */
+    @Override
+    public KeysetPage<Transaction> searchTransactions(long accountId, String query, TransactionFilter filter,
+                                                      PageCursor cursor, int pageSize) {
+        String text = query == null ? "" : query.strip();
+        if (text.isEmpty() || text.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException(String.format(
+                    "Search query must have 1 to %d characters", MAX_QUERY_LENGTH));
+        }
+        if (cursor != null && cursor.getRank() == null) {
+            throw new IllegalArgumentException("Page cursor is not of a search");
+        }
+        int limit = Math.clamp(pageSize, 1, DefaultTransactionService.MAX_PAGE_SIZE);
+        List<TransactionSearchHit> hits = transactionRepository.search(accountId, text, filter, cursor, limit + 1);
+        List<Transaction> items = hits.subList(0, Math.min(limit, hits.size())).stream()
+                .map(TransactionSearchHit::getTransaction)
+                .toList();
+        return new KeysetPage<>(items, hits.size() <= limit ? null : PageCursor.after(hits.get(limit - 1)));
+    }
+
+    /**
+     * Suggests categories used by an account containing the typed text,
+     * ignoring case, the categories starting with it first.
+     *
+     * @param accountId the account
+     * @param text      the typed text, blank for the first categories in alphabetical order
+     * @param limit     maximum number of categories, clamped to {@link #MAX_SUGGESTIONS}
+     * @return the category names
+     */
+    @Override
+    public List<String> suggestCategories(long accountId, String text, int limit) {
+        String route = accountRouter.route(accountId);
+        CategorySuggestions current = suggestions(route).get(accountId, id -> load(route, id));
+        return current.suggest(text == null ? "" : text, Math.clamp(limit, 1, MAX_SUGGESTIONS));
+    }
+
+    /**
+     * Rereads the categories used by an account into a new suggestion index.
+     *
+     * @param accountId the account
+     * @return the current index of the account
+     */
+    @Override
+    public CategorySuggestions refreshSuggestions(long accountId) {
+        String route = accountRouter.route(accountId);
+        CategorySuggestions current = load(route, accountId);
+        suggestions(route).put(accountId, current);
+        return current;
+    }
+
+    private Cache<Long, CategorySuggestions> suggestions(String route) {
+        return suggestionsByRoute.computeIfAbsent(route, ignored -> Caffeine.newBuilder()
+                .maximumSize(maximumAccounts)
+                .expireAfterWrite(refreshInterval)
+                .build());
+    }
+
+    private CategorySuggestions load(String route, long accountId) {
+        CategorySuggestions current = CategorySuggestions.of(categoryDictionary.findNamesUsedBy(route, accountId));
+        log.debug("Loaded {} category suggestions of account {} on route {}", current.size(), accountId, route);
+        return current;
+    }
+
+}
@@ -0,0 +1,19 @@
+package semchishin.core.service.statistics;
+
+import semchishin.core.model.CategoryStatistics;
+import semchishin.core.model.TimeBucket;
+import semchishin.core.model.TimeSeriesPoint;
+import semchishin.core.model.TransactionFilter;
+import semchishin.core.model.TransactionSummary;
+
+import java.util.List;
+
+public interface StatisticsService {
+
+    TransactionSummary getSummary(long accountId, TransactionFilter filter);
+
+    List<CategoryStatistics> getCategoryStatistics(long accountId, TransactionFilter filter);
+
+    List<TimeSeriesPoint> getTimeSeries(long accountId, TransactionFilter filter, TimeBucket bucket);
+
+}
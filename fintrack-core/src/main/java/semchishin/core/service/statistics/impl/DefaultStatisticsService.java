@@ -0,0 +1,150 @@
+package semchishin.core.service.statistics.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import semchishin.core.datasource.AccountRouter;
+import semchishin.core.exception.FxRateNotFoundException;
+import semchishin.core.model.CategoryStatistics;
+import semchishin.core.model.TimeBucket;
+import semchishin.core.model.TimeSeriesPoint;
+import semchishin.core.model.TransactionFilter;
+import semchishin.core.model.TransactionSummary;
+import semchishin.core.repository.WhereClause;
+import semchishin.core.repository.impl.DefaultTransactionRollupRepository;
+import semchishin.core.repository.impl.DefaultTransactionStatisticsRepository;
+import semchishin.core.service.fx.FxRateService;
+import semchishin.core.service.statistics.StatisticsService;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implementation of {@link StatisticsService} that provides
+ * aggregated figures over transactions.
+ * <p>
+ * When the in-memory {@link LedgerSnapshot} is enabled and loaded, every
+ * query is answered from it without asking the database. Otherwise filters
+ * restricted to category and whole days are answered from the
+ * pre-aggregated daily rollup through {@link DefaultTransactionRollupRepository},
+ * any other filter is aggregated over the raw rows by
+ * {@link DefaultTransactionStatisticsRepository}. In both cases only
+ * aggregated rows leave the database.
+ * </p>
+ *
+ * <p>
+ * Every figure covers the transactions of one account. The snapshot holds the
+ * shared database only, accounts routed to a database of their own by the
+ * {@link AccountRouter} are always aggregated by PostgreSQL.
+ * </p>
+ *
+ * <p>
+ * Figures are reported in the base currency of the {@link FxRateService}.
+ * Amounts of other currencies are converted with the rate of their day.
+ * </p>
+ *
+ * <p>Supported operations:</p>
+ * <ul>
+ *     <li>Income, expense, balance and average</li>
+ *     <li>Count and sum per category</li>
+ *     <li>Daily, weekly or monthly time series</li>
+ * </ul>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@Service
+@RequiredArgsConstructor
+public class DefaultStatisticsService implements StatisticsService {
+
+    /**
+     * Repository for computing aggregates over transactions.
+     */
+    private final DefaultTransactionStatisticsRepository statisticsRepository;
+
+    /**
+     * Repository for reading aggregates from the daily rollup.
+     */
+    private final DefaultTransactionRollupRepository rollupRepository;
+
+    /**
+     * Holder of the optional in-memory snapshot.
+     */
+    private final LedgerSnapshotHolder snapshotHolder;
+
+    /**
+     * Source of the exchange rates converting amounts to the base currency.
+     */
+    private final FxRateService fxRateService;
+
+    /**
+     * Router telling whether an account is kept in the shared database.
+     */
+    private final AccountRouter accountRouter;
+
+    /**
+     * Returns totals over the transactions of an account matching the filter.
+     *
+     * @param accountId the account
+     * @param filter    the filter criteria, may be {@code null}
+     * @return the {@link TransactionSummary}
+     * @throws FxRateNotFoundException if a matching amount has no exchange rate
+     */
+    @Override
+    public TransactionSummary getSummary(long accountId, TransactionFilter filter) {
+        Optional<LedgerSnapshot> snapshot = snapshot(accountId);
+        if (snapshot.isPresent()) {
+            return snapshot.get().summarize(accountId, filter);
+        }
+        return WhereClause.isRollupCompatible(filter)
+                ? rollupRepository.summarize(accountId, filter, fxRateService.getRates())
+                : statisticsRepository.summarize(accountId, filter, fxRateService.getRates());
+    }
+
+    /**
+     * Returns count and sum per category of an account.
+     *
+     * @param accountId the account
+     * @param filter    the filter criteria, may be {@code null}
+     * @return list of {@link CategoryStatistics}, ordered by category
+     * @throws FxRateNotFoundException if a matching amount has no exchange rate
+     */
+    @Override
+    public List<CategoryStatistics> getCategoryStatistics(long accountId, TransactionFilter filter) {
+        Optional<LedgerSnapshot> snapshot = snapshot(accountId);
+        if (snapshot.isPresent()) {
+            return snapshot.get().summarizeByCategory(accountId, filter);
+        }
+        return WhereClause.isRollupCompatible(filter)
+                ? rollupRepository.summarizeByCategory(accountId, filter, fxRateService.getRates())
+                : statisticsRepository.summarizeByCategory(accountId, filter, fxRateService.getRates());
+    }
+
+    /**
+     * Returns totals per time bucket of an account.
+     *
+     * @param accountId the account
+     * @param filter    the filter criteria, may be {@code null}
+     * @param bucket    the bucket width
+     * @return list of {@link TimeSeriesPoint}, in chronological order
+     * @throws FxRateNotFoundException if a matching amount has no exchange rate
+     */
+    @Override
+    public List<TimeSeriesPoint> getTimeSeries(long accountId, TransactionFilter filter, TimeBucket bucket) {
+        Optional<LedgerSnapshot> snapshot = snapshot(accountId);
+        if (snapshot.isPresent()) {
+            return snapshot.get().summarizeByTime(accountId, filter, bucket);
+        }
+        return WhereClause.isRollupCompatible(filter)
+                ? rollupRepository.summarizeByTime(accountId, filter, bucket, fxRateService.getRates())
+                : statisticsRepository.summarizeByTime(accountId, filter, bucket, fxRateService.getRates());
+    }
+
+    /**
+     * Returns the snapshot if it holds the account.
+     */
+    private Optional<LedgerSnapshot> snapshot(long accountId) {
+        return accountRouter.isDefault(accountId) ? snapshotHolder.current() : Optional.empty();
+    }
+
+}
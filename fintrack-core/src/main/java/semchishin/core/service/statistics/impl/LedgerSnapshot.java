@@ -0,0 +1,833 @@
+package semchishin.core.service.statistics.impl;
+
+import semchishin.core.model.CategoryStatistics;
+import semchishin.core.model.FxRates;
+import semchishin.core.model.Money;
+import semchishin.core.model.TimeBucket;
+import semchishin.core.model.TimeSeriesPoint;
+import semchishin.core.model.Transaction;
+import semchishin.core.model.TransactionFilter;
+import semchishin.core.model.TransactionSummary;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * Immutable, column-oriented view of the transactions table held in memory.
+ * <p>
+ * Every transaction occupies one slot in three primitive arrays: the amount in
+ * minor units, the creation time in epoch microseconds and the category as an
+ * index into a dictionary of distinct names, about 20 bytes per row, and the
+ * builder keeps the ID of every row to find it again. Aggregates
+ * are computed by tight loops over these arrays; once a view has more rows than
+ * the parallel threshold, the loop is split over the common fork-join pool.
+ * </p>
+ *
+ * <p>
+ * Amounts are converted to the base currency of the {@link FxRates} the
+ * builder was created with while rows are appended, so the loops only ever
+ * add longs. As long as every row is in the base currency the converted
+ * column is the amount column itself; the first row in another currency adds
+ * a fourth array of 8 bytes per row. Filters on the amount apply to the
+ * amount in its own currency, like the SQL filters do. The amount column holds
+ * minor units of the base currency's scale, {@link Money#scaleOf}; the first
+ * row of a currency with another number of fraction digits rewrites it, in a
+ * new array, with {@link Money#MAX_SCALE} fraction digits.
+ * </p>
+ *
+ * <p>
+ * Every query is scoped to one account. While every row belongs to
+ * {@link Transaction#DEFAULT_ACCOUNT_ID} no account is stored; the first row
+ * of another account adds an account column of 8 bytes per row.
+ * </p>
+ *
+ * <p>
+ * Views are produced by a single-writer {@link Builder}. Slots are never
+ * changed once written: a deleted row is marked in a bit set of removed slots,
+ * and an updated one is removed and appended again. The bit set is copied on
+ * the first removal after a view was built, so a view stays valid while the
+ * builder keeps changing and views can be shared between threads without locking.
+ * </p>
+ *
+ * <p>
+ * The results match those of {@link semchishin.core.repository.impl.DefaultTransactionStatisticsRepository}:
+ * categories are ordered by name with uncategorized rows last, buckets are
+ * computed like {@code date_trunc} and averages carry the scale PostgreSQL uses
+ * for {@code AVG} over the amount column. Amounts of other currencies are
+ * rounded per row here and per currency and day there, so their converted
+ * totals can differ in the last minor units.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+public final class LedgerSnapshot {
+
+    /**
+     * Dictionary code of transactions without a category.
+     */
+    static final int NO_CATEGORY = 0;
+
+    private static final int AVERAGE_SCALE = 16;
+
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+
+    private static final long MICROS_PER_DAY = 86_400L * MICROS_PER_SECOND;
+
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000};
+
+    /**
+     * Amounts in their own currency, with {@link #amountScale} fraction digits.
+     */
+    private final long[] amounts;
+
+    private final int amountScale;
+
+    /**
+     * Fraction digits of the base currency, those of {@link #baseAmounts}.
+     */
+    private final int baseScale;
+
+    /**
+     * Amounts in minor units of the base currency, the same array as {@link #amounts}
+     * while every row is in the base currency.
+     */
+    private final long[] baseAmounts;
+
+    private final long[] createdAt;
+
+    private final int[] categories;
+
+    /**
+     * Accounts of the rows, {@code null} while every row belongs to the default account.
+     */
+    private final long[] accounts;
+
+    /**
+     * Removed slots as a bit set, {@code null} if no slot is removed.
+     */
+    private final long[] removed;
+
+    /**
+     * Number of slots, including removed ones.
+     */
+    private final int size;
+
+    private final int count;
+
+    /**
+     * Category names by dictionary code, {@code null} at {@link #NO_CATEGORY}.
+     */
+    private final String[] names;
+
+    private final int nameCount;
+
+    private final long minCreatedAt;
+
+    private final long maxCreatedAt;
+
+    private final long lastTransactionId;
+
+    private final int parallelThreshold;
+
+    private LedgerSnapshot(Builder builder) {
+        this.amounts = builder.amounts;
+        this.amountScale = builder.amountScale;
+        this.baseScale = builder.baseScale;
+        this.baseAmounts = builder.baseAmounts == null ? builder.amounts : builder.baseAmounts;
+        this.createdAt = builder.createdAt;
+        this.categories = builder.categories;
+        this.accounts = builder.accounts;
+        this.removed = builder.removed;
+        this.size = builder.size;
+        this.count = builder.size - builder.removedCount;
+        this.names = builder.names;
+        this.nameCount = builder.nameCount;
+        this.minCreatedAt = builder.minCreatedAt;
+        this.maxCreatedAt = builder.maxCreatedAt;
+        this.lastTransactionId = builder.lastTransactionId;
+        this.parallelThreshold = builder.parallelThreshold;
+    }
+
+    /**
+     * @return number of transactions in the view
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return the highest transaction ID in the view, {@code 0} if it is empty
+     */
+    public long lastTransactionId() {
+        return lastTransactionId;
+    }
+
+    /**
+     * Computes totals over the transactions of an account matching the filter,
+     * in the base currency.
+     *
+     * @param accountId the account
+     * @param filter    the filter criteria, may be {@code null}
+     * @return the summary, with zero totals if nothing matches
+     */
+    public TransactionSummary summarize(long accountId, TransactionFilter filter) {
+        Bounds bounds = bounds(accountId, filter);
+        SummaryPartial total = scan(bounds, SummaryPartial::new);
+        long balance = Math.addExact(total.income, total.expense);
+        return new TransactionSummary(
+                total.count,
+                money(total.income),
+                money(total.expense),
+                money(balance),
+                total.count == 0 ? null : money(balance)
+                        .divide(BigDecimal.valueOf(total.count), AVERAGE_SCALE, RoundingMode.HALF_UP),
+                total.count == 0 ? null : toDateTime(total.lastCreatedAt)
+        );
+    }
+
+    /**
+     * Computes count and sum per category over the transactions of an account
+     * matching the filter, in the base currency.
+     *
+     * @param accountId the account
+     * @param filter    the filter criteria, may be {@code null}
+     * @return one entry per category, ordered by name with uncategorized transactions last
+     */
+    public List<CategoryStatistics> summarizeByCategory(long accountId, TransactionFilter filter) {
+        Bounds bounds = bounds(accountId, filter);
+        CategoryPartial total = scan(bounds, () -> new CategoryPartial(nameCount));
+        List<CategoryStatistics> result = new ArrayList<>();
+        for (int code = 0; code < nameCount; code++) {
+            if (total.counts[code] > 0) {
+                result.add(new CategoryStatistics(names[code], total.counts[code], money(total.sums[code])));
+            }
+        }
+        result.sort(Comparator.comparing(CategoryStatistics::getCategory,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+        return result;
+    }
+
+    /**
+     * Computes totals per time bucket over the transactions of an account
+     * matching the filter, in the base currency. Buckets without transactions
+     * are omitted.
+     *
+     * @param accountId the account
+     * @param filter    the filter criteria, may be {@code null}
+     * @param bucket    the bucket width
+     * @return one point per non-empty bucket, in chronological order
+     */
+    public List<TimeSeriesPoint> summarizeByTime(long accountId, TransactionFilter filter, TimeBucket bucket) {
+        Bounds bounds = bounds(accountId, filter);
+        if (size == 0) {
+            return List.of();
+        }
+        long firstKey = bucketKey(bucket, Math.max(minCreatedAt, bounds.from));
+        long lastKey = bucketKey(bucket, bounds.to == Long.MAX_VALUE ? maxCreatedAt : Math.min(maxCreatedAt, bounds.to - 1));
+        if (lastKey < firstKey) {
+            return List.of();
+        }
+        int width = Math.toIntExact(lastKey - firstKey + 1);
+        TimePartial total = scan(bounds, () -> new TimePartial(bucket, firstKey, width));
+        List<TimeSeriesPoint> result = new ArrayList<>();
+        for (int i = 0; i < width; i++) {
+            if (total.counts[i] > 0) {
+                result.add(new TimeSeriesPoint(bucketStart(bucket, firstKey + i), total.counts[i],
+                        money(total.income[i]), money(total.expense[i])));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Translates the filter into primitive bounds on the columns.
+     */
+    private Bounds bounds(long accountId, TransactionFilter filter) {
+        if (accounts == null && accountId != Transaction.DEFAULT_ACCOUNT_ID) {
+            return Bounds.NONE;
+        }
+        if (filter == null) {
+            return new Bounds(accountId, Bounds.ANY_CATEGORY,
+                    Long.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+        int category = Bounds.ANY_CATEGORY;
+        if (filter.getCategory() != null) {
+            category = Bounds.NO_MATCH;
+            for (int code = NO_CATEGORY + 1; code < nameCount; code++) {
+                if (names[code].equals(filter.getCategory())) {
+                    category = code;
+                    break;
+                }
+            }
+        }
+        return new Bounds(
+                accountId,
+                category,
+                filter.getMinAmount() == null ? Long.MIN_VALUE : minorUnits(filter.getMinAmount(), amountScale, RoundingMode.CEILING),
+                filter.getMaxAmount() == null ? Long.MAX_VALUE : minorUnits(filter.getMaxAmount(), amountScale, RoundingMode.FLOOR),
+                filter.getFrom() == null ? Long.MIN_VALUE : toMicros(filter.getFrom()),
+                filter.getTo() == null ? Long.MAX_VALUE : toMicros(filter.getTo())
+        );
+    }
+
+    /**
+     * Runs the partial aggregation over all rows, splitting the range over the
+     * fork-join pool when it is larger than the parallel threshold.
+     */
+    private <P extends Partial<P>> P scan(Bounds bounds, Supplier<P> factory) {
+        if (bounds.category == Bounds.NO_MATCH || size == 0) {
+            return factory.get();
+        }
+        if (size <= parallelThreshold) {
+            P partial = factory.get();
+            partial.scan(this, bounds, 0, size);
+            return partial;
+        }
+        return ForkJoinPool.commonPool().invoke(new ScanTask<>(this, bounds, factory, 0, size));
+    }
+
+    /**
+     * Converts an amount bound to a whole multiple of 10<sup>-scale</sup>, rounding
+     * towards the inside of the range and saturating at the {@code long} range.
+     */
+    static long minorUnits(BigDecimal amount, int scale, RoundingMode rounding) {
+        BigInteger unscaled = amount.setScale(scale, rounding).unscaledValue();
+        if (unscaled.bitLength() > 63) {
+            return unscaled.signum() > 0 ? Long.MAX_VALUE : Long.MIN_VALUE;
+        }
+        return unscaled.longValue();
+    }
+
+    static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + dateTime.getNano() / 1_000;
+    }
+
+    static LocalDateTime toDateTime(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, MICROS_PER_SECOND),
+                (int) Math.floorMod(micros, MICROS_PER_SECOND) * 1_000, ZoneOffset.UTC);
+    }
+
+    private BigDecimal money(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, baseScale);
+    }
+
+    /**
+     * Returns a dense key of the bucket containing the instant: the epoch day,
+     * the number of Monday-based weeks since 1969-12-29 or the month count since year 0.
+     */
+    static long bucketKey(TimeBucket bucket, long micros) {
+        long epochDay = Math.floorDiv(micros, MICROS_PER_DAY);
+        return switch (bucket) {
+            case DAY -> epochDay;
+            // 1970-01-01 was a Thursday, shifting by three days aligns weeks on Mondays
+            case WEEK -> Math.floorDiv(epochDay + 3, 7);
+            case MONTH -> monthKey(epochDay);
+        };
+    }
+
+    static LocalDateTime bucketStart(TimeBucket bucket, long key) {
+        LocalDate day = switch (bucket) {
+            case DAY -> LocalDate.ofEpochDay(key);
+            case WEEK -> LocalDate.ofEpochDay(key * 7 - 3);
+            case MONTH -> LocalDate.of(Math.toIntExact(Math.floorDiv(key, 12)), (int) Math.floorMod(key, 12) + 1, 1);
+        };
+        return day.atStartOfDay();
+    }
+
+    /**
+     * Computes {@code year * 12 + month - 1} of an epoch day without allocating,
+     * using the civil-from-days algorithm of the proleptic Gregorian calendar.
+     */
+    static long monthKey(long epochDay) {
+        long z = epochDay + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1_460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        long month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year * 12 + month - 1;
+    }
+
+    /**
+     * Filter criteria as primitive bounds: an account, an exact category code, an
+     * inclusive amount range in minor units and a half-open time range in epoch microseconds.
+     */
+    private record Bounds(long account, int category, long minAmount, long maxAmount, long from, long to) {
+
+        static final int ANY_CATEGORY = -1;
+
+        static final int NO_MATCH = -2;
+
+        static final Bounds NONE = new Bounds(0, NO_MATCH, 0, 0, 0, 0);
+
+        /**
+         * @param accounts the account column, {@code null} if every row belongs to the requested account
+         * @param removed  the removed slots, {@code null} if none
+         */
+        boolean matches(long[] accounts, long[] removed, int row, long amount, long time, int categoryCode) {
+            return amount >= minAmount && amount <= maxAmount
+                    && time >= from && time < to
+                    && (category == ANY_CATEGORY || category == categoryCode)
+                    && (accounts == null || accounts[row] == account)
+                    && (removed == null || (removed[row >>> 6] & 1L << row) == 0);
+        }
+    }
+
+    /**
+     * Aggregate over a range of rows, each implementation runs its own loop so
+     * the per-row work stays monomorphic and can be inlined.
+     */
+    private abstract static class Partial<P extends Partial<P>> {
+
+        abstract void scan(LedgerSnapshot snapshot, Bounds bounds, int from, int to);
+
+        abstract P merge(P other);
+    }
+
+    private static final class SummaryPartial extends Partial<SummaryPartial> {
+
+        long count;
+
+        long income;
+
+        long expense;
+
+        long lastCreatedAt = Long.MIN_VALUE;
+
+        @Override
+        void scan(LedgerSnapshot snapshot, Bounds bounds, int from, int to) {
+            long[] amounts = snapshot.amounts;
+            long[] baseAmounts = snapshot.baseAmounts;
+            long[] createdAt = snapshot.createdAt;
+            int[] categories = snapshot.categories;
+            long[] accounts = snapshot.accounts;
+            long[] removed = snapshot.removed;
+            for (int i = from; i < to; i++) {
+                long time = createdAt[i];
+                if (bounds.matches(accounts, removed, i, amounts[i], time, categories[i])) {
+                    long amount = baseAmounts[i];
+                    count++;
+                    if (amount > 0) {
+                        income = Math.addExact(income, amount);
+                    } else {
+                        expense = Math.addExact(expense, amount);
+                    }
+                    lastCreatedAt = Math.max(lastCreatedAt, time);
+                }
+            }
+        }
+
+        @Override
+        SummaryPartial merge(SummaryPartial other) {
+            count += other.count;
+            income = Math.addExact(income, other.income);
+            expense = Math.addExact(expense, other.expense);
+            lastCreatedAt = Math.max(lastCreatedAt, other.lastCreatedAt);
+            return this;
+        }
+    }
+
+    private static final class CategoryPartial extends Partial<CategoryPartial> {
+
+        final long[] counts;
+
+        final long[] sums;
+
+        CategoryPartial(int nameCount) {
+            this.counts = new long[nameCount];
+            this.sums = new long[nameCount];
+        }
+
+        @Override
+        void scan(LedgerSnapshot snapshot, Bounds bounds, int from, int to) {
+            long[] amounts = snapshot.amounts;
+            long[] baseAmounts = snapshot.baseAmounts;
+            long[] createdAt = snapshot.createdAt;
+            int[] categories = snapshot.categories;
+            long[] accounts = snapshot.accounts;
+            long[] removed = snapshot.removed;
+            for (int i = from; i < to; i++) {
+                int code = categories[i];
+                if (bounds.matches(accounts, removed, i, amounts[i], createdAt[i], code)) {
+                    counts[code]++;
+                    sums[code] = Math.addExact(sums[code], baseAmounts[i]);
+                }
+            }
+        }
+
+        @Override
+        CategoryPartial merge(CategoryPartial other) {
+            for (int code = 0; code < counts.length; code++) {
+                counts[code] += other.counts[code];
+                sums[code] = Math.addExact(sums[code], other.sums[code]);
+            }
+            return this;
+        }
+    }
+
+    private static final class TimePartial extends Partial<TimePartial> {
+
+        final TimeBucket bucket;
+
+        final long firstKey;
+
+        final long[] counts;
+
+        final long[] income;
+
+        final long[] expense;
+
+        TimePartial(TimeBucket bucket, long firstKey, int width) {
+            this.bucket = bucket;
+            this.firstKey = firstKey;
+            this.counts = new long[width];
+            this.income = new long[width];
+            this.expense = new long[width];
+        }
+
+        @Override
+        void scan(LedgerSnapshot snapshot, Bounds bounds, int from, int to) {
+            long[] amounts = snapshot.amounts;
+            long[] baseAmounts = snapshot.baseAmounts;
+            long[] createdAt = snapshot.createdAt;
+            int[] categories = snapshot.categories;
+            long[] accounts = snapshot.accounts;
+            long[] removed = snapshot.removed;
+            for (int i = from; i < to; i++) {
+                long time = createdAt[i];
+                if (bounds.matches(accounts, removed, i, amounts[i], time, categories[i])) {
+                    long amount = baseAmounts[i];
+                    int slot = (int) (bucketKey(bucket, time) - firstKey);
+                    counts[slot]++;
+                    if (amount > 0) {
+                        income[slot] = Math.addExact(income[slot], amount);
+                    } else {
+                        expense[slot] = Math.addExact(expense[slot], amount);
+                    }
+                }
+            }
+        }
+
+        @Override
+        TimePartial merge(TimePartial other) {
+            for (int slot = 0; slot < counts.length; slot++) {
+                counts[slot] += other.counts[slot];
+                income[slot] = Math.addExact(income[slot], other.income[slot]);
+                expense[slot] = Math.addExact(expense[slot], other.expense[slot]);
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Splits a row range in halves until it fits the parallel threshold.
+     */
+    private static final class ScanTask<P extends Partial<P>> extends RecursiveTask<P> {
+
+        private final LedgerSnapshot snapshot;
+
+        private final Bounds bounds;
+
+        private final Supplier<P> factory;
+
+        private final int from;
+
+        private final int to;
+
+        ScanTask(LedgerSnapshot snapshot, Bounds bounds, Supplier<P> factory, int from, int to) {
+            this.snapshot = snapshot;
+            this.bounds = bounds;
+            this.factory = factory;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected P compute() {
+            if (to - from <= snapshot.parallelThreshold) {
+                P partial = factory.get();
+                partial.scan(snapshot, bounds, from, to);
+                return partial;
+            }
+            int middle = (from + to) >>> 1;
+            ScanTask<P> right = new ScanTask<>(snapshot, bounds, factory, middle, to);
+            right.fork();
+            P left = new ScanTask<>(snapshot, bounds, factory, from, middle).compute();
+            return left.merge(right.join());
+        }
+    }
+
+    /**
+     * Appends rows to growable columns and publishes immutable {@link LedgerSnapshot} views of them.
+     * <p>
+     * Not thread-safe: rows must be appended by one thread at a time. The views
+     * it returns may be read by any thread once published through a volatile
+     * field or another safe hand-off.
+     * </p>
+     */
+    public static final class Builder {
+
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private final int parallelThreshold;
+
+        private final FxRates rates;
+
+        private final Map<String, Integer> codes = new HashMap<>();
+
+        private long[] amounts = new long[INITIAL_CAPACITY];
+
+        /**
+         * Fraction digits of {@link #amounts}, those of the base currency until
+         * the first row of a currency with another number of them.
+         */
+        private int amountScale;
+
+        private final int baseScale;
+
+        /**
+         * Converted amounts, {@code null} until the first row in another currency than the base one.
+         */
+        private long[] baseAmounts;
+
+        private long[] createdAt = new long[INITIAL_CAPACITY];
+
+        private int[] categories = new int[INITIAL_CAPACITY];
+
+        /**
+         * Accounts, {@code null} until the first row of another account than the default one.
+         */
+        private long[] accounts;
+
+        /**
+         * Transaction IDs of the slots, only used to find a row again.
+         */
+        private long[] ids = new long[INITIAL_CAPACITY];
+
+        /**
+         * Number of leading slots whose IDs ascend, as loaded, found by binary search;
+         * the slots after them are searched one by one.
+         */
+        private int sortedSlots;
+
+        /**
+         * Removed slots as a bit set, {@code null} until the first removal.
+         */
+        private long[] removed;
+
+        /**
+         * Whether {@link #removed} is referenced by a built view and has to be copied before it changes.
+         */
+        private boolean removedShared;
+
+        private int removedCount;
+
+        private int size;
+
+        private String[] names = new String[16];
+
+        private int nameCount = NO_CATEGORY + 1;
+
+        private long minCreatedAt = Long.MAX_VALUE;
+
+        private long maxCreatedAt = Long.MIN_VALUE;
+
+        private long lastTransactionId;
+
+        /**
+         * @param parallelThreshold largest number of rows scanned by a single thread
+         * @param rates             the exchange rates converting amounts to the base currency
+         */
+        public Builder(int parallelThreshold, FxRates rates) {
+            this.parallelThreshold = Math.max(parallelThreshold, 1);
+            this.rates = rates;
+            this.baseScale = Money.scaleOf(rates.getBaseCurrency());
+            this.amountScale = baseScale;
+        }
+
+        /**
+         * Appends one transaction. A transaction already in the builder has to be
+         * {@linkplain #remove removed} first.
+         *
+         * @param transactionId   the transaction ID
+         * @param accountId       the account
+         * @param amountMinor     the amount in minor units of its currency
+         * @param currency        ISO 4217 code of the currency
+         * @param category        the category, may be {@code null}
+         * @param createdAtMicros the creation time in epoch microseconds
+         * @return this builder
+         * @throws semchishin.core.exception.FxRateNotFoundException if the currency has no rate on the day
+         */
+        public Builder append(long transactionId, long accountId, long amountMinor, String currency,
+                              String category, long createdAtMicros) {
+            if (size == amounts.length) {
+                int capacity = size + (size >> 1);
+                amounts = Arrays.copyOf(amounts, capacity);
+                createdAt = Arrays.copyOf(createdAt, capacity);
+                categories = Arrays.copyOf(categories, capacity);
+                ids = Arrays.copyOf(ids, capacity);
+                if (baseAmounts != null) {
+                    baseAmounts = Arrays.copyOf(baseAmounts, capacity);
+                }
+                if (accounts != null) {
+                    accounts = Arrays.copyOf(accounts, capacity);
+                }
+            }
+            if (accounts == null && accountId != Transaction.DEFAULT_ACCOUNT_ID) {
+                accounts = new long[amounts.length];
+                Arrays.fill(accounts, 0, size, Transaction.DEFAULT_ACCOUNT_ID);
+            }
+            if (accounts != null) {
+                accounts[size] = accountId;
+            }
+            long amount = amountMinor;
+            if (!rates.isBase(currency)) {
+                if (baseAmounts == null) {
+                    baseAmounts = Arrays.copyOf(amounts, amounts.length);
+                }
+                baseAmounts[size] = rates.toBaseMinor(amountMinor, currency, Math.floorDiv(createdAtMicros, MICROS_PER_DAY));
+                int scale = Money.scaleOf(Currency.getInstance(currency));
+                if (scale != amountScale) {
+                    rescaleAmounts();
+                    amount = Math.multiplyExact(amountMinor, POWERS_OF_TEN[amountScale - scale]);
+                }
+            } else if (baseAmounts != null) {
+                baseAmounts[size] = amountMinor;
+                amount = Math.multiplyExact(amountMinor, POWERS_OF_TEN[amountScale - baseScale]);
+            }
+            amounts[size] = amount;
+            createdAt[size] = createdAtMicros;
+            categories[size] = encode(category);
+            ids[size] = transactionId;
+            if (sortedSlots == size && transactionId > lastTransactionId) {
+                sortedSlots++;
+            }
+            size++;
+            minCreatedAt = Math.min(minCreatedAt, createdAtMicros);
+            maxCreatedAt = Math.max(maxCreatedAt, createdAtMicros);
+            lastTransactionId = Math.max(lastTransactionId, transactionId);
+            return this;
+        }
+
+        /**
+         * Removes a transaction from the views built from now on, earlier views keep it.
+         *
+         * @param transactionId the transaction ID
+         * @return {@code true} if the transaction was in the builder
+         */
+        public boolean remove(long transactionId) {
+            boolean found = false;
+            int slot = Arrays.binarySearch(ids, 0, sortedSlots, transactionId);
+            if (slot >= 0) {
+                found = markRemoved(slot);
+            }
+            for (int i = sortedSlots; i < size; i++) {
+                if (ids[i] == transactionId) {
+                    found |= markRemoved(i);
+                }
+            }
+            return found;
+        }
+
+        /**
+         * @return the exchange rates the amounts are converted with
+         */
+        public FxRates rates() {
+            return rates;
+        }
+
+        /**
+         * @return the highest transaction ID appended so far, {@code 0} if none
+         */
+        public long lastTransactionId() {
+            return lastTransactionId;
+        }
+
+        /**
+         * @return a view of all rows appended so far
+         */
+        public LedgerSnapshot build() {
+            if (removed != null && removed.length < words(size)) {
+                removed = Arrays.copyOf(removed, words(amounts.length));
+                removedShared = false;
+            }
+            removedShared = removed != null;
+            return new LedgerSnapshot(this);
+        }
+
+        /**
+         * Marks a slot removed, copying the bit set first if a view references it.
+         *
+         * @return {@code true} if the slot was not removed before
+         */
+        private boolean markRemoved(int slot) {
+            if (removed == null || removedShared || removed.length <= slot >>> 6) {
+                removed = removed == null
+                        ? new long[words(amounts.length)]
+                        : Arrays.copyOf(removed, Math.max(removed.length, words(amounts.length)));
+                removedShared = false;
+            }
+            long bit = 1L << slot;
+            if ((removed[slot >>> 6] & bit) != 0) {
+                return false;
+            }
+            removed[slot >>> 6] |= bit;
+            removedCount++;
+            return true;
+        }
+
+        /**
+         * Rewrites the amount column with {@link Money#MAX_SCALE} fraction
+         * digits into a new array, as built views still read the old one.
+         */
+        private void rescaleAmounts() {
+            if (amountScale == Money.MAX_SCALE) {
+                return;
+            }
+            long factor = POWERS_OF_TEN[Money.MAX_SCALE - amountScale];
+            long[] rescaled = new long[amounts.length];
+            for (int i = 0; i < size; i++) {
+                rescaled[i] = Math.multiplyExact(amounts[i], factor);
+            }
+            amounts = rescaled;
+            amountScale = Money.MAX_SCALE;
+        }
+
+        private static int words(int slots) {
+            return (slots + 63) >>> 6;
+        }
+
+        private int encode(String category) {
+            if (category == null) {
+                return NO_CATEGORY;
+            }
+            Integer code = codes.get(category);
+            if (code != null) {
+                return code;
+            }
+            if (nameCount == names.length) {
+                names = Arrays.copyOf(names, nameCount * 2);
+            }
+            names[nameCount] = category;
+            codes.put(category, nameCount);
+            return nameCount++;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package semchishin.core.service.statistics.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import semchishin.core.datasource.AccountRouter;
+import semchishin.core.exception.FxRateNotFoundException;
+import semchishin.core.model.ChangeOperation;
+import semchishin.core.model.FxRates;
+import semchishin.core.model.TransactionChange;
+import semchishin.core.repository.impl.DefaultTransactionChangeRepository;
+import semchishin.core.repository.impl.DefaultTransactionRepository;
+import semchishin.core.service.change.TransactionChangeListener;
+import semchishin.core.service.fx.FxRateService;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Keeps an in-memory {@link LedgerSnapshot} of the transactions table of the
+ * shared database current.
+ * <p>
+ * When enabled, the first run of the tail job loads the whole table through
+ * {@link DefaultTransactionRepository#forEachColumnar}; until it has finished
+ * no snapshot is offered and statistics keep being computed by PostgreSQL.
+ * </p>
+ *
+ * <p>
+ * Afterwards the holder follows the change feed of the shared database as a
+ * {@link TransactionChangeListener}: published changes are queued and the
+ * tail job applies them, removing the old row of an update or delete and
+ * appending the new row of an insert or update, then publishes a new view, so
+ * every write appears within one tail interval. The load remembers the feed position it covers; changes up to it
+ * are skipped, and a gap in the positions, e.g. when the feed started after
+ * the load, triggers a new load.
+ * </p>
+ *
+ * <p>
+ * Archived partitions are not in the feed. They are dropped by the reload
+ * job, which builds a fresh snapshot next to the current one and swaps it in
+ * once complete.
+ * </p>
+ *
+ * <p>
+ * Amounts are converted to the base currency while they are loaded, so the
+ * snapshot is reloaded by the tail job as soon as the {@link FxRateService}
+ * hands out new rates. A row without an exchange rate drops the snapshot
+ * until the rates change again; statistics are then computed by PostgreSQL,
+ * which reports the missing rate.
+ * </p>
+ *
+ * <p>Configuration properties:</p>
+ * <ul>
+ *     <li>{@code fintrack.snapshot.enabled} - keep a snapshot and answer statistics from it</li>
+ *     <li>{@code fintrack.snapshot.tail-interval-millis} - delay between two runs applying changes</li>
+ *     <li>{@code fintrack.snapshot.reload-cron} - schedule of the full reload, {@code -} disables it</li>
+ *     <li>{@code fintrack.snapshot.parallel-threshold} - rows scanned by one thread before a query is split
+ *     over the fork-join pool</li>
+ * </ul>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@Slf4j
+@Component
+public class LedgerSnapshotHolder implements TransactionChangeListener {
+
+    /**
+     * Repository streaming the rows.
+     */
+    private final DefaultTransactionRepository transactionRepository;
+
+    /**
+     * Repository reading the position of the change feed.
+     */
+    private final DefaultTransactionChangeRepository changeRepository;
+
+    /**
+     * Source of the exchange rates the snapshot is converted with.
+     */
+    private final FxRateService fxRateService;
+
+    private final boolean enabled;
+
+    private final int parallelThreshold;
+
+    /**
+     * Builder the tail appends to, {@code null} until the first load. Guarded by {@code this}.
+     */
+    private LedgerSnapshot.Builder builder;
+
+    /**
+     * Position of the last change the builder reflects. Guarded by {@code this}.
+     */
+    private long sequenceNumber;
+
+    /**
+     * Published changes not applied yet.
+     */
+    private final Queue<TransactionChange> pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Rates a row could not be converted with, no load is attempted until they change. Guarded by {@code this}.
+     */
+    private FxRates unconvertibleRates;
+
+    private volatile LedgerSnapshot current;
+
+    public LedgerSnapshotHolder(
+            DefaultTransactionRepository transactionRepository,
+            DefaultTransactionChangeRepository changeRepository,
+            FxRateService fxRateService,
+            @Value("${fintrack.snapshot.enabled:false}") boolean enabled,
+            @Value("${fintrack.snapshot.parallel-threshold:1000000}") int parallelThreshold
+    ) {
+        this.transactionRepository = transactionRepository;
+        this.changeRepository = changeRepository;
+        this.fxRateService = fxRateService;
+        this.enabled = enabled;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Returns the latest snapshot.
+     *
+     * @return the snapshot, or empty if the snapshot is disabled or still loading
+     */
+    public Optional<LedgerSnapshot> current() {
+        return Optional.ofNullable(current);
+    }
+
+    /**
+     * Queues published changes of the shared database for the next tail run.
+     *
+     * @param route   the route of the database the changes were made in
+     * @param changes consecutive changes in feed order
+     */
+    @Override
+    public void onChanges(String route, List<TransactionChange> changes) {
+        if (enabled && AccountRouter.DEFAULT_ROUTE.equals(route)) {
+            pending.addAll(changes);
+        }
+    }
+
+    /**
+     * Applies the changes published since the previous run, loading the whole
+     * table on the first run and after the exchange rates changed.
+     */
+    @Scheduled(fixedDelayString = "${fintrack.snapshot.tail-interval-millis:1000}")
+    public synchronized void tail() {
+        if (!enabled) {
+            return;
+        }
+        FxRates rates = fxRateService.getRates();
+        if (builder == null || builder.rates() != rates) {
+            if (rates != unconvertibleRates) {
+                reload();
+            } else {
+                pending.clear();
+            }
+            return;
+        }
+        applyPending();
+    }
+
+    /**
+     * Rebuilds the snapshot from the whole table and replaces the current one.
+     */
+    @Scheduled(cron = "${fintrack.snapshot.reload-cron:0 15 3 * * *}")
+    public synchronized void reload() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        FxRates rates = fxRateService.getRates();
+        long head = changeRepository.findHeadSequenceNumber();
+        LedgerSnapshot.Builder loaded = new LedgerSnapshot.Builder(parallelThreshold, rates);
+        try {
+            transactionRepository.forEachColumnar(0, loaded::append);
+        } catch (FxRateNotFoundException e) {
+            drop(rates, e);
+            return;
+        }
+        unconvertibleRates = null;
+        builder = loaded;
+        sequenceNumber = head;
+        current = loaded.build();
+        log.info("Loaded ledger snapshot: {} transactions in {} ms",
+                current.size(), (System.nanoTime() - start) / 1_000_000);
+        applyPending();
+    }
+
+    /**
+     * Applies the queued changes after the position of the builder, the last
+     * change of each transaction only, and publishes a new view.
+     */
+    private void applyPending() {
+        Map<Long, TransactionChange> latest = new LinkedHashMap<>();
+        TransactionChange change;
+        while ((change = pending.poll()) != null) {
+            if (change.getSequenceNumber() <= sequenceNumber) {
+                continue;
+            }
+            if (change.getSequenceNumber() != sequenceNumber + 1) {
+                log.info("Missed transaction changes {}..{}, reloading the ledger snapshot",
+                        sequenceNumber + 1, change.getSequenceNumber() - 1);
+                reload();
+                return;
+            }
+            sequenceNumber = change.getSequenceNumber();
+            latest.put(change.getTransactionId(), change);
+        }
+        if (latest.isEmpty()) {
+            return;
+        }
+        try {
+            for (TransactionChange last : latest.values()) {
+                builder.remove(last.getTransactionId());
+                if (last.getOperation() != ChangeOperation.DELETE) {
+                    builder.append(last.getTransactionId(), last.getAccountId(), last.getAmount().getMinorUnits(),
+                            last.getAmount().getCurrency().getCurrencyCode(), last.getCategory(),
+                            LedgerSnapshot.toMicros(last.getDateTime()));
+                }
+            }
+        } catch (FxRateNotFoundException e) {
+            drop(builder.rates(), e);
+            return;
+        }
+        current = builder.build();
+        log.debug("Applied {} transaction changes to the ledger snapshot", latest.size());
+    }
+
+    /**
+     * Stops answering from the snapshot until the rates change.
+     */
+    private void drop(FxRates rates, FxRateNotFoundException e) {
+        log.warn("Dropped the ledger snapshot until the exchange rates change: {}", e.getMessage());
+        builder = null;
+        current = null;
+        unconvertibleRates = rates;
+    }
+
+}
@@ -0,0 +1,41 @@
+package semchishin.core.service.statistics.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import semchishin.core.repository.impl.DefaultTransactionRollupRepository;
+
+/**
+ * Background job recomputing the daily rollup from the transactions table.
+ * <p>
+ * The rollup is kept current by database triggers, the rebuild only repairs
+ * drift after manual data fixes or restores. It is disabled by default and
+ * enabled by setting the {@code fintrack.rollup.rebuild-cron} property.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RollupRebuildJob {
+
+    /**
+     * Repository owning the rollup table.
+     */
+    private final DefaultTransactionRollupRepository rollupRepository;
+
+    /**
+     * Rebuilds the rollup on the configured schedule.
+     */
+    @Scheduled(cron = "${fintrack.rollup.rebuild-cron:-}")
+    public void rebuild() {
+        long start = System.nanoTime();
+        long rows = rollupRepository.rebuild();
+        log.info("Rebuilt transaction rollup: {} rows in {} ms", rows, (System.nanoTime() - start) / 1_000_000);
+    }
+
+}
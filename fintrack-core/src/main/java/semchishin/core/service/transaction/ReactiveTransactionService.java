@@ -0,0 +1,19 @@
+package semchishin.core.service.transaction;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import semchishin.core.model.Transaction;
+
+public interface ReactiveTransactionService {
+
+    Mono<Transaction> addTransaction(Transaction transaction);
+
+    Mono<Void> deleteTransaction(long accountId, long transactionId);
+
+    Mono<Transaction> findTransactionById(long accountId, long transactionId);
+
+    Flux<Transaction> findAllTransactions(long accountId);
+
+    Mono<Void> updateTransaction(Transaction transaction);
+
+}
@@ -0,0 +1,14 @@
+package semchishin.core.service.transaction;
+
+import semchishin.core.model.BulkWriteMode;
+import semchishin.core.model.ImportChunkResult;
+import semchishin.core.model.Transaction;
+
+import java.util.Iterator;
+import java.util.List;
+
+public interface TransactionImportService {
+
+    List<ImportChunkResult> importTransactions(long accountId, Iterator<Transaction> source, BulkWriteMode mode);
+
+}
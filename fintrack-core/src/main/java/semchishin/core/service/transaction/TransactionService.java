@@ -1,20 +1,33 @@
 package semchishin.core.service.transaction;
 
+import semchishin.core.model.KeysetPage;
+import semchishin.core.model.PageCursor;
 import semchishin.core.model.Transaction;
+import semchishin.core.model.TransactionFilter;
+import semchishin.core.model.TransactionPatch;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface TransactionService {
 
     Transaction addTransaction(Transaction transaction);
 
-    void deleteTransaction(long transactionId);
+    void deleteTransaction(long accountId, long transactionId);
 
-    Optional<Transaction> findTransactionById(long transactionId);
+    Optional<Transaction> findTransactionById(long accountId, long transactionId);
 
-    List<Transaction> findAllTransactions();
+    List<Transaction> findAllTransactions(long accountId);
+
+    KeysetPage<Transaction> findTransactions(long accountId, TransactionFilter filter, PageCursor cursor, int pageSize);
+
+    void exportTransactions(long accountId, TransactionFilter filter, Consumer<Transaction> action);
 
     void updateTransaction(Transaction transaction);
 
+    Optional<Transaction> patchTransaction(long accountId, long transactionId, TransactionPatch patch);
+
+    long getTransactionsVersion();
+
 }
@@ -0,0 +1,179 @@
+package semchishin.core.service.transaction.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import semchishin.core.model.CacheStatistics;
+import semchishin.core.model.KeysetPage;
+import semchishin.core.model.PageCursor;
+import semchishin.core.model.Transaction;
+import semchishin.core.model.TransactionFilter;
+import semchishin.core.model.TransactionPatch;
+import semchishin.core.service.transaction.TransactionService;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Read-through caching decorator of {@link DefaultTransactionService}.
+ * <p>
+ * Lookups by ID are served from a bounded Caffeine cache (W-TinyLFU eviction)
+ * with a time-to-live. Concurrent misses for the same ID are coalesced into a
+ * single database load. Updates and deletes are written to the database first
+ * and invalidate the entry afterwards, an invalidation waits for an in-flight
+ * load of the same ID, so a stale row cannot survive a write. Absent IDs are
+ * not cached. All other operations are delegated unchanged.
+ * </p>
+ *
+ * <p>
+ * Entries are keyed by account and ID, as accounts kept in different databases
+ * draw their IDs from different sequences.
+ * </p>
+ *
+ * <p>Configuration properties:</p>
+ * <ul>
+ *     <li>{@code fintrack.cache.transaction.maximum-size} - maximum number of cached transactions</li>
+ *     <li>{@code fintrack.cache.transaction.expire-after-write-seconds} - time-to-live of an entry</li>
+ * </ul>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@Primary
+@Service
+public class CachingTransactionService implements TransactionService {
+
+    /**
+     * Service performing the actual work.
+     */
+    private final DefaultTransactionService delegate;
+
+    /**
+     * Cached transactions by account and ID.
+     */
+    private final Cache<Key, Transaction> cache;
+
+    public CachingTransactionService(
+            DefaultTransactionService delegate,
+            @Value("${fintrack.cache.transaction.maximum-size:10000}") long maximumSize,
+            @Value("${fintrack.cache.transaction.expire-after-write-seconds:600}") long expireAfterWriteSeconds
+    ) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds))
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Transaction addTransaction(Transaction transaction) {
+        return delegate.addTransaction(transaction);
+    }
+
+    /**
+     * Deletes the transaction and evicts it from the cache.
+     *
+     * @param accountId     the account
+     * @param transactionId the ID of the transaction to delete
+     */
+    @Override
+    public void deleteTransaction(long accountId, long transactionId) {
+        delegate.deleteTransaction(accountId, transactionId);
+        cache.invalidate(new Key(accountId, transactionId));
+    }
+
+    /**
+     * Finds a transaction by its ID, loading it on a cache miss.
+     *
+     * @param accountId     the account
+     * @param transactionId the ID of the transaction
+     * @return an Optional containing the {@link Transaction} if found, or empty if not found
+     */
+    @Override
+    public Optional<Transaction> findTransactionById(long accountId, long transactionId) {
+        return Optional.ofNullable(cache.get(new Key(accountId, transactionId),
+                key -> delegate.findTransactionById(key.accountId(), key.transactionId()).orElse(null)));
+    }
+
+    @Override
+    public List<Transaction> findAllTransactions(long accountId) {
+        return delegate.findAllTransactions(accountId);
+    }
+
+    @Override
+    public KeysetPage<Transaction> findTransactions(long accountId, TransactionFilter filter, PageCursor cursor,
+                                                    int pageSize) {
+        return delegate.findTransactions(accountId, filter, cursor, pageSize);
+    }
+
+    @Override
+    public void exportTransactions(long accountId, TransactionFilter filter, Consumer<Transaction> action) {
+        delegate.exportTransactions(accountId, filter, action);
+    }
+
+    /**
+     * Updates the transaction and evicts it from the cache. The entry is also
+     * evicted after a version conflict, so the retry reads the current row.
+     *
+     * @param transaction the {@link Transaction} object with updated values
+     */
+    @Override
+    public void updateTransaction(Transaction transaction) {
+        try {
+            delegate.updateTransaction(transaction);
+        } finally {
+            cache.invalidate(new Key(transaction.getAccountId(), transaction.getTransactionId()));
+        }
+    }
+
+    /**
+     * Patches the transaction and evicts it from the cache, also after a
+     * version conflict.
+     *
+     * @param accountId     the account
+     * @param transactionId the ID of the transaction
+     * @param patch         the fields to change and optionally the expected version
+     * @return the updated transaction, or empty if not found
+     */
+    @Override
+    public Optional<Transaction> patchTransaction(long accountId, long transactionId, TransactionPatch patch) {
+        try {
+            return delegate.patchTransaction(accountId, transactionId, patch);
+        } finally {
+            cache.invalidate(new Key(accountId, transactionId));
+        }
+    }
+
+    @Override
+    public long getTransactionsVersion() {
+        return delegate.getTransactionsVersion();
+    }
+
+    /**
+     * @return current counters of the cache
+     */
+    public CacheStatistics getCacheStatistics() {
+        CacheStats stats = cache.stats();
+        return new CacheStatistics(
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.evictionCount(),
+                stats.hitRate()
+        );
+    }
+
+    /**
+     * Cache key of a transaction.
+     */
+    private record Key(long accountId, long transactionId) {
+    }
+
+}
@@ -0,0 +1,93 @@
+package semchishin.core.service.transaction.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import semchishin.core.configuration.Profiles;
+import semchishin.core.model.Transaction;
+import semchishin.core.repository.impl.R2dbcTransactionRepository;
+import semchishin.core.service.transaction.ReactiveTransactionService;
+
+/**
+ * Implementation of {@link ReactiveTransactionService}, the non-blocking
+ * counterpart of {@link DefaultTransactionService}.
+ * <p>
+ * This service delegates all data access operations to
+ * {@link R2dbcTransactionRepository} and is only active with the
+ * {@link Profiles#REACTIVE} profile. Every operation is scoped to one
+ * account and runs on the database the account is routed to.
+ * </p>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@Service
+@Profile(Profiles.REACTIVE)
+@RequiredArgsConstructor
+public class DefaultReactiveTransactionService implements ReactiveTransactionService {
+
+    /**
+     * Repository for performing database operations on transactions.
+     */
+    private final R2dbcTransactionRepository transactionRepository;
+
+    /**
+     * Adds a new transaction to the database.
+     *
+     * @param transaction the {@link Transaction} to add
+     * @return a Mono emitting the saved {@link Transaction}
+     */
+    @Override
+    public Mono<Transaction> addTransaction(Transaction transaction) {
+        return transactionRepository.save(transaction);
+    }
+
+    /**
+     * Deletes a transaction of an account by its ID.
+     *
+     * @param accountId     the account
+     * @param transactionId the ID of the transaction to delete
+     * @return a Mono completing when the transaction has been deleted
+     */
+    @Override
+    public Mono<Void> deleteTransaction(long accountId, long transactionId) {
+        return transactionRepository.deleteById(accountId, transactionId);
+    }
+
+    /**
+     * Finds a transaction of an account by its ID.
+     *
+     * @param accountId     the account
+     * @param transactionId the ID of the transaction
+     * @return a Mono emitting the {@link Transaction}, or completing empty if not found
+     */
+    @Override
+    public Mono<Transaction> findTransactionById(long accountId, long transactionId) {
+        return transactionRepository.findById(accountId, transactionId);
+    }
+
+    /**
+     * Streams all transactions of an account.
+     *
+     * @param accountId the account
+     * @return a Flux of all {@link Transaction} objects of the account, honouring subscriber demand
+     */
+    @Override
+    public Flux<Transaction> findAllTransactions(long accountId) {
+        return transactionRepository.findAll(accountId);
+    }
+
+    /**
+     * Updates an existing transaction in the database.
+     *
+     * @param transaction the {@link Transaction} with updated values
+     * @return a Mono completing when the transaction has been updated
+     */
+    @Override
+    public Mono<Void> updateTransaction(Transaction transaction) {
+        return transactionRepository.update(transaction);
+    }
+}
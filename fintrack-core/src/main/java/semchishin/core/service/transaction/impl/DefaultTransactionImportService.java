@@ -0,0 +1,142 @@
+package semchishin.core.service.transaction.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+import semchishin.core.datasource.ReadYourWrites;
+import semchishin.core.exception.ImportFailedException;
+import semchishin.core.model.BulkWriteMode;
+import semchishin.core.model.ImportChunkResult;
+import semchishin.core.model.Transaction;
+import semchishin.core.repository.impl.DefaultTransactionRepository;
+import semchishin.core.service.transaction.TransactionImportService;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Implementation of {@link TransactionImportService} that writes large
+ * volumes of {@link Transaction} entities in chunks.
+ * <p>
+ * The source is consumed lazily, so only one chunk is held in memory at a time.
+ * Each chunk is written in its own database transaction either with JDBC
+ * batching or with PostgreSQL {@code COPY}, see {@link BulkWriteMode}.
+ * </p>
+ *
+ * <p>Configuration properties:</p>
+ * <ul>
+ *     <li>{@code fintrack.import.chunk-size} - rows per chunk and per database transaction</li>
+ *     <li>{@code fintrack.import.batch-size} - rows per JDBC batch round trip</li>
+ *     <li>{@code fintrack.import.copy-threshold} - minimal chunk size for which {@link BulkWriteMode#AUTO}
+ *     switches to COPY</li>
+ * </ul>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@Service
+public class DefaultTransactionImportService implements TransactionImportService {
+
+    /**
+     * Repository for performing database operations on transactions.
+     */
+    private final DefaultTransactionRepository transactionRepository;
+
+    /**
+     * Runs every chunk in a separate database transaction.
+     */
+    private final TransactionOperations transactionOperations;
+
+    /**
+     * Keeps the reads of an account on the primary database right after its writes.
+     */
+    private final ReadYourWrites readYourWrites;
+
+    private final int chunkSize;
+
+    private final int batchSize;
+
+    private final int copyThreshold;
+
+    public DefaultTransactionImportService(
+            DefaultTransactionRepository transactionRepository,
+            TransactionOperations transactionOperations,
+            ReadYourWrites readYourWrites,
+            @Value("${fintrack.import.chunk-size:10000}") int chunkSize,
+            @Value("${fintrack.import.batch-size:500}") int batchSize,
+            @Value("${fintrack.import.copy-threshold:1000}") int copyThreshold
+    ) {
+        this.transactionRepository = transactionRepository;
+        this.transactionOperations = transactionOperations;
+        this.readYourWrites = readYourWrites;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+        this.copyThreshold = copyThreshold;
+    }
+
+    /**
+     * Reads the source chunk by chunk and writes each chunk with the requested mode.
+     * <p>
+     * Every row is assigned to the account, whatever account it carried.
+     * Chunks written before a failure stay committed; reading or writing a
+     * chunk that fails ends the import with an {@link ImportFailedException}
+     * carrying the results of exactly those chunks.
+     * </p>
+     *
+     * @param accountId the account the transactions belong to
+     * @param source    transactions to import, consumed once
+     * @param mode      the write path to use
+     * @return one result per written chunk
+     * @throws ImportFailedException if a chunk cannot be read from the source or written
+     */
+    @Override
+    public List<ImportChunkResult> importTransactions(long accountId, Iterator<Transaction> source,
+                                                      BulkWriteMode mode) {
+        List<ImportChunkResult> results = new ArrayList<>();
+        List<Transaction> chunk = new ArrayList<>(chunkSize);
+        try {
+            while (source.hasNext()) {
+                Transaction transaction = source.next();
+                transaction.setAccountId(accountId);
+                chunk.add(transaction);
+                if (chunk.size() == chunkSize || !source.hasNext()) {
+                    results.add(writeChunk(results.size(), chunk, mode));
+                    readYourWrites.recordWrite(accountId);
+                    chunk.clear();
+                }
+            }
+        } catch (RuntimeException e) {
+            throw new ImportFailedException(results, e);
+        }
+        return results;
+    }
+
+    private ImportChunkResult writeChunk(int index, List<Transaction> chunk, BulkWriteMode mode) {
+        BulkWriteMode resolved = resolve(mode, chunk.size());
+        long start = System.nanoTime();
+        long rows;
+        List<Long> ids;
+        if (resolved == BulkWriteMode.COPY) {
+            Long copied = transactionOperations.execute(status -> transactionRepository.copyAll(chunk));
+            rows = copied == null ? 0 : copied;
+            ids = List.of();
+        } else {
+            List<Transaction> saved = transactionOperations.execute(
+                    status -> transactionRepository.saveAll(chunk, batchSize));
+            ids = saved == null ? List.of() : saved.stream().map(Transaction::getTransactionId).toList();
+            rows = ids.size();
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return new ImportChunkResult(index, rows, resolved, elapsedMillis, ids);
+    }
+
+    private BulkWriteMode resolve(BulkWriteMode mode, int size) {
+        if (mode != BulkWriteMode.AUTO) {
+            return mode;
+        }
+        return size >= copyThreshold ? BulkWriteMode.COPY : BulkWriteMode.BATCH;
+    }
+
+}
@@ -2,12 +2,23 @@ package semchishin.core.service.transaction.impl;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import semchishin.core.datasource.ReadYourWrites;
+import semchishin.core.model.KeysetPage;
+import semchishin.core.model.PageCursor;
 import semchishin.core.model.Transaction;
+import semchishin.core.model.TransactionFilter;
+import semchishin.core.model.TransactionPatch;
 import semchishin.core.repository.impl.DefaultTransactionRepository;
 import semchishin.core.service.transaction.TransactionService;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 /**
  * Implementation of {@link TransactionService} that provides
@@ -17,13 +28,24 @@ import java.util.Optional;
  * {@link DefaultTransactionRepository}.
  * </p>
  *
+ * <p>
+ * Every operation is scoped to one account: new and updated transactions carry
+ * it, the others take it as their first argument. The caller binds the same
+ * account to {@link semchishin.core.datasource.AccountContext} so connections
+ * are taken from the database of the account. Reads of an account that has
+ * just written are kept on the primary database, see {@link ReadYourWrites}.
+ * </p>
+ *
  * <p>Supported operations:</p>
  * <ul>
  *     <li>Add a new transaction</li>
  *     <li>Delete a transaction by ID</li>
  *     <li>Find a transaction by ID</li>
  *     <li>Retrieve all transactions</li>
+ *     <li>Retrieve a filtered page of transactions</li>
+ *     <li>Stream filtered transactions for export</li>
  *     <li>Update an existing transaction</li>
+ *     <li>Read the version of the stored transactions</li>
  * </ul>
  *
  * <p>This service is annotated with {@link Service} for Spring
@@ -37,61 +59,170 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class DefaultTransactionService implements TransactionService {
 
+    /**
+     * Upper bound of a single page, protects the heap from oversized requests.
+     */
+    public static final int MAX_PAGE_SIZE = 500;
+
     /**
      * Repository for performing database operations on transactions.
      */
     private final DefaultTransactionRepository transactionRepository;
 
+    /**
+     * Optional write-behind queue for single inserts.
+     */
+    private final GroupCommitTransactionWriter groupCommitWriter;
+
+    /**
+     * Keeps the reads of an account on the primary database right after its writes.
+     */
+    private final ReadYourWrites readYourWrites;
+
     /**
      * Adds a new transaction to the database.
      *
      * @param transaction the {@link Transaction} to add
      * @return the saved {@link Transaction} object
+     * @throws RejectedExecutionException if the write-behind queue rejects the transaction
+     *                                    or does not commit it within its commit timeout
      */
     @Override
     public Transaction addTransaction(Transaction transaction) {
-        return transactionRepository.save(transaction);
+        Transaction saved;
+        if (groupCommitWriter.isEnabled()) {
+            long timeoutMillis = groupCommitWriter.getCommitTimeoutMillis();
+            try {
+                saved = groupCommitWriter.submit(transaction).orTimeout(timeoutMillis, TimeUnit.MILLISECONDS).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof TimeoutException timeout) {
+                    throw new RejectedExecutionException(String.format(
+                            "Transaction was not committed within %d ms", timeoutMillis), timeout);
+                }
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        } else {
+            saved = transactionRepository.save(transaction);
+        }
+        readYourWrites.recordWrite(transaction.getAccountId());
+        return saved;
     }
 
     /**
-     * Deletes a transaction by its ID.
+     * Deletes a transaction of an account by its ID.
      *
+     * @param accountId     the account
      * @param transactionId the ID of the transaction to delete
      */
     @Override
-    public void deleteTransaction(long transactionId) {
-        transactionRepository.deleteById(transactionId);
+    public void deleteTransaction(long accountId, long transactionId) {
+        transactionRepository.deleteById(accountId, transactionId);
+        readYourWrites.recordWrite(accountId);
     }
 
     /**
-     * Finds a transaction by its ID.
+     * Finds a transaction of an account by its ID.
      *
+     * @param accountId     the account
      * @param transactionId the ID of the transaction
      * @return an Optional containing the {@link Transaction} if found, or empty if not found
      */
     @Override
-    public Optional<Transaction> findTransactionById(long transactionId) {
-        return transactionRepository.findById(transactionId);
+    public Optional<Transaction> findTransactionById(long accountId, long transactionId) {
+        return transactionRepository.findById(accountId, transactionId);
     }
 
     /**
-     * Returns all transactions.
+     * Returns all transactions of an account.
      *
-     * @return a list of all {@link Transaction} objects
+     * @param accountId the account
+     * @return a list of all {@link Transaction} objects of the account
      */
     @Override
-    public List<Transaction> findAllTransactions() {
-        return transactionRepository.findAll();
+    public List<Transaction> findAllTransactions(long accountId) {
+        return transactionRepository.findAll(accountId);
     }
 
     /**
-     * Updates an existing transaction in the database.
+     * Returns one page of transactions of an account matching the filter, newest first.
+     * <p>
+     * Requests one row more than the page size to find out whether a next
+     * page exists without issuing a separate {@code COUNT} query.
+     * </p>
+     *
+     * @param accountId the account
+     * @param filter    the filter criteria, may be {@code null}
+     * @param cursor    the cursor returned with the previous page, or {@code null} for the first page
+     * @param pageSize  requested page size, clamped to {@code [1, MAX_PAGE_SIZE]}
+     * @return the page with the cursor of the next one
+     */
+    @Override
+    public KeysetPage<Transaction> findTransactions(long accountId, TransactionFilter filter, PageCursor cursor,
+                                                    int pageSize) {
+        int limit = Math.clamp(pageSize, 1, MAX_PAGE_SIZE);
+        List<Transaction> rows = transactionRepository.findPage(accountId, filter, cursor, limit + 1);
+        if (rows.size() <= limit) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<Transaction> items = rows.subList(0, limit);
+        return new KeysetPage<>(items, PageCursor.after(items.getLast()));
+    }
+
+    /**
+     * Streams all transactions of an account matching the filter to the action, oldest first.
+     * <p>
+     * Runs in a read-only transaction so the repository can fetch rows
+     * through a server-side cursor.
+     * </p>
+     *
+     * @param accountId the account
+     * @param filter    the filter criteria, may be {@code null}
+     * @param action    the action invoked for each {@link Transaction}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportTransactions(long accountId, TransactionFilter filter, Consumer<Transaction> action) {
+        transactionRepository.forEach(accountId, filter, action);
+    }
+
+    /**
+     * Updates an existing transaction in the database. A transaction carrying
+     * a version is only written if the stored one still has that version.
      *
      * @param transaction the {@link Transaction} object with updated values
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the stored version differs
      */
     @Override
     public void updateTransaction(Transaction transaction) {
         transactionRepository.update(transaction);
+        readYourWrites.recordWrite(transaction.getAccountId());
+    }
+
+    /**
+     * Writes the non-null fields of the patch to a transaction of an account.
+     *
+     * @param accountId     the account
+     * @param transactionId the ID of the transaction
+     * @param patch         the fields to change and optionally the expected version
+     * @return the updated transaction with its new version, or empty if not found
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the stored version differs
+     */
+    @Override
+    public Optional<Transaction> patchTransaction(long accountId, long transactionId, TransactionPatch patch) {
+        Optional<Transaction> patched = transactionRepository.patch(accountId, transactionId, patch);
+        readYourWrites.recordWrite(accountId);
+        return patched;
+    }
+
+    /**
+     * Returns a version of the stored transactions that changes with every
+     * committed write, suitable for HTTP validators.
+     *
+     * @return the current version
+     */
+    @Override
+    public long getTransactionsVersion() {
+        return transactionRepository.findVersion();
     }
 
 }
@@ -0,0 +1,383 @@
+package semchishin.core.service.transaction.impl;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import semchishin.core.datasource.AccountContext;
+import semchishin.core.datasource.AccountRouter;
+import semchishin.core.model.Transaction;
+import semchishin.core.repository.impl.DefaultTransactionRepository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind queue that coalesces concurrent single-row inserts into one
+ * statement and one commit per flush.
+ * <p>
+ * Callers enqueue a transaction and receive a future. A single flusher thread
+ * takes the first waiting row, keeps collecting rows until either the batch is
+ * full or the flush window has passed, and writes them with
+ * {@link DefaultTransactionRepository#saveAllReturning}. The futures complete
+ * with the generated IDs only after that statement has committed, so an
+ * acknowledged row is durable. If the write fails, the rows of the batch are
+ * retried one by one with {@link DefaultTransactionRepository#save}, so a row
+ * that cannot be written fails only its own caller. Any other failure of a
+ * flush fails the callers of that batch and the flusher goes on with the next
+ * one; should the flusher thread itself die, every queued row is failed and
+ * further rows are rejected.
+ * </p>
+ *
+ * <p>
+ * Callers wait for their row at most the commit timeout. A row whose caller
+ * has given up before its batch is written is skipped; a row already being
+ * written when the timeout strikes may still be committed.
+ * </p>
+ *
+ * <p>
+ * Rows of accounts kept in different databases are written as one statement
+ * per database, each with the account bound to {@link AccountContext}.
+ * </p>
+ *
+ * <p>
+ * The queue is bounded: a row takes one of queue-capacity permits until the
+ * flusher picks it up. When none is left, {@link #submit} waits up to the offer
+ * timeout and then rejects the row with a {@link RejectedExecutionException},
+ * which pushes back on writers instead of growing the heap.
+ * </p>
+ *
+ * <p>
+ * The queue itself is lock-free, many writers and the single flusher never
+ * contend on a lock: an enqueue is a CAS on the permits and one on the queue.
+ * The idle flusher parks and is unparked only by a writer that finds it parked.
+ * </p>
+ *
+ * <p>Configuration properties:</p>
+ * <ul>
+ *     <li>{@code fintrack.write-behind.enabled} - route single inserts through the queue</li>
+ *     <li>{@code fintrack.write-behind.max-batch-size} - rows per statement and commit</li>
+ *     <li>{@code fintrack.write-behind.flush-window-millis} - longest time the first row of a batch waits
+ *     for company; larger windows give fewer commits per second at the cost of latency</li>
+ *     <li>{@code fintrack.write-behind.queue-capacity} - rows waiting before writers are pushed back</li>
+ *     <li>{@code fintrack.write-behind.offer-timeout-millis} - how long a writer waits for queue space</li>
+ *     <li>{@code fintrack.write-behind.commit-timeout-millis} - how long a writer waits for its row to be committed</li>
+ * </ul>
+ *
+ * @author Sergey Semchishin
+ * @since 1.0
+ */
+
+@Slf4j
+@Component
+public class GroupCommitTransactionWriter implements SmartLifecycle {
+
+    /**
+     * How long the idle flusher waits before checking whether it was stopped.
+     */
+    private static final long IDLE_POLL_MILLIS = 500;
+
+    /**
+     * Repository performing the batched insert.
+     */
+    private final DefaultTransactionRepository transactionRepository;
+
+    /**
+     * Router telling which database a row is written to.
+     */
+    private final AccountRouter accountRouter;
+
+    private final Queue<PendingInsert> queue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Free places in the queue, taken by {@link #submit} and given back when the flusher polls the row.
+     */
+    private final Semaphore permits;
+
+    private final boolean enabled;
+
+    private final int maxBatchSize;
+
+    private final long flushWindowNanos;
+
+    private final long offerTimeoutMillis;
+
+    /**
+     * How long a caller waits for the commit of its row, see {@link #submit}.
+     */
+    @Getter
+    private final long commitTimeoutMillis;
+
+    private volatile boolean running;
+
+    private volatile Thread flusher;
+
+    /**
+     * Whether the flusher is about to park or parked, waiting for a row.
+     */
+    private volatile boolean flusherParked;
+
+    public GroupCommitTransactionWriter(
+            DefaultTransactionRepository transactionRepository,
+            AccountRouter accountRouter,
+            @Value("${fintrack.write-behind.enabled:false}") boolean enabled,
+            @Value("${fintrack.write-behind.max-batch-size:256}") int maxBatchSize,
+            @Value("${fintrack.write-behind.flush-window-millis:5}") long flushWindowMillis,
+            @Value("${fintrack.write-behind.queue-capacity:10000}") int queueCapacity,
+            @Value("${fintrack.write-behind.offer-timeout-millis:100}") long offerTimeoutMillis,
+            @Value("${fintrack.write-behind.commit-timeout-millis:5000}") long commitTimeoutMillis
+    ) {
+        this.transactionRepository = transactionRepository;
+        this.accountRouter = accountRouter;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.flushWindowNanos = TimeUnit.MILLISECONDS.toNanos(flushWindowMillis);
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.commitTimeoutMillis = commitTimeoutMillis;
+        this.permits = new Semaphore(queueCapacity);
+    }
+
+    /**
+     * Returns whether single inserts should be routed through this queue.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enqueues a transaction for the next group commit.
+     *
+     * @param transaction the {@link Transaction} to insert
+     * @return a future completing with the saved transaction, including its ID, once committed;
+     * callers should wait at most {@link #getCommitTimeoutMillis()} and complete it on timeout,
+     * so the row is skipped if it has not been written yet
+     * @throws RejectedExecutionException if the writer is stopped, its flusher has died or the queue stays full
+     */
+    public CompletableFuture<Transaction> submit(Transaction transaction) {
+        if (!running) {
+            throw new RejectedExecutionException("Group commit writer is not running");
+        }
+        PendingInsert pending = new PendingInsert(transaction, new CompletableFuture<>());
+        try {
+            if (!permits.tryAcquire(offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new RejectedExecutionException(String.format(
+                        "Group commit queue is full, waited %d ms", offerTimeoutMillis));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for queue space", e);
+        }
+        queue.offer(pending);
+        if (flusherParked) {
+            LockSupport.unpark(flusher);
+        }
+        if (!running && queue.remove(pending)) {
+            permits.release();
+            throw new RejectedExecutionException("Group commit writer is not running");
+        }
+        return pending.future();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        flusher = Thread.ofPlatform().name("group-commit-flusher").daemon().start(this::flushLoop);
+    }
+
+    /**
+     * Stops accepting rows and waits until the flusher has written everything already queued.
+     * Rows that slipped in after the flusher finished are rejected.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejectQueued("Group commit writer stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return enabled;
+    }
+
+    private void flushLoop() {
+        List<PendingInsert> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                try {
+                    collect(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    running = false;
+                }
+                if (!batch.isEmpty()) {
+                    try {
+                        flush(batch);
+                    } catch (RuntimeException e) {
+                        log.error("Group commit of {} transactions failed", batch.size(), e);
+                        batch.forEach(pending -> pending.future().completeExceptionally(e));
+                    }
+                    batch.clear();
+                }
+            }
+        } finally {
+            if (running) {
+                running = false;
+                log.error("Group commit flusher died, rejecting queued transactions");
+            }
+            RejectedExecutionException rejected = new RejectedExecutionException("Group commit flusher stopped");
+            batch.forEach(pending -> pending.future().completeExceptionally(rejected));
+            rejectQueued("Group commit flusher stopped");
+        }
+    }
+
+    /**
+     * Fails every row still in the queue.
+     */
+    private void rejectQueued(String message) {
+        PendingInsert pending;
+        while ((pending = poll()) != null) {
+            pending.future().completeExceptionally(new RejectedExecutionException(message));
+        }
+    }
+
+    /**
+     * Takes the next row, if any, and gives its place in the queue back.
+     */
+    private PendingInsert poll() {
+        PendingInsert pending = queue.poll();
+        if (pending != null) {
+            permits.release();
+        }
+        return pending;
+    }
+
+    /**
+     * Takes the next row, parking until one arrives, the timeout passes or the writer is stopped.
+     */
+    private PendingInsert poll(long timeoutNanos) throws InterruptedException {
+        long deadline = System.nanoTime() + timeoutNanos;
+        PendingInsert pending;
+        while ((pending = poll()) == null) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || !running) {
+                return null;
+            }
+            flusherParked = true;
+            try {
+                if (queue.isEmpty()) {
+                    LockSupport.parkNanos(this, remaining);
+                }
+            } finally {
+                flusherParked = false;
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Waits for the first row, then gathers more until the batch is full or the window closes.
+     */
+    private void collect(List<PendingInsert> batch) throws InterruptedException {
+        PendingInsert first = poll(TimeUnit.MILLISECONDS.toNanos(IDLE_POLL_MILLIS));
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + flushWindowNanos;
+        while (batch.size() < maxBatchSize) {
+            PendingInsert waiting;
+            while (batch.size() < maxBatchSize && (waiting = poll()) != null) {
+                batch.add(waiting);
+            }
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                return;
+            }
+            PendingInsert next = poll(remaining);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    /**
+     * Writes the batch with one statement per database, skipping rows whose caller has given up.
+     */
+    private void flush(List<PendingInsert> batch) {
+        Map<String, List<PendingInsert>> byRoute = new LinkedHashMap<>();
+        for (PendingInsert pending : batch) {
+            if (pending.future().isDone()) {
+                continue;
+            }
+            byRoute.computeIfAbsent(accountRouter.route(pending.transaction().getAccountId()),
+                    route -> new ArrayList<>()).add(pending);
+        }
+        for (List<PendingInsert> group : byRoute.values()) {
+            AccountContext.run(group.getFirst().transaction().getAccountId(), () -> flushGroup(group));
+        }
+    }
+
+    private void flushGroup(List<PendingInsert> batch) {
+        List<Transaction> rows = new ArrayList<>(batch.size());
+        for (PendingInsert pending : batch) {
+            rows.add(pending.transaction());
+        }
+        List<Transaction> saved;
+        try {
+            saved = transactionRepository.saveAllReturning(rows);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.getFirst().future().completeExceptionally(e);
+                return;
+            }
+            log.warn("Group commit of {} transactions failed, writing them one by one", batch.size(), e);
+            batch.forEach(this::save);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).future().complete(saved.get(i));
+        }
+    }
+
+    /**
+     * Writes a single row and completes its future with the outcome.
+     */
+    private void save(PendingInsert pending) {
+        try {
+            pending.future().complete(transactionRepository.save(pending.transaction()));
+        } catch (RuntimeException e) {
+            pending.future().completeExceptionally(e);
+        }
+    }
+
+    /**
+     * A queued row together with the future of its caller.
+     */
+    private record PendingInsert(Transaction transaction, CompletableFuture<Transaction> future) {
+    }
+}
@@ -0,0 +1,54 @@
+package semchishin.core.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import semchishin.core.datasource.AccountRouter;
+import semchishin.core.datasource.AccountRoutingDataSource;
+import semchishin.core.datasource.ReadYourWrites;
+import semchishin.core.datasource.StaticAccountRouter;
+import semchishin.core.util.Constants;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+class DbConfigTest {
+
+    private static final String LARGE = "large";
+
+    @Mock
+    private DataSource shared;
+
+    @Test
+    void shouldReportMetricsOfDedicatedPoolsUnderTheirRoute() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("fintrack.accounts.datasources.large.url", "jdbc:postgresql://localhost/large");
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("accountRouter", new StaticAccountRouter(Map.of(Constants.OTHER_ACCOUNT_ID, LARGE)));
+        beans.registerSingleton("readYourWrites", new ReadYourWrites(Duration.ZERO));
+        beans.registerSingleton("meterRegistry", new SimpleMeterRegistry());
+
+        Object routed = DbConfig.dataSourceRoutingConfigurer(environment,
+                        beans.getBeanProvider(AccountRouter.class),
+                        beans.getBeanProvider(ReadYourWrites.class),
+                        beans.getBeanProvider(MeterRegistry.class))
+                .postProcessAfterInitialization(shared, "dataSource");
+
+        assertThat(routed).isInstanceOf(AccountRoutingDataSource.class);
+        try (HikariDataSource pool = (HikariDataSource) ((AccountRoutingDataSource) routed).targets().get(LARGE)) {
+            assertThat(pool.getPoolName()).isEqualTo("fintrack-" + LARGE);
+            assertThat(pool.getMetricsTrackerFactory()).isInstanceOf(MicrometerMetricsTrackerFactory.class);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package semchishin.core.datasource;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import semchishin.core.util.Constants;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+
+@ExtendWith(SpringExtension.class)
+class AccountRoutingConnectionFactoryTest {
+
+    private static final String LARGE = "large";
+
+    @Mock
+    private ConnectionFactory shared;
+
+    @Mock
+    private ConnectionFactory large;
+
+    @Mock
+    private Connection sharedConnection;
+
+    @Mock
+    private Connection largeConnection;
+
+    @Test
+    void shouldTakeConnectionFromDatabaseOfBoundAccount() {
+        doReturn(Mono.just(sharedConnection)).when(shared).create();
+        doReturn(Mono.just(largeConnection)).when(large).create();
+        AccountRoutingConnectionFactory connectionFactory = new AccountRoutingConnectionFactory(
+                new StaticAccountRouter(Map.of(Constants.OTHER_ACCOUNT_ID, LARGE)), shared, Map.of(LARGE, large));
+
+        StepVerifier.create(Mono.from(connectionFactory.create()))
+                .expectNext(sharedConnection)
+                .verifyComplete();
+        StepVerifier.create(Mono.from(connectionFactory.create())
+                        .contextWrite(AccountRoutingConnectionFactory.bind(Constants.ACCOUNT_ID)))
+                .expectNext(sharedConnection)
+                .verifyComplete();
+        StepVerifier.create(Mono.from(connectionFactory.create())
+                        .contextWrite(AccountRoutingConnectionFactory.bind(Constants.OTHER_ACCOUNT_ID)))
+                .expectNext(largeConnection)
+                .verifyComplete();
+        assertThat(connectionFactory.targets()).containsExactly(
+                Map.entry(AccountRouter.DEFAULT_ROUTE, shared), Map.entry(LARGE, large));
+    }
+
+    @Test
+    void shouldFailForRouteWithoutConnectionFactory() {
+        AccountRoutingConnectionFactory connectionFactory = new AccountRoutingConnectionFactory(
+                new StaticAccountRouter(Map.of(Constants.OTHER_ACCOUNT_ID, LARGE)), shared, Map.of());
+
+        StepVerifier.create(Mono.from(connectionFactory.create())
+                        .contextWrite(AccountRoutingConnectionFactory.bind(Constants.OTHER_ACCOUNT_ID)))
+                .expectErrorSatisfies(e -> assertThat(e).hasMessageContaining(LARGE))
+                .verify();
+    }
+}
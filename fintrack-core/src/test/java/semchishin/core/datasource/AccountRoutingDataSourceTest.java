@@ -0,0 +1,85 @@
+package semchishin.core.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import semchishin.core.util.Constants;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+class AccountRoutingDataSourceTest {
+
+    private static final String LARGE = "large";
+
+    @Mock
+    private DataSource shared;
+
+    @Mock
+    private DataSource large;
+
+    @Mock
+    private Connection sharedConnection;
+
+    @Mock
+    private Connection largeConnection;
+
+    @Test
+    void shouldTakeConnectionFromDatabaseOfBoundAccount() throws SQLException {
+        when(shared.getConnection()).thenReturn(sharedConnection);
+        when(large.getConnection()).thenReturn(largeConnection);
+        AccountRoutingDataSource dataSource = new AccountRoutingDataSource(
+                new StaticAccountRouter(Map.of(Constants.OTHER_ACCOUNT_ID, LARGE)), shared, Map.of(LARGE, large));
+
+        assertThat(dataSource.getConnection()).isSameAs(sharedConnection);
+        try (AccountContext.Binding ignored = AccountContext.bind(Constants.OTHER_ACCOUNT_ID)) {
+            assertThat(dataSource.getConnection()).isSameAs(largeConnection);
+            try (AccountContext.Binding nested = AccountContext.bind(Constants.ACCOUNT_ID)) {
+                assertThat(dataSource.getConnection()).isSameAs(sharedConnection);
+            }
+            assertThat(dataSource.getConnection()).isSameAs(largeConnection);
+        }
+        assertThat(AccountContext.current()).isNull();
+        assertThat(dataSource.targets()).containsExactly(
+                Map.entry(AccountRouter.DEFAULT_ROUTE, shared), Map.entry(LARGE, large));
+    }
+
+    @Test
+    void shouldFailForRouteWithoutDataSource() {
+        AccountRoutingDataSource dataSource = new AccountRoutingDataSource(
+                new StaticAccountRouter(Map.of(Constants.OTHER_ACCOUNT_ID, LARGE)), shared, Map.of());
+
+        assertThatThrownBy(() -> AccountContext.run(Constants.OTHER_ACCOUNT_ID, () -> {
+            try {
+                dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        })).isInstanceOf(IllegalStateException.class).hasMessageContaining(LARGE);
+    }
+
+    @Test
+    void shouldParseStaticRoutes() {
+        StaticAccountRouter router = StaticAccountRouter.parse(" 42=large, 77=large,5=archive ,");
+
+        assertThat(router.route(42)).isEqualTo(LARGE);
+        assertThat(router.route(5)).isEqualTo("archive");
+        assertThat(router.isDefault(Constants.ACCOUNT_ID)).isTrue();
+        assertThat(router.dedicatedRoutes()).containsExactly("archive", LARGE);
+        assertThat(StaticAccountRouter.parse("").dedicatedRoutes()).isEmpty();
+        assertThatThrownBy(() -> StaticAccountRouter.parse("42"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> StaticAccountRouter.parse("x=large"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> StaticAccountRouter.parse("42=large,42=archive"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,79 @@
+package semchishin.core.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+class BulkheadDataSourceTest {
+
+    private static final int MAX_CONCURRENT = 2;
+
+    private static final long ACQUIRE_TIMEOUT_MILLIS = 50;
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private BulkheadDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        dataSource = new BulkheadDataSource(target, MAX_CONCURRENT, ACQUIRE_TIMEOUT_MILLIS);
+    }
+
+    @Test
+    void shouldRejectCallersBeyondLimit() throws SQLException {
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        verify(target, times(MAX_CONCURRENT)).getConnection();
+    }
+
+    @Test
+    void shouldReleasePermitOnceWhenConnectionIsClosed() throws SQLException {
+        Connection first = dataSource.getConnection();
+        dataSource.getConnection();
+
+        first.close();
+        first.close();
+
+        assertThat(dataSource.availablePermits()).isEqualTo(1);
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void shouldReleasePermitWhenTargetFails() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("down"));
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("down");
+        assertThat(dataSource.availablePermits()).isEqualTo(MAX_CONCURRENT);
+    }
+
+    @Test
+    void shouldDelegateCallsToConnection() throws SQLException {
+        when(connection.getAutoCommit()).thenReturn(false);
+
+        Connection guarded = dataSource.getConnection();
+
+        assertThat(guarded.getAutoCommit()).isFalse();
+        assertThat(guarded).isEqualTo(guarded).isNotEqualTo(connection);
+    }
+}
@@ -0,0 +1,54 @@
+package semchishin.core.datasource;
+
+import org.junit.jupiter.api.Test;
+import semchishin.core.util.Constants;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesTest {
+
+    private static final Duration WINDOW = Duration.ofSeconds(5);
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    void shouldPinAccountForWindowAfterWrite() {
+        ReadYourWrites readYourWrites = new ReadYourWrites(WINDOW, nanos::get);
+
+        readYourWrites.recordWrite(Constants.ACCOUNT_ID);
+        nanos.addAndGet(WINDOW.minusMillis(1).toNanos());
+
+        assertThat(readYourWrites.isPinned(Constants.ACCOUNT_ID)).isTrue();
+        assertThat(readYourWrites.isPinned(Constants.OTHER_ACCOUNT_ID)).isFalse();
+        assertThat(readYourWrites.isPinned(null)).isFalse();
+
+        nanos.addAndGet(Duration.ofMillis(1).toNanos());
+
+        assertThat(readYourWrites.isPinned(Constants.ACCOUNT_ID)).isFalse();
+    }
+
+    @Test
+    void shouldRestartWindowOnNextWrite() {
+        ReadYourWrites readYourWrites = new ReadYourWrites(WINDOW, nanos::get);
+
+        readYourWrites.recordWrite(Constants.ACCOUNT_ID);
+        nanos.addAndGet(WINDOW.minusSeconds(1).toNanos());
+        readYourWrites.recordWrite(Constants.ACCOUNT_ID);
+        nanos.addAndGet(WINDOW.minusSeconds(1).toNanos());
+
+        assertThat(readYourWrites.isPinned(Constants.ACCOUNT_ID)).isTrue();
+    }
+
+    @Test
+    void shouldNeverPinWhenDisabled() {
+        ReadYourWrites.DISABLED.recordWrite(Constants.ACCOUNT_ID);
+        ReadYourWrites negative = new ReadYourWrites(Duration.ofMillis(-1), nanos::get);
+        negative.recordWrite(Constants.ACCOUNT_ID);
+
+        assertThat(ReadYourWrites.DISABLED.isPinned(Constants.ACCOUNT_ID)).isFalse();
+        assertThat(negative.isPinned(Constants.ACCOUNT_ID)).isFalse();
+    }
+}
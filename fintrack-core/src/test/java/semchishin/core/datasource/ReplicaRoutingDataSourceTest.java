@@ -0,0 +1,183 @@
+package semchishin.core.datasource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import semchishin.core.util.Constants;
+import semchishin.core.util.Migrations;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static semchishin.core.util.TestcontainersConstants.DB_NAME;
+import static semchishin.core.util.TestcontainersConstants.DB_PASSWORD;
+import static semchishin.core.util.TestcontainersConstants.DB_USERNAME;
+import static semchishin.core.util.TestcontainersConstants.POSTGRES;
+
+/**
+ * Two independent databases stand in for a primary and its replica: the test
+ * replicates the heartbeat by hand, which is all the routing looks at.
+ */
+@Testcontainers
+@Execution(ExecutionMode.SAME_THREAD)
+class ReplicaRoutingDataSourceTest {
+
+    private static final String REPLICA_DB_NAME = "replica";
+
+    private static final String REPLICA = "replica";
+
+    private static final Duration MAX_LAG = Duration.ofSeconds(5);
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    @Container
+    @SuppressWarnings("resource")
+    private static final PostgreSQLContainer<?> primary =
+            new PostgreSQLContainer<>(POSTGRES)
+                    .withDatabaseName(DB_NAME)
+                    .withUsername(DB_USERNAME)
+                    .withPassword(DB_PASSWORD);
+
+    @Container
+    @SuppressWarnings("resource")
+    private static final PostgreSQLContainer<?> replica =
+            new PostgreSQLContainer<>(POSTGRES)
+                    .withDatabaseName(REPLICA_DB_NAME)
+                    .withUsername(DB_USERNAME)
+                    .withPassword(DB_PASSWORD);
+
+    private static DataSource primaryDataSource;
+
+    private static DataSource replicaDataSource;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @BeforeAll
+    static void migrate() {
+        primaryDataSource = new DriverManagerDataSource(
+                primary.getJdbcUrl(), primary.getUsername(), primary.getPassword());
+        replicaDataSource = new DriverManagerDataSource(
+                replica.getJdbcUrl(), replica.getUsername(), replica.getPassword());
+        Migrations.applyAll(new JdbcTemplate(primaryDataSource));
+        Migrations.applyAll(new JdbcTemplate(replicaDataSource));
+    }
+
+    @BeforeEach
+    void setUp() {
+        new JdbcTemplate(replicaDataSource).update("UPDATE replica_heartbeat SET beat_at = 'epoch'");
+    }
+
+    @Test
+    void shouldReadFromPrimaryUntilReplicaCaughtUp() {
+        ReplicaRoutingDataSource dataSource = routing(Map.of(REPLICA, replicaDataSource), ReadYourWrites.DISABLED);
+
+        assertThat(readOnlyDatabase(dataSource)).isEqualTo(DB_NAME);
+        assertThat(dataSource.replicaLags()).containsEntry(REPLICA, null);
+
+        dataSource.checkReplicas();
+
+        assertThat(readOnlyDatabase(dataSource)).isEqualTo(DB_NAME);
+        assertThat(dataSource.replicaLags().get(REPLICA)).isGreaterThan(MAX_LAG);
+
+        replicateHeartbeat();
+        dataSource.checkReplicas();
+
+        assertThat(readOnlyDatabase(dataSource)).isEqualTo(REPLICA_DB_NAME);
+        assertThat(dataSource.replicaLags()).containsEntry(REPLICA, Duration.ZERO);
+    }
+
+    @Test
+    void shouldKeepReadWriteWorkOnPrimary() {
+        ReplicaRoutingDataSource dataSource = caughtUp(Map.of(REPLICA, replicaDataSource), ReadYourWrites.DISABLED);
+
+        TransactionTemplate readWrite = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        String readWriteDatabase = readWrite.execute(status -> currentDatabase(dataSource));
+
+        assertThat(readWriteDatabase).isEqualTo(DB_NAME);
+        assertThat(currentDatabase(dataSource)).isEqualTo(DB_NAME);
+        assertThat(readOnlyDatabase(dataSource)).isEqualTo(REPLICA_DB_NAME);
+    }
+
+    @Test
+    void shouldSkipUnreachableReplica() {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("broken", new DriverManagerDataSource("jdbc:postgresql://localhost:1/" + REPLICA_DB_NAME,
+                DB_USERNAME, DB_PASSWORD));
+        replicas.put(REPLICA, replicaDataSource);
+        ReplicaRoutingDataSource dataSource = caughtUp(replicas, ReadYourWrites.DISABLED);
+
+        assertThat(dataSource.replicaLags()).containsEntry("broken", null);
+        for (int i = 0; i < replicas.size(); i++) {
+            assertThat(readOnlyDatabase(dataSource)).isEqualTo(REPLICA_DB_NAME);
+        }
+    }
+
+    @Test
+    void shouldReadFromPrimaryRightAfterWriteOfAccount() {
+        ReadYourWrites readYourWrites = new ReadYourWrites(MAX_LAG, nanos::get);
+        ReplicaRoutingDataSource dataSource = caughtUp(Map.of(REPLICA, replicaDataSource), readYourWrites);
+
+        readYourWrites.recordWrite(Constants.ACCOUNT_ID);
+
+        try (AccountContext.Binding ignored = AccountContext.bind(Constants.ACCOUNT_ID)) {
+            assertThat(readOnlyDatabase(dataSource)).isEqualTo(DB_NAME);
+        }
+        try (AccountContext.Binding ignored = AccountContext.bind(Constants.OTHER_ACCOUNT_ID)) {
+            assertThat(readOnlyDatabase(dataSource)).isEqualTo(REPLICA_DB_NAME);
+        }
+
+        nanos.addAndGet(MAX_LAG.toNanos());
+
+        try (AccountContext.Binding ignored = AccountContext.bind(Constants.ACCOUNT_ID)) {
+            assertThat(readOnlyDatabase(dataSource)).isEqualTo(REPLICA_DB_NAME);
+        }
+    }
+
+    private ReplicaRoutingDataSource caughtUp(Map<String, DataSource> replicas, ReadYourWrites readYourWrites) {
+        ReplicaRoutingDataSource dataSource = routing(replicas, readYourWrites);
+        dataSource.checkReplicas();
+        replicateHeartbeat();
+        dataSource.checkReplicas();
+        return dataSource;
+    }
+
+    private static ReplicaRoutingDataSource routing(Map<String, DataSource> replicas, ReadYourWrites readYourWrites) {
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, readYourWrites, MAX_LAG, CLOCK);
+    }
+
+    /**
+     * Copies the heartbeat of the primary to the replica, as replication would.
+     */
+    private static void replicateHeartbeat() {
+        OffsetDateTime beatAt = new JdbcTemplate(primaryDataSource)
+                .queryForObject("SELECT beat_at FROM replica_heartbeat", OffsetDateTime.class);
+        new JdbcTemplate(replicaDataSource).update("UPDATE replica_heartbeat SET beat_at = ?", beatAt);
+    }
+
+    private static String readOnlyDatabase(DataSource dataSource) {
+        TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> currentDatabase(dataSource));
+    }
+
+    private static String currentDatabase(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT current_database()", String.class);
+    }
+}
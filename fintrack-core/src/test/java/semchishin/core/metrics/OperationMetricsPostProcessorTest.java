@@ -0,0 +1,115 @@
+package semchishin.core.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.annotation.AnnotationClassFilter;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import semchishin.core.datasource.ReadYourWrites;
+import semchishin.core.model.Transaction;
+import semchishin.core.repository.impl.DefaultTransactionRepository;
+import semchishin.core.service.transaction.impl.DefaultTransactionService;
+import semchishin.core.service.transaction.impl.GroupCommitTransactionWriter;
+import semchishin.core.util.Constants;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+class OperationMetricsPostProcessorTest {
+
+    private final Transaction transaction = new Transaction(
+            Constants.LONG_1,
+            Constants.MONEY_100,
+            Constants.FOOD,
+            LocalDateTime.now()
+    );
+
+    @Mock
+    private DefaultTransactionRepository repository;
+
+    @Mock
+    private GroupCommitTransactionWriter groupCommitWriter;
+
+    private MeterRegistry registry;
+
+    private OperationMetricsPostProcessor postProcessor;
+
+    private DefaultTransactionService service;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", registry);
+        postProcessor = new OperationMetricsPostProcessor(new AnnotationClassFilter(Service.class),
+                new OperationMetricsInterceptor(beanFactory.getBeanProvider(MeterRegistry.class), "service",
+                        Duration.ZERO));
+        service = (DefaultTransactionService) postProcessor.postProcessAfterInitialization(
+                new DefaultTransactionService(repository, groupCommitWriter, ReadYourWrites.DISABLED), "defaultTransactionService");
+    }
+
+    @AfterEach
+    void tearDown() {
+        verifyNoMoreInteractions(repository, groupCommitWriter);
+    }
+
+    @Test
+    void shouldTimeCallsAndRecordRows() {
+        when(repository.findAll(Constants.ACCOUNT_ID)).thenReturn(List.of(transaction, transaction));
+
+        service.findAllTransactions(Constants.ACCOUNT_ID);
+        service.findAllTransactions(Constants.ACCOUNT_ID);
+
+        verify(repository, times(2)).findAll(Constants.ACCOUNT_ID);
+        assertThat(AopUtils.isCglibProxy(service)).isTrue();
+        assertThat(registry.get(OperationMetricsInterceptor.TIMER_NAME)
+                .tags("layer", "service", "class", "DefaultTransactionService",
+                        "method", "findAllTransactions", "outcome", "success")
+                .timer().count()).isEqualTo(2);
+        DistributionSummary rows = registry.get(OperationMetricsInterceptor.ROWS_NAME)
+                .tags("method", "findAllTransactions")
+                .summary();
+        assertThat(rows.count()).isEqualTo(2);
+        assertThat(rows.totalAmount()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldTimeFailedCalls() {
+        when(repository.findById(Constants.ACCOUNT_ID, Constants.LONG_1)).thenThrow(new IllegalStateException());
+
+        assertThatThrownBy(() -> service.findTransactionById(Constants.ACCOUNT_ID, Constants.LONG_1))
+                .isInstanceOf(IllegalStateException.class);
+
+        verify(repository).findById(Constants.ACCOUNT_ID, Constants.LONG_1);
+        assertThat(registry.get(OperationMetricsInterceptor.TIMER_NAME)
+                .tags("method", "findTransactionById", "outcome", "error")
+                .timer().count()).isEqualTo(1);
+        assertThat(registry.find(OperationMetricsInterceptor.ROWS_NAME)
+                .tags("method", "findTransactionById")
+                .summary()).isNull();
+    }
+
+    @Test
+    void shouldNotProxyBeansOutsideTheFilter() {
+        Object bean = postProcessor.postProcessAfterInitialization(repository, "defaultTransactionRepository");
+
+        assertThat(bean).isSameAs(repository);
+    }
+}
@@ -0,0 +1,38 @@
+package semchishin.core.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CategorySuggestionsTest {
+
+    private final CategorySuggestions suggestions = CategorySuggestions.of(List.of(
+            "Transport", "food", "Fast Food", "Taxi", "Food delivery", "Salary", "FOOD"
+    ));
+
+    @Test
+    void shouldSuggestPrefixMatchesBeforeSubstringMatches() {
+        assertThat(suggestions.suggest("foo", 10))
+                .containsExactly("FOOD", "food", "Food delivery", "Fast Food");
+        assertThat(suggestions.suggest("  TA ", 10)).containsExactly("Taxi");
+        assertThat(suggestions.suggest("a", 10))
+                .containsExactly("Fast Food", "Salary", "Taxi", "Transport");
+    }
+
+    @Test
+    void shouldStopAtLimit() {
+        assertThat(suggestions.suggest("foo", 2)).containsExactly("FOOD", "food");
+        assertThat(suggestions.suggest("od", 1)).containsExactly("Fast Food");
+        assertThat(suggestions.suggest("", 3)).containsExactly("Fast Food", "FOOD", "food");
+    }
+
+    @Test
+    void shouldSuggestNothingWithoutMatch() {
+        assertThat(suggestions.size()).isEqualTo(7);
+        assertThat(suggestions.suggest("rent", 10)).isEmpty();
+        assertThat(suggestions.suggest("zzz", 10)).isEmpty();
+        assertThat(CategorySuggestions.EMPTY.suggest("food", 10)).isEmpty();
+    }
+}
@@ -0,0 +1,136 @@
+package semchishin.core.model;
+
+import org.junit.jupiter.api.Test;
+import semchishin.core.exception.FxRateNotFoundException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Currency;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FxRatesTest {
+
+    private static final Currency USD = Currency.getInstance("USD");
+
+    private static final Currency JPY = Currency.getInstance("JPY");
+
+    private static final LocalDate JAN_1 = LocalDate.of(2025, 1, 1);
+
+    private static final LocalDate JAN_10 = LocalDate.of(2025, 1, 10);
+
+    private final FxRates rates = FxRates.of(Money.DEFAULT_CURRENCY, List.of(
+            new FxRate("USD", JAN_10, new BigDecimal("95.5")),
+            new FxRate("USD", JAN_1, new BigDecimal("100.12345678")),
+            new FxRate("EUR", JAN_1, new BigDecimal("0.005")),
+            new FxRate("RUB", JAN_1, new BigDecimal("2"))
+    ));
+
+    @Test
+    void shouldTakeLatestRateOnOrBeforeDay() {
+        assertThat(rates.size()).isEqualTo(3);
+        assertThat(rates.rateOn("USD", JAN_1)).isEqualByComparingTo("100.12345678");
+        assertThat(rates.rateOn("USD", JAN_10.minusDays(1))).isEqualByComparingTo("100.12345678");
+        assertThat(rates.rateOn("USD", JAN_10)).isEqualByComparingTo("95.5");
+        assertThat(rates.rateOn("USD", LocalDate.of(2030, 1, 1))).isEqualByComparingTo("95.5");
+        assertThat(rates.rateOn("RUB", JAN_1)).isEqualTo(BigDecimal.ONE);
+    }
+
+    @Test
+    void shouldThrowWithoutRate() {
+        assertThatThrownBy(() -> rates.rateOn("USD", JAN_1.minusDays(1)))
+                .isInstanceOf(FxRateNotFoundException.class)
+                .hasMessageContaining("USD");
+        assertThatThrownBy(() -> rates.toBaseMinor(1_00, "GBP", JAN_1.toEpochDay()))
+                .isInstanceOf(FxRateNotFoundException.class);
+    }
+
+    @Test
+    void shouldConvertWithBankersRounding() {
+        assertThat(rates.toBase(new BigDecimal("10.00"), "USD", JAN_10)).isEqualTo(new BigDecimal("955.00"));
+        assertThat(rates.toBase(new BigDecimal("1.00"), "EUR", JAN_1)).isEqualTo(new BigDecimal("0.00"));
+        assertThat(rates.toBaseMinor(1_00, "EUR", JAN_1.toEpochDay())).isZero();
+        assertThat(rates.toBaseMinor(3_00, "EUR", JAN_1.toEpochDay())).isEqualTo(2);
+        assertThat(rates.toBaseMinor(-3_00, "EUR", JAN_1.toEpochDay())).isEqualTo(-2);
+        assertThat(rates.toBase(Money.ofMinor(5_00, USD), JAN_1))
+                .isEqualTo(Money.ofMinor(500_62));
+        assertThat(rates.toBase(Money.ofMinor(5_00), JAN_1)).isEqualTo(Money.ofMinor(5_00));
+    }
+
+    @Test
+    void shouldConvertMinorUnitsLikeDecimals() {
+        SplittableRandom random = new SplittableRandom(42L);
+        for (int i = 0; i < 10_000; i++) {
+            long minorUnits = random.nextLong(-1_000_000_00, 1_000_000_00);
+            String currency = random.nextBoolean() ? "USD" : "EUR";
+            LocalDate day = JAN_1.plusDays(random.nextInt(20));
+
+            assertThat(rates.toBaseMinor(minorUnits, currency, day.toEpochDay()))
+                    .isEqualTo(rates.toBase(BigDecimal.valueOf(minorUnits, Money.scaleOf(Currency.getInstance(currency))), currency, day)
+                            .unscaledValue().longValueExact());
+        }
+    }
+
+    @Test
+    void shouldConvertBetweenFractionDigitsOfCurrencies() {
+        FxRates mixed = FxRates.of(Money.DEFAULT_CURRENCY, List.of(
+                new FxRate("JPY", JAN_1, new BigDecimal("0.6")),
+                new FxRate("BHD", JAN_1, new BigDecimal("250.12345678"))
+        ));
+        FxRates yen = FxRates.of(JPY, List.of(new FxRate("RUB", JAN_1, new BigDecimal("1.66666667"))));
+
+        assertThat(mixed.toBaseMinor(1500, "JPY", JAN_1.toEpochDay())).isEqualTo(900_00);
+        assertThat(mixed.toBaseMinor(1_005, "BHD", JAN_1.toEpochDay())).isEqualTo(251_37);
+        assertThat(mixed.toBase(new BigDecimal("1.0050"), "BHD", JAN_1)).isEqualTo(new BigDecimal("251.37"));
+        assertThat(mixed.toBase(new BigDecimal("12.5000"), "RUB", null)).isEqualTo(new BigDecimal("12.50"));
+        assertThat(yen.toBaseMinor(100_50, "RUB", JAN_1.toEpochDay())).isEqualTo(168);
+        assertThat(yen.toBase(Money.ofMinor(100_50), JAN_1)).isEqualTo(Money.ofMinor(168, JPY));
+        assertThat(yen.toBase(new BigDecimal("100.50"), "RUB", JAN_1)).isEqualTo(new BigDecimal("168"));
+
+        SplittableRandom random = new SplittableRandom(42L);
+        for (int i = 0; i < 10_000; i++) {
+            long minorUnits = random.nextLong(-1_000_000_000, 1_000_000_000);
+            String currency = random.nextBoolean() ? "JPY" : "BHD";
+
+            assertThat(mixed.toBaseMinor(minorUnits, currency, JAN_1.toEpochDay()))
+                    .isEqualTo(mixed.toBase(BigDecimal.valueOf(minorUnits,
+                                    Money.scaleOf(Currency.getInstance(currency))), currency, JAN_1)
+                            .unscaledValue().longValueExact());
+        }
+    }
+
+    @Test
+    void shouldFallBackToDecimalsOnOverflow() {
+        long minorUnits = Long.MAX_VALUE / 1_000;
+
+        assertThat(rates.toBaseMinor(minorUnits, "EUR", JAN_1.toEpochDay())).isEqualTo(
+                BigDecimal.valueOf(minorUnits).multiply(new BigDecimal("0.005"))
+                        .setScale(0, RoundingMode.HALF_EVEN).longValueExact());
+        assertThatThrownBy(() -> rates.toBaseMinor(Long.MAX_VALUE, "USD", JAN_1.toEpochDay()))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void shouldRejectInvalidRates() {
+        assertThatThrownBy(() -> FxRates.of(Money.DEFAULT_CURRENCY,
+                List.of(new FxRate("USD", JAN_1, BigDecimal.ZERO))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FxRates.of(Money.DEFAULT_CURRENCY,
+                List.of(new FxRate("USD", JAN_1, new BigDecimal("1.000000001")))))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void shouldListRatesInOrder() {
+        assertThat(rates.toList()).containsExactly(
+                new FxRate("EUR", JAN_1, new BigDecimal("0.00500000")),
+                new FxRate("USD", JAN_1, new BigDecimal("100.12345678")),
+                new FxRate("USD", JAN_10, new BigDecimal("95.50000000"))
+        );
+        assertThat(FxRates.empty(Money.DEFAULT_CURRENCY).toList()).isEmpty();
+    }
+}
@@ -0,0 +1,116 @@
+package semchishin.core.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    private static final Currency EUR = Currency.getInstance("EUR");
+
+    private static final Currency JPY = Currency.getInstance("JPY");
+
+    private static final Currency BHD = Currency.getInstance("BHD");
+
+    @Test
+    void shouldConvertDecimalsExactly() {
+        assertThat(Money.of(new BigDecimal("-12.5")).getMinorUnits()).isEqualTo(-12_50);
+        assertThat(Money.of(new BigDecimal("1E+2")).getMinorUnits()).isEqualTo(100_00);
+        assertThat(Money.ofMinor(-12_50).toBigDecimal()).isEqualTo(new BigDecimal("-12.50"));
+        assertThatThrownBy(() -> Money.of(new BigDecimal("0.001"))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.of(new BigDecimal("1E+20"))).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void shouldRoundWhenAsked() {
+        assertThat(Money.of(new BigDecimal("0.005"), RoundingMode.HALF_EVEN)).isEqualTo(Money.ZERO);
+        assertThat(Money.of(new BigDecimal("0.015"), RoundingMode.HALF_EVEN)).isEqualTo(Money.ofMinor(2));
+        assertThat(Money.of(new BigDecimal("-0.001"), RoundingMode.FLOOR)).isEqualTo(Money.ofMinor(-1));
+    }
+
+    @Test
+    void shouldParsePlainDecimals() {
+        assertThat(Money.parse("100")).isEqualTo(Money.ofMinor(100_00));
+        assertThat(Money.parse("-0.5")).isEqualTo(Money.ofMinor(-50));
+        assertThat(Money.parse("+7.")).isEqualTo(Money.ofMinor(7_00));
+        assertThat(Money.parse("-92233720368547758.08")).isEqualTo(Money.ofMinor(Long.MIN_VALUE));
+        assertThat(Money.parse("1.5e1")).isEqualTo(Money.ofMinor(15_00));
+        assertThatThrownBy(() -> Money.parse("1.234")).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.parse("99999999999999999")).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.parse("-")).isInstanceOf(NumberFormatException.class);
+        assertThatThrownBy(() -> Money.parse("1,5")).isInstanceOf(NumberFormatException.class);
+    }
+
+    @Test
+    void shouldFormatWithTwoFractionDigits() {
+        assertThat(Money.ofMinor(0).toPlainString()).isEqualTo("0.00");
+        assertThat(Money.ofMinor(-5).toPlainString()).isEqualTo("-0.05");
+        assertThat(Money.ofMinor(123_40).toPlainString()).isEqualTo("123.40");
+        assertThat(Money.ofMinor(Long.MIN_VALUE).toPlainString()).isEqualTo("-92233720368547758.08");
+        assertThat(Money.ofMinor(1_00, EUR)).hasToString("1.00 EUR");
+    }
+
+    @Test
+    void shouldUseFractionDigitsOfCurrency() {
+        assertThat(Money.scaleOf(JPY)).isZero();
+        assertThat(Money.scaleOf(BHD)).isEqualTo(3);
+        assertThat(Money.scaleOf(Money.NO_CURRENCY)).isEqualTo(Money.MAX_SCALE);
+        assertThat(Money.of(new BigDecimal("1500"), JPY, RoundingMode.UNNECESSARY).getMinorUnits()).isEqualTo(1500);
+        assertThat(Money.of(new BigDecimal("1.25"), BHD, RoundingMode.UNNECESSARY).getMinorUnits()).isEqualTo(1_250);
+        assertThat(Money.of(new BigDecimal("0.5"), JPY, RoundingMode.HALF_EVEN).getMinorUnits()).isZero();
+        assertThat(Money.ofMinor(1500, JPY).toBigDecimal()).isEqualTo(new BigDecimal("1500"));
+        assertThat(Money.ofMinor(-1_005, BHD).toBigDecimal()).isEqualTo(new BigDecimal("-1.005"));
+        assertThatThrownBy(() -> Money.of(new BigDecimal("0.5"), JPY, RoundingMode.UNNECESSARY))
+                .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.of(new BigDecimal("0.0005"), BHD, RoundingMode.UNNECESSARY))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void shouldParseAndFormatInFractionDigitsOfCurrency() {
+        assertThat(Money.parse("1500", JPY)).isEqualTo(Money.ofMinor(1500, JPY));
+        assertThat(Money.parse("-0.001", BHD)).isEqualTo(Money.ofMinor(-1, BHD));
+        assertThat(Money.parse("1.5", BHD)).isEqualTo(Money.ofMinor(1_500, BHD));
+        assertThatThrownBy(() -> Money.parse("1.5", JPY)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.parse("0.0001", BHD)).isInstanceOf(ArithmeticException.class);
+        assertThat(Money.ofMinor(-1500, JPY).toPlainString()).isEqualTo("-1500");
+        assertThat(Money.ofMinor(1_050, BHD).toPlainString()).isEqualTo("1.050");
+        assertThat(Money.ofMinor(-5, BHD)).hasToString("-0.005 BHD");
+    }
+
+    @Test
+    void shouldRescaleAmountWithoutCurrency() {
+        Money amount = Money.parse("1.25", Money.NO_CURRENCY);
+
+        assertThat(amount.rescaledTo(BHD)).isEqualTo(Money.ofMinor(1_250, BHD));
+        assertThat(amount.rescaledTo(EUR)).isEqualTo(Money.ofMinor(1_25, EUR));
+        assertThat(Money.parse("1500", Money.NO_CURRENCY).rescaledTo(JPY)).isEqualTo(Money.ofMinor(1500, JPY));
+        assertThatThrownBy(() -> amount.rescaledTo(JPY)).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void shouldCalculateExactly() {
+        Money amount = Money.ofMinor(10_05);
+
+        assertThat(amount.plus(Money.ofMinor(-20_10))).isEqualTo(Money.ofMinor(-10_05));
+        assertThat(amount.minus(amount)).isEqualTo(Money.ZERO);
+        assertThat(amount.times(3)).isEqualTo(Money.ofMinor(30_15));
+        assertThat(amount.negate().signum()).isEqualTo(-1);
+        assertThat(amount.compareTo(Money.ofMinor(10_06))).isNegative();
+        assertThatThrownBy(() -> Money.ofMinor(Long.MAX_VALUE).plus(Money.ofMinor(1)))
+                .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.ofMinor(Long.MIN_VALUE).negate()).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void shouldNotMixCurrencies() {
+        assertThat(Money.ofMinor(1_00, EUR)).isNotEqualTo(Money.ofMinor(1_00));
+        assertThatThrownBy(() -> Money.ofMinor(1_00, EUR).plus(Money.ofMinor(1_00)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
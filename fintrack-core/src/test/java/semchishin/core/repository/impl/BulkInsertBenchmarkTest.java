@@ -0,0 +1,116 @@
+package semchishin.core.repository.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import semchishin.core.model.Money;
+import semchishin.core.model.Transaction;
+import semchishin.core.util.Migrations;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static semchishin.core.util.Constants.COUNT;
+import static semchishin.core.util.Constants.FROM;
+import static semchishin.core.util.Constants.RESTART_IDENTITY_CASCADE;
+import static semchishin.core.util.Constants.SELECT;
+import static semchishin.core.util.Constants.TABLE;
+import static semchishin.core.util.Constants.TRANSACTION;
+import static semchishin.core.util.Constants.TRANSACTION_DAILY_ROLLUP;
+import static semchishin.core.util.Constants.TRUNCATE;
+import static semchishin.core.util.TestcontainersConstants.DB_NAME;
+import static semchishin.core.util.TestcontainersConstants.DB_PASSWORD;
+import static semchishin.core.util.TestcontainersConstants.DB_USERNAME;
+import static semchishin.core.util.TestcontainersConstants.POSTGRES;
+
+/**
+ * Compares the per-row, batched and COPY write paths of {@link DefaultTransactionRepository}.
+ * <p>
+ * Excluded from the regular test run, execute with {@code ./gradlew :fintrack-core:benchmark}.
+ * </p>
+ */
+@Tag("benchmark")
+@Testcontainers
+class BulkInsertBenchmarkTest {
+
+    private static final int ROWS = 20_000;
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final int ROUNDS = 3;
+
+    @Container
+    @SuppressWarnings("resource")
+    private static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>(POSTGRES)
+                    .withDatabaseName(DB_NAME)
+                    .withUsername(DB_USERNAME)
+                    .withPassword(DB_PASSWORD);
+
+    private static JdbcTemplate jdbc;
+
+    private DefaultTransactionRepository repository;
+
+    private List<Transaction> transactions;
+
+    @BeforeAll
+    static void migrate() {
+        jdbc = new JdbcTemplate(
+                new DriverManagerDataSource(
+                        postgres.getJdbcUrl(),
+                        postgres.getUsername(),
+                        postgres.getPassword()
+                )
+        );
+        Migrations.applyAll(jdbc);
+    }
+
+    @BeforeEach
+    void setup() {
+        repository = new DefaultTransactionRepository(jdbc, new CategoryDictionary(jdbc));
+
+        LocalDateTime now = LocalDateTime.now();
+        transactions = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            transactions.add(new Transaction(null, Money.ofMinor(i), "category-" + i % 20, now.minusMinutes(i)));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.execute(TRUNCATE + " " + TABLE + " " + TRANSACTION + ", " + TRANSACTION_DAILY_ROLLUP + " "
+                + RESTART_IDENTITY_CASCADE);
+    }
+
+    @Test
+    void compareWritePaths() {
+        measure("save (per row)", rows -> rows.forEach(repository::save));
+        measure("saveAll (batch " + BATCH_SIZE + ")", rows -> repository.saveAll(rows, BATCH_SIZE));
+        measure("copyAll (COPY)", repository::copyAll);
+    }
+
+    private void measure(String name, Consumer<List<Transaction>> writer) {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            tearDown();
+            long start = System.nanoTime();
+            writer.accept(transactions);
+            best = Math.min(best, System.nanoTime() - start);
+
+            Integer count = jdbc.queryForObject(SELECT + " " + COUNT + "(*) " + FROM + " " + TRANSACTION, Integer.class);
+            assertEquals(ROWS, count);
+        }
+        double millis = best / 1_000_000.0;
+        System.out.printf("%-24s %8d rows  %10.1f ms  %12.0f rows/s%n", name, ROWS, millis, ROWS / (millis / 1000));
+    }
+}
@@ -0,0 +1,180 @@
+package semchishin.core.repository.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import semchishin.core.datasource.AccountContext;
+import semchishin.core.datasource.AccountRouter;
+import semchishin.core.datasource.AccountRoutingDataSource;
+import semchishin.core.datasource.StaticAccountRouter;
+import semchishin.core.model.TransactionSearchHit;
+import semchishin.core.util.Migrations;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static semchishin.core.util.Constants.ACCOUNT_ID;
+import static semchishin.core.util.Constants.ANOTHER;
+import static semchishin.core.util.Constants.FOOD;
+import static semchishin.core.util.Constants.OTHER_ACCOUNT_ID;
+import static semchishin.core.util.TestcontainersConstants.DB_NAME;
+import static semchishin.core.util.TestcontainersConstants.DB_PASSWORD;
+import static semchishin.core.util.TestcontainersConstants.DB_USERNAME;
+import static semchishin.core.util.TestcontainersConstants.POSTGRES;
+
+@Testcontainers
+@Execution(ExecutionMode.SAME_THREAD)
+class CategoryDictionaryTest {
+
+    private static final String LARGE = "large";
+
+    @Container
+    @SuppressWarnings("resource")
+    private static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>(POSTGRES)
+                    .withDatabaseName(DB_NAME)
+                    .withUsername(DB_USERNAME)
+                    .withPassword(DB_PASSWORD);
+
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void migrate() {
+        jdbc = new JdbcTemplate(
+                new DriverManagerDataSource(
+                        postgres.getJdbcUrl(),
+                        postgres.getUsername(),
+                        postgres.getPassword()
+                )
+        );
+        Migrations.applyAll(jdbc);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.execute("TRUNCATE TABLE transaction, transaction_daily_rollup, category RESTART IDENTITY");
+    }
+
+    @Test
+    void shouldCreateCategoryOnFirstUse() {
+        CategoryDictionary dictionary = new CategoryDictionary(jdbc);
+
+        Integer id = dictionary.idOf(FOOD);
+
+        assertEquals(id, dictionary.idOf(FOOD));
+        assertEquals(id, new CategoryDictionary(jdbc).idOf(FOOD));
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM category", Integer.class));
+        assertNull(dictionary.idOf(null));
+    }
+
+    @Test
+    void shouldNotCreateCategoryOnLookup() {
+        CategoryDictionary dictionary = new CategoryDictionary(jdbc);
+
+        assertNull(dictionary.findId(ANOTHER));
+        assertNull(dictionary.findId(ANOTHER));
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM category", Integer.class));
+    }
+
+    @Test
+    void shouldReturnCanonicalNameInstance() throws SQLException {
+        Integer id = new CategoryDictionary(jdbc).idOf(FOOD);
+        CategoryDictionary dictionary = new CategoryDictionary(jdbc);
+
+        String name = dictionary.nameOf(id);
+
+        assertEquals(FOOD, name);
+        assertSame(name, dictionary.nameOf(id));
+        try (Connection connection = jdbc.getDataSource().getConnection()) {
+            assertSame(name, dictionary.nameOf(id, connection));
+        }
+        assertSame(name, dictionary.nameOf(new CategoryDictionary(jdbc).findId(FOOD)));
+        assertNull(dictionary.nameOf(null));
+    }
+
+    @Test
+    void shouldCacheNamesOfLargeIds() {
+        CategoryDictionary dictionary = new CategoryDictionary(jdbc);
+        jdbc.update("INSERT INTO category (category_id, name) VALUES (?, ?), (?, ?)",
+                100_000, FOOD, Integer.MAX_VALUE, ANOTHER);
+
+        String food = dictionary.nameOf(100_000);
+        String another = dictionary.nameOf(Integer.MAX_VALUE);
+        jdbc.update("DELETE FROM category");
+
+        assertSame(food, dictionary.nameOf(100_000));
+        assertSame(another, dictionary.nameOf(Integer.MAX_VALUE));
+        assertEquals(List.of(FOOD, ANOTHER), List.of(food, another));
+    }
+
+    @Test
+    void shouldRankCategoriesContainingQuery() {
+        CategoryDictionary dictionary = new CategoryDictionary(jdbc);
+        Integer food = dictionary.idOf(FOOD);
+        Integer delivery = dictionary.idOf("Food_delivery");
+        Integer seafood = dictionary.idOf("Seafood");
+        dictionary.idOf(ANOTHER);
+
+        assertEquals(Map.of(food, TransactionSearchHit.RANK_EXACT, delivery, TransactionSearchHit.RANK_PREFIX,
+                seafood, TransactionSearchHit.RANK_SUBSTRING), dictionary.rankMatches("FOOD"));
+        assertEquals(Map.of(delivery, TransactionSearchHit.RANK_SUBSTRING), dictionary.rankMatches("d_d"));
+    }
+
+    @Test
+    void shouldListOnlyCategoriesUsedByAccount() {
+        CategoryDictionary dictionary = new CategoryDictionary(jdbc);
+        String insert = "INSERT INTO transaction (account_id, amount, currency, category_id, created_at) "
+                + "VALUES (?, 100, 'USD', ?, now())";
+        jdbc.update(insert, ACCOUNT_ID, dictionary.idOf(FOOD));
+        jdbc.update(insert, ACCOUNT_ID, dictionary.idOf(ANOTHER));
+        jdbc.update(insert, OTHER_ACCOUNT_ID, dictionary.idOf(ANOTHER));
+        dictionary.idOf("Seafood");
+
+        assertEquals(List.of(ANOTHER, FOOD), dictionary.findNamesUsedBy(AccountRouter.DEFAULT_ROUTE, ACCOUNT_ID));
+        assertEquals(List.of(ANOTHER), dictionary.findNamesUsedBy(AccountRouter.DEFAULT_ROUTE, OTHER_ACCOUNT_ID));
+        assertThrows(IllegalArgumentException.class, () -> dictionary.findNamesUsedBy(LARGE, ACCOUNT_ID));
+    }
+
+    @Test
+    void shouldKeepIdsOfEveryRouteApart() {
+        jdbc.execute("DROP DATABASE IF EXISTS " + LARGE);
+        jdbc.execute("CREATE DATABASE " + LARGE);
+        DriverManagerDataSource large = new DriverManagerDataSource(
+                postgres.getJdbcUrl().replace("/" + DB_NAME, "/" + LARGE),
+                postgres.getUsername(),
+                postgres.getPassword()
+        );
+        Migrations.applyAll(new JdbcTemplate(large));
+        JdbcTemplate routed = new JdbcTemplate(new AccountRoutingDataSource(
+                new StaticAccountRouter(Map.of(OTHER_ACCOUNT_ID, LARGE)), jdbc.getDataSource(), Map.of(LARGE, large)));
+        CategoryDictionary dictionary = new CategoryDictionary(routed,
+                new StaticAccountRouter(Map.of(OTHER_ACCOUNT_ID, LARGE)));
+
+        Integer sharedFood = AccountContext.call(ACCOUNT_ID, () -> dictionary.idOf(FOOD));
+        Integer sharedAnother = AccountContext.call(ACCOUNT_ID, () -> dictionary.idOf(ANOTHER));
+        Integer largeAnother = AccountContext.call(OTHER_ACCOUNT_ID, () -> dictionary.idOf(ANOTHER));
+        Integer largeFood = AccountContext.call(OTHER_ACCOUNT_ID, () -> dictionary.idOf(FOOD));
+
+        assertEquals(sharedFood, largeAnother);
+        assertEquals(sharedAnother, largeFood);
+        assertEquals(largeFood, new JdbcTemplate(large).queryForObject(
+                "SELECT category_id FROM category WHERE name = ?", Integer.class, FOOD));
+        assertEquals(FOOD, AccountContext.call(ACCOUNT_ID, () -> dictionary.nameOf(sharedFood)));
+        assertEquals(ANOTHER, AccountContext.call(OTHER_ACCOUNT_ID, () -> dictionary.nameOf(sharedFood)));
+        assertEquals(FOOD, dictionary.nameOf(sharedFood));
+        assertEquals(sharedFood, dictionary.findId(FOOD));
+    }
+}
@@ -0,0 +1,176 @@
+package semchishin.core.repository.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import semchishin.core.datasource.AccountContext;
+import semchishin.core.datasource.AccountRouter;
+import semchishin.core.datasource.AccountRoutingDataSource;
+import semchishin.core.datasource.StaticAccountRouter;
+import semchishin.core.model.ChangeOperation;
+import semchishin.core.model.Transaction;
+import semchishin.core.model.TransactionChange;
+import semchishin.core.util.Migrations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static semchishin.core.util.Constants.ACCOUNT_ID;
+import static semchishin.core.util.Constants.ANOTHER;
+import static semchishin.core.util.Constants.FOOD;
+import static semchishin.core.util.Constants.LONG_1;
+import static semchishin.core.util.Constants.MONEY_100;
+import static semchishin.core.util.Constants.OTHER_ACCOUNT_ID;
+import static semchishin.core.util.TestcontainersConstants.DB_NAME;
+import static semchishin.core.util.TestcontainersConstants.DB_PASSWORD;
+import static semchishin.core.util.TestcontainersConstants.DB_USERNAME;
+import static semchishin.core.util.TestcontainersConstants.POSTGRES;
+
+@Testcontainers
+@Execution(ExecutionMode.SAME_THREAD)
+class DefaultTransactionChangeRepositoryTest {
+
+    private static final LocalDateTime DATE_TIME = LocalDateTime.of(2025, 6, 15, 10, 0);
+
+    private static final String LARGE = "large";
+
+    @Container
+    @SuppressWarnings("resource")
+    private static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>(POSTGRES)
+                    .withDatabaseName(DB_NAME)
+                    .withUsername(DB_USERNAME)
+                    .withPassword(DB_PASSWORD);
+
+    private static JdbcTemplate jdbc;
+
+    private DefaultTransactionRepository transactionRepository;
+
+    private DefaultTransactionChangeRepository repository;
+
+    @BeforeAll
+    static void migrate() {
+        jdbc = new JdbcTemplate(
+                new DriverManagerDataSource(
+                        postgres.getJdbcUrl(),
+                        postgres.getUsername(),
+                        postgres.getPassword()
+                )
+        );
+        Migrations.applyAll(jdbc);
+    }
+
+    @BeforeEach
+    void setup() {
+        CategoryDictionary categoryDictionary = new CategoryDictionary(jdbc);
+        transactionRepository = new DefaultTransactionRepository(jdbc, categoryDictionary);
+        repository = new DefaultTransactionChangeRepository(jdbc, categoryDictionary);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.execute("TRUNCATE TABLE transaction, transaction_daily_rollup, transaction_change RESTART IDENTITY CASCADE");
+        jdbc.update("UPDATE transaction_change_head SET head = 0");
+    }
+
+    @Test
+    void shouldRecordEveryWriteInOrder() {
+        transactionRepository.save(new Transaction(null, MONEY_100, FOOD, DATE_TIME));
+        transactionRepository.update(new Transaction(LONG_1, MONEY_100, ANOTHER, DATE_TIME));
+        transactionRepository.deleteById(ACCOUNT_ID, LONG_1);
+
+        assertEquals(List.of(), repository.findAfter(0, 10));
+        assertEquals(3, repository.sequencePending());
+
+        List<TransactionChange> changes = repository.findAfter(0, 10);
+        assertEquals(List.of(1L, 2L, 3L), changes.stream().map(TransactionChange::getSequenceNumber).toList());
+        assertEquals(List.of(ChangeOperation.INSERT, ChangeOperation.UPDATE, ChangeOperation.DELETE),
+                changes.stream().map(TransactionChange::getOperation).toList());
+        assertEquals(List.of(FOOD, ANOTHER, ANOTHER), changes.stream().map(TransactionChange::getCategory).toList());
+        assertTrue(changes.stream().allMatch(change -> LONG_1.equals(change.getTransactionId())));
+        assertEquals(3, repository.findHeadSequenceNumber());
+    }
+
+    @Test
+    void shouldContinueNumberingAfterHead() {
+        transactionRepository.saveAllReturning(List.of(
+                new Transaction(null, MONEY_100, FOOD, DATE_TIME),
+                new Transaction(null, MONEY_100, FOOD, DATE_TIME)));
+        repository.sequencePending();
+        transactionRepository.save(new Transaction(null, MONEY_100, ANOTHER, DATE_TIME));
+
+        assertEquals(1, repository.sequencePending());
+        assertEquals(0, repository.sequencePending());
+
+        List<TransactionChange> changes = repository.findAfter(2, 10);
+        assertEquals(1, changes.size());
+        assertEquals(3L, changes.getFirst().getSequenceNumber());
+        assertEquals(3L, changes.getFirst().getTransactionId());
+        assertEquals(List.of(1L, 2L), repository.findAfter(0, 2).stream()
+                .map(TransactionChange::getSequenceNumber).toList());
+    }
+
+    @Test
+    void shouldPruneOnlyNumberedChanges() {
+        transactionRepository.save(new Transaction(null, MONEY_100, FOOD, DATE_TIME));
+        repository.sequencePending();
+        transactionRepository.save(new Transaction(null, MONEY_100, FOOD, DATE_TIME));
+        jdbc.update("UPDATE transaction_change SET recorded_at = recorded_at - INTERVAL '2 hours'");
+
+        assertEquals(0, repository.deleteOlderThan(3));
+        assertEquals(1, repository.deleteOlderThan(1));
+        assertEquals(1, repository.findHeadSequenceNumber());
+        assertEquals(1, repository.sequencePending());
+        assertEquals(2L, repository.findAfter(0, 10).getFirst().getSequenceNumber());
+    }
+
+    @Test
+    void shouldKeepFeedOfEveryRouteApart() {
+        jdbc.execute("DROP DATABASE IF EXISTS " + LARGE);
+        jdbc.execute("CREATE DATABASE " + LARGE);
+        DriverManagerDataSource large = new DriverManagerDataSource(
+                postgres.getJdbcUrl().replace("/" + DB_NAME, "/" + LARGE),
+                postgres.getUsername(),
+                postgres.getPassword()
+        );
+        Migrations.applyAll(new JdbcTemplate(large));
+        StaticAccountRouter router = new StaticAccountRouter(Map.of(OTHER_ACCOUNT_ID, LARGE));
+        JdbcTemplate routed = new JdbcTemplate(new AccountRoutingDataSource(
+                router, jdbc.getDataSource(), Map.of(LARGE, large)));
+        CategoryDictionary categoryDictionary = new CategoryDictionary(routed, router);
+        DefaultTransactionRepository routedTransactions = new DefaultTransactionRepository(routed, categoryDictionary);
+        DefaultTransactionChangeRepository routedChanges =
+                new DefaultTransactionChangeRepository(routed, categoryDictionary);
+
+        AccountContext.run(ACCOUNT_ID, () -> routedTransactions.save(
+                new Transaction(null, MONEY_100, FOOD, DATE_TIME, null, ACCOUNT_ID)));
+        AccountContext.run(OTHER_ACCOUNT_ID, () -> {
+            routedTransactions.save(new Transaction(null, MONEY_100, ANOTHER, DATE_TIME, null, OTHER_ACCOUNT_ID));
+            routedTransactions.save(new Transaction(null, MONEY_100, FOOD, DATE_TIME, null, OTHER_ACCOUNT_ID));
+        });
+
+        assertEquals(List.of(AccountRouter.DEFAULT_ROUTE, LARGE), List.copyOf(routedChanges.routes()));
+        assertEquals(1, routedChanges.sequencePending(AccountRouter.DEFAULT_ROUTE));
+        assertEquals(2, routedChanges.sequencePending(LARGE));
+        List<TransactionChange> shared = routedChanges.findAfter(AccountRouter.DEFAULT_ROUTE, 0, 10);
+        List<TransactionChange> moved = routedChanges.findAfter(LARGE, 0, 10);
+        assertEquals(List.of(FOOD), shared.stream().map(TransactionChange::getCategory).toList());
+        assertEquals(List.of(ACCOUNT_ID), shared.stream().map(TransactionChange::getAccountId).toList());
+        assertEquals(List.of(ANOTHER, FOOD), moved.stream().map(TransactionChange::getCategory).toList());
+        assertEquals(List.of(1L, 2L), moved.stream().map(TransactionChange::getSequenceNumber).toList());
+        assertTrue(moved.stream().allMatch(change -> change.getAccountId() == OTHER_ACCOUNT_ID));
+        assertEquals(1, routedChanges.findHeadSequenceNumber());
+        assertEquals(2, routedChanges.findHeadSequenceNumber(LARGE));
+    }
+}
@@ -2,51 +2,67 @@ package semchishin.core.repository.impl;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.parallel.Execution;
 import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.datasource.DriverManagerDataSource;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
+import semchishin.core.model.Money;
+import semchishin.core.model.PageCursor;
 import semchishin.core.model.Transaction;
+import semchishin.core.model.TransactionFilter;
+import semchishin.core.model.TransactionPatch;
+import semchishin.core.model.TransactionSearchHit;
+import semchishin.core.repository.SqlQueries;
+import semchishin.core.util.Migrations;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Currency;
 import java.util.List;
+import java.util.Objects;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static semchishin.core.util.Constants.ACCOUNT_ID;
 import static semchishin.core.util.Constants.AMOUNT;
 import static semchishin.core.util.Constants.ANOTHER;
 import static semchishin.core.util.Constants.BIG_DECIMAL_100;
 import static semchishin.core.util.Constants.CATEGORY;
+import static semchishin.core.util.Constants.CATEGORY_ID;
 import static semchishin.core.util.Constants.COUNT;
 import static semchishin.core.util.Constants.CREATED_AT;
-import static semchishin.core.util.Constants.CREATE_TABLE_IF_NOT_EXIST;
-import static semchishin.core.util.Constants.CURRENT_TIMESTAMP;
-import static semchishin.core.util.Constants.DEFAULT;
 import static semchishin.core.util.Constants.DELETE;
 import static semchishin.core.util.Constants.FOOD;
 import static semchishin.core.util.Constants.FROM;
 import static semchishin.core.util.Constants.INSERT_INTO;
 import static semchishin.core.util.Constants.LONG_1;
-import static semchishin.core.util.Constants.NOT_NULL;
-import static semchishin.core.util.Constants.NUMERIC;
-import static semchishin.core.util.Constants.PRIMARY_KEY;
+import static semchishin.core.util.Constants.MONEY_100;
+import static semchishin.core.util.Constants.OTHER_ACCOUNT_ID;
 import static semchishin.core.util.Constants.RESTART_IDENTITY_CASCADE;
 import static semchishin.core.util.Constants.SELECT;
-import static semchishin.core.util.Constants.SERIAL;
 import static semchishin.core.util.Constants.SET;
 import static semchishin.core.util.Constants.TABLE;
-import static semchishin.core.util.Constants.TIMESTAMP;
 import static semchishin.core.util.Constants.TRANSACTION;
+import static semchishin.core.util.Constants.TRANSACTION_DAILY_ROLLUP;
 import static semchishin.core.util.Constants.TRANSACTION_ID;
 import static semchishin.core.util.Constants.TRUNCATE;
 import static semchishin.core.util.Constants.UPDATE;
 import static semchishin.core.util.Constants.VALUES;
-import static semchishin.core.util.Constants.VARCHAR_255;
 import static semchishin.core.util.Constants.WHERE;
 import static semchishin.core.util.TestcontainersConstants.DB_NAME;
 import static semchishin.core.util.TestcontainersConstants.DB_PASSWORD;
@@ -60,7 +76,23 @@ class DefaultTransactionRepositoryTest {
     private static final LocalDateTime DATE_TIME = LocalDateTime.now().
             withNano((LocalDateTime.now().getNano() / 1000) * 1000);
 
-    private static final Transaction TRANSACTION1 = new Transaction(LONG_1, BIG_DECIMAL_100, FOOD, DATE_TIME);
+    private static final Transaction TRANSACTION1 = new Transaction(LONG_1, MONEY_100, FOOD, DATE_TIME);
+
+    private static final Currency JPY = Currency.getInstance("JPY");
+
+    private static final Currency BHD = Currency.getInstance("BHD");
+
+    private static final String SELECT_NAMED = String.format(SqlQueries.SELECT_NAMED, TRANSACTION, CATEGORY);
+
+    private static final String INSERT_NAMED = INSERT_INTO + " " + TRANSACTION + " (" + AMOUNT + ", " + CATEGORY_ID
+            + ", " + CREATED_AT + " ) " + VALUES + "(?, category_id_of(?), ?)";
+
+    private static final RowMapper<Transaction> ROW_MAPPER = (rs, rowNum) -> new Transaction(
+            rs.getLong(1),
+            Money.ofMinor(rs.getLong(2)),
+            rs.getString(3),
+            rs.getTimestamp(4).toLocalDateTime()
+    );
 
     @Container
     @SuppressWarnings("resource")
@@ -70,10 +102,12 @@ class DefaultTransactionRepositoryTest {
                     .withUsername(DB_USERNAME)
                     .withPassword(DB_PASSWORD);
 
-    private JdbcTemplate jdbc;
+    private static JdbcTemplate jdbc;
 
-    @BeforeEach()
-    void setup() {
+    private DefaultTransactionRepository repository;
+
+    @BeforeAll
+    static void migrate() {
         jdbc = new JdbcTemplate(
                 new DriverManagerDataSource(
                         postgres.getJdbcUrl(),
@@ -81,25 +115,18 @@ class DefaultTransactionRepositoryTest {
                         postgres.getPassword()
                 )
         );
+        Migrations.applyAll(jdbc);
+    }
 
-        jdbc.execute(
-                CREATE_TABLE_IF_NOT_EXIST + " " + TRANSACTION + " (" +
-                        TRANSACTION_ID + " " + SERIAL + " " + PRIMARY_KEY + ", " +
-                        AMOUNT + " " + NUMERIC + " " + NOT_NULL + ", " +
-                        CATEGORY + " " + VARCHAR_255 + ", " +
-                        CREATED_AT + " " + TIMESTAMP + " " + NOT_NULL + " " + DEFAULT + " " + CURRENT_TIMESTAMP + ")"
-        );
-
-        jdbc.update(
-                INSERT_INTO + " " + TRANSACTION + " (" + AMOUNT + ", " + CATEGORY + ", " + CREATED_AT + " ) "
-                        + VALUES + "(?, ?, ?)",
-                BIG_DECIMAL_100, FOOD, DATE_TIME
-        );
+    @BeforeEach()
+    void setup() {
+        repository = new DefaultTransactionRepository(jdbc, new CategoryDictionary(jdbc));
+        jdbc.update(INSERT_NAMED, BIG_DECIMAL_100, FOOD, DATE_TIME);
     }
 
     @AfterEach
     void tearDown() {
-        jdbc.execute(TRUNCATE + " " + TABLE + " " + TRANSACTION + " " + RESTART_IDENTITY_CASCADE);
+        jdbc.execute(TRUNCATE + " " + TABLE + " " + TRANSACTION + ", " + TRANSACTION_DAILY_ROLLUP + " " + RESTART_IDENTITY_CASCADE);
     }
 
     @Test
@@ -111,15 +138,8 @@ class DefaultTransactionRepositoryTest {
 
     @Test
     void shouldFindById() {
-        Transaction actual = jdbc.queryForObject(SELECT + " * " + FROM + " " + TRANSACTION + " " +
-                        WHERE + " " + TRANSACTION_ID + " = " + LONG_1,
-                (rs, rowNum) -> new Transaction(
-                        rs.getLong(1),
-                        rs.getBigDecimal(2),
-                        rs.getString(3),
-                        rs.getTimestamp(4).toLocalDateTime()
-                )
-        );
+        Transaction actual = jdbc.queryForObject(SELECT_NAMED + " " + WHERE + " t." + TRANSACTION_ID + " = " + LONG_1,
+                ROW_MAPPER);
 
         assertEquals(TRANSACTION1, actual);
     }
@@ -127,15 +147,8 @@ class DefaultTransactionRepositoryTest {
     @Test
     void shouldFindAll() {
         List<Transaction> expected = List.of(TRANSACTION1);
-        Transaction actual = jdbc.queryForObject(SELECT + " * " + FROM + " " + TRANSACTION + " " +
-                        WHERE + " " + CATEGORY + " = '" + FOOD +"'",
-                (rs, rowNum) -> new Transaction(
-                        rs.getLong(1),
-                        rs.getBigDecimal(2),
-                        rs.getString(3),
-                        rs.getTimestamp(4).toLocalDateTime()
-                )
-        );
+        Transaction actual = jdbc.queryForObject(SELECT_NAMED + " " + WHERE + " c.name = '" + FOOD + "'",
+                ROW_MAPPER);
 
         Assertions.assertNotNull(actual);
         assertEquals(expected, List.of(actual));
@@ -143,33 +156,261 @@ class DefaultTransactionRepositoryTest {
 
     @Test
     void shouldUpdate() {
-        Transaction actual = jdbc.queryForObject(SELECT + " * " + FROM + " " + TRANSACTION + " " +
-                        WHERE + " " + CATEGORY + " = '" + FOOD +"'",
-                (rs, rowNum) -> new Transaction(
-                        rs.getLong(1),
-                        rs.getBigDecimal(2),
-                        rs.getString(3),
-                        rs.getTimestamp(4).toLocalDateTime()
-                )
-        );
+        Transaction actual = jdbc.queryForObject(SELECT_NAMED + " " + WHERE + " c.name = '" + FOOD + "'",
+                ROW_MAPPER);
 
         assertEquals(TRANSACTION1, actual);
 
-        jdbc.update(UPDATE + " " + TRANSACTION + " " + SET + " " + CATEGORY + " = '" + ANOTHER + "' " +
+        jdbc.update(UPDATE + " " + TRANSACTION + " " + SET + " " + CATEGORY_ID + " = category_id_of('" + ANOTHER + "') " +
                 WHERE + " " + TRANSACTION_ID + " = " + LONG_1);
-        actual = jdbc.queryForObject(SELECT + " * " + FROM + " " + TRANSACTION + " " +
-                WHERE + " " + TRANSACTION_ID + " = " + LONG_1,
-                (rs, rowNum) -> new Transaction(
-                        rs.getLong(1),
-                        rs.getBigDecimal(2),
-                        rs.getString(3),
-                        rs.getTimestamp(4).toLocalDateTime()
-                )
-        );
+        actual = jdbc.queryForObject(SELECT_NAMED + " " + WHERE + " t." + TRANSACTION_ID + " = " + LONG_1,
+                ROW_MAPPER);
 
         assertNotEquals(TRANSACTION1, actual);
     }
 
+    @Test
+    void shouldFindPageAfterCursor() {
+        jdbc.update(INSERT_NAMED, BIG_DECIMAL_100, ANOTHER, DATE_TIME.minusDays(1));
+
+        List<Transaction> firstPage = repository.findPage(ACCOUNT_ID, null, null, 1);
+        List<Transaction> secondPage = repository.findPage(ACCOUNT_ID, null, PageCursor.after(firstPage.getFirst()), 1);
+        List<Transaction> filtered = repository.findPage(ACCOUNT_ID,
+                TransactionFilter.builder().category(ANOTHER).build(), null, 10);
+
+        assertEquals(List.of(TRANSACTION1), firstPage);
+        assertEquals(ANOTHER, secondPage.getFirst().getCategory());
+        assertEquals(secondPage, filtered);
+    }
+
+    @Test
+    void shouldStreamAllInCreationOrder() {
+        jdbc.update(INSERT_NAMED, BIG_DECIMAL_100, ANOTHER, DATE_TIME.minusDays(1));
+        List<Transaction> streamed = new ArrayList<>();
+
+        repository.forEach(ACCOUNT_ID, null, streamed::add);
+
+        assertEquals(2, streamed.size());
+        assertEquals(ANOTHER, streamed.getFirst().getCategory());
+        assertEquals(TRANSACTION1, streamed.getLast());
+    }
+
+    @Test
+    void shouldReturnGeneratedIdFromSave() {
+        Transaction saved = repository.save(new Transaction(null, MONEY_100, ANOTHER, DATE_TIME));
+
+        assertEquals(new Transaction(2L, MONEY_100, ANOTHER, DATE_TIME), saved);
+    }
+
+    @Test
+    void shouldReturnGeneratedIdsFromBatches() {
+        List<Transaction> entities = List.of(
+                new Transaction(null, MONEY_100, ANOTHER, DATE_TIME),
+                new Transaction(null, MONEY_100, FOOD, DATE_TIME),
+                new Transaction(null, MONEY_100, null, DATE_TIME)
+        );
+
+        List<Transaction> saved = repository.saveAll(entities, 2);
+
+        assertEquals(List.of(2L, 3L, 4L), saved.stream().map(Transaction::getTransactionId).toList());
+        assertEquals(DATE_TIME, saved.getLast().getDateTime());
+    }
+
+    @Test
+    void shouldSaveAllReturningInOrder() {
+        List<Transaction> entities = List.of(
+                new Transaction(null, MONEY_100, ANOTHER, DATE_TIME),
+                new Transaction(null, MONEY_100, null, DATE_TIME.plusDays(1))
+        );
+
+        List<Transaction> saved = repository.saveAllReturning(entities);
+
+        assertEquals(List.of(2L, 3L), saved.stream().map(Transaction::getTransactionId).toList());
+        assertEquals(ANOTHER, jdbc.queryForObject(SELECT_NAMED + " " + WHERE + " t." + TRANSACTION_ID + " = 2",
+                ROW_MAPPER).getCategory());
+    }
+
+    @Test
+    void shouldMatchReturnedRowsToTheirEntities() {
+        List<Transaction> entities = List.of(
+                note(FOOD, DATE_TIME.plusMonths(2), "third month"),
+                note(ANOTHER, DATE_TIME, "first month"),
+                note(null, DATE_TIME.plusMonths(1), "second month"),
+                note(FOOD, DATE_TIME, "first month again")
+        );
+
+        List<Transaction> saved = repository.saveAllReturning(entities);
+
+        assertEquals(entities.stream().map(Transaction::getNote).toList(),
+                saved.stream().map(Transaction::getNote).toList());
+        for (Transaction transaction : saved) {
+            assertEquals(transaction, repository.findById(ACCOUNT_ID, transaction.getTransactionId()).orElseThrow());
+        }
+    }
+
+    @Test
+    void shouldReadAmountsExactly() {
+        Transaction saved = repository.save(new Transaction(null, Money.ofMinor(-99_999_999_999_99L), FOOD, DATE_TIME));
+
+        assertEquals(saved, repository.findById(ACCOUNT_ID, saved.getTransactionId()).orElseThrow());
+        assertEquals(new BigDecimal("-99999999999.9900"), jdbc.queryForObject(SELECT + " " + AMOUNT + " " + FROM + " "
+                + TRANSACTION + " " + WHERE + " " + TRANSACTION_ID + " = ?", BigDecimal.class, saved.getTransactionId()));
+    }
+
+    @Test
+    void shouldReadAmountsInFractionDigitsOfTheirCurrency() {
+        Transaction yen = repository.save(new Transaction(null, Money.ofMinor(1500, JPY), FOOD, DATE_TIME));
+        Transaction dinar = repository.save(new Transaction(null, Money.ofMinor(-1_005, BHD), FOOD, DATE_TIME));
+
+        assertEquals(yen, repository.findById(ACCOUNT_ID, yen.getTransactionId()).orElseThrow());
+        assertEquals(dinar, repository.findById(ACCOUNT_ID, dinar.getTransactionId()).orElseThrow());
+        assertEquals(new BigDecimal("-1.0050"), jdbc.queryForObject(SELECT + " " + AMOUNT + " " + FROM + " "
+                + TRANSACTION + " " + WHERE + " " + TRANSACTION_ID + " = ?", BigDecimal.class, dinar.getTransactionId()));
+    }
+
+    @Test
+    void shouldStreamColumnsAfterId() {
+        repository.save(new Transaction(null, Money.ofMinor(-12_34), null, DATE_TIME));
+        List<String> rows = new ArrayList<>();
+
+        repository.forEachColumnar(LONG_1, (id, account, amount, currency, category, createdAt) ->
+                rows.add(id + " " + account + " " + amount + " " + currency + " " + category + " " + createdAt));
+
+        long micros = DATE_TIME.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + DATE_TIME.getNano() / 1_000;
+        assertEquals(List.of("2 1 -1234 RUB null " + micros), rows);
+    }
+
+    @Test
+    void shouldScopeEveryQueryToItsAccount() {
+        Transaction other = repository.save(
+                new Transaction(null, MONEY_100, ANOTHER, DATE_TIME, null, OTHER_ACCOUNT_ID));
+        long otherId = other.getTransactionId();
+
+        assertEquals(List.of(TRANSACTION1), repository.findAll(ACCOUNT_ID));
+        assertEquals(List.of(other), repository.findAll(OTHER_ACCOUNT_ID));
+        assertTrue(repository.findById(ACCOUNT_ID, otherId).isEmpty());
+        assertEquals(List.of(other), repository.findPage(OTHER_ACCOUNT_ID, null, null, 10));
+        assertTrue(repository.patch(ACCOUNT_ID, otherId, new TransactionPatch(null, FOOD, null)).isEmpty());
+
+        repository.update(new Transaction(otherId, MONEY_100, FOOD, DATE_TIME, 0, ACCOUNT_ID));
+        repository.deleteById(ACCOUNT_ID, otherId);
+
+        assertEquals(other, repository.findById(OTHER_ACCOUNT_ID, otherId).orElseThrow());
+    }
+
+    @Test
+    void shouldBumpVersionOnEveryWrite() {
+        long initial = repository.findVersion();
+
+        repository.save(new Transaction(null, MONEY_100, ANOTHER, DATE_TIME));
+        long saved = repository.findVersion();
+        repository.update(new Transaction(LONG_1, MONEY_100, ANOTHER, DATE_TIME));
+        long updated = repository.findVersion();
+        repository.deleteById(ACCOUNT_ID, LONG_1);
+
+        assertTrue(initial < saved);
+        assertTrue(saved < updated);
+        assertTrue(updated < repository.findVersion());
+    }
+
+    @Test
+    void shouldBumpVersionWhenPartitionIsArchived() {
+        DefaultTransactionPartitionRepository partitionRepository = new DefaultTransactionPartitionRepository(jdbc);
+        YearMonth month = YearMonth.of(2000, 1);
+        Transaction archived = repository.save(new Transaction(null, MONEY_100, ANOTHER, month.atDay(15).atStartOfDay()));
+        assertTrue(partitionRepository.createPartition(month));
+        long beforeArchive = repository.findVersion();
+
+        assertTrue(partitionRepository.archivePartition(month));
+
+        assertTrue(beforeArchive < repository.findVersion());
+        assertTrue(repository.findById(ACCOUNT_ID, archived.getTransactionId()).isEmpty());
+        assertEquals(1, jdbc.queryForObject("SELECT count(*) FROM fintrack_archive.transaction_y2000m01", Integer.class));
+        jdbc.execute("DROP TABLE fintrack_archive.transaction_y2000m01");
+    }
+
+    @Test
+    void shouldUpdateOnlyMatchingVersion() {
+        Transaction stored = repository.findById(ACCOUNT_ID, LONG_1).orElseThrow();
+
+        repository.update(new Transaction(LONG_1, MONEY_100, ANOTHER, DATE_TIME, stored.getVersion()));
+
+        Transaction updated = repository.findById(ACCOUNT_ID, LONG_1).orElseThrow();
+        assertEquals(stored.getVersion() + 1, updated.getVersion());
+        assertThrows(OptimisticLockingFailureException.class, () -> repository.update(
+                new Transaction(LONG_1, MONEY_100, FOOD, DATE_TIME, stored.getVersion())));
+        assertEquals(ANOTHER, repository.findById(ACCOUNT_ID, LONG_1).orElseThrow().getCategory());
+    }
+
+    @Test
+    void shouldPatchOnlyGivenFields() {
+        Transaction patched = repository.patch(ACCOUNT_ID, LONG_1, new TransactionPatch(null, ANOTHER, 0))
+                .orElseThrow();
+
+        assertEquals(MONEY_100, patched.getAmount());
+        assertEquals(ANOTHER, patched.getCategory());
+        assertEquals(1, patched.getVersion());
+        assertEquals(patched, repository.findById(ACCOUNT_ID, LONG_1).orElseThrow());
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> repository.patch(ACCOUNT_ID, LONG_1, new TransactionPatch(Money.ofMinor(1_00), null, 0)));
+        assertTrue(repository.patch(ACCOUNT_ID, 2L, new TransactionPatch(Money.ofMinor(1_00), null, 0)).isEmpty());
+        assertEquals(2, repository.patch(ACCOUNT_ID, LONG_1, new TransactionPatch(Money.ofMinor(1_00), null, null))
+                .orElseThrow().getVersion());
+    }
+
+    @Test
+    void shouldKeepNotesOnEveryWritePath() {
+        String quoted = "Dinner, \"Chez Paul\"\nwith friends";
+        Transaction saved = repository.save(note(ANOTHER, DATE_TIME, "single"));
+        repository.saveAll(List.of(note(ANOTHER, DATE_TIME, "batched")), 10);
+        repository.saveAllReturning(List.of(note(ANOTHER, DATE_TIME, "returned")));
+        repository.copyAll(List.of(note(ANOTHER, DATE_TIME, quoted), note(ANOTHER, DATE_TIME, null)));
+
+        assertEquals("single", saved.getNote());
+        assertEquals(List.of("single", "batched", "returned", quoted), repository.findAll(ACCOUNT_ID).stream()
+                .sorted(Comparator.comparing(Transaction::getTransactionId))
+                .map(Transaction::getNote)
+                .filter(Objects::nonNull)
+                .toList());
+
+        TransactionPatch patch = new TransactionPatch(null, null, null, "patched");
+        assertEquals("patched", repository.patch(ACCOUNT_ID, saved.getTransactionId(), patch).orElseThrow().getNote());
+        assertEquals("patched", repository.patch(ACCOUNT_ID, saved.getTransactionId(),
+                new TransactionPatch(Money.ofMinor(1_00), null, null)).orElseThrow().getNote());
+        repository.update(new Transaction(saved.getTransactionId(), MONEY_100, ANOTHER, DATE_TIME, null, ACCOUNT_ID));
+        assertNull(repository.findById(ACCOUNT_ID, saved.getTransactionId()).orElseThrow().getNote());
+    }
+
+    @Test
+    void shouldRankSearchHitsAndPageThroughThem() {
+        Transaction substring = repository.save(note(ANOTHER, DATE_TIME, "Lunch at the FOOD court"));
+        Transaction category = repository.save(note("seafood", DATE_TIME.minusDays(1), null));
+        Transaction prefix = repository.save(note(ANOTHER, DATE_TIME.minusDays(2), "Food for the week"));
+        repository.save(new Transaction(null, MONEY_100, FOOD, DATE_TIME, null, OTHER_ACCOUNT_ID, "food"));
+        repository.save(note(ANOTHER, DATE_TIME, "fast"));
+
+        List<TransactionSearchHit> firstPage = repository.search(ACCOUNT_ID, "food", null, null, 2);
+        List<TransactionSearchHit> secondPage = repository.search(ACCOUNT_ID, "food", null,
+                PageCursor.after(firstPage.getLast()), 10);
+
+        assertEquals(List.of(LONG_1, prefix.getTransactionId()), ids(firstPage));
+        assertEquals(List.of(TransactionSearchHit.RANK_EXACT, TransactionSearchHit.RANK_PREFIX),
+                firstPage.stream().map(TransactionSearchHit::getRank).toList());
+        assertEquals(List.of(substring.getTransactionId(), category.getTransactionId()), ids(secondPage));
+        assertEquals(List.of(prefix.getTransactionId()), ids(repository.search(ACCOUNT_ID, "food",
+                TransactionFilter.builder().to(DATE_TIME.minusHours(1)).minAmount(BIG_DECIMAL_100).build(), null, 1)));
+    }
+
+    @Test
+    void shouldSearchWildcardsLiterally() {
+        Transaction percent = repository.save(note(ANOTHER, DATE_TIME, "50% off"));
+        repository.save(note(ANOTHER, DATE_TIME, "500 off"));
+
+        assertEquals(List.of(percent.getTransactionId()), ids(repository.search(ACCOUNT_ID, "50%", null, null, 10)));
+        assertTrue(repository.search(ACCOUNT_ID, "_", null, null, 10).isEmpty());
+        assertTrue(repository.search(ACCOUNT_ID, "\\", null, null, 10).isEmpty());
+    }
+
     @Test
     void deleteById() {
         jdbc.update(DELETE + " " + FROM + " " + TRANSACTION + " " + WHERE + " " + TRANSACTION_ID + " = ?", LONG_1);
@@ -178,4 +419,12 @@ class DefaultTransactionRepositoryTest {
 
         assertEquals(0, count);
     }
-}
\ No newline at end of file
+
+    private static Transaction note(String category, LocalDateTime dateTime, String note) {
+        return new Transaction(null, MONEY_100, category, dateTime, null, ACCOUNT_ID, note);
+    }
+
+    private static List<Long> ids(List<TransactionSearchHit> hits) {
+        return hits.stream().map(hit -> hit.getTransaction().getTransactionId()).toList();
+    }
+}
@@ -0,0 +1,157 @@
+package semchishin.core.repository.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import semchishin.core.model.CategoryStatistics;
+import semchishin.core.model.Money;
+import semchishin.core.model.TimeBucket;
+import semchishin.core.model.Transaction;
+import semchishin.core.model.TransactionFilter;
+import semchishin.core.model.TransactionSummary;
+import semchishin.core.util.Migrations;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static semchishin.core.util.Constants.ACCOUNT_ID;
+import static semchishin.core.util.Constants.ANOTHER;
+import static semchishin.core.util.Constants.FOOD;
+import static semchishin.core.util.Constants.LONG_1;
+import static semchishin.core.util.Constants.MONEY_100;
+import static semchishin.core.util.Constants.NO_RATES;
+import static semchishin.core.util.TestcontainersConstants.DB_NAME;
+import static semchishin.core.util.TestcontainersConstants.DB_PASSWORD;
+import static semchishin.core.util.TestcontainersConstants.DB_USERNAME;
+import static semchishin.core.util.TestcontainersConstants.POSTGRES;
+
+@Testcontainers
+@Execution(ExecutionMode.SAME_THREAD)
+class DefaultTransactionRollupRepositoryTest {
+
+    private static final LocalDateTime DATE_TIME = LocalDateTime.of(2025, 3, 15, 12, 0);
+
+    @Container
+    @SuppressWarnings("resource")
+    private static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>(POSTGRES)
+                    .withDatabaseName(DB_NAME)
+                    .withUsername(DB_USERNAME)
+                    .withPassword(DB_PASSWORD);
+
+    private static JdbcTemplate jdbc;
+
+    private DefaultTransactionRepository transactionRepository;
+
+    private DefaultTransactionRollupRepository rollupRepository;
+
+    @BeforeAll
+    static void migrate() {
+        jdbc = new JdbcTemplate(
+                new DriverManagerDataSource(
+                        postgres.getJdbcUrl(),
+                        postgres.getUsername(),
+                        postgres.getPassword()
+                )
+        );
+        Migrations.applyAll(jdbc);
+    }
+
+    @BeforeEach
+    void setup() {
+        CategoryDictionary categoryDictionary = new CategoryDictionary(jdbc);
+        transactionRepository = new DefaultTransactionRepository(jdbc, categoryDictionary);
+        rollupRepository = new DefaultTransactionRollupRepository(jdbc, categoryDictionary);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.execute("TRUNCATE TABLE transaction, transaction_daily_rollup RESTART IDENTITY");
+    }
+
+    @Test
+    void shouldMaintainRollupOnEveryWrite() {
+        transactionRepository.save(transaction(MONEY_100, FOOD, DATE_TIME));
+        transactionRepository.saveAll(List.of(
+                transaction(Money.ofMinor(-30_00), FOOD, DATE_TIME.plusHours(1)),
+                transaction(MONEY_100, ANOTHER, DATE_TIME.plusDays(1))
+        ), 10);
+        transactionRepository.copyAll(List.of(transaction(MONEY_100, null, DATE_TIME)));
+        transactionRepository.update(new Transaction(LONG_1, Money.ofMinor(10_00), ANOTHER, null));
+        transactionRepository.deleteById(ACCOUNT_ID, 2L);
+
+        List<CategoryStatistics> statistics = rollupRepository.summarizeByCategory(ACCOUNT_ID, null, NO_RATES);
+
+        assertEquals(List.of(
+                new CategoryStatistics(ANOTHER, 2, new BigDecimal("110.00")),
+                new CategoryStatistics(null, 1, new BigDecimal("100.00"))
+        ), statistics);
+    }
+
+    @Test
+    void shouldMatchRowAggregatesAfterRebuild() {
+        transactionRepository.saveAll(List.of(
+                transaction(MONEY_100, FOOD, DATE_TIME),
+                transaction(Money.ofMinor(-30_00), FOOD, DATE_TIME.plusMonths(1)),
+                transaction(MONEY_100, ANOTHER, DATE_TIME.plusDays(1))
+        ), 10);
+        jdbc.execute("DELETE FROM transaction_daily_rollup");
+
+        rollupRepository.rebuild();
+
+        DefaultTransactionStatisticsRepository statisticsRepository = new DefaultTransactionStatisticsRepository(jdbc,
+                new CategoryDictionary(jdbc));
+        TransactionFilter filter = TransactionFilter.builder().category(FOOD).build();
+        TransactionSummary fromRows = statisticsRepository.summarize(ACCOUNT_ID, filter, NO_RATES);
+        TransactionSummary fromRollup = rollupRepository.summarize(ACCOUNT_ID, filter, NO_RATES);
+        assertEquals(fromRows.getCount(), fromRollup.getCount());
+        assertEquals(0, fromRows.getBalance().compareTo(fromRollup.getBalance()));
+        assertEquals(fromRows.getLastCreatedAt(), fromRollup.getLastCreatedAt());
+        assertEquals(
+                statisticsRepository.summarizeByTime(ACCOUNT_ID, null, TimeBucket.MONTH, NO_RATES).size(),
+                rollupRepository.summarizeByTime(ACCOUNT_ID, null, TimeBucket.MONTH, NO_RATES).size()
+        );
+    }
+
+    @Test
+    void shouldMatchRowAggregatesAfterArchive() {
+        YearMonth month = YearMonth.of(2000, 1);
+        transactionRepository.saveAll(List.of(
+                transaction(MONEY_100, FOOD, DATE_TIME),
+                transaction(Money.ofMinor(-30_00), FOOD, month.atDay(15).atStartOfDay()),
+                transaction(MONEY_100, ANOTHER, month.atEndOfMonth().atTime(23, 0))
+        ), 10);
+        DefaultTransactionPartitionRepository partitionRepository = new DefaultTransactionPartitionRepository(jdbc);
+        partitionRepository.createPartition(month);
+
+        partitionRepository.archivePartition(month);
+
+        DefaultTransactionStatisticsRepository statisticsRepository = new DefaultTransactionStatisticsRepository(jdbc,
+                new CategoryDictionary(jdbc));
+        TransactionSummary fromRows = statisticsRepository.summarize(ACCOUNT_ID, null, NO_RATES);
+        TransactionSummary fromRollup = rollupRepository.summarize(ACCOUNT_ID, null, NO_RATES);
+        assertEquals(1, fromRollup.getCount());
+        assertEquals(fromRows.getCount(), fromRollup.getCount());
+        assertEquals(0, fromRows.getBalance().compareTo(fromRollup.getBalance()));
+        assertEquals(
+                statisticsRepository.summarizeByCategory(ACCOUNT_ID, null, NO_RATES),
+                rollupRepository.summarizeByCategory(ACCOUNT_ID, null, NO_RATES)
+        );
+        jdbc.execute("DROP TABLE fintrack_archive.transaction_y2000m01");
+    }
+
+    private static Transaction transaction(Money amount, String category, LocalDateTime dateTime) {
+        return new Transaction(null, amount, category, dateTime);
+    }
+}
@@ -0,0 +1,160 @@
+package semchishin.core.repository.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import semchishin.core.exception.FxRateNotFoundException;
+import semchishin.core.model.CategoryStatistics;
+import semchishin.core.model.FxRate;
+import semchishin.core.model.FxRates;
+import semchishin.core.model.Money;
+import semchishin.core.model.TimeBucket;
+import semchishin.core.model.TimeSeriesPoint;
+import semchishin.core.model.TransactionFilter;
+import semchishin.core.model.TransactionSummary;
+import semchishin.core.util.Migrations;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static semchishin.core.util.Constants.ACCOUNT_ID;
+import static semchishin.core.util.Constants.AMOUNT;
+import static semchishin.core.util.Constants.ANOTHER;
+import static semchishin.core.util.Constants.BIG_DECIMAL_100;
+import static semchishin.core.util.Constants.CATEGORY_ID;
+import static semchishin.core.util.Constants.CREATED_AT;
+import static semchishin.core.util.Constants.CURRENCY;
+import static semchishin.core.util.Constants.FOOD;
+import static semchishin.core.util.Constants.FX_RATE;
+import static semchishin.core.util.Constants.INSERT_INTO;
+import static semchishin.core.util.Constants.NO_RATES;
+import static semchishin.core.util.Constants.RESTART_IDENTITY_CASCADE;
+import static semchishin.core.util.Constants.TABLE;
+import static semchishin.core.util.Constants.TRANSACTION;
+import static semchishin.core.util.Constants.TRANSACTION_DAILY_ROLLUP;
+import static semchishin.core.util.Constants.TRUNCATE;
+import static semchishin.core.util.Constants.USD;
+import static semchishin.core.util.Constants.VALUES;
+import static semchishin.core.util.TestcontainersConstants.DB_NAME;
+import static semchishin.core.util.TestcontainersConstants.DB_PASSWORD;
+import static semchishin.core.util.TestcontainersConstants.DB_USERNAME;
+import static semchishin.core.util.TestcontainersConstants.POSTGRES;
+
+@Testcontainers
+@Execution(ExecutionMode.SAME_THREAD)
+class DefaultTransactionStatisticsRepositoryTest {
+
+    private static final LocalDateTime DATE_TIME = LocalDateTime.of(2025, 3, 15, 12, 0);
+
+    private static final BigDecimal EXPENSE = BigDecimal.valueOf(-40);
+
+    @Container
+    @SuppressWarnings("resource")
+    private static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>(POSTGRES)
+                    .withDatabaseName(DB_NAME)
+                    .withUsername(DB_USERNAME)
+                    .withPassword(DB_PASSWORD);
+
+    private static JdbcTemplate jdbc;
+
+    private DefaultTransactionStatisticsRepository repository;
+
+    @BeforeAll
+    static void migrate() {
+        jdbc = new JdbcTemplate(
+                new DriverManagerDataSource(
+                        postgres.getJdbcUrl(),
+                        postgres.getUsername(),
+                        postgres.getPassword()
+                )
+        );
+        Migrations.applyAll(jdbc);
+    }
+
+    @BeforeEach
+    void setup() {
+        String insert = INSERT_INTO + " " + TRANSACTION + " (" + AMOUNT + ", " + CATEGORY_ID + ", " + CREATED_AT + " ) "
+                + VALUES + "(?, category_id_of(?), ?)";
+        jdbc.update(insert, BIG_DECIMAL_100, FOOD, DATE_TIME);
+        jdbc.update(insert, EXPENSE, FOOD, DATE_TIME.plusDays(1));
+        jdbc.update(insert, BIG_DECIMAL_100, ANOTHER, DATE_TIME.plusMonths(1));
+
+        repository = new DefaultTransactionStatisticsRepository(jdbc, new CategoryDictionary(jdbc));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.execute(TRUNCATE + " " + TABLE + " " + TRANSACTION + ", " + TRANSACTION_DAILY_ROLLUP + ", " + FX_RATE + " "
+                + RESTART_IDENTITY_CASCADE);
+    }
+
+    @Test
+    void shouldSummarize() {
+        TransactionSummary summary = repository.summarize(ACCOUNT_ID, null, NO_RATES);
+
+        assertEquals(3, summary.getCount());
+        assertEquals(0, BigDecimal.valueOf(200).compareTo(summary.getIncome()));
+        assertEquals(0, EXPENSE.compareTo(summary.getExpense()));
+        assertEquals(0, BigDecimal.valueOf(160).compareTo(summary.getBalance()));
+        assertEquals(DATE_TIME.plusMonths(1), summary.getLastCreatedAt());
+    }
+
+    @Test
+    void shouldSummarizeByCategory() {
+        List<CategoryStatistics> statistics = repository.summarizeByCategory(ACCOUNT_ID, null, NO_RATES);
+
+        assertEquals(List.of(ANOTHER, FOOD), statistics.stream().map(CategoryStatistics::getCategory).toList());
+        assertEquals(2, statistics.getLast().getCount());
+        assertEquals(0, BigDecimal.valueOf(60).compareTo(statistics.getLast().getTotal()));
+    }
+
+    @Test
+    void shouldMatchNothingForUnknownCategory() {
+        TransactionFilter filter = TransactionFilter.builder().category("unknown").build();
+        TransactionSummary summary = repository.summarize(ACCOUNT_ID, filter, NO_RATES);
+
+        assertEquals(0, summary.getCount());
+        assertEquals(List.of(), repository.summarizeByCategory(ACCOUNT_ID, filter, NO_RATES));
+    }
+
+    @Test
+    void shouldSummarizeByMonth() {
+        List<TimeSeriesPoint> series = repository.summarizeByTime(ACCOUNT_ID, null, TimeBucket.MONTH, NO_RATES);
+
+        assertEquals(2, series.size());
+        assertEquals(LocalDateTime.of(2025, 3, 1, 0, 0), series.getFirst().getBucketStart());
+        assertEquals(2, series.getFirst().getCount());
+    }
+
+    @Test
+    void shouldConvertOtherCurrenciesWithRateOfTheirDay() {
+        jdbc.update(INSERT_INTO + " " + TRANSACTION + " (" + AMOUNT + ", " + CURRENCY + ", " + CATEGORY_ID + ", "
+                + CREATED_AT + ") " + VALUES + "(?, ?, category_id_of(?), ?)", BigDecimal.TEN, USD, FOOD, DATE_TIME);
+        DefaultFxRateRepository fxRateRepository = new DefaultFxRateRepository(jdbc);
+        fxRateRepository.saveAll(List.of(
+                new FxRate(USD, DATE_TIME.toLocalDate().minusDays(1), new BigDecimal("90.5")),
+                new FxRate(USD, DATE_TIME.toLocalDate().plusDays(1), new BigDecimal("100"))
+        ));
+        FxRates rates = FxRates.of(Money.DEFAULT_CURRENCY, fxRateRepository.findAll());
+
+        TransactionSummary summary = repository.summarize(ACCOUNT_ID, null, rates);
+
+        assertEquals(4, summary.getCount());
+        assertEquals(0, new BigDecimal("1105").compareTo(summary.getIncome()));
+        assertEquals(0, new BigDecimal("965").compareTo(
+                repository.summarizeByCategory(ACCOUNT_ID, null, rates).getLast().getTotal()));
+        assertThrows(FxRateNotFoundException.class, () -> repository.summarize(ACCOUNT_ID, null, NO_RATES));
+    }
+}
@@ -0,0 +1,143 @@
+package semchishin.core.repository.impl;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.test.StepVerifier;
+import semchishin.core.model.Money;
+import semchishin.core.model.Transaction;
+import semchishin.core.util.Migrations;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static semchishin.core.util.Constants.ACCOUNT_ID;
+import static semchishin.core.util.Constants.ANOTHER;
+import static semchishin.core.util.Constants.FOOD;
+import static semchishin.core.util.TestcontainersConstants.DB_NAME;
+import static semchishin.core.util.TestcontainersConstants.DB_PASSWORD;
+import static semchishin.core.util.TestcontainersConstants.DB_USERNAME;
+import static semchishin.core.util.TestcontainersConstants.POSTGRES;
+
+@Testcontainers
+@Execution(ExecutionMode.SAME_THREAD)
+class R2dbcTransactionRepositoryTest {
+
+    private static final LocalDateTime DATE_TIME = LocalDateTime.of(2025, 3, 15, 12, 0);
+
+    private static final Money AMOUNT = Money.ofMinor(100_00);
+
+    @Container
+    @SuppressWarnings("resource")
+    private static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>(POSTGRES)
+                    .withDatabaseName(DB_NAME)
+                    .withUsername(DB_USERNAME)
+                    .withPassword(DB_PASSWORD);
+
+    private static JdbcTemplate jdbc;
+
+    private static DatabaseClient databaseClient;
+
+    private R2dbcTransactionRepository repository;
+
+    @BeforeAll
+    static void migrate() {
+        jdbc = new JdbcTemplate(
+                new DriverManagerDataSource(
+                        postgres.getJdbcUrl(),
+                        postgres.getUsername(),
+                        postgres.getPassword()
+                )
+        );
+        Migrations.applyAll(jdbc);
+        databaseClient = DatabaseClient.create(ConnectionFactories.get(ConnectionFactoryOptions.builder()
+                .option(ConnectionFactoryOptions.DRIVER, "postgresql")
+                .option(ConnectionFactoryOptions.HOST, postgres.getHost())
+                .option(ConnectionFactoryOptions.PORT, postgres.getFirstMappedPort())
+                .option(ConnectionFactoryOptions.DATABASE, DB_NAME)
+                .option(ConnectionFactoryOptions.USER, DB_USERNAME)
+                .option(ConnectionFactoryOptions.PASSWORD, DB_PASSWORD)
+                .build()));
+    }
+
+    @BeforeEach
+    void setup() {
+        repository = new R2dbcTransactionRepository(databaseClient);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.execute("TRUNCATE TABLE transaction, transaction_daily_rollup RESTART IDENTITY");
+    }
+
+    @Test
+    void shouldSaveAndReturnGeneratedId() {
+        StepVerifier.create(repository.save(new Transaction(null, AMOUNT, FOOD, DATE_TIME)))
+                .expectNext(new Transaction(1L, AMOUNT, FOOD, DATE_TIME))
+                .verifyComplete();
+
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM transaction", Integer.class));
+    }
+
+    @Test
+    void shouldFindById() {
+        Transaction saved = repository.save(new Transaction(null, AMOUNT, FOOD, DATE_TIME)).block();
+
+        StepVerifier.create(repository.findById(ACCOUNT_ID, saved.getTransactionId()))
+                .expectNext(saved)
+                .verifyComplete();
+        StepVerifier.create(repository.findById(ACCOUNT_ID, saved.getTransactionId() + 1))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldStreamAllTransactions() {
+        for (int i = 0; i < 1200; i++) {
+            repository.save(new Transaction(null, AMOUNT, FOOD, DATE_TIME.plusMinutes(i))).block();
+        }
+
+        StepVerifier.create(repository.findAll(ACCOUNT_ID), 10)
+                .expectNextCount(10)
+                .thenRequest(Long.MAX_VALUE)
+                .expectNextCount(1190)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldUpdate() {
+        Transaction saved = repository.save(new Transaction(null, AMOUNT, FOOD, DATE_TIME)).block();
+        saved.setCategory(ANOTHER);
+
+        StepVerifier.create(repository.update(saved)).verifyComplete();
+
+        assertEquals(ANOTHER, jdbc.queryForObject(
+                "SELECT c.name FROM transaction t JOIN category c ON c.category_id = t.category_id", String.class));
+    }
+
+    @Test
+    void shouldDeleteById() {
+        Transaction saved = repository.save(new Transaction(null, AMOUNT, FOOD, DATE_TIME)).block();
+
+        StepVerifier.create(repository.deleteById(ACCOUNT_ID, saved.getTransactionId())).verifyComplete();
+
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM transaction", Integer.class));
+    }
+
+    @Test
+    void shouldRewritePlaceholdersToNativeMarkers() {
+        assertEquals("UPDATE t SET a = $1, b = $2 WHERE id = $3",
+                R2dbcTransactionRepository.nativeMarkers("UPDATE t SET a = ?, b = ? WHERE id = ?"));
+    }
+}
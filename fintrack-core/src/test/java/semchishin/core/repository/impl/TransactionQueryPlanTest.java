@@ -0,0 +1,215 @@
+package semchishin.core.repository.impl;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import semchishin.core.model.Money;
+import semchishin.core.model.TimeBucket;
+import semchishin.core.model.TransactionFilter;
+import semchishin.core.repository.SqlQueries;
+import semchishin.core.repository.WhereClause;
+import semchishin.core.util.Migrations;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static semchishin.core.util.Constants.ACCOUNT_ID;
+import static semchishin.core.util.TestcontainersConstants.DB_NAME;
+import static semchishin.core.util.TestcontainersConstants.DB_PASSWORD;
+import static semchishin.core.util.TestcontainersConstants.DB_USERNAME;
+import static semchishin.core.util.TestcontainersConstants.POSTGRES;
+
+/**
+ * Asserts with {@code EXPLAIN} that the listing and aggregate queries are served by the indexes,
+ * starting at the range of their account, that date predicates prune the monthly partitions,
+ * and that searches read the trigram index of the notes.
+ */
+@Testcontainers
+@Execution(ExecutionMode.SAME_THREAD)
+class TransactionQueryPlanTest {
+
+    private static final String TABLE_NAME = "transaction";
+
+    private static final int ROWS = 200_000;
+
+    private static final int ACCOUNTS = 4;
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private static final YearMonth LAST_MONTH = YearMonth.from(START.plusMinutes(ROWS)).plusMonths(1);
+
+    private static final String SEQ_SCAN = "Seq Scan on " + TABLE_NAME;
+
+    @Container
+    @SuppressWarnings("resource")
+    private static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>(POSTGRES)
+                    .withDatabaseName(DB_NAME)
+                    .withUsername(DB_USERNAME)
+                    .withPassword(DB_PASSWORD);
+
+    private static JdbcTemplate jdbc;
+
+    private static CategoryDictionary categoryDictionary;
+
+    @BeforeAll
+    static void setup() {
+        jdbc = new JdbcTemplate(
+                new DriverManagerDataSource(
+                        postgres.getJdbcUrl(),
+                        postgres.getUsername(),
+                        postgres.getPassword()
+                )
+        );
+        Migrations.applyAll(jdbc);
+        categoryDictionary = new CategoryDictionary(jdbc);
+        DefaultTransactionPartitionRepository partitionRepository = new DefaultTransactionPartitionRepository(jdbc);
+        for (YearMonth month = YearMonth.from(START); month.isBefore(LAST_MONTH); month = month.plusMonths(1)) {
+            partitionRepository.createPartition(month);
+        }
+        jdbc.update("INSERT INTO " + TABLE_NAME + " (account_id, amount, category_id, created_at, note) "
+                + "SELECT g % ? + 1, round((random() * 200 - 100)::numeric, 2), "
+                + "category_id_of('category-' || (g % 50)), ?::timestamp + g * interval '1 minute', "
+                + "'note ' || md5(g::text) FROM generate_series(1, ?) g", ACCOUNTS, START, ROWS);
+        jdbc.execute("VACUUM ANALYZE " + TABLE_NAME);
+    }
+
+    @Test
+    void firstPageShouldUseIndex() {
+        String plan = explain(SqlQueries.SELECT_PAGE, whereOf(null), 50);
+
+        assertThat(plan).contains("Index").doesNotContain(SEQ_SCAN).doesNotContain("Sort");
+    }
+
+    @Test
+    void accountShouldLeadTheIndexCondition() {
+        String plan = explain(SqlQueries.SELECT_PAGE, whereOf(null), 50);
+
+        assertThat(plan).containsPattern("Index Cond: \\(+account_id = ").doesNotContain("Filter: (account_id");
+    }
+
+    @Test
+    void nextPageShouldSeekIndex() {
+        WhereClause where = whereOf(null)
+                .and(SqlQueries.SEEK_AFTER, START.plusMinutes(ROWS / 2), START.plusMinutes(ROWS / 2), (long) ROWS / 2);
+
+        String plan = explain(SqlQueries.SELECT_PAGE, where, 50);
+
+        assertThat(plan).contains("Index").doesNotContain(SEQ_SCAN).doesNotContain("Sort");
+    }
+
+    @Test
+    void categoryPageShouldUseCompositeIndex() {
+        WhereClause where = whereOf(TransactionFilter.builder().category("category-7").build());
+
+        String plan = explain(SqlQueries.SELECT_PAGE, where, 50);
+
+        assertThat(plan).contains("category_created_at").doesNotContain(SEQ_SCAN);
+    }
+
+    @Test
+    void dateRangeSummaryShouldUseIndexOnlyScan() {
+        WhereClause where = whereOf(TransactionFilter.builder()
+                .from(START.plusDays(10))
+                .to(START.plusDays(11))
+                .build());
+
+        String plan = explain(String.format(SqlQueries.SELECT_SUMMARY, TABLE_NAME, where.sql()), aggregateArgs(where));
+
+        assertThat(plan).contains("Index Only Scan").doesNotContain(SEQ_SCAN);
+    }
+
+    @Test
+    void categoryTimeSeriesShouldUseIndexOnlyScan() {
+        WhereClause where = whereOf(TransactionFilter.builder()
+                .category("category-7")
+                .minAmount(BigDecimal.ZERO)
+                .build());
+
+        String plan = explain(
+                String.format(SqlQueries.SELECT_TIME_SERIES, TimeBucket.DAY.field(), TABLE_NAME, where.sql()),
+                aggregateArgs(where));
+
+        assertThat(plan).contains("Index Only Scan").doesNotContain(SEQ_SCAN);
+    }
+
+    @Test
+    void dateRangeShouldPruneOtherPartitions() {
+        WhereClause where = whereOf(TransactionFilter.builder()
+                .from(START.plusDays(10))
+                .to(START.plusDays(11))
+                .build());
+
+        String plan = explain(SqlQueries.SELECT_PAGE, where, 50);
+
+        assertThat(plan).contains("transaction_y2024m01").doesNotContain("transaction_y2024m02");
+    }
+
+    @Test
+    void cursorShouldPruneNewerPartitions() {
+        LocalDateTime cursor = START.plusDays(40);
+        WhereClause where = whereOf(null).and(SqlQueries.SEEK_AFTER, cursor, cursor, Long.MAX_VALUE);
+
+        String plan = explain(SqlQueries.SELECT_PAGE, where, 50);
+
+        assertThat(plan).contains("transaction_y2024m02").doesNotContain("transaction_y2024m03");
+    }
+
+    @Test
+    void searchShouldUseTrigramIndexOfNotes() {
+        WhereClause where = whereOf(null).and(SqlQueries.SEARCH_MATCHES, new Integer[0], "%beef1%");
+        List<Object> args = new ArrayList<>(List.of(new Integer[0], new Integer[0], "beef1%"));
+        args.addAll(where.args());
+        args.add(50);
+
+        String plan = explain(String.format(SqlQueries.SELECT_SEARCH, TABLE_NAME, where.sql(), ""), args);
+
+        assertThat(plan).contains("Bitmap Index Scan").contains("note_idx").doesNotContain(SEQ_SCAN);
+    }
+
+    private static WhereClause whereOf(TransactionFilter filter) {
+        return WhereClause.of(ACCOUNT_ID, filter, categoryDictionary::findId);
+    }
+
+    private static String explain(String pageQuery, WhereClause where, int limit) {
+        List<Object> args = where.args();
+        args.add(limit);
+        return explain(String.format(pageQuery, TABLE_NAME, where.sql()), args);
+    }
+
+    /**
+     * Aggregates take the base currency as their first parameter.
+     */
+    private static List<Object> aggregateArgs(WhereClause where) {
+        List<Object> args = where.args();
+        args.addFirst(Money.DEFAULT_CURRENCY.getCurrencyCode());
+        return args;
+    }
+
+    private static String explain(String sql, List<Object> args) {
+        List<String> plan = jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement("EXPLAIN " + sql);
+            Object[] values = args.toArray();
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] instanceof Integer[] ids) {
+                    values[i] = con.createArrayOf("int4", ids);
+                }
+            }
+            new ArgumentPreparedStatementSetter(values).setValues(ps);
+            return ps;
+        }, (rs, rowNum) -> rs.getString(1));
+        return String.join("\n", plan);
+    }
+}
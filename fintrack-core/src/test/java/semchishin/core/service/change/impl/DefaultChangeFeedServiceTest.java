@@ -0,0 +1,213 @@
+package semchishin.core.service.change.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import semchishin.core.datasource.AccountRouter;
+import semchishin.core.model.ChangeBatch;
+import semchishin.core.model.ChangeFeedStatistics;
+import semchishin.core.model.ChangeOperation;
+import semchishin.core.model.TransactionChange;
+import semchishin.core.repository.impl.DefaultTransactionChangeRepository;
+import semchishin.core.service.change.TransactionChangeListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static semchishin.core.util.Constants.ACCOUNT_ID;
+import static semchishin.core.util.Constants.FOOD;
+import static semchishin.core.util.Constants.MONEY_100;
+
+@ExtendWith(SpringExtension.class)
+class DefaultChangeFeedServiceTest {
+
+    private static final String DEFAULT = AccountRouter.DEFAULT_ROUTE;
+
+    private static final String LARGE = "large";
+
+    private static final TransactionChange CHANGE1 = change(1);
+
+    private static final TransactionChange CHANGE2 = change(2);
+
+    @Mock
+    private DefaultTransactionChangeRepository repository;
+
+    @Mock
+    private ObjectProvider<TransactionChangeListener> listenerProvider;
+
+    @Mock
+    private TransactionChangeListener listener;
+
+    private DefaultChangeFeedService service;
+
+    @BeforeEach
+    void setUp() {
+        when(listenerProvider.orderedStream()).thenReturn(Stream.of(listener));
+        service = new DefaultChangeFeedService(repository, listenerProvider, 2, 168);
+        when(repository.routes()).thenReturn(Set.of(DEFAULT));
+    }
+
+    @AfterEach
+    void tearDown() {
+        verifyNoMoreInteractions(repository, listener);
+    }
+
+    @Test
+    void shouldPublishNewChangesInBatches() {
+        TransactionChange change3 = change(3);
+        when(repository.findHeadSequenceNumber(DEFAULT)).thenReturn(0L);
+        when(repository.findAfter(DEFAULT, 0, 2)).thenReturn(List.of(CHANGE1, CHANGE2));
+        when(repository.findAfter(DEFAULT, 2, 2)).thenReturn(List.of(change3));
+
+        service.publish();
+
+        verify(repository).findHeadSequenceNumber(DEFAULT);
+        verify(repository).sequencePending(DEFAULT);
+        verify(repository).findAfter(DEFAULT, 0, 2);
+        verify(repository).findAfter(DEFAULT, 2, 2);
+        verify(listener).onChanges(DEFAULT, List.of(CHANGE1, CHANGE2));
+        verify(listener).onChanges(DEFAULT, List.of(change3));
+        assertEquals(3, service.getStatistics().getHeadSequenceNumber());
+        assertEquals(3, service.getStatistics().getPublishedChanges());
+        verify(repository, times(3)).routes();
+    }
+
+    @Test
+    void shouldStartAtHeadAndSurviveFailingListener() {
+        when(repository.findHeadSequenceNumber(DEFAULT)).thenReturn(1L);
+        when(repository.findAfter(DEFAULT, 1, 2)).thenReturn(List.of(CHANGE2));
+        doThrow(new IllegalStateException()).when(listener).onChanges(eq(DEFAULT), anyList());
+
+        service.publish();
+        service.publish();
+
+        verify(repository).findHeadSequenceNumber(DEFAULT);
+        verify(repository, times(2)).sequencePending(DEFAULT);
+        verify(repository).findAfter(DEFAULT, 1, 2);
+        verify(repository).findAfter(DEFAULT, 2, 2);
+        verify(listener).onChanges(DEFAULT, List.of(CHANGE2));
+        assertEquals(2, service.getStatistics().getHeadSequenceNumber());
+        assertTrue(service.getStatistics().getMaxLagMillis() >= 0);
+        verify(repository, times(4)).routes();
+    }
+
+    @Test
+    void shouldReturnAvailableChangesWithoutWaiting() throws InterruptedException {
+        when(repository.findAfter(DEFAULT, 0, 500)).thenReturn(List.of(CHANGE1, CHANGE2));
+
+        ChangeBatch batch = service.poll(0, 500, Duration.ofMinutes(1));
+
+        verify(repository).findAfter(DEFAULT, 0, 500);
+        assertEquals(List.of(CHANGE1, CHANGE2), batch.getChanges());
+        assertEquals(2, batch.getLastSequenceNumber());
+    }
+
+    @Test
+    void shouldWaitUntilChangesArePublished() throws Exception {
+        when(repository.findHeadSequenceNumber(DEFAULT)).thenReturn(0L);
+        when(repository.findAfter(DEFAULT, 0, 500)).thenReturn(List.of()).thenReturn(List.of(CHANGE1));
+        when(repository.findAfter(DEFAULT, 0, 2)).thenReturn(List.of(CHANGE1));
+
+        CompletableFuture<ChangeBatch> poll = CompletableFuture.supplyAsync(() -> {
+            try {
+                return service.poll(0, 500, Duration.ofMinutes(1));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        verify(repository, timeout(5000)).findAfter(DEFAULT, 0, 500);
+        service.publish();
+        ChangeBatch batch = poll.get(5, TimeUnit.SECONDS);
+
+        verify(repository).routes();
+        verify(repository).findHeadSequenceNumber(DEFAULT);
+        verify(repository).sequencePending(DEFAULT);
+        verify(repository).findAfter(DEFAULT, 0, 2);
+        verify(repository, times(2)).findAfter(DEFAULT, 0, 500);
+        verify(listener).onChanges(DEFAULT, List.of(CHANGE1));
+        assertEquals(List.of(CHANGE1), batch.getChanges());
+        assertEquals(1, batch.getLastSequenceNumber());
+    }
+
+    @Test
+    void shouldReturnEmptyBatchWhenWaitRunsOut() throws InterruptedException {
+        when(repository.findAfter(DEFAULT, 5, 1)).thenReturn(List.of());
+
+        ChangeBatch batch = service.poll(5, 0, Duration.ofMillis(10));
+
+        verify(repository).findAfter(DEFAULT, 5, 1);
+        assertTrue(batch.getChanges().isEmpty());
+        assertEquals(5, batch.getLastSequenceNumber());
+    }
+
+    @Test
+    void shouldPublishEveryRouteByItsOwnPositions() throws InterruptedException {
+        when(repository.routes()).thenReturn(new LinkedHashSet<>(List.of(DEFAULT, LARGE)));
+        when(repository.findHeadSequenceNumber(DEFAULT)).thenReturn(0L);
+        when(repository.findHeadSequenceNumber(LARGE)).thenReturn(1L);
+        when(repository.findAfter(DEFAULT, 0, 2)).thenReturn(List.of(CHANGE1));
+        when(repository.findAfter(LARGE, 1, 2)).thenReturn(List.of(CHANGE2));
+        when(repository.findAfter(LARGE, 1, 500)).thenReturn(List.of(CHANGE2));
+
+        service.publish();
+        ChangeBatch batch = service.poll(LARGE, 1, 500, Duration.ofMinutes(1));
+        ChangeFeedStatistics statistics = service.getStatistics();
+
+        verify(repository, times(2)).routes();
+        verify(repository).findHeadSequenceNumber(DEFAULT);
+        verify(repository).findHeadSequenceNumber(LARGE);
+        verify(repository).sequencePending(DEFAULT);
+        verify(repository).sequencePending(LARGE);
+        verify(repository).findAfter(DEFAULT, 0, 2);
+        verify(repository).findAfter(LARGE, 1, 2);
+        verify(repository).findAfter(LARGE, 1, 500);
+        verify(listener).onChanges(DEFAULT, List.of(CHANGE1));
+        verify(listener).onChanges(LARGE, List.of(CHANGE2));
+        assertEquals(List.of(CHANGE2), batch.getChanges());
+        assertEquals(Map.of(DEFAULT, 1L, LARGE, 2L), statistics.getHeadSequenceNumbers());
+    }
+
+    @Test
+    void shouldKeepPublishingOtherRoutesWhenOneFails() {
+        when(repository.routes()).thenReturn(new LinkedHashSet<>(List.of(LARGE, DEFAULT)));
+        when(repository.findHeadSequenceNumber(LARGE)).thenThrow(new IllegalStateException());
+        when(repository.findHeadSequenceNumber(DEFAULT)).thenReturn(0L);
+        when(repository.findAfter(DEFAULT, 0, 2)).thenReturn(List.of(CHANGE1));
+
+        service.publish();
+
+        verify(repository).routes();
+        verify(repository).findHeadSequenceNumber(LARGE);
+        verify(repository).findHeadSequenceNumber(DEFAULT);
+        verify(repository).sequencePending(DEFAULT);
+        verify(repository).findAfter(DEFAULT, 0, 2);
+        verify(listener).onChanges(DEFAULT, List.of(CHANGE1));
+    }
+
+    private static TransactionChange change(long sequenceNumber) {
+        return new TransactionChange(sequenceNumber, ChangeOperation.INSERT, sequenceNumber, ACCOUNT_ID, MONEY_100,
+                FOOD, LocalDateTime.of(2025, 6, 15, 10, 0), Instant.now());
+    }
+}
@@ -0,0 +1,83 @@
+package semchishin.core.service.fx.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import semchishin.core.model.FxRate;
+import semchishin.core.model.FxRates;
+import semchishin.core.repository.impl.DefaultFxRateRepository;
+import semchishin.core.util.Constants;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+class DefaultFxRateServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 1);
+
+    private final FxRate usd = new FxRate(Constants.USD, DAY, new BigDecimal("95.50000000"));
+
+    @Mock
+    private DefaultFxRateRepository fxRateRepository;
+
+    private DefaultFxRateService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DefaultFxRateService(fxRateRepository, Constants.RUB);
+    }
+
+    @AfterEach
+    void tearDown() {
+        verifyNoMoreInteractions(fxRateRepository);
+    }
+
+    @Test
+    void shouldLoadRatesOnceAndKeepThemWhileUnchanged() {
+        when(fxRateRepository.findAll()).thenAnswer(invocation -> new ArrayList<>(List.of(usd,
+                new FxRate(Constants.RUB, DAY, BigDecimal.TEN))));
+
+        FxRates rates = service.getRates();
+
+        assertThat(service.getRates()).isSameAs(rates);
+        assertThat(service.refresh()).isSameAs(rates);
+        assertThat(rates.toList()).containsExactly(usd);
+        verify(fxRateRepository, times(2)).findAll();
+    }
+
+    @Test
+    void shouldReplaceRatesWhenChanged() {
+        when(fxRateRepository.findAll()).thenAnswer(invocation -> new ArrayList<>());
+        FxRates empty = service.getRates();
+        when(fxRateRepository.findAll()).thenAnswer(invocation -> new ArrayList<>(List.of(usd)));
+        when(fxRateRepository.saveAll(List.of(usd))).thenReturn(1);
+
+        assertThat(service.saveRates(List.of(usd))).isEqualTo(1);
+
+        assertThat(service.getRates()).isNotSameAs(empty);
+        assertThat(service.getRates().rateOn(Constants.USD, DAY)).isEqualByComparingTo("95.5");
+        verify(fxRateRepository, times(2)).findAll();
+        verify(fxRateRepository).saveAll(List.of(usd));
+    }
+
+    @Test
+    void shouldRejectInvalidRatesBeforeSaving() {
+        assertThatThrownBy(() -> service.saveRates(List.of(new FxRate("XXY", DAY, BigDecimal.ONE))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.saveRates(List.of(new FxRate(Constants.USD, DAY, BigDecimal.ZERO))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,58 @@
+package semchishin.core.service.partition;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import semchishin.core.repository.impl.DefaultTransactionPartitionRepository;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+class TransactionPartitionJobTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2025-06-15T10:00:00Z"), ZoneOffset.UTC);
+
+    @Mock
+    private DefaultTransactionPartitionRepository repository;
+
+    @AfterEach
+    void tearDown() {
+        verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    void shouldCreateCurrentAndFutureMonths() {
+        when(repository.createPartition(any())).thenReturn(true);
+
+        new TransactionPartitionJob(repository, CLOCK, 2, 0).maintain();
+
+        verify(repository).createPartition(YearMonth.of(2025, 6));
+        verify(repository).createPartition(YearMonth.of(2025, 7));
+        verify(repository).createPartition(YearMonth.of(2025, 8));
+    }
+
+    @Test
+    void shouldArchiveMonthsOutsideRetention() {
+        when(repository.findPartitionMonths()).thenReturn(List.of(
+                YearMonth.of(2025, 1), YearMonth.of(2025, 2), YearMonth.of(2025, 3), YearMonth.of(2025, 6)));
+        when(repository.archivePartition(any())).thenReturn(true);
+
+        new TransactionPartitionJob(repository, CLOCK, 0, 3).maintain();
+
+        verify(repository).createPartition(YearMonth.of(2025, 6));
+        verify(repository).findPartitionMonths();
+        verify(repository).archivePartition(YearMonth.of(2025, 1));
+        verify(repository).archivePartition(YearMonth.of(2025, 2));
+    }
+}
@@ -0,0 +1,136 @@
+package semchishin.core.service.search.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import semchishin.core.datasource.AccountRouter;
+import semchishin.core.datasource.StaticAccountRouter;
+import semchishin.core.model.CategorySuggestions;
+import semchishin.core.model.KeysetPage;
+import semchishin.core.model.PageCursor;
+import semchishin.core.model.Transaction;
+import semchishin.core.model.TransactionSearchHit;
+import semchishin.core.repository.impl.CategoryDictionary;
+import semchishin.core.repository.impl.DefaultTransactionRepository;
+import semchishin.core.util.Constants;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+class DefaultTransactionSearchServiceTest {
+
+    private static final LocalDateTime DATE_TIME = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private static final String LARGE = "large";
+
+    @Mock
+    private DefaultTransactionRepository transactionRepository;
+
+    @Mock
+    private CategoryDictionary categoryDictionary;
+
+    private DefaultTransactionSearchService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DefaultTransactionSearchService(transactionRepository, categoryDictionary,
+                new StaticAccountRouter(Map.of(Constants.OTHER_ACCOUNT_ID, LARGE)), 100, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        verifyNoMoreInteractions(transactionRepository, categoryDictionary);
+    }
+
+    @Test
+    void shouldReturnPageWithRankedCursorWhenMoreHitsExist() {
+        TransactionSearchHit first = hit(3L, TransactionSearchHit.RANK_EXACT);
+        TransactionSearchHit second = hit(2L, TransactionSearchHit.RANK_PREFIX);
+        TransactionSearchHit third = hit(1L, TransactionSearchHit.RANK_SUBSTRING);
+        when(transactionRepository.search(Constants.ACCOUNT_ID, "food", null, null, 3))
+                .thenReturn(List.of(first, second, third));
+
+        KeysetPage<Transaction> page = service.searchTransactions(Constants.ACCOUNT_ID, " food ", null, null, 2);
+
+        assertThat(page.getItems()).containsExactly(first.getTransaction(), second.getTransaction());
+        assertThat(page.getNextCursor()).isEqualTo(new PageCursor(DATE_TIME, 2L, TransactionSearchHit.RANK_PREFIX));
+        verify(transactionRepository).search(Constants.ACCOUNT_ID, "food", null, null, 3);
+    }
+
+    @Test
+    void shouldReturnLastPageWithoutCursor() {
+        PageCursor cursor = new PageCursor(DATE_TIME, 5L, TransactionSearchHit.RANK_EXACT);
+        TransactionSearchHit only = hit(4L, TransactionSearchHit.RANK_EXACT);
+        when(transactionRepository.search(Constants.ACCOUNT_ID, "food", null, cursor, 3))
+                .thenReturn(List.of(only));
+
+        KeysetPage<Transaction> page = service.searchTransactions(Constants.ACCOUNT_ID, "food", null, cursor, 2);
+
+        assertThat(page.getItems()).containsExactly(only.getTransaction());
+        assertThat(page.getNextCursor()).isNull();
+        verify(transactionRepository).search(Constants.ACCOUNT_ID, "food", null, cursor, 3);
+    }
+
+    @Test
+    void shouldRejectInvalidQueryAndListingCursor() {
+        assertThatThrownBy(() -> service.searchTransactions(Constants.ACCOUNT_ID, "  ", null, null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.searchTransactions(Constants.ACCOUNT_ID,
+                "x".repeat(DefaultTransactionSearchService.MAX_QUERY_LENGTH + 1), null, null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.searchTransactions(Constants.ACCOUNT_ID, "food", null,
+                new PageCursor(DATE_TIME, 1L), 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldLoadSuggestionsOnceUntilRefreshed() {
+        when(categoryDictionary.findNamesUsedBy(AccountRouter.DEFAULT_ROUTE, Constants.ACCOUNT_ID))
+                .thenReturn(List.of(Constants.FOOD, Constants.ANOTHER));
+
+        assertThat(service.suggestCategories(Constants.ACCOUNT_ID, "fo", 10)).containsExactly(Constants.FOOD);
+        assertThat(service.suggestCategories(Constants.ACCOUNT_ID, null, 1)).hasSize(1);
+        verify(categoryDictionary).findNamesUsedBy(AccountRouter.DEFAULT_ROUTE, Constants.ACCOUNT_ID);
+
+        when(categoryDictionary.findNamesUsedBy(AccountRouter.DEFAULT_ROUTE, Constants.ACCOUNT_ID))
+                .thenReturn(List.of(Constants.FOOD, "Football"));
+        CategorySuggestions refreshed = service.refreshSuggestions(Constants.ACCOUNT_ID);
+
+        assertThat(refreshed.size()).isEqualTo(2);
+        assertThat(service.suggestCategories(Constants.ACCOUNT_ID, "FO", 10))
+                .containsExactly(Constants.FOOD, "Football");
+        verify(categoryDictionary, times(2)).findNamesUsedBy(AccountRouter.DEFAULT_ROUTE, Constants.ACCOUNT_ID);
+    }
+
+    @Test
+    void shouldNotSuggestCategoryOfAnotherAccount() {
+        when(categoryDictionary.findNamesUsedBy(AccountRouter.DEFAULT_ROUTE, Constants.ACCOUNT_ID))
+                .thenReturn(List.of(Constants.FOOD));
+        when(categoryDictionary.findNamesUsedBy(LARGE, Constants.OTHER_ACCOUNT_ID))
+                .thenReturn(List.of(Constants.ANOTHER));
+
+        assertThat(service.suggestCategories(Constants.ACCOUNT_ID, "", 10)).containsExactly(Constants.FOOD);
+        assertThat(service.suggestCategories(Constants.OTHER_ACCOUNT_ID, "fo", 10)).isEmpty();
+        assertThat(service.suggestCategories(Constants.OTHER_ACCOUNT_ID, "", 10)).containsExactly(Constants.ANOTHER);
+        verify(categoryDictionary).findNamesUsedBy(AccountRouter.DEFAULT_ROUTE, Constants.ACCOUNT_ID);
+        verify(categoryDictionary).findNamesUsedBy(LARGE, Constants.OTHER_ACCOUNT_ID);
+    }
+
+    private static TransactionSearchHit hit(long id, int rank) {
+        Transaction transaction = new Transaction(id, Constants.MONEY_100, Constants.FOOD, DATE_TIME, 1,
+                Constants.ACCOUNT_ID);
+        return new TransactionSearchHit(transaction, rank);
+    }
+}
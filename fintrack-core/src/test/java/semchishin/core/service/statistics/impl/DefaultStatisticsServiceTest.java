@@ -0,0 +1,141 @@
+package semchishin.core.service.statistics.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import semchishin.core.datasource.AccountRouter;
+import semchishin.core.datasource.StaticAccountRouter;
+import semchishin.core.model.CategoryStatistics;
+import semchishin.core.model.TimeBucket;
+import semchishin.core.model.TimeSeriesPoint;
+import semchishin.core.model.TransactionFilter;
+import semchishin.core.model.TransactionSummary;
+import semchishin.core.repository.impl.DefaultTransactionRollupRepository;
+import semchishin.core.repository.impl.DefaultTransactionStatisticsRepository;
+import semchishin.core.service.fx.FxRateService;
+import semchishin.core.util.Constants;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+class DefaultStatisticsServiceTest {
+
+    @Mock
+    private DefaultTransactionStatisticsRepository repository;
+
+    @Mock
+    private DefaultTransactionRollupRepository rollupRepository;
+
+    @Mock
+    private LedgerSnapshotHolder snapshotHolder;
+
+    @Mock
+    private FxRateService fxRateService;
+
+    @Spy
+    private AccountRouter accountRouter = new StaticAccountRouter(Map.of(Constants.OTHER_ACCOUNT_ID, "large"));
+
+    @InjectMocks
+    private DefaultStatisticsService service;
+
+    private final TransactionFilter filter = TransactionFilter.builder().category(Constants.FOOD).build();
+
+    private final TransactionFilter amountFilter = TransactionFilter.builder()
+            .minAmount(Constants.BIG_DECIMAL_100)
+            .build();
+
+    private final TransactionSummary summary = new TransactionSummary(1, Constants.BIG_DECIMAL_100, BigDecimal.ZERO,
+            Constants.BIG_DECIMAL_100, Constants.BIG_DECIMAL_100, LocalDateTime.now());
+
+    @BeforeEach
+    void setUp() {
+        when(fxRateService.getRates()).thenReturn(Constants.NO_RATES);
+    }
+
+    @AfterEach
+    void tearDown() {
+        verifyNoMoreInteractions(repository, rollupRepository);
+    }
+
+    @Test
+    void shouldAnswerFromSnapshotWhenLoaded() {
+        LedgerSnapshot snapshot = new LedgerSnapshot.Builder(1_000, Constants.NO_RATES)
+                .append(1, Constants.ACCOUNT_ID, 100_00, Constants.RUB, Constants.FOOD,
+                        LedgerSnapshot.toMicros(LocalDateTime.of(2025, 1, 1, 0, 0)))
+                .build();
+        when(snapshotHolder.current()).thenReturn(Optional.of(snapshot));
+
+        assertThat(service.getSummary(Constants.ACCOUNT_ID, amountFilter).getCount()).isEqualTo(1);
+        assertThat(service.getCategoryStatistics(Constants.ACCOUNT_ID, filter)).containsExactly(
+                new CategoryStatistics(Constants.FOOD, 1, new BigDecimal("100.00")));
+        assertThat(service.getTimeSeries(Constants.ACCOUNT_ID, null, TimeBucket.DAY)).hasSize(1);
+    }
+
+    @Test
+    void shouldAggregateDedicatedAccountInItsDatabase() {
+        when(rollupRepository.summarize(Constants.OTHER_ACCOUNT_ID, filter, Constants.NO_RATES)).thenReturn(summary);
+
+        assertThat(service.getSummary(Constants.OTHER_ACCOUNT_ID, filter)).isEqualTo(summary);
+        verify(rollupRepository).summarize(Constants.OTHER_ACCOUNT_ID, filter, Constants.NO_RATES);
+        verifyNoMoreInteractions(snapshotHolder);
+    }
+
+    @Test
+    void shouldGetSummaryFromRollup() {
+        when(rollupRepository.summarize(Constants.ACCOUNT_ID, filter, Constants.NO_RATES)).thenReturn(summary);
+
+        assertThat(service.getSummary(Constants.ACCOUNT_ID, filter)).isEqualTo(summary);
+        verify(rollupRepository).summarize(Constants.ACCOUNT_ID, filter, Constants.NO_RATES);
+    }
+
+    @Test
+    void shouldGetSummaryFromRowsWhenFilteredByAmount() {
+        when(repository.summarize(Constants.ACCOUNT_ID, amountFilter, Constants.NO_RATES)).thenReturn(summary);
+
+        assertThat(service.getSummary(Constants.ACCOUNT_ID, amountFilter)).isEqualTo(summary);
+        verify(repository).summarize(Constants.ACCOUNT_ID, amountFilter, Constants.NO_RATES);
+    }
+
+    @Test
+    void shouldGetSummaryFromRowsWhenBoundIsNotMidnight() {
+        TransactionFilter timeFilter = TransactionFilter.builder().from(LocalDateTime.of(2025, 1, 1, 12, 30)).build();
+        when(repository.summarize(Constants.ACCOUNT_ID, timeFilter, Constants.NO_RATES)).thenReturn(summary);
+
+        assertThat(service.getSummary(Constants.ACCOUNT_ID, timeFilter)).isEqualTo(summary);
+        verify(repository).summarize(Constants.ACCOUNT_ID, timeFilter, Constants.NO_RATES);
+    }
+
+    @Test
+    void shouldGetCategoryStatistics() {
+        List<CategoryStatistics> expected = List.of(new CategoryStatistics(Constants.FOOD, 1, Constants.BIG_DECIMAL_100));
+        when(rollupRepository.summarizeByCategory(Constants.ACCOUNT_ID, null, Constants.NO_RATES)).thenReturn(expected);
+
+        assertThat(service.getCategoryStatistics(Constants.ACCOUNT_ID, null)).isEqualTo(expected);
+        verify(rollupRepository).summarizeByCategory(Constants.ACCOUNT_ID, null, Constants.NO_RATES);
+    }
+
+    @Test
+    void shouldGetTimeSeries() {
+        List<TimeSeriesPoint> expected = List.of(new TimeSeriesPoint(LocalDateTime.now(), 1,
+                Constants.BIG_DECIMAL_100, BigDecimal.ZERO));
+        when(repository.summarizeByTime(Constants.ACCOUNT_ID, amountFilter, TimeBucket.WEEK, Constants.NO_RATES))
+                .thenReturn(expected);
+
+        assertThat(service.getTimeSeries(Constants.ACCOUNT_ID, amountFilter, TimeBucket.WEEK)).isEqualTo(expected);
+        verify(repository).summarizeByTime(Constants.ACCOUNT_ID, amountFilter, TimeBucket.WEEK, Constants.NO_RATES);
+    }
+}
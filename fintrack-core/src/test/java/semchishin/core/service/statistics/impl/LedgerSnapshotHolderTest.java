@@ -0,0 +1,164 @@
+package semchishin.core.service.statistics.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import semchishin.core.datasource.AccountRouter;
+import semchishin.core.model.CategoryStatistics;
+import semchishin.core.model.ChangeOperation;
+import semchishin.core.model.FxRate;
+import semchishin.core.model.FxRates;
+import semchishin.core.model.Money;
+import semchishin.core.model.TransactionChange;
+import semchishin.core.repository.impl.DefaultTransactionChangeRepository;
+import semchishin.core.repository.impl.DefaultTransactionRepository;
+import semchishin.core.service.fx.FxRateService;
+import semchishin.core.util.Constants;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static semchishin.core.util.Constants.ACCOUNT_ID;
+
+@ExtendWith(SpringExtension.class)
+class LedgerSnapshotHolderTest {
+
+    private static final String LARGE = "large";
+
+    private static final long CREATED_AT = LedgerSnapshot.toMicros(LocalDateTime.of(2025, 1, 1, 0, 0));
+
+    @Mock
+    private DefaultTransactionRepository repository;
+
+    @Mock
+    private DefaultTransactionChangeRepository changeRepository;
+
+    @Mock
+    private FxRateService fxRateService;
+
+    @BeforeEach
+    void setUp() {
+        when(fxRateService.getRates()).thenReturn(Constants.NO_RATES);
+    }
+
+    @AfterEach
+    void tearDown() {
+        verifyNoMoreInteractions(repository, changeRepository);
+    }
+
+    @Test
+    void shouldLoadOnFirstTailAndApplyChangesOfSharedDatabaseAfterwards() {
+        LedgerSnapshotHolder holder = new LedgerSnapshotHolder(repository, changeRepository, fxRateService, true, 1_000);
+        when(changeRepository.findHeadSequenceNumber()).thenReturn(10L);
+        doAnswer(invocation -> {
+            DefaultTransactionRepository.ColumnarRowConsumer consumer = invocation.getArgument(1);
+            consumer.accept(1, ACCOUNT_ID, 100_00, Constants.RUB, Constants.FOOD, CREATED_AT);
+            consumer.accept(2, ACCOUNT_ID, 50_00, Constants.RUB, Constants.FOOD, CREATED_AT);
+            return null;
+        }).when(repository).forEachColumnar(eq(0L), any());
+
+        assertThat(holder.current()).isEmpty();
+        holder.tail();
+        LedgerSnapshot loaded = holder.current().orElseThrow();
+        holder.onChanges(AccountRouter.DEFAULT_ROUTE, List.of(
+                change(10, ChangeOperation.INSERT, 2, 50_00, Constants.FOOD),
+                change(11, ChangeOperation.INSERT, 3, 25_00, Constants.ANOTHER),
+                change(12, ChangeOperation.UPDATE, 1, 70_00, Constants.ANOTHER),
+                change(13, ChangeOperation.DELETE, 2, 50_00, Constants.FOOD)));
+        holder.onChanges(LARGE, List.of(change(20, ChangeOperation.INSERT, 4, 10_00, Constants.FOOD)));
+        holder.tail();
+
+        assertThat(loaded.size()).isEqualTo(2);
+        assertThat(loaded.summarize(ACCOUNT_ID, null).getIncome()).isEqualTo(new BigDecimal("150.00"));
+        LedgerSnapshot changed = holder.current().orElseThrow();
+        assertThat(changed.size()).isEqualTo(2);
+        assertThat(changed.summarizeByCategory(ACCOUNT_ID, null)).containsExactly(
+                new CategoryStatistics(Constants.ANOTHER, 2, new BigDecimal("95.00")));
+        verify(changeRepository).findHeadSequenceNumber();
+        verify(repository).forEachColumnar(eq(0L), any());
+    }
+
+    @Test
+    void shouldReloadWhenChangesWereMissed() {
+        LedgerSnapshotHolder holder = new LedgerSnapshotHolder(repository, changeRepository, fxRateService, true, 1_000);
+        when(changeRepository.findHeadSequenceNumber()).thenReturn(10L, 20L);
+        holder.tail();
+
+        holder.onChanges(AccountRouter.DEFAULT_ROUTE, List.of(change(15, ChangeOperation.INSERT, 1, 1_00, Constants.FOOD)));
+        holder.tail();
+        holder.onChanges(AccountRouter.DEFAULT_ROUTE, List.of(change(21, ChangeOperation.INSERT, 2, 1_00, Constants.FOOD)));
+        holder.tail();
+
+        assertThat(holder.current().orElseThrow().size()).isEqualTo(1);
+        verify(changeRepository, times(2)).findHeadSequenceNumber();
+        verify(repository, times(2)).forEachColumnar(eq(0L), any());
+    }
+
+    @Test
+    void shouldReplaceSnapshotOnReload() {
+        LedgerSnapshotHolder holder = new LedgerSnapshotHolder(repository, changeRepository, fxRateService, true, 1_000);
+        holder.tail();
+        LedgerSnapshot first = holder.current().orElseThrow();
+
+        holder.reload();
+
+        assertThat(holder.current()).containsInstanceOf(LedgerSnapshot.class);
+        assertThat(holder.current().orElseThrow()).isNotSameAs(first);
+        verify(changeRepository, times(2)).findHeadSequenceNumber();
+        verify(repository, times(2)).forEachColumnar(eq(0L), any());
+    }
+
+    @Test
+    void shouldReloadWhenRatesChangeAndDropWithoutRate() {
+        LedgerSnapshotHolder holder = new LedgerSnapshotHolder(repository, changeRepository, fxRateService, true, 1_000);
+        doAnswer(invocation -> {
+            DefaultTransactionRepository.ColumnarRowConsumer consumer = invocation.getArgument(1);
+            consumer.accept(1, ACCOUNT_ID, 1_00, Constants.USD, Constants.FOOD, CREATED_AT);
+            return null;
+        }).when(repository).forEachColumnar(eq(0L), any());
+        holder.tail();
+        assertThat(holder.current()).isEmpty();
+        holder.tail();
+
+        when(fxRateService.getRates()).thenReturn(FxRates.of(Money.DEFAULT_CURRENCY, List.of(
+                new FxRate(Constants.USD, LocalDate.of(2025, 1, 1), new BigDecimal("90")))));
+        holder.tail();
+
+        assertThat(holder.current().orElseThrow().summarize(ACCOUNT_ID, null).getIncome())
+                .isEqualTo(new BigDecimal("90.00"));
+        verify(changeRepository, times(2)).findHeadSequenceNumber();
+        verify(repository, times(2)).forEachColumnar(eq(0L), any());
+    }
+
+    @Test
+    void shouldNotLoadWhenDisabled() {
+        LedgerSnapshotHolder holder = new LedgerSnapshotHolder(repository, changeRepository, fxRateService, false, 1_000);
+
+        holder.tail();
+        holder.reload();
+        holder.onChanges(AccountRouter.DEFAULT_ROUTE, List.of(change(1, ChangeOperation.INSERT, 1, 1_00, Constants.FOOD)));
+        holder.tail();
+
+        assertThat(holder.current()).isEmpty();
+    }
+
+    private static TransactionChange change(long sequenceNumber, ChangeOperation operation, long transactionId,
+                                            long amountMinor, String category) {
+        return new TransactionChange(sequenceNumber, operation, transactionId, ACCOUNT_ID, Money.ofMinor(amountMinor),
+                category, LedgerSnapshot.toDateTime(CREATED_AT), Instant.EPOCH);
+    }
+}
@@ -0,0 +1,253 @@
+package semchishin.core.service.statistics.impl;
+
+import org.junit.jupiter.api.Test;
+import semchishin.core.exception.FxRateNotFoundException;
+import semchishin.core.model.CategoryStatistics;
+import semchishin.core.model.FxRate;
+import semchishin.core.model.FxRates;
+import semchishin.core.model.Money;
+import semchishin.core.model.TimeBucket;
+import semchishin.core.model.TimeSeriesPoint;
+import semchishin.core.model.TransactionFilter;
+import semchishin.core.model.TransactionSummary;
+import semchishin.core.util.Constants;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static semchishin.core.util.Constants.ACCOUNT_ID;
+import static semchishin.core.util.Constants.OTHER_ACCOUNT_ID;
+
+class LedgerSnapshotTest {
+
+    private static final LocalDateTime JAN_1 = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private static final LocalDateTime JAN_31 = LocalDateTime.of(2025, 1, 31, 23, 59, 59, 123_456_000);
+
+    private static final LocalDateTime FEB_3 = LocalDateTime.of(2025, 2, 3, 10, 0);
+
+    private static LedgerSnapshot snapshot(int parallelThreshold) {
+        return new LedgerSnapshot.Builder(parallelThreshold, Constants.NO_RATES)
+                .append(1, ACCOUNT_ID, 100_00, Constants.RUB, Constants.FOOD, LedgerSnapshot.toMicros(JAN_1))
+                .append(2, ACCOUNT_ID, -25_50, Constants.RUB, Constants.FOOD, LedgerSnapshot.toMicros(JAN_31))
+                .append(3, ACCOUNT_ID, 1_000_00, Constants.RUB, Constants.ANOTHER, LedgerSnapshot.toMicros(FEB_3))
+                .append(4, ACCOUNT_ID, -10_01, Constants.RUB, null, LedgerSnapshot.toMicros(FEB_3))
+                .build();
+    }
+
+    @Test
+    void shouldSummarizeAllRows() {
+        TransactionSummary summary = snapshot(1_000).summarize(ACCOUNT_ID, null);
+
+        assertThat(summary.getCount()).isEqualTo(4);
+        assertThat(summary.getIncome()).isEqualTo(new BigDecimal("1100.00"));
+        assertThat(summary.getExpense()).isEqualTo(new BigDecimal("-35.51"));
+        assertThat(summary.getBalance()).isEqualTo(new BigDecimal("1064.49"));
+        assertThat(summary.getAverage()).isEqualTo(new BigDecimal("1064.49").divide(BigDecimal.valueOf(4), 16,
+                RoundingMode.HALF_UP));
+        assertThat(summary.getLastCreatedAt()).isEqualTo(FEB_3);
+    }
+
+    @Test
+    void shouldApplyFilterBounds() {
+        TransactionFilter filter = TransactionFilter.builder()
+                .category(Constants.FOOD)
+                .minAmount(new BigDecimal("-25.505"))
+                .to(JAN_31)
+                .build();
+
+        TransactionSummary summary = snapshot(1_000).summarize(ACCOUNT_ID, filter);
+
+        assertThat(summary.getCount()).isEqualTo(1);
+        assertThat(summary.getBalance()).isEqualTo(new BigDecimal("100.00"));
+        assertThat(summary.getLastCreatedAt()).isEqualTo(JAN_1);
+    }
+
+    @Test
+    void shouldSummarizeOnlyRowsOfTheAccount() {
+        LedgerSnapshot single = snapshot(1_000);
+        LedgerSnapshot shared = new LedgerSnapshot.Builder(1, Constants.NO_RATES)
+                .append(1, ACCOUNT_ID, 100_00, Constants.RUB, Constants.FOOD, LedgerSnapshot.toMicros(JAN_1))
+                .append(2, OTHER_ACCOUNT_ID, -25_50, Constants.RUB, Constants.FOOD, LedgerSnapshot.toMicros(JAN_31))
+                .append(3, OTHER_ACCOUNT_ID, 7_00, Constants.RUB, Constants.ANOTHER, LedgerSnapshot.toMicros(FEB_3))
+                .build();
+
+        assertThat(single.summarize(OTHER_ACCOUNT_ID, null).getCount()).isZero();
+        assertThat(shared.summarize(ACCOUNT_ID, null).getBalance()).isEqualTo(new BigDecimal("100.00"));
+        assertThat(shared.summarize(OTHER_ACCOUNT_ID, null).getBalance()).isEqualTo(new BigDecimal("-18.50"));
+        assertThat(shared.summarizeByCategory(OTHER_ACCOUNT_ID, null)).containsExactlyInAnyOrder(
+                new CategoryStatistics(Constants.FOOD, 1, new BigDecimal("-25.50")),
+                new CategoryStatistics(Constants.ANOTHER, 1, new BigDecimal("7.00")));
+        assertThat(shared.summarizeByTime(ACCOUNT_ID, null, TimeBucket.MONTH))
+                .extracting(TimeSeriesPoint::getCount)
+                .containsExactly(1L);
+    }
+
+    @Test
+    void shouldReturnEmptySummaryForUnknownCategory() {
+        TransactionSummary summary = snapshot(1_000)
+                .summarize(ACCOUNT_ID, TransactionFilter.builder().category("unknown").build());
+
+        assertThat(summary.getCount()).isZero();
+        assertThat(summary.getAverage()).isNull();
+        assertThat(summary.getLastCreatedAt()).isNull();
+    }
+
+    @Test
+    void shouldGroupByCategoryWithUncategorizedLast() {
+        assertThat(snapshot(1_000).summarizeByCategory(ACCOUNT_ID, null)).containsExactly(
+                new CategoryStatistics(Constants.ANOTHER, 1, new BigDecimal("1000.00")),
+                new CategoryStatistics(Constants.FOOD, 2, new BigDecimal("74.50")),
+                new CategoryStatistics(null, 1, new BigDecimal("-10.01"))
+        );
+    }
+
+    @Test
+    void shouldGroupByMonthAndWeek() {
+        assertThat(snapshot(1_000).summarizeByTime(ACCOUNT_ID, null, TimeBucket.MONTH)).containsExactly(
+                new TimeSeriesPoint(JAN_1, 2, new BigDecimal("100.00"), new BigDecimal("-25.50")),
+                new TimeSeriesPoint(LocalDateTime.of(2025, 2, 1, 0, 0), 2,
+                        new BigDecimal("1000.00"), new BigDecimal("-10.01"))
+        );
+        assertThat(snapshot(1_000).summarizeByTime(ACCOUNT_ID, null, TimeBucket.WEEK))
+                .extracting(TimeSeriesPoint::getBucketStart)
+                .containsExactly(LocalDateTime.of(2024, 12, 30, 0, 0), LocalDateTime.of(2025, 1, 27, 0, 0),
+                        LocalDateTime.of(2025, 2, 3, 0, 0));
+    }
+
+    @Test
+    void shouldGiveSameResultsWhenScannedInParallel() {
+        TransactionFilter filter = TransactionFilter.builder().from(JAN_31).build();
+
+        assertThat(snapshot(1).summarize(ACCOUNT_ID, filter)).isEqualTo(snapshot(1_000).summarize(ACCOUNT_ID, filter));
+        assertThat(snapshot(1).summarizeByCategory(ACCOUNT_ID, filter))
+                .isEqualTo(snapshot(1_000).summarizeByCategory(ACCOUNT_ID, filter));
+        assertThat(snapshot(1).summarizeByTime(ACCOUNT_ID, filter, TimeBucket.DAY))
+                .isEqualTo(snapshot(1_000).summarizeByTime(ACCOUNT_ID, filter, TimeBucket.DAY));
+    }
+
+    @Test
+    void shouldKeepEarlierViewUnchangedWhileAppending() {
+        LedgerSnapshot.Builder builder = new LedgerSnapshot.Builder(1_000, Constants.NO_RATES);
+        builder.append(1, ACCOUNT_ID, 1_00, Constants.RUB, Constants.FOOD, LedgerSnapshot.toMicros(JAN_1));
+        LedgerSnapshot first = builder.build();
+        for (int i = 2; i <= 5_000; i++) {
+            builder.append(i, ACCOUNT_ID, 1_00, Constants.RUB, "category-" + i, LedgerSnapshot.toMicros(JAN_1));
+        }
+
+        assertThat(first.summarizeByCategory(ACCOUNT_ID, null)).containsExactly(
+                new CategoryStatistics(Constants.FOOD, 1, new BigDecimal("1.00")));
+        assertThat(builder.build().size()).isEqualTo(5_000);
+        assertThat(builder.lastTransactionId()).isEqualTo(5_000);
+    }
+
+    @Test
+    void shouldRemoveRowsWithoutChangingEarlierViews() {
+        LedgerSnapshot.Builder builder = new LedgerSnapshot.Builder(1, Constants.NO_RATES)
+                .append(1, ACCOUNT_ID, 100_00, Constants.RUB, Constants.FOOD, LedgerSnapshot.toMicros(JAN_1))
+                .append(2, ACCOUNT_ID, -25_50, Constants.RUB, Constants.FOOD, LedgerSnapshot.toMicros(JAN_31))
+                .append(3, ACCOUNT_ID, 1_000_00, Constants.RUB, Constants.ANOTHER, LedgerSnapshot.toMicros(FEB_3));
+        LedgerSnapshot first = builder.build();
+
+        assertThat(builder.remove(3)).isTrue();
+        assertThat(builder.remove(2)).isTrue();
+        builder.append(2, ACCOUNT_ID, -30_00, Constants.RUB, Constants.ANOTHER, LedgerSnapshot.toMicros(JAN_31));
+        LedgerSnapshot second = builder.build();
+        assertThat(builder.remove(2)).isTrue();
+        assertThat(builder.remove(2)).isFalse();
+        assertThat(builder.remove(42)).isFalse();
+        LedgerSnapshot third = builder.build();
+
+        assertThat(first.size()).isEqualTo(3);
+        assertThat(first.summarize(ACCOUNT_ID, null).getLastCreatedAt()).isEqualTo(FEB_3);
+        assertThat(second.size()).isEqualTo(2);
+        assertThat(second.summarize(ACCOUNT_ID, null).getLastCreatedAt()).isEqualTo(JAN_31);
+        assertThat(second.summarizeByCategory(ACCOUNT_ID, null)).containsExactly(
+                new CategoryStatistics(Constants.ANOTHER, 1, new BigDecimal("-30.00")),
+                new CategoryStatistics(Constants.FOOD, 1, new BigDecimal("100.00")));
+        assertThat(third.size()).isEqualTo(1);
+        assertThat(third.summarizeByTime(ACCOUNT_ID, null, TimeBucket.MONTH)).containsExactly(
+                new TimeSeriesPoint(JAN_1, 1, new BigDecimal("100.00"), new BigDecimal("0.00")));
+    }
+
+    @Test
+    void shouldConvertAmountsWithRateOfTheirDay() {
+        FxRates rates = FxRates.of(Money.DEFAULT_CURRENCY, List.of(
+                new FxRate(Constants.USD, JAN_1.toLocalDate(), new BigDecimal("100")),
+                new FxRate(Constants.USD, FEB_3.toLocalDate(), new BigDecimal("90.5"))
+        ));
+        LedgerSnapshot snapshot = new LedgerSnapshot.Builder(1_000, rates)
+                .append(1, ACCOUNT_ID, 100_00, Constants.RUB, Constants.FOOD, LedgerSnapshot.toMicros(JAN_1))
+                .append(2, ACCOUNT_ID, 2_00, Constants.USD, Constants.FOOD, LedgerSnapshot.toMicros(JAN_31))
+                .append(3, ACCOUNT_ID, -1_00, Constants.USD, Constants.ANOTHER, LedgerSnapshot.toMicros(FEB_3))
+                .build();
+
+        TransactionSummary summary = snapshot.summarize(ACCOUNT_ID, null);
+
+        assertThat(summary.getIncome()).isEqualTo(new BigDecimal("300.00"));
+        assertThat(summary.getExpense()).isEqualTo(new BigDecimal("-90.50"));
+        assertThat(snapshot.summarize(ACCOUNT_ID, TransactionFilter.builder().minAmount(new BigDecimal("50")).build())
+                .getCount())
+                .isEqualTo(1);
+        assertThatThrownBy(() -> new LedgerSnapshot.Builder(1_000, rates)
+                .append(1, ACCOUNT_ID, 1_00, Constants.USD, Constants.FOOD,
+                        LedgerSnapshot.toMicros(JAN_1.minusDays(1))))
+                .isInstanceOf(FxRateNotFoundException.class);
+    }
+
+    @Test
+    void shouldFilterAmountsInFractionDigitsOfTheirCurrency() {
+        FxRates rates = FxRates.of(Money.DEFAULT_CURRENCY, List.of(
+                new FxRate("JPY", JAN_1.toLocalDate(), new BigDecimal("0.6")),
+                new FxRate("BHD", JAN_1.toLocalDate(), new BigDecimal("250"))
+        ));
+        LedgerSnapshot.Builder builder = new LedgerSnapshot.Builder(1_000, rates)
+                .append(1, ACCOUNT_ID, 5_00, Constants.RUB, Constants.FOOD, LedgerSnapshot.toMicros(JAN_1));
+        LedgerSnapshot before = builder.build();
+        LedgerSnapshot after = builder
+                .append(2, ACCOUNT_ID, 1_500, "BHD", Constants.FOOD, LedgerSnapshot.toMicros(JAN_31))
+                .append(3, ACCOUNT_ID, 2, "JPY", Constants.FOOD, LedgerSnapshot.toMicros(FEB_3))
+                .append(4, ACCOUNT_ID, 7_00, Constants.RUB, Constants.FOOD, LedgerSnapshot.toMicros(FEB_3))
+                .build();
+        TransactionFilter filter = TransactionFilter.builder()
+                .minAmount(new BigDecimal("1.5"))
+                .maxAmount(new BigDecimal("5"))
+                .build();
+
+        TransactionSummary summary = after.summarize(ACCOUNT_ID, filter);
+
+        assertThat(summary.getCount()).isEqualTo(3);
+        assertThat(summary.getIncome()).isEqualTo(new BigDecimal("381.20"));
+        assertThat(after.summarize(ACCOUNT_ID, TransactionFilter.builder().minAmount(new BigDecimal("1.6")).build())
+                .getIncome())
+                .isEqualTo(new BigDecimal("13.20"));
+        assertThat(before.summarize(ACCOUNT_ID, filter).getIncome()).isEqualTo(new BigDecimal("5.00"));
+    }
+
+    @Test
+    void shouldComputeBucketKeysLikeDateTrunc() {
+        for (LocalDate day = LocalDate.of(1899, 12, 25); day.isBefore(LocalDate.of(2101, 1, 8)); day = day.plusDays(1)) {
+            long micros = LedgerSnapshot.toMicros(day.atTime(12, 0));
+            assertThat(LedgerSnapshot.bucketStart(TimeBucket.MONTH, LedgerSnapshot.bucketKey(TimeBucket.MONTH, micros)))
+                    .isEqualTo(day.withDayOfMonth(1).atStartOfDay());
+            assertThat(LedgerSnapshot.bucketStart(TimeBucket.WEEK, LedgerSnapshot.bucketKey(TimeBucket.WEEK, micros)))
+                    .isEqualTo(day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay());
+        }
+    }
+
+    @Test
+    void shouldRoundAmountBoundsInward() {
+        assertThat(LedgerSnapshot.minorUnits(new BigDecimal("1.001"), 2, RoundingMode.CEILING)).isEqualTo(101);
+        assertThat(LedgerSnapshot.minorUnits(new BigDecimal("1.009"), 2, RoundingMode.FLOOR)).isEqualTo(100);
+        assertThat(LedgerSnapshot.minorUnits(new BigDecimal("1e30"), 2, RoundingMode.FLOOR)).isEqualTo(Long.MAX_VALUE);
+        assertThat(LedgerSnapshot.toDateTime(LedgerSnapshot.toMicros(JAN_31))).isEqualTo(JAN_31);
+        assertThat(LedgerSnapshot.toDateTime(-1)).isEqualTo(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000));
+    }
+}
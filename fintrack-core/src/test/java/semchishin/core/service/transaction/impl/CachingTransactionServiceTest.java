@@ -0,0 +1,134 @@
+package semchishin.core.service.transaction.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import semchishin.core.model.Transaction;
+import semchishin.core.model.TransactionPatch;
+import semchishin.core.util.Constants;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+class CachingTransactionServiceTest {
+
+    private static final int MAXIMUM_SIZE = 100;
+
+    private static final long TTL_SECONDS = 60;
+
+    @Mock
+    private DefaultTransactionService delegate;
+
+    private CachingTransactionService service;
+
+    private final Transaction transaction = new Transaction(
+            Constants.LONG_1,
+            Constants.MONEY_100,
+            Constants.FOOD,
+            LocalDateTime.now()
+    );
+
+    @BeforeEach
+    void setUp() {
+        service = new CachingTransactionService(delegate, MAXIMUM_SIZE, TTL_SECONDS);
+    }
+
+    @Test
+    void shouldServeRepeatedLookupsFromCache() {
+        when(delegate.findTransactionById(Constants.ACCOUNT_ID, Constants.LONG_1)).thenReturn(Optional.of(transaction));
+
+        assertThat(service.findTransactionById(Constants.ACCOUNT_ID, Constants.LONG_1)).contains(transaction);
+        assertThat(service.findTransactionById(Constants.ACCOUNT_ID, Constants.LONG_1)).contains(transaction);
+
+        verify(delegate, times(1)).findTransactionById(Constants.ACCOUNT_ID, Constants.LONG_1);
+        assertThat(service.getCacheStatistics().getHitCount()).isEqualTo(1);
+        assertThat(service.getCacheStatistics().getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotCacheAbsentTransactions() {
+        when(delegate.findTransactionById(Constants.ACCOUNT_ID, Constants.LONG_1)).thenReturn(Optional.empty());
+
+        assertThat(service.findTransactionById(Constants.ACCOUNT_ID, Constants.LONG_1)).isEmpty();
+        assertThat(service.findTransactionById(Constants.ACCOUNT_ID, Constants.LONG_1)).isEmpty();
+
+        verify(delegate, times(2)).findTransactionById(Constants.ACCOUNT_ID, Constants.LONG_1);
+    }
+
+    @Test
+    void shouldInvalidateOnUpdateAndDelete() {
+        when(delegate.findTransactionById(Constants.ACCOUNT_ID, Constants.LONG_1)).thenReturn(Optional.of(transaction));
+
+        service.findTransactionById(Constants.ACCOUNT_ID, Constants.LONG_1);
+        service.updateTransaction(transaction);
+        service.findTransactionById(Constants.ACCOUNT_ID, Constants.LONG_1);
+        service.deleteTransaction(Constants.ACCOUNT_ID, Constants.LONG_1);
+        service.findTransactionById(Constants.ACCOUNT_ID, Constants.LONG_1);
+
+        verify(delegate).updateTransaction(transaction);
+        verify(delegate).deleteTransaction(Constants.ACCOUNT_ID, Constants.LONG_1);
+        verify(delegate, times(3)).findTransactionById(Constants.ACCOUNT_ID, Constants.LONG_1);
+    }
+
+    @Test
+    void shouldInvalidateOnPatchConflict() {
+        TransactionPatch patch = new TransactionPatch(Constants.MONEY_100, null, 0);
+        when(delegate.findTransactionById(Constants.ACCOUNT_ID, Constants.LONG_1)).thenReturn(Optional.of(transaction));
+        when(delegate.patchTransaction(Constants.ACCOUNT_ID, Constants.LONG_1, patch))
+                .thenThrow(new OptimisticLockingFailureException("version changed"));
+
+        service.findTransactionById(Constants.ACCOUNT_ID, Constants.LONG_1);
+        assertThatThrownBy(() -> service.patchTransaction(Constants.ACCOUNT_ID, Constants.LONG_1, patch))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        service.findTransactionById(Constants.ACCOUNT_ID, Constants.LONG_1);
+
+        verify(delegate).patchTransaction(Constants.ACCOUNT_ID, Constants.LONG_1, patch);
+        verify(delegate, times(2)).findTransactionById(Constants.ACCOUNT_ID, Constants.LONG_1);
+    }
+
+    @Test
+    void shouldLoadOnceForConcurrentMisses() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.findTransactionById(Constants.ACCOUNT_ID, Constants.LONG_1)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(transaction);
+        });
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<Optional<Transaction>>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> service.findTransactionById(Constants.ACCOUNT_ID, Constants.LONG_1)));
+            }
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            release.countDown();
+
+            for (Future<Optional<Transaction>> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).contains(transaction);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(delegate, times(1)).findTransactionById(Constants.ACCOUNT_ID, Constants.LONG_1);
+    }
+}
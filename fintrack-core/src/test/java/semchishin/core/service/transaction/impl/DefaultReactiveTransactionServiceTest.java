@@ -0,0 +1,97 @@
+package semchishin.core.service.transaction.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import semchishin.core.model.Transaction;
+import semchishin.core.repository.impl.R2dbcTransactionRepository;
+import semchishin.core.util.Constants;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+class DefaultReactiveTransactionServiceTest {
+
+    @Mock
+    private R2dbcTransactionRepository repository;
+
+    @InjectMocks
+    private DefaultReactiveTransactionService service;
+
+    private final Transaction transaction = new Transaction(
+            Constants.LONG_1,
+            Constants.MONEY_100,
+            Constants.FOOD,
+            LocalDateTime.now()
+    );
+
+    @AfterEach
+    void tearDown() {
+        verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    void shouldAddTransaction() {
+        when(repository.save(transaction)).thenReturn(Mono.just(transaction));
+
+        StepVerifier.create(service.addTransaction(transaction))
+                .expectNext(transaction)
+                .verifyComplete();
+
+        verify(repository).save(transaction);
+    }
+
+    @Test
+    void shouldDeleteTransaction() {
+        when(repository.deleteById(Constants.ACCOUNT_ID, Constants.LONG_1)).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.deleteTransaction(Constants.ACCOUNT_ID, Constants.LONG_1))
+                .verifyComplete();
+
+        verify(repository).deleteById(Constants.ACCOUNT_ID, Constants.LONG_1);
+    }
+
+    @Test
+    void shouldFindTransactionById() {
+        when(repository.findById(Constants.ACCOUNT_ID, Constants.LONG_1)).thenReturn(Mono.just(transaction));
+
+        StepVerifier.create(service.findTransactionById(Constants.ACCOUNT_ID, Constants.LONG_1))
+                .expectNext(transaction)
+                .verifyComplete();
+
+        verify(repository).findById(Constants.ACCOUNT_ID, Constants.LONG_1);
+    }
+
+    @Test
+    void shouldStreamAllTransactionsOnDemand() {
+        when(repository.findAll(Constants.ACCOUNT_ID)).thenReturn(Flux.just(transaction, transaction, transaction));
+
+        StepVerifier.create(service.findAllTransactions(Constants.ACCOUNT_ID), 1)
+                .expectNext(transaction)
+                .thenRequest(2)
+                .expectNext(transaction, transaction)
+                .verifyComplete();
+
+        verify(repository).findAll(Constants.ACCOUNT_ID);
+    }
+
+    @Test
+    void shouldUpdateTransaction() {
+        when(repository.update(transaction)).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.updateTransaction(transaction))
+                .verifyComplete();
+
+        verify(repository).update(transaction);
+    }
+}
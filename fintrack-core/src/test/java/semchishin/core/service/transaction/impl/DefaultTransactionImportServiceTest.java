@@ -0,0 +1,152 @@
+package semchishin.core.service.transaction.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionOperations;
+import semchishin.core.datasource.ReadYourWrites;
+import semchishin.core.exception.ImportFailedException;
+import semchishin.core.model.BulkWriteMode;
+import semchishin.core.model.ImportChunkResult;
+import semchishin.core.model.Transaction;
+import semchishin.core.repository.impl.DefaultTransactionRepository;
+import semchishin.core.util.Constants;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+class DefaultTransactionImportServiceTest {
+
+    private static final int CHUNK_SIZE = 2;
+
+    private static final int BATCH_SIZE = 10;
+
+    private static final int COPY_THRESHOLD = 2;
+
+    @Mock
+    private DefaultTransactionRepository repository;
+
+    private DefaultTransactionImportService service;
+
+    private final Transaction transaction = new Transaction(
+            Constants.LONG_1,
+            Constants.MONEY_100,
+            Constants.FOOD,
+            LocalDateTime.now()
+    );
+
+    @BeforeEach
+    void setUp() {
+        service = new DefaultTransactionImportService(
+                repository, TransactionOperations.withoutTransaction(), ReadYourWrites.DISABLED, CHUNK_SIZE, BATCH_SIZE, COPY_THRESHOLD);
+    }
+
+    @AfterEach
+    void tearDown() {
+        verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    void shouldSplitSourceIntoChunks() {
+        when(repository.saveAll(anyList(), eq(BATCH_SIZE)))
+                .thenAnswer(invocation -> invocation.<List<Transaction>>getArgument(0));
+
+        List<ImportChunkResult> results = service.importTransactions(Constants.ACCOUNT_ID,
+                List.of(transaction, transaction, transaction).iterator(), BulkWriteMode.BATCH);
+
+        assertThat(results).extracting(ImportChunkResult::getRows).containsExactly(2L, 1L);
+        assertThat(results).extracting(ImportChunkResult::getChunk).containsExactly(0, 1);
+        assertThat(results).extracting(ImportChunkResult::getTransactionIds)
+                .containsExactly(List.of(transaction.getTransactionId(), transaction.getTransactionId()),
+                        List.of(transaction.getTransactionId()));
+        verify(repository, times(2)).saveAll(anyList(), eq(BATCH_SIZE));
+    }
+
+    @Test
+    void shouldPickCopyForLargeChunksInAutoMode() {
+        when(repository.copyAll(anyList())).thenReturn(2L);
+        when(repository.saveAll(anyList(), eq(BATCH_SIZE))).thenReturn(List.of(transaction));
+
+        List<ImportChunkResult> results = service.importTransactions(Constants.ACCOUNT_ID,
+                List.of(transaction, transaction, transaction).iterator(), BulkWriteMode.AUTO);
+
+        assertThat(results).extracting(ImportChunkResult::getMode)
+                .containsExactly(BulkWriteMode.COPY, BulkWriteMode.BATCH);
+        assertThat(results.getFirst().getTransactionIds()).isEmpty();
+        verify(repository).copyAll(anyList());
+        verify(repository).saveAll(anyList(), eq(BATCH_SIZE));
+    }
+
+    @Test
+    void shouldReturnNoChunksForEmptySource() {
+        assertThat(service.importTransactions(Constants.ACCOUNT_ID, List.<Transaction>of().iterator(),
+                BulkWriteMode.COPY)).isEmpty();
+    }
+
+    @Test
+    void shouldReportCommittedChunksWhenLaterChunkFails() {
+        DataIntegrityViolationException failure = new DataIntegrityViolationException("duplicate key");
+        when(repository.saveAll(anyList(), eq(BATCH_SIZE)))
+                .thenAnswer(invocation -> invocation.<List<Transaction>>getArgument(0))
+                .thenThrow(failure);
+
+        ImportFailedException e = assertThrows(ImportFailedException.class,
+                () -> service.importTransactions(Constants.ACCOUNT_ID,
+                        List.of(transaction, transaction, transaction).iterator(), BulkWriteMode.BATCH));
+
+        assertThat(e.getCause()).isSameAs(failure);
+        assertThat(e.getFailedChunk()).isEqualTo(1);
+        assertThat(e.getCommittedChunks()).extracting(ImportChunkResult::getRows).containsExactly(2L);
+        verify(repository, times(2)).saveAll(anyList(), eq(BATCH_SIZE));
+    }
+
+    @Test
+    void shouldReportCommittedChunksWhenSourceFails() {
+        when(repository.saveAll(anyList(), eq(BATCH_SIZE)))
+                .thenAnswer(invocation -> invocation.<List<Transaction>>getArgument(0));
+        UncheckedIOException failure = new UncheckedIOException(new IOException("Unexpected end of JSON array"));
+        Iterator<Transaction> source = new Iterator<>() {
+
+            private int read;
+
+            @Override
+            public boolean hasNext() {
+                if (read == 3) {
+                    throw failure;
+                }
+                return true;
+            }
+
+            @Override
+            public Transaction next() {
+                read++;
+                return transaction;
+            }
+        };
+
+        ImportFailedException e = assertThrows(ImportFailedException.class,
+                () -> service.importTransactions(Constants.ACCOUNT_ID, source, BulkWriteMode.BATCH));
+
+        assertThat(e.getCause()).isSameAs(failure);
+        assertThat(e.getFailedChunk()).isEqualTo(1);
+        assertThat(e.getCommittedChunks()).extracting(ImportChunkResult::getChunk).containsExactly(0);
+        verify(repository).saveAll(anyList(), eq(BATCH_SIZE));
+    }
+}
@@ -7,15 +7,29 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import semchishin.core.datasource.ReadYourWrites;
+import semchishin.core.model.KeysetPage;
+import semchishin.core.model.PageCursor;
 import semchishin.core.model.Transaction;
+import semchishin.core.model.TransactionFilter;
+import semchishin.core.model.TransactionPatch;
 import semchishin.core.repository.impl.DefaultTransactionRepository;
 import semchishin.core.util.Constants;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -26,19 +40,25 @@ class DefaultTransactionServiceTest {
     @Mock
     private DefaultTransactionRepository repository;
 
+    @Mock
+    private GroupCommitTransactionWriter groupCommitWriter;
+
+    @Mock
+    private ReadYourWrites readYourWrites;
+
     @InjectMocks
     private DefaultTransactionService service;
 
     private final Transaction transaction = new Transaction(
             Constants.LONG_1,
-            Constants.BIG_DECIMAL_100,
+            Constants.MONEY_100,
             Constants.FOOD,
             LocalDateTime.now()
     );
 
     @AfterEach
     void tearDown() {
-        verifyNoMoreInteractions(repository);
+        verifyNoMoreInteractions(repository, readYourWrites);
     }
 
     @Test
@@ -49,34 +69,125 @@ class DefaultTransactionServiceTest {
 
         assertThat(actual).isEqualTo(transaction);
         verify(repository).save(transaction);
+        verify(readYourWrites).recordWrite(transaction.getAccountId());
+    }
+
+    @Test
+    void shouldAddTransactionThroughGroupCommitWhenEnabled() {
+        when(groupCommitWriter.isEnabled()).thenReturn(true);
+        when(groupCommitWriter.submit(transaction)).thenReturn(CompletableFuture.completedFuture(transaction));
+
+        Transaction actual = service.addTransaction(transaction);
+
+        assertThat(actual).isEqualTo(transaction);
+        verify(groupCommitWriter).submit(transaction);
+        verify(readYourWrites).recordWrite(transaction.getAccountId());
+    }
+
+    @Test
+    void shouldRethrowGroupCommitFailure() {
+        when(groupCommitWriter.isEnabled()).thenReturn(true);
+        when(groupCommitWriter.submit(transaction))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("down")));
+
+        assertThatThrownBy(() -> service.addTransaction(transaction))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("down");
+    }
+
+    @Test
+    void shouldRejectTransactionNotCommittedInTime() {
+        CompletableFuture<Transaction> pending = new CompletableFuture<>();
+        when(groupCommitWriter.isEnabled()).thenReturn(true);
+        when(groupCommitWriter.getCommitTimeoutMillis()).thenReturn(10L);
+        when(groupCommitWriter.submit(transaction)).thenReturn(pending);
+
+        assertThatThrownBy(() -> service.addTransaction(transaction))
+                .isInstanceOf(RejectedExecutionException.class)
+                .hasCauseInstanceOf(TimeoutException.class);
+        assertThat(pending).isCompletedExceptionally();
     }
 
     @Test
     void shouldDeleteTransaction() {
-        service.deleteTransaction(Constants.LONG_1);
+        service.deleteTransaction(Constants.ACCOUNT_ID, Constants.LONG_1);
 
-        verify(repository).deleteById(Constants.LONG_1);
+        verify(repository).deleteById(Constants.ACCOUNT_ID, Constants.LONG_1);
+        verify(readYourWrites).recordWrite(Constants.ACCOUNT_ID);
     }
 
     @Test
     void shouldFindTransactionById() {
-        when(repository.findById(Constants.LONG_1)).thenReturn(Optional.of(transaction));
+        when(repository.findById(Constants.ACCOUNT_ID, Constants.LONG_1)).thenReturn(Optional.of(transaction));
 
-        Transaction actual = service.findTransactionById(Constants.LONG_1).orElse(null);
+        Transaction actual = service.findTransactionById(Constants.ACCOUNT_ID, Constants.LONG_1).orElse(null);
 
         assertThat(actual).isEqualTo(transaction);
-        verify(repository).findById(Constants.LONG_1);
+        verify(repository).findById(Constants.ACCOUNT_ID, Constants.LONG_1);
     }
 
     @Test
     void shouldFindAllTransactions() {
         List<Transaction> expected = List.of(transaction);
-        when(repository.findAll()).thenReturn(List.of(transaction));
+        when(repository.findAll(Constants.ACCOUNT_ID)).thenReturn(List.of(transaction));
 
-        List<Transaction> transactionList = service.findAllTransactions();
+        List<Transaction> transactionList = service.findAllTransactions(Constants.ACCOUNT_ID);
 
         assertThat(transactionList).isEqualTo(expected);
-        verify(repository).findAll();
+        verify(repository).findAll(Constants.ACCOUNT_ID);
+    }
+
+    @Test
+    void shouldReturnLastPageWithoutCursor() {
+        TransactionFilter filter = TransactionFilter.builder().category(Constants.FOOD).build();
+        when(repository.findPage(Constants.ACCOUNT_ID, filter, null, 3)).thenReturn(List.of(transaction));
+
+        KeysetPage<Transaction> page = service.findTransactions(Constants.ACCOUNT_ID, filter, null, 2);
+
+        assertThat(page.getItems()).containsExactly(transaction);
+        assertThat(page.getNextCursor()).isNull();
+        verify(repository).findPage(Constants.ACCOUNT_ID, filter, null, 3);
+    }
+
+    @Test
+    void shouldReturnCursorOfLastItemWhenMoreRowsExist() {
+        Transaction older = new Transaction(2L, Constants.MONEY_100, Constants.FOOD,
+                transaction.getDateTime().minusDays(1));
+        Transaction oldest = new Transaction(3L, Constants.MONEY_100, Constants.FOOD,
+                transaction.getDateTime().minusDays(2));
+        when(repository.findPage(Constants.ACCOUNT_ID, null, null, 3)).thenReturn(List.of(transaction, older, oldest));
+
+        KeysetPage<Transaction> page = service.findTransactions(Constants.ACCOUNT_ID, null, null, 2);
+
+        assertThat(page.getItems()).containsExactly(transaction, older);
+        assertThat(page.getNextCursor()).isEqualTo(PageCursor.after(older));
+        verify(repository).findPage(Constants.ACCOUNT_ID, null, null, 3);
+    }
+
+    @Test
+    void shouldClampPageSize() {
+        when(repository.findPage(Constants.ACCOUNT_ID, null, null, DefaultTransactionService.MAX_PAGE_SIZE + 1))
+                .thenReturn(List.of());
+
+        KeysetPage<Transaction> page = service.findTransactions(Constants.ACCOUNT_ID, null, null, Integer.MAX_VALUE);
+
+        assertThat(page.getItems()).isEmpty();
+        verify(repository).findPage(Constants.ACCOUNT_ID, null, null, DefaultTransactionService.MAX_PAGE_SIZE + 1);
+    }
+
+    @Test
+    void shouldExportTransactions() {
+        TransactionFilter filter = TransactionFilter.builder().category(Constants.FOOD).build();
+        doAnswer(invocation -> {
+            invocation.<Consumer<Transaction>>getArgument(2).accept(transaction);
+            return null;
+        }).when(repository).forEach(eq(Constants.ACCOUNT_ID), any(), any());
+        List<Transaction> exported = new ArrayList<>();
+
+        service.exportTransactions(Constants.ACCOUNT_ID, filter, exported::add);
+
+        assertThat(exported).containsExactly(transaction);
+        verify(repository).forEach(eq(Constants.ACCOUNT_ID), eq(filter), any());
     }
 
     @Test
@@ -84,5 +195,26 @@ class DefaultTransactionServiceTest {
         service.updateTransaction(transaction);
 
         verify(repository).update(transaction);
+        verify(readYourWrites).recordWrite(transaction.getAccountId());
+    }
+
+    @Test
+    void shouldPatchTransaction() {
+        TransactionPatch patch = new TransactionPatch(null, Constants.ANOTHER, 3);
+        Transaction patched = new Transaction(Constants.LONG_1, Constants.MONEY_100, Constants.ANOTHER,
+                transaction.getDateTime(), 4);
+        when(repository.patch(Constants.ACCOUNT_ID, Constants.LONG_1, patch)).thenReturn(Optional.of(patched));
+
+        assertThat(service.patchTransaction(Constants.ACCOUNT_ID, Constants.LONG_1, patch)).contains(patched);
+        verify(repository).patch(Constants.ACCOUNT_ID, Constants.LONG_1, patch);
+        verify(readYourWrites).recordWrite(Constants.ACCOUNT_ID);
+    }
+
+    @Test
+    void shouldReturnTransactionsVersion() {
+        when(repository.findVersion()).thenReturn(42L);
+
+        assertThat(service.getTransactionsVersion()).isEqualTo(42L);
+        verify(repository).findVersion();
     }
 }
\ No newline at end of file
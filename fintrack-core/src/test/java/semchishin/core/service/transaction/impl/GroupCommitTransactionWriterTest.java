@@ -0,0 +1,266 @@
+package semchishin.core.service.transaction.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import semchishin.core.datasource.AccountContext;
+import semchishin.core.datasource.AccountRouter;
+import semchishin.core.datasource.StaticAccountRouter;
+import semchishin.core.model.Transaction;
+import semchishin.core.repository.impl.DefaultTransactionRepository;
+import semchishin.core.util.Constants;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+class GroupCommitTransactionWriterTest {
+
+    private static final int MAX_BATCH_SIZE = 10;
+
+    private static final long FLUSH_WINDOW_MILLIS = 200;
+
+    @Mock
+    private DefaultTransactionRepository repository;
+
+    private final AccountRouter accountRouter = new StaticAccountRouter(Map.of(Constants.OTHER_ACCOUNT_ID, "large"));
+
+    private GroupCommitTransactionWriter writer;
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null && writer.isRunning()) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void shouldCoalesceConcurrentInsertsIntoOneStatement() {
+        when(repository.saveAllReturning(anyList()))
+                .thenAnswer(invocation -> withIds(invocation.getArgument(0)));
+        writer = start(MAX_BATCH_SIZE, 1000);
+
+        List<CompletableFuture<Transaction>> futures = new ArrayList<>();
+        for (int i = 0; i < MAX_BATCH_SIZE; i++) {
+            futures.add(writer.submit(transaction()));
+        }
+
+        for (int i = 0; i < MAX_BATCH_SIZE; i++) {
+            assertThat(futures.get(i).join().getTransactionId()).isEqualTo(i + 1L);
+        }
+        verify(repository, times(1)).saveAllReturning(anyList());
+    }
+
+    @Test
+    void shouldCommitEveryRowSubmittedByConcurrentWriters() throws InterruptedException {
+        when(repository.saveAllReturning(anyList())).thenAnswer(invocation -> withIds(invocation.getArgument(0)));
+        writer = start(MAX_BATCH_SIZE, 1000);
+        ConcurrentLinkedQueue<CompletableFuture<Transaction>> futures = new ConcurrentLinkedQueue<>();
+        List<Thread> writers = new ArrayList<>();
+
+        for (int i = 0; i < 8; i++) {
+            writers.add(Thread.ofVirtual().start(() -> {
+                for (int j = 0; j < 50; j++) {
+                    futures.add(writer.submit(transaction()));
+                }
+            }));
+        }
+        for (Thread thread : writers) {
+            thread.join();
+        }
+
+        assertThat(futures).hasSize(400);
+        futures.forEach(future -> assertThat(future.orTimeout(5, TimeUnit.SECONDS).join()).isNotNull());
+    }
+
+    @Test
+    void shouldFlushPartialBatchWhenWindowCloses() {
+        when(repository.saveAllReturning(anyList())).thenAnswer(invocation -> withIds(invocation.getArgument(0)));
+        writer = start(MAX_BATCH_SIZE, 1000);
+
+        Transaction saved = writer.submit(transaction()).orTimeout(5, TimeUnit.SECONDS).join();
+
+        assertThat(saved.getTransactionId()).isEqualTo(Constants.LONG_1);
+    }
+
+    @Test
+    void shouldFlushEachDatabaseWithItsAccountBound() {
+        ConcurrentLinkedQueue<Long> boundAccounts = new ConcurrentLinkedQueue<>();
+        when(repository.saveAllReturning(anyList())).thenAnswer(invocation -> {
+            boundAccounts.add(AccountContext.current());
+            return withIds(invocation.getArgument(0));
+        });
+        writer = start(MAX_BATCH_SIZE, 1000);
+
+        CompletableFuture<Transaction> shared = writer.submit(transaction(Constants.ACCOUNT_ID));
+        CompletableFuture<Transaction> dedicated = writer.submit(transaction(Constants.OTHER_ACCOUNT_ID));
+
+        assertThat(shared.orTimeout(5, TimeUnit.SECONDS).join().getAccountId()).isEqualTo(Constants.ACCOUNT_ID);
+        assertThat(dedicated.orTimeout(5, TimeUnit.SECONDS).join().getAccountId())
+                .isEqualTo(Constants.OTHER_ACCOUNT_ID);
+        assertThat(boundAccounts).containsExactlyInAnyOrder(Constants.ACCOUNT_ID, Constants.OTHER_ACCOUNT_ID);
+        verify(repository, times(2)).saveAllReturning(anyList());
+    }
+
+    @Test
+    void shouldFailEveryCallerWhenRowsFailOneByOne() {
+        when(repository.saveAllReturning(anyList())).thenThrow(new IllegalStateException("down"));
+        when(repository.save(any())).thenThrow(new IllegalStateException("down"));
+        writer = start(MAX_BATCH_SIZE, 1000);
+
+        CompletableFuture<Transaction> first = writer.submit(transaction());
+        CompletableFuture<Transaction> second = writer.submit(transaction());
+
+        assertThatThrownBy(first::join).isInstanceOf(CompletionException.class).hasRootCauseMessage("down");
+        assertThatThrownBy(second::join).isInstanceOf(CompletionException.class).hasRootCauseMessage("down");
+    }
+
+    @Test
+    void shouldFailOnlyCallerOfRowThatCannotBeWritten() {
+        Transaction good = transaction();
+        Transaction bad = new Transaction(null, Constants.MONEY_100, Constants.ANOTHER, LocalDateTime.now(), null,
+                Constants.ACCOUNT_ID);
+        when(repository.saveAllReturning(anyList())).thenAnswer(invocation -> {
+            List<Transaction> rows = invocation.getArgument(0);
+            if (rows.contains(bad)) {
+                throw new IllegalArgumentException("bad row");
+            }
+            return withIds(rows);
+        });
+        when(repository.save(good)).thenReturn(withIds(List.of(good)).getFirst());
+        when(repository.save(bad)).thenThrow(new IllegalArgumentException("bad row"));
+        writer = start(MAX_BATCH_SIZE, 1000);
+
+        CompletableFuture<Transaction> first = writer.submit(good);
+        CompletableFuture<Transaction> second = writer.submit(bad);
+
+        assertThat(first.orTimeout(5, TimeUnit.SECONDS).join().getTransactionId()).isEqualTo(Constants.LONG_1);
+        assertThatThrownBy(second::join).isInstanceOf(CompletionException.class).hasRootCauseMessage("bad row");
+    }
+
+    @Test
+    void shouldFailBatchAndKeepFlushingWhenFlushThrows() {
+        when(repository.saveAllReturning(anyList()))
+                .thenReturn(List.of())
+                .thenAnswer(invocation -> withIds(invocation.getArgument(0)));
+        writer = start(MAX_BATCH_SIZE, 1000);
+
+        CompletableFuture<Transaction> lost = writer.submit(transaction());
+
+        assertThatThrownBy(() -> lost.orTimeout(5, TimeUnit.SECONDS).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IndexOutOfBoundsException.class);
+        assertThat(writer.isRunning()).isTrue();
+        assertThat(writer.submit(transaction()).orTimeout(5, TimeUnit.SECONDS).join().getTransactionId())
+                .isEqualTo(Constants.LONG_1);
+    }
+
+    @Test
+    void shouldRejectEveryRowOnceFlusherDied() {
+        when(repository.saveAllReturning(anyList())).thenThrow(new AssertionError("flusher killed"));
+        writer = start(MAX_BATCH_SIZE, 1000);
+
+        CompletableFuture<Transaction> pending = writer.submit(transaction());
+
+        assertThatThrownBy(() -> pending.orTimeout(5, TimeUnit.SECONDS).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(writer.isRunning()).isFalse();
+        assertThatThrownBy(() -> writer.submit(transaction())).isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    void shouldSkipRowWhoseCallerGaveUp() throws InterruptedException {
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Transaction> written = new ArrayList<>();
+        when(repository.saveAllReturning(anyList())).thenAnswer(invocation -> {
+            flushing.countDown();
+            release.await();
+            written.addAll(invocation.getArgument(0));
+            return withIds(invocation.getArgument(0));
+        });
+        writer = start(1, 10);
+        Transaction abandoned = transaction(Constants.OTHER_ACCOUNT_ID);
+
+        writer.submit(transaction());
+        assertThat(flushing.await(5, TimeUnit.SECONDS)).isTrue();
+        writer.submit(abandoned).completeExceptionally(new TimeoutException());
+        CompletableFuture<Transaction> next = writer.submit(transaction());
+        release.countDown();
+
+        assertThat(next.orTimeout(5, TimeUnit.SECONDS).join()).isNotNull();
+        assertThat(written).doesNotContain(abandoned);
+    }
+
+    @Test
+    void shouldRejectWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.saveAllReturning(anyList())).thenAnswer(invocation -> {
+            flushing.countDown();
+            release.await();
+            return withIds(invocation.getArgument(0));
+        });
+        writer = start(1, 1);
+
+        writer.submit(transaction());
+        assertThat(flushing.await(5, TimeUnit.SECONDS)).isTrue();
+        writer.submit(transaction());
+
+        assertThatThrownBy(() -> writer.submit(transaction())).isInstanceOf(RejectedExecutionException.class);
+        release.countDown();
+    }
+
+    @Test
+    void shouldRejectWhenNotRunning() {
+        writer = new GroupCommitTransactionWriter(
+                repository, accountRouter, true, MAX_BATCH_SIZE, FLUSH_WINDOW_MILLIS, 10, 10, 1000);
+
+        assertThatThrownBy(() -> writer.submit(transaction())).isInstanceOf(RejectedExecutionException.class);
+    }
+
+    private GroupCommitTransactionWriter start(int maxBatchSize, int queueCapacity) {
+        GroupCommitTransactionWriter started = new GroupCommitTransactionWriter(
+                repository, accountRouter, true, maxBatchSize, FLUSH_WINDOW_MILLIS, queueCapacity, 10, 1000);
+        started.start();
+        return started;
+    }
+
+    private static List<Transaction> withIds(List<Transaction> rows) {
+        List<Transaction> saved = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Transaction row = rows.get(i);
+            saved.add(new Transaction(i + 1L, row.getAmount(), row.getCategory(), row.getDateTime(),
+                    row.getVersion(), row.getAccountId()));
+        }
+        return saved;
+    }
+
+    private static Transaction transaction() {
+        return transaction(Constants.ACCOUNT_ID);
+    }
+
+    private static Transaction transaction(long accountId) {
+        return new Transaction(null, Constants.MONEY_100, Constants.FOOD, LocalDateTime.now(), null, accountId);
+    }
+}
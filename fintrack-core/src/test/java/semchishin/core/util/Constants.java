@@ -1,9 +1,15 @@
 package semchishin.core.util;
 
+import semchishin.core.model.FxRates;
+import semchishin.core.model.Money;
+import semchishin.core.model.Transaction;
+
 import java.math.BigDecimal;
 
 public class Constants {
 
+    public static final long ACCOUNT_ID = Transaction.DEFAULT_ACCOUNT_ID;
+
     public static final String ANOTHER = "another";
 
     public static final String AMOUNT = "amount";
@@ -12,6 +18,8 @@ public class Constants {
 
     public static final String CATEGORY = "category";
 
+    public static final String CATEGORY_ID = "category_id";
+
     public static final String CREATED_AT = "created_at";
 
     public static final String COUNT = "COUNT";
@@ -22,6 +30,8 @@ public class Constants {
 
     public static final String DEFAULT = "DEFAULT";
 
+    public static final String CURRENCY = "currency";
+
     public static final String DELETE = "DELETE";
 
     public static final String INSERT_INTO = "INSERT INTO";
@@ -30,8 +40,16 @@ public class Constants {
 
     public static final String FOOD = "food";
 
+    public static final String FX_RATE = "fx_rate";
+
     public static final Long LONG_1 = 1L;
 
+    public static final Money MONEY_100 = Money.ofMinor(100_00);
+
+    public static final FxRates NO_RATES = FxRates.empty(Money.DEFAULT_CURRENCY);
+
+    public static final long OTHER_ACCOUNT_ID = 2L;
+
     public static final String NOT_NULL = "NOT NULL";
 
     public static final String NUMERIC = "NUMERIC";
@@ -40,6 +58,8 @@ public class Constants {
 
     public static final String RESTART_IDENTITY_CASCADE = "RESTART IDENTITY CASCADE";
 
+    public static final String RUB = "RUB";
+
     public static final String SELECT = "SELECT";
 
     public static final String SERIAL = "SERIAL";
@@ -52,12 +72,16 @@ public class Constants {
 
     public static final String TRANSACTION = "transaction";
 
+    public static final String TRANSACTION_DAILY_ROLLUP = "transaction_daily_rollup";
+
     public static final String TRANSACTION_ID = "transaction_id";
 
     public static final String TRUNCATE = "TRUNCATE";
 
     public static final String UPDATE = "UPDATE";
 
+    public static final String USD = "USD";
+
     public static final String VARCHAR_255 = "VARCHAR(255)";
 
     public static final String VALUES = "VALUES";
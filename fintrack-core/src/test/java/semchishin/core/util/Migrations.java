@@ -0,0 +1,43 @@
+package semchishin.core.util;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+public class Migrations {
+
+    public static final Path LOCATION = Path.of("..", "flyway", "migration");
+
+    /**
+     * Executes every Flyway migration script in version order.
+     */
+    public static void applyAll(JdbcTemplate jdbc) {
+        try (Stream<Path> scripts = Files.list(LOCATION)) {
+            apply(jdbc, scripts.map(script -> script.getFileName().toString())
+                    .filter(name -> name.endsWith(".sql"))
+                    .sorted()
+                    .toArray(String[]::new));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Executes the given Flyway migration scripts, in order, as the {@code fintrack}
+     * user, so unqualified table names resolve to the {@code fintrack} schema.
+     */
+    public static void apply(JdbcTemplate jdbc, String... scripts) {
+        for (String script : scripts) {
+            try {
+                jdbc.execute(Files.readString(LOCATION.resolve(script)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+}
@@ -1,6 +1,7 @@
 // Configuration for API endpoints
 const API_BASE_URL = 'http://localhost:8080';
 const TRANSACTIONS_API = `${API_BASE_URL}/api/transaction`;
+const STATISTICS_API = `${API_BASE_URL}/api/statistics`;
 
 // Global state variables
 let allTransactions = [];
@@ -18,16 +19,16 @@ async function loadTransactions() {
   showLoading(true);
 
   try {
-    const response = await fetch(TRANSACTIONS_API);
+    // Revalidate with the stored ETag, an unchanged list comes back as an empty 304
+    const response = await fetch(TRANSACTIONS_API, { cache: 'no-cache' });
 
     if (!response.ok) {
       throw new Error(`HTTP error! status: ${response.status}`);
     }
 
     allTransactions = await response.json();
-    updateCategories();
     renderTransactions(allTransactions);
-    updateStatistics(allTransactions);
+    await Promise.all([loadStatistics(), loadCategories()]);
 
     showLoading(false);
 
@@ -69,10 +70,10 @@ function renderTransactions(transactions) {
     <td>${category}</td>
     <td>${formattedDate}</td>
     <td>
-        <button class="btn btn-action btn-edit" onclick="editTransaction(${transaction.id ?? ''})">
+        <button class="btn btn-action btn-edit" onclick="editTransaction(${transaction.transactionId ?? ''})">
             <i class="fas fa-edit"></i>
         </button>
-        <button class="btn btn-action btn-delete" onclick="showDeleteModal(${transaction.id ?? ''})">
+        <button class="btn btn-action btn-delete" onclick="showDeleteModal(${transaction.transactionId ?? ''})">
             <i class="fas fa-trash"></i>
         </button>
     </td>
@@ -81,9 +82,24 @@ function renderTransactions(transactions) {
   });
 }
 
-// Calculate and display statistics
-function updateStatistics(transactions) {
-  if (transactions.length === 0) {
+// Load aggregated statistics computed by the backend
+async function loadStatistics(params = new URLSearchParams()) {
+  try {
+    const response = await fetch(`${STATISTICS_API}/summary?${params}`);
+
+    if (!response.ok) {
+      throw new Error(`HTTP error! status: ${response.status}`);
+    }
+
+    updateStatistics(await response.json());
+  } catch (error) {
+    console.error('Error loading statistics:', error);
+  }
+}
+
+// Display statistics
+function updateStatistics(summary) {
+  if (summary.count === 0) {
     // Set default values when no transactions
     document.getElementById('totalAmount').textContent = '0 ₽';
     document.getElementById('totalCount').textContent = '0';
@@ -92,33 +108,32 @@ function updateStatistics(transactions) {
     return;
   }
 
-  // Calculate total amount
-  const totalAmount = transactions.reduce((sum, t) => sum + parseFloat(t.amount), 0);
-  const averageAmount = totalAmount / transactions.length;
-
-  // Find most recent transaction by date
-  const recent = transactions.sort((a, b) =>
-    new Date(b.createdAt || b.created_at) - new Date(a.createdAt || a.created_at)
-  )[0];
-  const recentDate = formatDateTime(recent.createdAt || recent.created_at);
-
   // Update statistics display
-  document.getElementById('totalAmount').textContent = formatCurrency(totalAmount);
-  document.getElementById('totalCount').textContent = transactions.length;
-  document.getElementById('averageAmount').textContent = formatCurrency(averageAmount);
-  document.getElementById('lastAdded').textContent = recentDate;
+  document.getElementById('totalAmount').textContent = formatCurrency(summary.balance);
+  document.getElementById('totalCount').textContent = summary.count;
+  document.getElementById('averageAmount').textContent = formatCurrency(summary.average);
+  document.getElementById('lastAdded').textContent = formatDateTime(summary.lastCreatedAt);
 }
 
-// Update categories list from existing transactions
-function updateCategories() {
-  categories.clear();
+// Load the list of existing categories from the backend
+async function loadCategories() {
+  try {
+    const response = await fetch(`${STATISTICS_API}/categories`);
 
-  // Collect unique categories
-  allTransactions.forEach(t => {
-    if (t.category) {
-      categories.add(t.category);
+    if (!response.ok) {
+      throw new Error(`HTTP error! status: ${response.status}`);
     }
-  });
+
+    const statistics = await response.json();
+    updateCategories(statistics.map(s => s.category).filter(Boolean));
+  } catch (error) {
+    console.error('Error loading categories:', error);
+  }
+}
+
+// Update categories list
+function updateCategories(names) {
+  categories = new Set(names);
 
   // Update datalist for autocomplete
   const datalist = document.getElementById('categories');
@@ -198,7 +213,19 @@ function filterTransactions() {
   });
 
   renderTransactions(filtered);
-  updateStatistics(filtered);
+
+  // Statistics for the structured filters are computed by the backend
+  const params = new URLSearchParams();
+  if (categoryFilter) params.set('category', categoryFilter);
+  if (!isNaN(minAmount)) params.set('minAmount', minAmount);
+  if (!isNaN(maxAmount)) params.set('maxAmount', maxAmount);
+  if (dateFrom) params.set('from', `${dateFrom}T00:00:00`);
+  if (dateTo) {
+    const toDate = new Date(dateTo);
+    toDate.setDate(toDate.getDate() + 1);
+    params.set('to', `${toDate.toISOString().slice(0, 10)}T00:00:00`);
+  }
+  loadStatistics(params);
 }
 
 // Open modal for creating new transaction
@@ -206,6 +233,7 @@ function openCreateModal() {
   document.getElementById('modalTitle').textContent = 'New Transaction';
   document.getElementById('transactionForm').reset();
   document.getElementById('transactionId').value = '';
+  document.getElementById('transactionVersion').value = '';
 
   const modal = document.getElementById('modal');
   modal.classList.remove('hidden');
@@ -217,7 +245,7 @@ function openCreateModal() {
 // Open modal for editing existing transaction
 async function editTransaction(id) {
   try {
-    const response = await fetch(`${TRANSACTIONS_API}/${id}`);
+    const response = await fetch(`${TRANSACTIONS_API}/${id}`, { cache: 'no-cache' });
 
     if (!response.ok) {
       throw new Error(`HTTP error! status: ${response.status}`);
@@ -227,6 +255,7 @@ async function editTransaction(id) {
 
     document.getElementById('modalTitle').textContent = 'Edit Transaction';
     document.getElementById('transactionId').value = transaction.transactionId;
+    document.getElementById('transactionVersion').value = transaction.version ?? '';
     document.getElementById('amount').value = transaction.amount;
     document.getElementById('category').value = transaction.category || '';
 
@@ -255,6 +284,7 @@ async function handleSubmit(event) {
   const amountInput = document.getElementById('amount');
   const amountValue = amountInput.value.trim();
   const transactionId = document.getElementById('transactionId').value;
+  const transactionVersion = document.getElementById('transactionVersion').value;
   const isEdit = !!transactionId;
 
   // Validate amount field (required)
@@ -295,7 +325,8 @@ async function handleSubmit(event) {
         },
         body: JSON.stringify({
           ...transactionData,
-          transactionId: parseInt(transactionId)
+          transactionId: parseInt(transactionId),
+          version: transactionVersion === '' ? null : parseInt(transactionVersion)
         })
       });
     } else {
@@ -315,6 +346,13 @@ async function handleSubmit(event) {
     const responseText = await response.text();
     console.log("Response text:", responseText);
 
+    if (response.status === 409) {
+      showNotification('Transaction was changed by someone else, reopen it to edit', 'error');
+      closeModal();
+      await loadTransactions();
+      return;
+    }
+
     if (!response.ok) {
       throw new Error(responseText || `HTTP error! status: ${response.status}`);
     }
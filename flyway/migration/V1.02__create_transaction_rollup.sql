@@ -0,0 +1,104 @@
+CREATE TABLE IF NOT EXISTS fintrack.transaction_daily_rollup (
+    category VARCHAR(255) NOT NULL DEFAULT '',
+    day DATE NOT NULL,
+    transaction_count BIGINT NOT NULL,
+    income NUMERIC(20,2) NOT NULL,
+    expense NUMERIC(20,2) NOT NULL,
+    PRIMARY KEY (category, day)
+);
+
+-- Applies a signed delta of transaction rows to the rollup.
+-- Rows are upserted in key order so concurrent writers lock rollup rows in the same order.
+CREATE OR REPLACE FUNCTION fintrack.transaction_rollup_on_insert() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO fintrack.transaction_daily_rollup AS r (category, day, transaction_count, income, expense)
+    SELECT COALESCE(category, ''), created_at::date, COUNT(*),
+           COALESCE(SUM(amount) FILTER (WHERE amount > 0), 0),
+           COALESCE(SUM(amount) FILTER (WHERE amount < 0), 0)
+    FROM new_rows
+    GROUP BY 1, 2
+    ORDER BY 1, 2
+    ON CONFLICT (category, day) DO UPDATE SET
+        transaction_count = r.transaction_count + EXCLUDED.transaction_count,
+        income = r.income + EXCLUDED.income,
+        expense = r.expense + EXCLUDED.expense;
+    RETURN NULL;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION fintrack.transaction_rollup_on_delete() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO fintrack.transaction_daily_rollup AS r (category, day, transaction_count, income, expense)
+    SELECT COALESCE(category, ''), created_at::date, -COUNT(*),
+           -COALESCE(SUM(amount) FILTER (WHERE amount > 0), 0),
+           -COALESCE(SUM(amount) FILTER (WHERE amount < 0), 0)
+    FROM old_rows
+    GROUP BY 1, 2
+    ORDER BY 1, 2
+    ON CONFLICT (category, day) DO UPDATE SET
+        transaction_count = r.transaction_count + EXCLUDED.transaction_count,
+        income = r.income + EXCLUDED.income,
+        expense = r.expense + EXCLUDED.expense;
+    RETURN NULL;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION fintrack.transaction_rollup_on_update() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO fintrack.transaction_daily_rollup AS r (category, day, transaction_count, income, expense)
+    SELECT category, day, SUM(sign),
+           COALESCE(SUM(sign * amount) FILTER (WHERE amount > 0), 0),
+           COALESCE(SUM(sign * amount) FILTER (WHERE amount < 0), 0)
+    FROM (
+        SELECT COALESCE(category, '') AS category, created_at::date AS day, amount, 1 AS sign FROM new_rows
+        UNION ALL
+        SELECT COALESCE(category, ''), created_at::date, amount, -1 FROM old_rows
+    ) delta
+    GROUP BY 1, 2
+    ORDER BY 1, 2
+    ON CONFLICT (category, day) DO UPDATE SET
+        transaction_count = r.transaction_count + EXCLUDED.transaction_count,
+        income = r.income + EXCLUDED.income,
+        expense = r.expense + EXCLUDED.expense;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER transaction_rollup_insert
+    AFTER INSERT ON fintrack.transaction
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION fintrack.transaction_rollup_on_insert();
+
+CREATE TRIGGER transaction_rollup_delete
+    AFTER DELETE ON fintrack.transaction
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION fintrack.transaction_rollup_on_delete();
+
+CREATE TRIGGER transaction_rollup_update
+    AFTER UPDATE ON fintrack.transaction
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION fintrack.transaction_rollup_on_update();
+
+-- Recomputes the rollup from scratch. Writers are blocked for the duration, readers are not.
+CREATE OR REPLACE FUNCTION fintrack.rebuild_transaction_rollup() RETURNS BIGINT
+LANGUAGE plpgsql AS $$
+DECLARE
+    rebuilt BIGINT;
+BEGIN
+    LOCK TABLE fintrack.transaction IN SHARE ROW EXCLUSIVE MODE;
+    DELETE FROM fintrack.transaction_daily_rollup;
+    INSERT INTO fintrack.transaction_daily_rollup (category, day, transaction_count, income, expense)
+    SELECT COALESCE(category, ''), created_at::date, COUNT(*),
+           COALESCE(SUM(amount) FILTER (WHERE amount > 0), 0),
+           COALESCE(SUM(amount) FILTER (WHERE amount < 0), 0)
+    FROM fintrack.transaction
+    GROUP BY 1, 2;
+    GET DIAGNOSTICS rebuilt = ROW_COUNT;
+    RETURN rebuilt;
+END;
+$$;
+
+SELECT fintrack.rebuild_transaction_rollup();
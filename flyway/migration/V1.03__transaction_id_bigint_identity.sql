@@ -0,0 +1,11 @@
+-- Widen the key to match the Long id of the Transaction model and replace SERIAL with a standard identity column
+ALTER TABLE fintrack.transaction ALTER COLUMN transaction_id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS fintrack.transaction_transaction_id_seq;
+ALTER TABLE fintrack.transaction ALTER COLUMN transaction_id TYPE BIGINT;
+ALTER TABLE fintrack.transaction ALTER COLUMN transaction_id ADD GENERATED BY DEFAULT AS IDENTITY;
+
+SELECT setval(
+    pg_get_serial_sequence('fintrack.transaction', 'transaction_id'),
+    COALESCE(MAX(transaction_id), 0) + 1,
+    false
+) FROM fintrack.transaction;
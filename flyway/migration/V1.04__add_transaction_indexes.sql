@@ -0,0 +1,10 @@
+-- Keyset listing order (created_at, transaction_id), date ranges and MAX(created_at).
+-- Amount is included so date-bounded summaries and time series can use index-only scans.
+CREATE INDEX IF NOT EXISTS transaction_created_at_idx
+    ON fintrack.transaction (created_at, transaction_id) INCLUDE (amount);
+
+-- Category-filtered listing, export and statistics.
+CREATE INDEX IF NOT EXISTS transaction_category_created_at_idx
+    ON fintrack.transaction (category, created_at, transaction_id) INCLUDE (amount);
+
+ANALYZE fintrack.transaction;
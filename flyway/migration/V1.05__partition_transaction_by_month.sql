@@ -0,0 +1,115 @@
+-- Converts fintrack.transaction into a table range-partitioned by month on created_at.
+-- The primary key has to contain the partition key, lookups by transaction_id alone
+-- probe the primary key index of every partition.
+
+CREATE SCHEMA IF NOT EXISTS fintrack_archive;
+
+ALTER TABLE fintrack.transaction RENAME TO transaction_unpartitioned;
+ALTER INDEX fintrack.transaction_pkey RENAME TO transaction_unpartitioned_pkey;
+ALTER SEQUENCE fintrack.transaction_transaction_id_seq RENAME TO transaction_unpartitioned_transaction_id_seq;
+DROP TRIGGER transaction_rollup_insert ON fintrack.transaction_unpartitioned;
+DROP TRIGGER transaction_rollup_delete ON fintrack.transaction_unpartitioned;
+DROP TRIGGER transaction_rollup_update ON fintrack.transaction_unpartitioned;
+
+CREATE TABLE fintrack.transaction (
+    transaction_id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    amount NUMERIC(15,2) NOT NULL,
+    category VARCHAR(255),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (transaction_id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Catches rows outside of the managed partitions, normally stays empty
+CREATE TABLE fintrack.transaction_default PARTITION OF fintrack.transaction DEFAULT;
+
+-- Creates the partition of the month containing the given date, moving matching rows out of the
+-- default partition first. Returns the partition name, or NULL if it already exists.
+CREATE OR REPLACE FUNCTION fintrack.create_transaction_partition(month DATE) RETURNS TEXT
+LANGUAGE plpgsql AS $$
+DECLARE
+    lower_bound TIMESTAMP := date_trunc('month', month);
+    upper_bound TIMESTAMP := date_trunc('month', month) + INTERVAL '1 month';
+    partition_name TEXT := 'transaction_' || to_char(date_trunc('month', month), '"y"YYYY"m"MM');
+BEGIN
+    IF to_regclass('fintrack.' || partition_name) IS NOT NULL THEN
+        RETURN NULL;
+    END IF;
+    EXECUTE format('CREATE TABLE fintrack.%I (LIKE fintrack.transaction INCLUDING DEFAULTS)', partition_name);
+    EXECUTE format(
+        'WITH moved AS (DELETE FROM fintrack.transaction_default WHERE created_at >= $1 AND created_at < $2 RETURNING *) '
+            || 'INSERT INTO fintrack.%I SELECT * FROM moved',
+        partition_name
+    ) USING lower_bound, upper_bound;
+    EXECUTE format(
+        'ALTER TABLE fintrack.transaction ATTACH PARTITION fintrack.%I FOR VALUES FROM (%L) TO (%L)',
+        partition_name, lower_bound, upper_bound
+    );
+    RETURN partition_name;
+END;
+$$;
+
+-- Detaches the partition of the month containing the given date and moves it to fintrack_archive.
+-- Returns the partition name, or NULL if there is no such partition.
+CREATE OR REPLACE FUNCTION fintrack.archive_transaction_partition(month DATE) RETURNS TEXT
+LANGUAGE plpgsql AS $$
+DECLARE
+    partition_name TEXT := 'transaction_' || to_char(date_trunc('month', month), '"y"YYYY"m"MM');
+BEGIN
+    IF to_regclass('fintrack.' || partition_name) IS NULL THEN
+        RETURN NULL;
+    END IF;
+    EXECUTE format('ALTER TABLE fintrack.transaction DETACH PARTITION fintrack.%I', partition_name);
+    EXECUTE format('ALTER TABLE fintrack.%I SET SCHEMA fintrack_archive', partition_name);
+    RETURN partition_name;
+END;
+$$;
+
+DO $$
+DECLARE
+    month DATE;
+BEGIN
+    SELECT date_trunc('month', LEAST(MIN(created_at), CURRENT_TIMESTAMP))
+    INTO month
+    FROM fintrack.transaction_unpartitioned;
+    WHILE month <= date_trunc('month', CURRENT_TIMESTAMP) + INTERVAL '3 months' LOOP
+        PERFORM fintrack.create_transaction_partition(month);
+        month := month + INTERVAL '1 month';
+    END LOOP;
+END;
+$$;
+
+INSERT INTO fintrack.transaction (transaction_id, amount, category, created_at)
+SELECT transaction_id, amount, category, created_at
+FROM fintrack.transaction_unpartitioned;
+
+SELECT setval(
+    pg_get_serial_sequence('fintrack.transaction', 'transaction_id'),
+    COALESCE(MAX(transaction_id), 0) + 1,
+    false
+) FROM fintrack.transaction;
+
+DROP TABLE fintrack.transaction_unpartitioned;
+
+CREATE INDEX IF NOT EXISTS transaction_created_at_idx
+    ON fintrack.transaction (created_at, transaction_id) INCLUDE (amount);
+
+CREATE INDEX IF NOT EXISTS transaction_category_created_at_idx
+    ON fintrack.transaction (category, created_at, transaction_id) INCLUDE (amount);
+
+-- The rollup already reflects the copied rows, the triggers are recreated only afterwards
+CREATE TRIGGER transaction_rollup_insert
+    AFTER INSERT ON fintrack.transaction
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION fintrack.transaction_rollup_on_insert();
+
+CREATE TRIGGER transaction_rollup_delete
+    AFTER DELETE ON fintrack.transaction
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION fintrack.transaction_rollup_on_delete();
+
+CREATE TRIGGER transaction_rollup_update
+    AFTER UPDATE ON fintrack.transaction
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION fintrack.transaction_rollup_on_update();
+
+ANALYZE fintrack.transaction;
@@ -0,0 +1,145 @@
+-- Moves category names into a dictionary table, transactions keep a 4-byte reference instead of the text.
+-- The daily rollup stays keyed by name, its trigger functions look the names up in the dictionary.
+
+CREATE TABLE IF NOT EXISTS fintrack.category (
+    category_id INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE
+);
+
+-- Returns the id of the named category, creating the category on first use. NULL stays NULL.
+CREATE OR REPLACE FUNCTION fintrack.category_id_of(category_name VARCHAR) RETURNS INT
+LANGUAGE plpgsql AS $$
+DECLARE
+    id INT;
+BEGIN
+    IF category_name IS NULL THEN
+        RETURN NULL;
+    END IF;
+    SELECT category_id INTO id FROM fintrack.category WHERE name = category_name;
+    IF id IS NULL THEN
+        INSERT INTO fintrack.category AS c (name) VALUES (category_name)
+        ON CONFLICT (name) DO UPDATE SET name = c.name
+        RETURNING category_id INTO id;
+    END IF;
+    RETURN id;
+END;
+$$;
+
+INSERT INTO fintrack.category (name)
+SELECT DISTINCT category FROM fintrack.transaction WHERE category IS NOT NULL ORDER BY 1;
+
+-- The rewrite below leaves every rollup row unchanged, the triggers are recreated only afterwards
+DROP TRIGGER transaction_rollup_insert ON fintrack.transaction;
+DROP TRIGGER transaction_rollup_delete ON fintrack.transaction;
+DROP TRIGGER transaction_rollup_update ON fintrack.transaction;
+
+ALTER TABLE fintrack.transaction ADD COLUMN category_id INT REFERENCES fintrack.category (category_id);
+
+UPDATE fintrack.transaction t
+SET category_id = c.category_id
+FROM fintrack.category c
+WHERE c.name = t.category;
+
+DROP INDEX IF EXISTS fintrack.transaction_category_created_at_idx;
+ALTER TABLE fintrack.transaction DROP COLUMN category;
+
+CREATE INDEX IF NOT EXISTS transaction_category_created_at_idx
+    ON fintrack.transaction (category_id, created_at, transaction_id) INCLUDE (amount);
+
+CREATE OR REPLACE FUNCTION fintrack.transaction_rollup_on_insert() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO fintrack.transaction_daily_rollup AS r (category, day, transaction_count, income, expense)
+    SELECT COALESCE(c.name, ''), n.created_at::date, COUNT(*),
+           COALESCE(SUM(n.amount) FILTER (WHERE n.amount > 0), 0),
+           COALESCE(SUM(n.amount) FILTER (WHERE n.amount < 0), 0)
+    FROM new_rows n
+    LEFT JOIN fintrack.category c ON c.category_id = n.category_id
+    GROUP BY 1, 2
+    ORDER BY 1, 2
+    ON CONFLICT (category, day) DO UPDATE SET
+        transaction_count = r.transaction_count + EXCLUDED.transaction_count,
+        income = r.income + EXCLUDED.income,
+        expense = r.expense + EXCLUDED.expense;
+    RETURN NULL;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION fintrack.transaction_rollup_on_delete() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO fintrack.transaction_daily_rollup AS r (category, day, transaction_count, income, expense)
+    SELECT COALESCE(c.name, ''), o.created_at::date, -COUNT(*),
+           -COALESCE(SUM(o.amount) FILTER (WHERE o.amount > 0), 0),
+           -COALESCE(SUM(o.amount) FILTER (WHERE o.amount < 0), 0)
+    FROM old_rows o
+    LEFT JOIN fintrack.category c ON c.category_id = o.category_id
+    GROUP BY 1, 2
+    ORDER BY 1, 2
+    ON CONFLICT (category, day) DO UPDATE SET
+        transaction_count = r.transaction_count + EXCLUDED.transaction_count,
+        income = r.income + EXCLUDED.income,
+        expense = r.expense + EXCLUDED.expense;
+    RETURN NULL;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION fintrack.transaction_rollup_on_update() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO fintrack.transaction_daily_rollup AS r (category, day, transaction_count, income, expense)
+    SELECT COALESCE(c.name, ''), delta.day, SUM(delta.sign),
+           COALESCE(SUM(delta.sign * delta.amount) FILTER (WHERE delta.amount > 0), 0),
+           COALESCE(SUM(delta.sign * delta.amount) FILTER (WHERE delta.amount < 0), 0)
+    FROM (
+        SELECT category_id, created_at::date AS day, amount, 1 AS sign FROM new_rows
+        UNION ALL
+        SELECT category_id, created_at::date, amount, -1 FROM old_rows
+    ) delta
+    LEFT JOIN fintrack.category c ON c.category_id = delta.category_id
+    GROUP BY 1, 2
+    ORDER BY 1, 2
+    ON CONFLICT (category, day) DO UPDATE SET
+        transaction_count = r.transaction_count + EXCLUDED.transaction_count,
+        income = r.income + EXCLUDED.income,
+        expense = r.expense + EXCLUDED.expense;
+    RETURN NULL;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION fintrack.rebuild_transaction_rollup() RETURNS BIGINT
+LANGUAGE plpgsql AS $$
+DECLARE
+    rebuilt BIGINT;
+BEGIN
+    LOCK TABLE fintrack.transaction IN SHARE ROW EXCLUSIVE MODE;
+    DELETE FROM fintrack.transaction_daily_rollup;
+    INSERT INTO fintrack.transaction_daily_rollup (category, day, transaction_count, income, expense)
+    SELECT COALESCE(c.name, ''), t.created_at::date, COUNT(*),
+           COALESCE(SUM(t.amount) FILTER (WHERE t.amount > 0), 0),
+           COALESCE(SUM(t.amount) FILTER (WHERE t.amount < 0), 0)
+    FROM fintrack.transaction t
+    LEFT JOIN fintrack.category c ON c.category_id = t.category_id
+    GROUP BY 1, 2;
+    GET DIAGNOSTICS rebuilt = ROW_COUNT;
+    RETURN rebuilt;
+END;
+$$;
+
+CREATE TRIGGER transaction_rollup_insert
+    AFTER INSERT ON fintrack.transaction
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION fintrack.transaction_rollup_on_insert();
+
+CREATE TRIGGER transaction_rollup_delete
+    AFTER DELETE ON fintrack.transaction
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION fintrack.transaction_rollup_on_delete();
+
+CREATE TRIGGER transaction_rollup_update
+    AFTER UPDATE ON fintrack.transaction
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION fintrack.transaction_rollup_on_update();
+
+ANALYZE fintrack.category;
+ANALYZE fintrack.transaction;
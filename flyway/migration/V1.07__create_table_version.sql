@@ -0,0 +1,32 @@
+-- Change counter of a table, bumped by every write statement and used for HTTP ETags.
+-- The counter is split over slots picked by backend pid, so concurrent writers rarely wait for
+-- each other's row lock; the version of a table is the sum of its slots and only ever grows.
+-- Being transactional, a reader never sees a version ahead of the rows it can see.
+CREATE TABLE IF NOT EXISTS fintrack.table_version (
+    table_name VARCHAR(63) NOT NULL,
+    slot SMALLINT NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (table_name, slot)
+);
+
+INSERT INTO fintrack.table_version (table_name, slot)
+SELECT 'transaction', slot FROM generate_series(0, 15) slot
+ON CONFLICT DO NOTHING;
+
+CREATE OR REPLACE FUNCTION fintrack.bump_table_version() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    UPDATE fintrack.table_version
+    SET version = version + 1
+    WHERE table_name = TG_TABLE_NAME AND slot = pg_backend_pid() % 16;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER transaction_version_write
+    AFTER INSERT OR UPDATE OR DELETE ON fintrack.transaction
+    FOR EACH STATEMENT EXECUTE FUNCTION fintrack.bump_table_version();
+
+CREATE TRIGGER transaction_version_truncate
+    AFTER TRUNCATE ON fintrack.transaction
+    FOR EACH STATEMENT EXECUTE FUNCTION fintrack.bump_table_version();
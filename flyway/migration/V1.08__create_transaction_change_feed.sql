@@ -0,0 +1,99 @@
+-- Outbox of transaction mutations, written by statement triggers in the same database transaction as the change.
+-- Rows get their feed position (sequence_number) only once no older writer can still commit, see
+-- sequence_transaction_changes(), so a consumer reading past a position never misses a late commit.
+CREATE TABLE IF NOT EXISTS fintrack.transaction_change (
+    change_id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    sequence_number BIGINT UNIQUE,
+    xid xid8 NOT NULL DEFAULT pg_current_xact_id(),
+    operation VARCHAR(6) NOT NULL,
+    transaction_id BIGINT NOT NULL,
+    amount NUMERIC(15,2) NOT NULL,
+    category_id INT,
+    created_at TIMESTAMP NOT NULL,
+    recorded_at TIMESTAMPTZ NOT NULL DEFAULT clock_timestamp()
+);
+
+CREATE INDEX IF NOT EXISTS transaction_change_pending_idx
+    ON fintrack.transaction_change (change_id) WHERE sequence_number IS NULL;
+
+CREATE INDEX IF NOT EXISTS transaction_change_recorded_at_idx
+    ON fintrack.transaction_change (recorded_at);
+
+CREATE OR REPLACE FUNCTION fintrack.transaction_change_on_insert() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO fintrack.transaction_change (operation, transaction_id, amount, category_id, created_at)
+    SELECT 'INSERT', transaction_id, amount, category_id, created_at FROM new_rows ORDER BY transaction_id;
+    RETURN NULL;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION fintrack.transaction_change_on_delete() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO fintrack.transaction_change (operation, transaction_id, amount, category_id, created_at)
+    SELECT 'DELETE', transaction_id, amount, category_id, created_at FROM old_rows ORDER BY transaction_id;
+    RETURN NULL;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION fintrack.transaction_change_on_update() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO fintrack.transaction_change (operation, transaction_id, amount, category_id, created_at)
+    SELECT 'UPDATE', transaction_id, amount, category_id, created_at FROM new_rows ORDER BY transaction_id;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER transaction_change_insert
+    AFTER INSERT ON fintrack.transaction
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION fintrack.transaction_change_on_insert();
+
+CREATE TRIGGER transaction_change_delete
+    AFTER DELETE ON fintrack.transaction
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION fintrack.transaction_change_on_delete();
+
+CREATE TRIGGER transaction_change_update
+    AFTER UPDATE ON fintrack.transaction
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION fintrack.transaction_change_on_update();
+
+-- Highest sequence number handed out so far, kept apart so pruning old changes never resets the numbering.
+CREATE TABLE IF NOT EXISTS fintrack.transaction_change_head (
+    head BIGINT NOT NULL
+);
+
+INSERT INTO fintrack.transaction_change_head (head) VALUES (0);
+
+-- Numbers pending changes whose writers have all finished, in the order they were recorded.
+-- Only one caller numbers at a time, so positions become visible gap-free and in ascending order.
+-- Returns the number of changes numbered, 0 if another caller is busy.
+CREATE OR REPLACE FUNCTION fintrack.sequence_transaction_changes() RETURNS BIGINT
+LANGUAGE plpgsql AS $$
+DECLARE
+    base BIGINT;
+    numbered BIGINT;
+BEGIN
+    IF NOT pg_try_advisory_xact_lock(hashtext('fintrack.transaction_change')) THEN
+        RETURN 0;
+    END IF;
+    SELECT head INTO base FROM fintrack.transaction_change_head;
+    UPDATE fintrack.transaction_change c
+    SET sequence_number = base + p.position
+    FROM (
+        SELECT change_id, row_number() OVER (ORDER BY change_id) AS position
+        FROM fintrack.transaction_change
+        WHERE sequence_number IS NULL
+          AND xid < pg_snapshot_xmin(pg_current_snapshot())
+    ) p
+    WHERE c.change_id = p.change_id;
+    GET DIAGNOSTICS numbered = ROW_COUNT;
+    IF numbered > 0 THEN
+        UPDATE fintrack.transaction_change_head SET head = base + numbered;
+    END IF;
+    RETURN numbered;
+END;
+$$;
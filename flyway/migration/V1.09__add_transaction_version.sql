@@ -0,0 +1,4 @@
+-- Row version for optimistic concurrency: every update increments it and conditional updates
+-- compare it, so concurrent editors detect each other without holding locks between read and write.
+-- A constant default is stored in the catalog, adding the column does not rewrite the partitions.
+ALTER TABLE fintrack.transaction ADD COLUMN IF NOT EXISTS version INT NOT NULL DEFAULT 0;
@@ -0,0 +1,136 @@
+-- Transactions in several currencies. Every amount keeps its own currency; statistics are reported in
+-- one base currency using the daily exchange rates below. Existing rows are in roubles.
+-- A constant default is stored in the catalog, adding the column does not rewrite the partitions.
+ALTER TABLE fintrack.transaction ADD COLUMN IF NOT EXISTS currency CHAR(3) NOT NULL DEFAULT 'RUB';
+
+-- Aggregations read the currency along with the amount, both stay index-only
+DROP INDEX IF EXISTS fintrack.transaction_created_at_idx;
+CREATE INDEX IF NOT EXISTS transaction_created_at_idx
+    ON fintrack.transaction (created_at, transaction_id) INCLUDE (amount, currency);
+
+DROP INDEX IF EXISTS fintrack.transaction_category_created_at_idx;
+CREATE INDEX IF NOT EXISTS transaction_category_created_at_idx
+    ON fintrack.transaction (category_id, created_at, transaction_id) INCLUDE (amount, currency);
+
+-- Rate of one unit of a currency in the base currency, valid from rate_date until the next rate of that currency.
+CREATE TABLE IF NOT EXISTS fintrack.fx_rate (
+    currency CHAR(3) NOT NULL,
+    rate_date DATE NOT NULL,
+    rate NUMERIC(18,8) NOT NULL CHECK (rate > 0),
+    PRIMARY KEY (currency, rate_date)
+);
+
+-- The rollup keeps days of different currencies apart, they are converted when read
+ALTER TABLE fintrack.transaction_daily_rollup ADD COLUMN IF NOT EXISTS currency CHAR(3) NOT NULL DEFAULT 'RUB';
+ALTER TABLE fintrack.transaction_daily_rollup DROP CONSTRAINT transaction_daily_rollup_pkey;
+ALTER TABLE fintrack.transaction_daily_rollup ADD PRIMARY KEY (category, day, currency);
+
+CREATE OR REPLACE FUNCTION fintrack.transaction_rollup_on_insert() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO fintrack.transaction_daily_rollup AS r (category, day, currency, transaction_count, income, expense)
+    SELECT COALESCE(c.name, ''), n.created_at::date, n.currency, COUNT(*),
+           COALESCE(SUM(n.amount) FILTER (WHERE n.amount > 0), 0),
+           COALESCE(SUM(n.amount) FILTER (WHERE n.amount < 0), 0)
+    FROM new_rows n
+    LEFT JOIN fintrack.category c ON c.category_id = n.category_id
+    GROUP BY 1, 2, 3
+    ORDER BY 1, 2, 3
+    ON CONFLICT (category, day, currency) DO UPDATE SET
+        transaction_count = r.transaction_count + EXCLUDED.transaction_count,
+        income = r.income + EXCLUDED.income,
+        expense = r.expense + EXCLUDED.expense;
+    RETURN NULL;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION fintrack.transaction_rollup_on_delete() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO fintrack.transaction_daily_rollup AS r (category, day, currency, transaction_count, income, expense)
+    SELECT COALESCE(c.name, ''), o.created_at::date, o.currency, -COUNT(*),
+           -COALESCE(SUM(o.amount) FILTER (WHERE o.amount > 0), 0),
+           -COALESCE(SUM(o.amount) FILTER (WHERE o.amount < 0), 0)
+    FROM old_rows o
+    LEFT JOIN fintrack.category c ON c.category_id = o.category_id
+    GROUP BY 1, 2, 3
+    ORDER BY 1, 2, 3
+    ON CONFLICT (category, day, currency) DO UPDATE SET
+        transaction_count = r.transaction_count + EXCLUDED.transaction_count,
+        income = r.income + EXCLUDED.income,
+        expense = r.expense + EXCLUDED.expense;
+    RETURN NULL;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION fintrack.transaction_rollup_on_update() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO fintrack.transaction_daily_rollup AS r (category, day, currency, transaction_count, income, expense)
+    SELECT COALESCE(c.name, ''), delta.day, delta.currency, SUM(delta.sign),
+           COALESCE(SUM(delta.sign * delta.amount) FILTER (WHERE delta.amount > 0), 0),
+           COALESCE(SUM(delta.sign * delta.amount) FILTER (WHERE delta.amount < 0), 0)
+    FROM (
+        SELECT category_id, created_at::date AS day, currency, amount, 1 AS sign FROM new_rows
+        UNION ALL
+        SELECT category_id, created_at::date, currency, amount, -1 FROM old_rows
+    ) delta
+    LEFT JOIN fintrack.category c ON c.category_id = delta.category_id
+    GROUP BY 1, 2, 3
+    ORDER BY 1, 2, 3
+    ON CONFLICT (category, day, currency) DO UPDATE SET
+        transaction_count = r.transaction_count + EXCLUDED.transaction_count,
+        income = r.income + EXCLUDED.income,
+        expense = r.expense + EXCLUDED.expense;
+    RETURN NULL;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION fintrack.rebuild_transaction_rollup() RETURNS BIGINT
+LANGUAGE plpgsql AS $$
+DECLARE
+    rebuilt BIGINT;
+BEGIN
+    LOCK TABLE fintrack.transaction IN SHARE ROW EXCLUSIVE MODE;
+    DELETE FROM fintrack.transaction_daily_rollup;
+    INSERT INTO fintrack.transaction_daily_rollup (category, day, currency, transaction_count, income, expense)
+    SELECT COALESCE(c.name, ''), t.created_at::date, t.currency, COUNT(*),
+           COALESCE(SUM(t.amount) FILTER (WHERE t.amount > 0), 0),
+           COALESCE(SUM(t.amount) FILTER (WHERE t.amount < 0), 0)
+    FROM fintrack.transaction t
+    LEFT JOIN fintrack.category c ON c.category_id = t.category_id
+    GROUP BY 1, 2, 3;
+    GET DIAGNOSTICS rebuilt = ROW_COUNT;
+    RETURN rebuilt;
+END;
+$$;
+
+-- The change feed carries the currency of each changed amount
+ALTER TABLE fintrack.transaction_change ADD COLUMN IF NOT EXISTS currency CHAR(3) NOT NULL DEFAULT 'RUB';
+
+CREATE OR REPLACE FUNCTION fintrack.transaction_change_on_insert() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO fintrack.transaction_change (operation, transaction_id, amount, currency, category_id, created_at)
+    SELECT 'INSERT', transaction_id, amount, currency, category_id, created_at FROM new_rows ORDER BY transaction_id;
+    RETURN NULL;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION fintrack.transaction_change_on_delete() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO fintrack.transaction_change (operation, transaction_id, amount, currency, category_id, created_at)
+    SELECT 'DELETE', transaction_id, amount, currency, category_id, created_at FROM old_rows ORDER BY transaction_id;
+    RETURN NULL;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION fintrack.transaction_change_on_update() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO fintrack.transaction_change (operation, transaction_id, amount, currency, category_id, created_at)
+    SELECT 'UPDATE', transaction_id, amount, currency, category_id, created_at FROM new_rows ORDER BY transaction_id;
+    RETURN NULL;
+END;
+$$;
@@ -0,0 +1,16 @@
+-- Transactions get a free-text note. Notes and category names are searched by case-insensitive substring,
+-- which pg_trgm GIN indexes answer for ILIKE '%...%' patterns. btree_gin lets the note index lead with the
+-- account like every other index of the table, so a search reads only the entries of its account.
+CREATE EXTENSION IF NOT EXISTS pg_trgm WITH SCHEMA fintrack;
+CREATE EXTENSION IF NOT EXISTS btree_gin WITH SCHEMA fintrack;
+
+ALTER TABLE fintrack.transaction ADD COLUMN IF NOT EXISTS note VARCHAR(1000);
+
+CREATE INDEX IF NOT EXISTS transaction_note_trgm_idx
+    ON fintrack.transaction USING gin (account_id, note fintrack.gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS category_name_trgm_idx
+    ON fintrack.category USING gin (name fintrack.gin_trgm_ops);
+
+ANALYZE fintrack.category;
+ANALYZE fintrack.transaction;
@@ -0,0 +1,11 @@
+-- Heartbeat written to the primary database and read back from every read replica. The age of the
+-- heartbeat a replica returns is its replication lag; replicas lagging beyond a threshold are skipped.
+-- The initial beat lies in the past, so a replica is only used once it has replicated a real heartbeat.
+CREATE TABLE IF NOT EXISTS fintrack.replica_heartbeat (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    beat_at TIMESTAMPTZ NOT NULL
+);
+
+INSERT INTO fintrack.replica_heartbeat (id, beat_at)
+VALUES (1, 'epoch')
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,51 @@
+-- Redefines the partition maintenance functions of V1.05.
+--
+-- create_transaction_partition locks the default partition before moving its rows of the month out.
+-- Without the lock a row of that month written in between lands in the default partition again and
+-- makes the ATTACH fail. SHARE ROW EXCLUSIVE blocks writes routed to the default partition until the
+-- partition is attached, reads go on.
+--
+-- archive_transaction_partition bumps the version of the transaction table, the rows of the archived
+-- month disappear without a write statement and ETags must stop validating them.
+
+CREATE OR REPLACE FUNCTION fintrack.create_transaction_partition(month DATE) RETURNS TEXT
+LANGUAGE plpgsql AS $$
+DECLARE
+    lower_bound TIMESTAMP := date_trunc('month', month);
+    upper_bound TIMESTAMP := date_trunc('month', month) + INTERVAL '1 month';
+    partition_name TEXT := 'transaction_' || to_char(date_trunc('month', month), '"y"YYYY"m"MM');
+BEGIN
+    IF to_regclass('fintrack.' || partition_name) IS NOT NULL THEN
+        RETURN NULL;
+    END IF;
+    LOCK TABLE fintrack.transaction_default IN SHARE ROW EXCLUSIVE MODE;
+    EXECUTE format('CREATE TABLE fintrack.%I (LIKE fintrack.transaction INCLUDING DEFAULTS)', partition_name);
+    EXECUTE format(
+        'WITH moved AS (DELETE FROM fintrack.transaction_default WHERE created_at >= $1 AND created_at < $2 RETURNING *) '
+            || 'INSERT INTO fintrack.%I SELECT * FROM moved',
+        partition_name
+    ) USING lower_bound, upper_bound;
+    EXECUTE format(
+        'ALTER TABLE fintrack.transaction ATTACH PARTITION fintrack.%I FOR VALUES FROM (%L) TO (%L)',
+        partition_name, lower_bound, upper_bound
+    );
+    RETURN partition_name;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION fintrack.archive_transaction_partition(month DATE) RETURNS TEXT
+LANGUAGE plpgsql AS $$
+DECLARE
+    partition_name TEXT := 'transaction_' || to_char(date_trunc('month', month), '"y"YYYY"m"MM');
+BEGIN
+    IF to_regclass('fintrack.' || partition_name) IS NULL THEN
+        RETURN NULL;
+    END IF;
+    EXECUTE format('ALTER TABLE fintrack.transaction DETACH PARTITION fintrack.%I', partition_name);
+    EXECUTE format('ALTER TABLE fintrack.%I SET SCHEMA fintrack_archive', partition_name);
+    UPDATE fintrack.table_version
+    SET version = version + 1
+    WHERE table_name = 'transaction' AND slot = pg_backend_pid() % 16;
+    RETURN partition_name;
+END;
+$$;
@@ -0,0 +1,29 @@
+-- Redefines archive_transaction_partition of V1.14.
+--
+-- The rollup rows of the archived month are deleted before the partition is detached. Detaching
+-- fires no row trigger, so without the delete the rollup kept counting the archived rows and
+-- statistics served from it disagreed with the ones computed from the transactions. The partition is
+-- locked against writes first, so no row of the month adds to the rollup between the delete and the
+-- detach. Both happen in the transaction of the function call, readers see the month vanish from both
+-- at once.
+
+CREATE OR REPLACE FUNCTION fintrack.archive_transaction_partition(month DATE) RETURNS TEXT
+LANGUAGE plpgsql AS $$
+DECLARE
+    lower_day DATE := date_trunc('month', month)::date;
+    upper_day DATE := (date_trunc('month', month) + INTERVAL '1 month')::date;
+    partition_name TEXT := 'transaction_' || to_char(date_trunc('month', month), '"y"YYYY"m"MM');
+BEGIN
+    IF to_regclass('fintrack.' || partition_name) IS NULL THEN
+        RETURN NULL;
+    END IF;
+    EXECUTE format('LOCK TABLE fintrack.%I IN SHARE ROW EXCLUSIVE MODE', partition_name);
+    DELETE FROM fintrack.transaction_daily_rollup WHERE day >= lower_day AND day < upper_day;
+    EXECUTE format('ALTER TABLE fintrack.transaction DETACH PARTITION fintrack.%I', partition_name);
+    EXECUTE format('ALTER TABLE fintrack.%I SET SCHEMA fintrack_archive', partition_name);
+    UPDATE fintrack.table_version
+    SET version = version + 1
+    WHERE table_name = 'transaction' AND slot = pg_backend_pid() % 16;
+    RETURN partition_name;
+END;
+$$;
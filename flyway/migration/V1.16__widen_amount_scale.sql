@@ -0,0 +1,14 @@
+-- Widens the amount columns to four fraction digits.
+--
+-- Amounts hold the minor units of their own currency, and currencies differ in how many there are:
+-- none for JPY, three for BHD, four for CLF. Two fraction digits truncated the latter. Thirteen whole
+-- digits are kept, so an amount still fits a bigint of minor units of any currency. Stored values
+-- are not changed, the minor units of a row are derived from its currency on read.
+
+ALTER TABLE fintrack.transaction ALTER COLUMN amount TYPE NUMERIC(17,4);
+
+ALTER TABLE fintrack.transaction_change ALTER COLUMN amount TYPE NUMERIC(17,4);
+
+ALTER TABLE fintrack.transaction_daily_rollup ALTER COLUMN income TYPE NUMERIC(22,4);
+
+ALTER TABLE fintrack.transaction_daily_rollup ALTER COLUMN expense TYPE NUMERIC(22,4);